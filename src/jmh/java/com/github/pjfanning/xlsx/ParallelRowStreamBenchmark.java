@@ -0,0 +1,131 @@
+package com.github.pjfanning.xlsx;
+
+import com.github.pjfanning.xlsx.impl.StreamingSheet;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+/**
+ * Compares sequential iteration of a large sheet with parallel streams over the rows:
+ * <ul>
+ *   <li><code>iteratorSpliterator</code> - the JDK iterator spliterator that was previously returned by
+ *   <code>StreamingSheet.spliterator()</code></li>
+ *   <li><code>batchingSpliterator</code> - the current <code>StreamingSheet.spliterator()</code></li>
+ *   <li><code>chunkedSpliterator</code> - <code>StreamingSheet.parallelRowStream()</code> with parallel sheet
+ *   parsing enabled</li>
+ * </ul>
+ * Each row is formatted with a {@link DataFormatter} to simulate a consumer that does some work per row.
+ * <p>
+ * No speedup from the parallel streams has been shown: on a single CPU machine, <code>batchingSpliterator</code>
+ * was slower than <code>sequential</code>.
+ * </p>
+ * <p>
+ * Run with <code>./gradlew jmh</code>.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ParallelRowStreamBenchmark {
+  private static final int ROW_COUNT = 200_000;
+  private static final int COLUMN_COUNT = 8;
+
+  private File file;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    file = File.createTempFile("parallel-row-stream", ".xlsx");
+    try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
+      CellStyle dateStyle = workbook.createCellStyle();
+      dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+      Sheet sheet = workbook.createSheet();
+      for (int rowNum = 0; rowNum < ROW_COUNT; rowNum++) {
+        Row row = sheet.createRow(rowNum);
+        for (int col = 0; col < COLUMN_COUNT; col++) {
+          Cell cell = row.createCell(col);
+          switch (col % 4) {
+            case 0:
+              cell.setCellValue("text " + (rowNum % 1000));
+              break;
+            case 1:
+              cell.setCellValue(rowNum * 1.25);
+              break;
+            case 2:
+              cell.setCellValue(40000 + rowNum % 5000);
+              cell.setCellStyle(dateStyle);
+              break;
+            default:
+              cell.setCellValue(rowNum % 2 == 0);
+          }
+        }
+      }
+      try (OutputStream os = new FileOutputStream(file)) {
+        workbook.write(os);
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (!file.delete()) {
+      file.deleteOnExit();
+    }
+  }
+
+  @Benchmark
+  public long sequential() throws IOException {
+    try (Workbook workbook = StreamingReader.builder().open(file)) {
+      DataFormatter formatter = new DataFormatter();
+      long total = 0;
+      for (Row row : workbook.getSheetAt(0)) {
+        total += work(formatter, row);
+      }
+      return total;
+    }
+  }
+
+  @Benchmark
+  public long iteratorSpliterator() throws IOException {
+    try (Workbook workbook = StreamingReader.builder().open(file)) {
+      Spliterator<Row> spliterator = Spliterators.spliterator(
+              workbook.getSheetAt(0).rowIterator(), Long.MAX_VALUE, Spliterator.ORDERED);
+      return StreamSupport.stream(spliterator, true).mapToLong(row -> work(new DataFormatter(), row)).sum();
+    }
+  }
+
+  @Benchmark
+  public long batchingSpliterator() throws IOException {
+    try (Workbook workbook = StreamingReader.builder().open(file)) {
+      return ((StreamingSheet) workbook.getSheetAt(0)).parallelRowStream()
+              .mapToLong(row -> work(new DataFormatter(), row)).sum();
+    }
+  }
+
+  @Benchmark
+  public long chunkedSpliterator() throws IOException {
+    try (Workbook workbook = StreamingReader.builder().setParallelSheetParsing(true).open(file)) {
+      return ((StreamingSheet) workbook.getSheetAt(0)).parallelRowStream()
+              .mapToLong(row -> work(new DataFormatter(), row)).sum();
+    }
+  }
+
+  private static long work(DataFormatter formatter, Row row) {
+    long total = 0;
+    for (Cell cell : row) {
+      total += formatter.formatCellValue(cell).hashCode();
+    }
+    return total;
+  }
+}
@@ -0,0 +1,61 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cell reference decoding used in the row parsing hot path
+ * (<code>c</code> elements and the <code>dimension</code> element) with the POI classes
+ * that were previously used.
+ * <p>
+ * Run with <code>./gradlew jmh</code>. Add <code>-prof gc</code> to the JMH args to compare allocation rates.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellReferenceBenchmark {
+  private final String[] cellRefs = {"A1", "F25", "Z999", "AB1234", "GH65536", "XFD1048576"};
+  private final String dimensionRef = "B2:AB1234";
+
+  @Benchmark
+  public void cellAddress(Blackhole bh) {
+    for (String ref : cellRefs) {
+      CellAddress cellAddress = new CellAddress(ref);
+      bh.consume(cellAddress.getColumn());
+      bh.consume(cellAddress.getRow());
+    }
+  }
+
+  @Benchmark
+  public void cellReferenceUtil(Blackhole bh) {
+    for (String ref : cellRefs) {
+      bh.consume(CellReferenceUtil.parseColumnIndex(ref));
+      bh.consume(CellReferenceUtil.parseRowIndex(ref));
+    }
+  }
+
+  @Benchmark
+  public void dimensionCellReference(Blackhole bh) {
+    int colonPos = dimensionRef.indexOf(':');
+    CellReference cellReference = new CellReference(dimensionRef.substring(0, colonPos));
+    bh.consume(cellReference.getRow());
+    bh.consume(CellReference.convertColStringToIndex(dimensionRef.substring(0, 1)));
+    bh.consume(Integer.parseInt(dimensionRef.substring(dimensionRef.length() - 4)) - 1);
+  }
+
+  @Benchmark
+  public void dimensionCellReferenceUtil(Blackhole bh) {
+    int colonPos = dimensionRef.indexOf(':');
+    bh.consume(CellReferenceUtil.parseRowIndex(dimensionRef, 0, colonPos));
+    bh.consume(CellReferenceUtil.parseColumnIndex(dimensionRef, 0, colonPos));
+    bh.consume(CellReferenceUtil.parseRowIndex(dimensionRef, colonPos + 1, dimensionRef.length()));
+  }
+}
@@ -0,0 +1,19 @@
+package com.github.pjfanning.xlsx;
+
+import org.apache.poi.ss.usermodel.Row;
+
+/**
+ * A row iterator that can report its position, so that reading the sheet can be resumed later
+ * (e.g. after a restart of the application) with a new iterator that starts where this one stopped.
+ *
+ * @see com.github.pjfanning.xlsx.impl.StreamingSheet#resumableRowIterator(RowPosition)
+ * @since v5.3.0
+ */
+public interface ResumableRowIterator extends CloseableIterator<Row> {
+
+  /**
+   * @return the position just after the last row returned by {@link #next()} (the start of the sheet if
+   * <code>next()</code> has not been called yet)
+   */
+  RowPosition getPosition();
+}
@@ -0,0 +1,48 @@
+package com.github.pjfanning.xlsx;
+
+/**
+ * Callback used to receive the rows of a sheet as it is parsed, without any
+ * {@link org.apache.poi.ss.usermodel.Row} or {@link org.apache.poi.ss.usermodel.Cell}
+ * instances being created.
+ *
+ * @see com.github.pjfanning.xlsx.impl.StreamingSheet#processRows(RowHandler)
+ * @since v5.3.0
+ */
+public interface RowHandler {
+
+  /**
+   * Called when a row starts.
+   *
+   * @param rowNum 0-based row number
+   */
+  default void rowStart(int rowNum) {}
+
+  /**
+   * Called for each cell in the current row.
+   * <p>
+   * The <code>value</code> is only valid for the duration of this call - it is reused for
+   * the next cell, so call <code>toString()</code> on it if you need to keep it.
+   * For shared strings (type <code>s</code>), the value is the string from the shared strings
+   * table and not the index into the table. For all other types, the value is the text from
+   * the sheet XML (e.g. the unformatted number for numeric cells). Formulas are not provided,
+   * only the cached formula results.
+   * </p>
+   *
+   * @param columnIndex 0-based column index
+   * @param type the cell type as it appears in the sheet XML: <code>n</code> (numeric),
+   *             <code>s</code> (shared string), <code>inlineStr</code>, <code>str</code>
+   *             (formula string result), <code>b</code> (boolean), <code>e</code> (error)
+   *             or <code>d</code> (date in ISO 8601 format)
+   * @param value the cell value (can be empty)
+   * @param styleIndex index of the cell style, see
+   *                   {@link com.github.pjfanning.xlsx.impl.StreamingSheet#getCellStyleAt(int)}
+   */
+  void cell(int columnIndex, String type, CharSequence value, int styleIndex);
+
+  /**
+   * Called when a row ends.
+   *
+   * @param rowNum 0-based row number
+   */
+  default void rowEnd(int rowNum) {}
+}
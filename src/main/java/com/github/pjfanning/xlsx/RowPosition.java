@@ -0,0 +1,129 @@
+package com.github.pjfanning.xlsx;
+
+import org.apache.poi.ss.util.CellAddress;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The position of a {@link ResumableRowIterator} in a sheet. A position is small and {@link Serializable}, so it can
+ * be saved (e.g. every few thousand rows) and used to resume reading the sheet with a new iterator, even in a new
+ * process. Besides the row number, the position has the parser state that depends on the rows that have already
+ * been read:
+ * <ul>
+ *   <li>the shared formulas that were found so far (only when shared formulas are read)</li>
+ *   <li>the columns that were selected using the header row (only when columns are selected by name)</li>
+ * </ul>
+ * So, the rows before the position do not need to be parsed again when the sheet is resumed.
+ * <p>
+ * A position is only valid for the workbook file and sheet that it was taken from.
+ * </p>
+ *
+ * @see com.github.pjfanning.xlsx.impl.StreamingSheet#resumableRowIterator(RowPosition)
+ * @since v5.3.0
+ */
+public final class RowPosition implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private final String sheetName;
+  private final int rowNum;
+  private final String[] sharedFormulaIds;
+  private final int[] sharedFormulaRows;
+  private final int[] sharedFormulaColumns;
+  private final String[] sharedFormulas;
+  private final int[] selectedColumns;
+
+  /**
+   * Positions are normally created by {@link ResumableRowIterator#getPosition()}.
+   *
+   * @param sheetName the name of the sheet (null if not known)
+   * @param rowNum the 0-based row number of the next row to read
+   * @param sharedFormulas the shared formulas found before the next row, keyed by their <code>si</code> value
+   * @param selectedColumns the 0-based indexes of the columns selected using the header row, null if the
+   *                        column selection does not depend on the rows before the next row
+   * @throws IllegalArgumentException if rowNum is negative
+   */
+  public RowPosition(final String sheetName, final int rowNum, final Map<String, SharedFormula> sharedFormulas,
+                     final Collection<Integer> selectedColumns) {
+    if (rowNum < 0) {
+      throw new IllegalArgumentException("rowNum must not be negative");
+    }
+    this.sheetName = sheetName;
+    this.rowNum = rowNum;
+    final int formulaCount = sharedFormulas == null ? 0 : sharedFormulas.size();
+    this.sharedFormulaIds = new String[formulaCount];
+    this.sharedFormulaRows = new int[formulaCount];
+    this.sharedFormulaColumns = new int[formulaCount];
+    this.sharedFormulas = new String[formulaCount];
+    if (sharedFormulas != null) {
+      int i = 0;
+      for (Map.Entry<String, SharedFormula> entry : sharedFormulas.entrySet()) {
+        sharedFormulaIds[i] = entry.getKey();
+        sharedFormulaRows[i] = entry.getValue().getCellAddress().getRow();
+        sharedFormulaColumns[i] = entry.getValue().getCellAddress().getColumn();
+        this.sharedFormulas[i] = entry.getValue().getFormula();
+        i++;
+      }
+    }
+    if (selectedColumns == null) {
+      this.selectedColumns = null;
+    } else {
+      this.selectedColumns = new int[selectedColumns.size()];
+      int i = 0;
+      for (Integer columnIndex : new TreeSet<>(selectedColumns)) {
+        this.selectedColumns[i++] = columnIndex;
+      }
+    }
+  }
+
+  /**
+   * @return the name of the sheet (null if not known)
+   */
+  public String getSheetName() {
+    return sheetName;
+  }
+
+  /**
+   * @return the 0-based row number of the next row to read
+   */
+  public int getRowNum() {
+    return rowNum;
+  }
+
+  /**
+   * @return the shared formulas found before the next row, keyed by their <code>si</code> value
+   */
+  public Map<String, SharedFormula> getSharedFormulas() {
+    final Map<String, SharedFormula> map = new LinkedHashMap<>();
+    for (int i = 0; i < sharedFormulaIds.length; i++) {
+      map.put(sharedFormulaIds[i],
+              new SharedFormula(new CellAddress(sharedFormulaRows[i], sharedFormulaColumns[i]), sharedFormulas[i]));
+    }
+    return map;
+  }
+
+  /**
+   * @return the 0-based indexes of the columns selected using the header row, null if the column
+   * selection does not depend on the rows before the next row
+   */
+  public Set<Integer> getSelectedColumns() {
+    if (selectedColumns == null) {
+      return null;
+    }
+    final Set<Integer> set = new TreeSet<>();
+    for (int columnIndex : selectedColumns) {
+      set.add(columnIndex);
+    }
+    return Collections.unmodifiableSet(set);
+  }
+
+  @Override
+  public String toString() {
+    return "RowPosition{sheetName=" + sheetName + ", rowNum=" + rowNum + "}";
+  }
+}
@@ -28,5 +28,29 @@ public enum SharedStringsImplementationType {
    * </p>
    * @see StreamingReader.Builder#setFullFormatRichText(boolean)
    */
-  CUSTOM_MAP_BACKED
+  CUSTOM_MAP_BACKED,
+  /**
+   * Read-only <code>SharedStrings</code> implementation that stores the strings UTF-8 encoded in a single
+   * off-heap buffer, with an offset index on the heap. The strings are decoded when they are looked up.
+   * Keeps the heap use low for workbooks with many unique strings, while lookups stay fast.
+   * <p>
+   *     Like {@link #POI_READ_ONLY}, only the plain text of the strings is kept. The off-heap memory counts
+   *     towards the JVM's direct memory limit (<code>-XX:MaxDirectMemorySize</code>) and is released when
+   *     the workbook is closed.
+   * </p>
+   * @since v5.3.0
+   */
+  OFF_HEAP,
+  /**
+   * Read-only <code>SharedStrings</code> implementation that parses the shared strings on demand: opening a
+   * workbook does not parse the shared strings and a lookup only parses the XML up to the requested string.
+   * This reduces the time to the first row for workbooks with a large shared strings table, especially when
+   * only some rows or columns are read.
+   * <p>
+   *     Like {@link #POI_READ_ONLY}, only the plain text of the strings is kept. Strict OOXML files and
+   *     single-pass reading (where the shared strings cannot be kept open) fall back to {@link #POI_READ_ONLY}.
+   * </p>
+   * @since v5.3.0
+   */
+  LAZY
 }
@@ -0,0 +1,19 @@
+package com.github.pjfanning.xlsx;
+
+/**
+ * The StAX API used to parse the sheet XML.
+ *
+ * @since v5.3.0
+ */
+public enum SheetParserImplementationType {
+  /**
+   * Uses the StAX event API ({@link javax.xml.stream.XMLEventReader}). This is the default.
+   */
+  XML_EVENT_READER,
+  /**
+   * Uses the StAX cursor API ({@link javax.xml.stream.XMLStreamReader}). Element names, attribute values
+   * and text are read directly from the parser, so no event objects are created for each element.
+   * This reduces the garbage created while reading large sheets.
+   */
+  XML_STREAM_READER
+}
@@ -4,11 +4,21 @@ import com.github.pjfanning.xlsx.exceptions.OpenException;
 import com.github.pjfanning.xlsx.exceptions.ParseException;
 import com.github.pjfanning.xlsx.exceptions.ReadException;
 import com.github.pjfanning.xlsx.impl.*;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Streaming Excel workbook implementation. Most advanced features of POI are not supported.
@@ -53,6 +63,21 @@ public class StreamingReader implements AutoCloseable {
     private boolean readSharedFormulas = false;
     private boolean fullFormatRichText = false;
     private boolean includePhoneticRuns = false;
+    private SheetParserImplementationType sheetParserImplementationType = SheetParserImplementationType.XML_EVENT_READER;
+    private Set<Integer> selectedColumns = Collections.emptySet();
+    private Set<String> selectedColumnNames = Collections.emptySet();
+    private int prefetchQueueSize = 0;
+    private ThreadFactory prefetchThreadFactory;
+    private boolean parallelSheetParsing = false;
+    private long singlePassSpoolLimit = 16 * 1024 * 1024;
+    private boolean reuseRows = false;
+    private int formattedValueCacheSize = 0;
+    private int sharedStringsCacheSize = 0;
+    private Executor openExecutor;
+    private boolean preScanSheetMetadata = false;
+    private int rowOffsetIndexInterval = 0;
+    private Path indexCacheDirectory;
+    private long indexCacheMaxSize = 0;
     private String password;
 
     /**
@@ -229,15 +254,159 @@ public class StreamingReader implements AutoCloseable {
     /**
      * Whether to include phonetic runs from the shared strings.
      * Phonetic runs are used for East Asian languages.
-     * This is only relevant if you are using <code>SharedStringsImplementationType.POI_READ_ONLY</code>).
+     * This is only relevant if you are using <code>SharedStringsImplementationType.POI_READ_ONLY</code>
+     * or the <code>OFF_HEAP</code> and <code>LAZY</code> types).
      * @return Whether to include phonetic runs from the rich text shared strings
-     *    (only affects <code>SharedStringsImplementationType.POI_READ_ONLY</code>). The default is false.
+     *    (only affects <code>SharedStringsImplementationType.POI_READ_ONLY</code>,
+     *    <code>OFF_HEAP</code> and <code>LAZY</code>). The default is false.
      * @since v5.1.0
      */
     public boolean includePhoneticRuns() {
       return includePhoneticRuns;
     }
 
+    /**
+     * @return the StAX API used to parse the sheet XML (default is <code>XML_EVENT_READER</code>).
+     * @see #setSheetParserImplementationType(SheetParserImplementationType)
+     * @since v5.3.0
+     */
+    public SheetParserImplementationType getSheetParserImplementationType() {
+      return sheetParserImplementationType;
+    }
+
+    /**
+     * @return the indexes (0-based) of the columns to read - an empty set means that all the columns are read
+     * @see #setSelectedColumns(int...)
+     * @since v5.3.0
+     */
+    public Set<Integer> getSelectedColumns() {
+      return selectedColumns;
+    }
+
+    /**
+     * @return the header names of the columns to read - an empty set means that columns are not selected by name
+     * @see #setSelectedColumnNames(String...)
+     * @since v5.3.0
+     */
+    public Set<String> getSelectedColumnNames() {
+      return selectedColumnNames;
+    }
+
+    /**
+     * @return the maximum number of rows that are parsed ahead of the consumer on a background thread
+     * - 0 (the default) means that rows are parsed on the thread that iterates over them
+     * @see #setPrefetchQueueSize(int)
+     * @since v5.3.0
+     */
+    public int getPrefetchQueueSize() {
+      return prefetchQueueSize;
+    }
+
+    /**
+     * @return the factory used to create the row prefetch threads (null means a daemon platform thread is created)
+     * @see #setPrefetchThreadFactory(ThreadFactory)
+     * @since v5.3.0
+     */
+    public ThreadFactory getPrefetchThreadFactory() {
+      return prefetchThreadFactory;
+    }
+
+    /**
+     * @return whether the row iterators parse chunks of the sheet in parallel (default is false)
+     * @see #setParallelSheetParsing(boolean)
+     * @since v5.3.0
+     */
+    public boolean parallelSheetParsing() {
+      return parallelSheetParsing;
+    }
+
+    /**
+     * @return the maximum number of bytes of out-of-order parts that are kept in memory when reading
+     * in single-pass mode (default is 16Mb)
+     * @see #setSinglePassSpoolLimit(long)
+     * @since v5.3.0
+     */
+    public long getSinglePassSpoolLimit() {
+      return singlePassSpoolLimit;
+    }
+
+    /**
+     * @return whether the row iterators reuse the row and cell instances (default is false)
+     * @see #setReuseRows(boolean)
+     * @since v5.3.0
+     */
+    public boolean reuseRows() {
+      return reuseRows;
+    }
+
+    /**
+     * @return the number of formatted values cached per number format (default is 0, which means no caching)
+     * @see #setFormattedValueCacheSize(int)
+     * @since v5.3.0
+     */
+    public int getFormattedValueCacheSize() {
+      return formattedValueCacheSize;
+    }
+
+    /**
+     * @return the number of shared strings to cache in front of the shared strings table
+     *    (default is 0, which means no caching)
+     * @see #setSharedStringsCacheSize(int)
+     * @since v5.3.0
+     */
+    public int getSharedStringsCacheSize() {
+      return sharedStringsCacheSize;
+    }
+
+    /**
+     * @return the executor used to load the workbook parts concurrently when the workbook is opened
+     *    (default is null, which means that the parts are loaded one after another)
+     * @see #setOpenExecutor(Executor)
+     * @since v5.3.0
+     */
+    public Executor getOpenExecutor() {
+      return openExecutor;
+    }
+
+    /**
+     * @return whether the sheet metadata (including the merged regions and the hyperlinks) is read with a
+     *    scan that skips the rows (default is false)
+     * @see #setPreScanSheetMetadata(boolean)
+     * @since v5.3.0
+     */
+    public boolean preScanSheetMetadata() {
+      return preScanSheetMetadata;
+    }
+
+    /**
+     * @return the number of rows between the checkpoints of the row offset index
+     *    (default is 0, which means that there is no row offset index)
+     * @see #setRowOffsetIndexInterval(int)
+     * @since v5.3.0
+     */
+    public int getRowOffsetIndexInterval() {
+      return rowOffsetIndexInterval;
+    }
+
+    /**
+     * @return the directory used to cache the data that is decoded from workbooks
+     *    (default is null, which means that there is no cache)
+     * @see #setIndexCacheDirectory(Path)
+     * @since v5.3.0
+     */
+    public Path getIndexCacheDirectory() {
+      return indexCacheDirectory;
+    }
+
+    /**
+     * @return the maximum total size of the index cache files in bytes (default is 0, which means that there is no limit)
+     * @see #setIndexCacheMaxSize(long)
+     * @since v5.3.0
+     */
+    public long getIndexCacheMaxSize() {
+      return indexCacheMaxSize;
+    }
+
     /**
      * The number of rows to keep in memory at any given point.
      * <p>
@@ -560,9 +729,11 @@ public class StreamingReader implements AutoCloseable {
     /**
      * Sets whether to include phonetic runs from the shared strings.
      * Phonetic runs are used for East Asian languages.
-     * This is only relevant if you are using <code>SharedStringsImplementationType.POI_READ_ONLY</code>).
+     * This is only relevant if you are using <code>SharedStringsImplementationType.POI_READ_ONLY</code>
+     * or the <code>OFF_HEAP</code> and <code>LAZY</code> types).
      * @param includePhoneticRuns Whether to include phonetic runs from the rich text shared strings
-     *    (only affects <code>SharedStringsImplementationType.POI_READ_ONLY</code>). The default is false.
+     *    (only affects <code>SharedStringsImplementationType.POI_READ_ONLY</code>,
+     *    <code>OFF_HEAP</code> and <code>LAZY</code>). The default is false.
      * @return reference to current {@code Builder}
      * @see #setSharedStringsImplementationType(SharedStringsImplementationType)
      * @since v5.1.0
@@ -572,12 +743,332 @@ public class StreamingReader implements AutoCloseable {
       return this;
     }
 
+    /**
+     * Set the StAX API used to parse the sheet XML. The default is <code>XML_EVENT_READER</code>.
+     * <p>
+     * <code>XML_STREAM_READER</code> produces the same rows and cells but creates far fewer
+     * short-lived objects while parsing, which helps when reading very large sheets.
+     * </p>
+     *
+     * @param sheetParserImplementationType the StAX API to use (must not be null)
+     * @return reference to current {@code Builder}
+     * @throws NullPointerException if null is passed as a param
+     * @see #getSheetParserImplementationType()
+     * @since v5.3.0
+     */
+    public Builder setSheetParserImplementationType(SheetParserImplementationType sheetParserImplementationType) {
+      if (sheetParserImplementationType == null) {
+        throw new NullPointerException("sheetParserImplementationType must not be null");
+      }
+      this.sheetParserImplementationType = sheetParserImplementationType;
+      return this;
+    }
+
+    /**
+     * Only read the cells in these columns. Cells in other columns are skipped while the sheet XML
+     * is parsed, so no cell instances, style lookups or shared string lookups are needed for them.
+     * The rows that are returned only contain the cells in the selected columns.
+     * <p>
+     * By default, all the columns are read. Call this method with no indexes to read all the columns.
+     * This can be combined with {@link #setSelectedColumnNames(String...)}. The selection can be
+     * changed for individual sheets using {@link com.github.pjfanning.xlsx.impl.StreamingSheet#setSelectedColumns(int...)}.
+     * </p>
+     *
+     * @param columnIndexes the 0-based indexes of the columns to read
+     * @return reference to current {@code Builder}
+     * @throws IllegalArgumentException if any of the columnIndexes is negative
+     * @since v5.3.0
+     */
+    public Builder setSelectedColumns(int... columnIndexes) {
+      Set<Integer> set = new LinkedHashSet<>();
+      for (int columnIndex : columnIndexes) {
+        if (columnIndex < 0) {
+          throw new IllegalArgumentException("columnIndexes must not be negative");
+        }
+        set.add(columnIndex);
+      }
+      this.selectedColumns = Collections.unmodifiableSet(set);
+      return this;
+    }
+
+    /**
+     * Only read the cells in the columns with these header names. The first row in each sheet is treated as the
+     * header row and is read in full. Cells in the columns whose header does not match one of these names are
+     * removed from the header row and skipped in all subsequent rows.
+     * <p>
+     * Header cells are matched using {@link org.apache.poi.ss.usermodel.Cell#getStringCellValue()} (case-sensitive).
+     * By default, columns are not selected by name. Call this method with no names to clear the selection.
+     * This can be combined with {@link #setSelectedColumns(int...)}.
+     * </p>
+     *
+     * @param columnNames the header names of the columns to read
+     * @return reference to current {@code Builder}
+     * @since v5.3.0
+     */
+    public Builder setSelectedColumnNames(String... columnNames) {
+      this.selectedColumnNames = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(columnNames)));
+      return this;
+    }
+
+    /**
+     * Parse the rows of a sheet on a background thread while the consumer processes the earlier rows.
+     * The background thread stops when this many rows are waiting to be consumed. Each row iterator
+     * has its own background thread, which is stopped when the iterator is closed (or when the
+     * workbook is closed).
+     * <p>
+     * The default is 0, which means that rows are parsed on the thread that iterates over them.
+     * Prefetching helps when the code that processes the rows is CPU heavy. Exceptions that happen
+     * while parsing are thrown by the iterator's <code>hasNext()</code> and <code>next()</code> methods.
+     * </p>
+     *
+     * @param prefetchQueueSize the maximum number of parsed rows waiting to be consumed (0 disables prefetching)
+     * @return reference to current {@code Builder}
+     * @throws IllegalArgumentException if prefetchQueueSize is negative
+     * @see #setPrefetchThreadFactory(ThreadFactory)
+     * @since v5.3.0
+     */
+    public Builder setPrefetchQueueSize(int prefetchQueueSize) {
+      if (prefetchQueueSize < 0) {
+        throw new IllegalArgumentException("prefetchQueueSize must not be negative");
+      }
+      this.prefetchQueueSize = prefetchQueueSize;
+      return this;
+    }
+
+    /**
+     * Set the factory used to create the row prefetch threads. This is only used if
+     * {@link #setPrefetchQueueSize(int)} is set to a positive number. By default, a daemon platform
+     * thread is created. On Java 21 and above, <code>Thread.ofVirtual().factory()</code> can be used
+     * to prefetch rows on virtual threads.
+     *
+     * @param prefetchThreadFactory the thread factory (null means use the default)
+     * @return reference to current {@code Builder}
+     * @since v5.3.0
+     */
+    public Builder setPrefetchThreadFactory(ThreadFactory prefetchThreadFactory) {
+      this.prefetchThreadFactory = prefetchThreadFactory;
+      return this;
+    }
+
+    /**
+     * Parse large sheets on multiple threads. The sheet XML is inflated into memory, split into chunks
+     * of about 1Mb at row boundaries and the chunks are parsed in parallel using the fork-join common pool.
+     * The row iterators still return the rows in sheet order. The default is false.
+     * <p>
+     * Only the iterators that read the full sheet are affected. The sheet is parsed on a single thread if
+     * shared formulas are read ({@link #setReadSharedFormulas(boolean)}), if columns are selected by name
+     * ({@link #setSelectedColumnNames(String...)}) or if some rows have no <code>r</code> attribute, because
+     * the rows then depend on the rows before them. The uncompressed sheet XML must be smaller than 2Gb.
+     * </p>
+     *
+     * @param parallelSheetParsing whether to parse chunks of the sheet in parallel
+     * @return reference to current {@code Builder}
+     * @see com.github.pjfanning.xlsx.impl.StreamingSheet#parallelRowStream()
+     * @since v5.3.0
+     */
+    public Builder setParallelSheetParsing(boolean parallelSheetParsing) {
+      this.parallelSheetParsing = parallelSheetParsing;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of bytes of out-of-order parts that are kept in memory by
+     * {@link #openSinglePass(InputStream)}. Parts that are found in the stream before they can be used (e.g. sheets
+     * that come before the shared strings part) are compressed again and kept in memory until this limit is reached.
+     * After that, they are written to a temp file - or, if {@link #setAvoidTempFiles(boolean)} is set to true,
+     * a {@link ReadException} is thrown. The default is 16Mb.
+     *
+     * @param singlePassSpoolLimit the maximum number of (compressed) bytes to keep in memory
+     * @return reference to current {@code Builder}
+     * @throws IllegalArgumentException if singlePassSpoolLimit is negative
+     * @since v5.3.0
+     */
+    public Builder setSinglePassSpoolLimit(long singlePassSpoolLimit) {
+      if (singlePassSpoolLimit < 0) {
+        throw new IllegalArgumentException("singlePassSpoolLimit must not be negative");
+      }
+      this.singlePassSpoolLimit = singlePassSpoolLimit;
+      return this;
+    }
+
+    /**
+     * Reuse the row and cell instances instead of creating new ones for every row. The row iterators keep
+     * a pool of rows (sized by {@link #rowCacheSize(int)}) and cells, and reset them when the next batch of
+     * rows is read. This avoids creating garbage when each row is processed once.
+     * <p>
+     * When this is enabled, a {@link org.apache.poi.ss.usermodel.Row} (and its cells) returned by a row iterator
+     * is only valid until the iterator is advanced (the next call to <code>hasNext()</code> or <code>next()</code>)
+     * - copy any values that you need to keep. Row spliterators and streams, prefetching ({@link #setPrefetchQueueSize(int)}) and parallel
+     * sheet parsing ({@link #setParallelSheetParsing(boolean)}) hand rows to other threads or hold on to them,
+     * so they never reuse rows. The default is false.
+     * </p>
+     *
+     * @param reuseRows whether to reuse the row and cell instances
+     * @return reference to current {@code Builder}
+     * @since v5.3.0
+     */
+    public Builder setReuseRows(boolean reuseRows) {
+      this.reuseRows = reuseRows;
+      return this;
+    }
+
+    /**
+     * Cache the formatted values of numeric cells (as returned by <code>getStringCellValue()</code>). Sheets often
+     * apply the same number format (e.g. a date format) to the same values many times, and formatting a number
+     * is much slower than a cache lookup. Each row iterator keeps a cache of up to this number of values (rounded
+     * up to a power of two, at most 1048576) per number format - a value replaces the cached value that maps to the same slot,
+     * so the memory use is bounded. The default is 0, which disables the cache.
+     *
+     * @param formattedValueCacheSize the number of formatted values to cache per number format
+     * @return reference to current {@code Builder}
+     * @throws IllegalArgumentException if formattedValueCacheSize is negative
+     * @since v5.3.0
+     */
+    public Builder setFormattedValueCacheSize(int formattedValueCacheSize) {
+      if (formattedValueCacheSize < 0) {
+        throw new IllegalArgumentException("formattedValueCacheSize must not be negative");
+      }
+      this.formattedValueCacheSize = formattedValueCacheSize;
+      return this;
+    }
+
+    /**
+     * Cache the text of the most recently used shared strings on the heap, in front of the shared strings table.
+     * This is most useful with a table that is slow to look up, like <code>SharedStringsImplementationType.TEMP_FILE_BACKED</code>,
+     * when a few strings (e.g. category values) are used in many rows: these strings are served from the heap,
+     * while the other strings stay in the table. The cache keeps up to this number of strings and evicts the
+     * least recently used string when it is full. The hit rate can be checked with
+     * {@link StreamingWorkbook#getSharedStringsCache()}. The cache is not used for full-format rich text
+     * (see {@link #setFullFormatRichText(boolean)}). The default is 0, which disables the cache.
+     *
+     * @param sharedStringsCacheSize the maximum number of shared strings to cache
+     * @return reference to current {@code Builder}
+     * @throws IllegalArgumentException if sharedStringsCacheSize is negative
+     * @since v5.3.0
+     */
+    public Builder setSharedStringsCacheSize(int sharedStringsCacheSize) {
+      if (sharedStringsCacheSize < 0) {
+        throw new IllegalArgumentException("sharedStringsCacheSize must not be negative");
+      }
+      this.sharedStringsCacheSize = sharedStringsCacheSize;
+      return this;
+    }
+
+    /**
+     * Set an executor to load the shared strings, the styles (and theme) and the core properties concurrently
+     * when the workbook is opened. These parts are independent, so the time to open the workbook is then
+     * bounded by the slowest part instead of the sum of them. For strict OOXML files, the conversions of these
+     * parts are run concurrently too. The calling thread waits until all the parts are loaded, so the executor
+     * must not be a single thread that is already busy with the call that opens the workbook.
+     * This is not used by {@link #openSinglePass(InputStream)}, which reads the parts in stream order.
+     * The default is null, which means that the parts are loaded one after another on the calling thread.
+     *
+     * @param openExecutor the executor (e.g. a thread pool) used to load the workbook parts
+     * @return reference to current {@code Builder}
+     * @since v5.3.0
+     */
+    public Builder setOpenExecutor(Executor openExecutor) {
+      this.openExecutor = openExecutor;
+      return this;
+    }
+
+    /**
+     * Read the sheet metadata with a scan of the sheet XML that skips over the rows at the byte level, instead of
+     * parsing the rows. The merged regions and the hyperlinks are stored after the rows in the sheet XML, so by default
+     * they are only available after all the rows have been read. When this is enabled, the first call that needs
+     * the sheet metadata (e.g. <code>getMergedRegions()</code>, <code>getHyperlinkList()</code>,
+     * <code>isColumnHidden(int)</code> or <code>getColumnWidth(int)</code>) scans the sheet once, so these methods
+     * work before and while the rows are read. The scan still inflates the whole sheet XML, but it is much faster
+     * than parsing it. This is not used by {@link #openSinglePass(InputStream)}. The default is false.
+     *
+     * @param preScanSheetMetadata whether to scan the sheet metadata up front
+     * @return reference to current {@code Builder}
+     * @since v5.3.0
+     */
+    public Builder setPreScanSheetMetadata(boolean preScanSheetMetadata) {
+      this.preScanSheetMetadata = preScanSheetMetadata;
+      return this;
+    }
+
+    /**
+     * Build a row offset index for each sheet that records where every <code>rowOffsetIndexInterval</code>th row
+     * starts in the sheet XML. The index is built the first time that it is needed, with a scan of the sheet XML
+     * that does not parse the rows (the scan still inflates the whole sheet XML). After that, reading the rows
+     * from a given row number (<code>StreamingSheet.rowIterator(int, int)</code>,
+     * <code>StreamingSheet.processRows(RowHandler, int, int)</code>, etc.) skips the sheet XML up to the nearest
+     * checkpoint without parsing it, so at most <code>rowOffsetIndexInterval</code> rows are parsed before the
+     * first requested row. This also enables <code>Sheet.getRow(int)</code> and
+     * <code>Sheet.getPhysicalNumberOfRows()</code>. The index is not used when columns are selected by name or
+     * when shared formulas are read (because the rows before the first requested row are needed), and it is not
+     * used by {@link #openSinglePass(InputStream)}. A value like 1000 keeps the index small (an int and a long per
+     * checkpoint) and the parse from a checkpoint short. The default is 0, which means that there is no index.
+     *
+     * @param rowOffsetIndexInterval the number of rows between the checkpoints of the row offset index
+     * @return reference to current {@code Builder}
+     * @throws IllegalArgumentException if rowOffsetIndexInterval is negative
+     * @since v5.3.0
+     */
+    public Builder setRowOffsetIndexInterval(int rowOffsetIndexInterval) {
+      if (rowOffsetIndexInterval < 0) {
+        throw new IllegalArgumentException("rowOffsetIndexInterval must not be negative");
+      }
+      this.rowOffsetIndexInterval = rowOffsetIndexInterval;
+      return this;
+    }
+
+    /**
+     * Set a directory to cache data that is decoded from workbooks, so that the data does not need to be decoded
+     * again when the same workbook is opened again. The cache files are named using a SHA-256 hash of the workbook
+     * file, so a workbook that has changed never uses stale data. Computing the hash reads the whole file, so the
+     * hash is also cached, keyed on the canonical path, size and last modified time of the file: the file is only
+     * hashed again when one of these changes. The cache has:
+     * <ul>
+     *   <li>the plain text of the shared strings - used with <code>SharedStringsImplementationType.POI_READ_ONLY</code>
+     *   and <code>SharedStringsImplementationType.OFF_HEAP</code> (the shared strings table is an
+     *   <code>OffHeapSharedStringsTable</code> in both cases)</li>
+     *   <li>the row offset index of each sheet - used when {@link #setRowOffsetIndexInterval(int)} is set</li>
+     * </ul>
+     * The cache files are not deleted unless {@link #setIndexCacheMaxSize(long)} is set, otherwise the directory
+     * needs to be cleaned up by the application. The cache is only used for workbooks that are opened from a file (or from an input stream that is written
+     * to a temp file) and it is never used for encrypted workbooks (the decoded data would be written to disk
+     * unencrypted). Strict OOXML shared strings are not cached. Failures to read or write the cache files are
+     * logged and do not stop the workbook from being read. The default is null, which means that there is no cache.
+     *
+     * @param indexCacheDirectory the directory for the cache files (created if it does not exist)
+     * @return reference to current {@code Builder}
+     * @since v5.3.0
+     */
+    public Builder setIndexCacheDirectory(Path indexCacheDirectory) {
+      this.indexCacheDirectory = indexCacheDirectory;
+      return this;
+    }
+
+    /**
+     * Set the maximum total size of the files in the index cache directory (see {@link #setIndexCacheDirectory(Path)}).
+     * After a cache file is written, the least recently used cache files are deleted until the total size is at most
+     * this size. Reading a cache file counts as a use. A single file that is larger than this size is deleted as soon
+     * as it is written. The default is 0, which means that there is no limit and the cache files are never deleted.
+     *
+     * @param indexCacheMaxSize the maximum total size of the cache files in bytes (0 means that there is no limit)
+     * @return reference to current {@code Builder}
+     * @throws IllegalArgumentException if indexCacheMaxSize is negative
+     * @since v5.3.0
+     */
+    public Builder setIndexCacheMaxSize(long indexCacheMaxSize) {
+      if (indexCacheMaxSize < 0) {
+        throw new IllegalArgumentException("indexCacheMaxSize must not be negative");
+      }
+      this.indexCacheMaxSize = indexCacheMaxSize;
+      return this;
+    }
+
     /**
      * Reads a given {@code InputStream} and returns a new
      * instance of {@code Workbook}. Due to Apache POI
      * limitations, a temporary file must be written in order
      * to create a streaming iterator. This process will use
      * the same buffer size as specified in {@link #bufferSize(int)}.
+     * If the workbook is already in memory, {@link #open(ByteBuffer)} avoids the temp file.
      *
      * @param is input stream to read in
      * @return A {@link Workbook} that can be read from
@@ -603,5 +1094,77 @@ public class StreamingReader implements AutoCloseable {
       workbookReader.init(file);
       return new StreamingWorkbook(workbookReader);
     }
+
+    /**
+     * Reads the sheets from a given {@code InputStream} in a single pass, without writing the stream
+     * to a temp file or buffering the whole workbook in memory. The sheets are returned in the order that
+     * they appear in the stream and each sheet can only be read until the next sheet is requested.
+     * Comments, shapes, pictures, core properties and hyperlink targets are not read.
+     * See {@link SinglePassSheetIterator} for the details.
+     *
+     * @param is input stream to read in (it is closed when the returned iterator is closed)
+     * @return an iterator over the sheets - it must be closed when finished with
+     * @throws com.github.pjfanning.xlsx.exceptions.NotSupportedException if a password is set
+     * @see #setSinglePassSpoolLimit(long)
+     * @since v5.3.0
+     */
+    public CloseableIterator<Sheet> openSinglePass(InputStream is) {
+      return new SinglePassSheetIterator(this, is);
+    }
+
+    /**
+     * Reads a given {@code Path} and returns a new instance
+     * of {@code Workbook}. Paths on the default file system are opened like files and paths on other
+     * file systems (e.g. in-memory file systems) are read with a {@link SeekableByteChannel}.
+     * No temp file is written.
+     *
+     * @param path path to read in
+     * @return built streaming reader instance
+     * @throws com.github.pjfanning.xlsx.exceptions.OpenException if there is an issue opening the file
+     * @throws com.github.pjfanning.xlsx.exceptions.ReadException if there is an issue reading the file
+     * @since v5.3.0
+     */
+    public Workbook open(Path path) throws OpenException, ReadException, ParseException {
+      StreamingWorkbookReader workbookReader = new StreamingWorkbookReader(this);
+      workbookReader.init(path);
+      return new StreamingWorkbook(workbookReader);
+    }
+
+    /**
+     * Reads the workbook from a given {@code SeekableByteChannel} and returns a new instance
+     * of {@code Workbook}. The zip entries are inflated directly from the channel, so unlike
+     * {@link #open(InputStream)}, no temp file is written. The channel is closed when the
+     * workbook is closed.
+     *
+     * @param channel channel to read in
+     * @return built streaming reader instance
+     * @throws com.github.pjfanning.xlsx.exceptions.OpenException if there is an issue opening the workbook
+     * @throws com.github.pjfanning.xlsx.exceptions.ReadException if there is an issue reading the workbook
+     * @since v5.3.0
+     */
+    public Workbook open(SeekableByteChannel channel) throws OpenException, ReadException, ParseException {
+      StreamingWorkbookReader workbookReader = new StreamingWorkbookReader(this);
+      workbookReader.init(channel);
+      return new StreamingWorkbook(workbookReader);
+    }
+
+    /**
+     * Reads the workbook from a given {@code ByteBuffer} (e.g. a wrapped byte array or a memory-mapped
+     * file) and returns a new instance of {@code Workbook}. The bytes between the position and the limit
+     * of the buffer are read. The zip entries are inflated directly from the buffer, so unlike
+     * {@link #open(InputStream)}, no temp file is written. The buffer position and limit are not changed,
+     * but the buffer contents must not be changed until the workbook is closed.
+     *
+     * @param buffer buffer to read in
+     * @return built streaming reader instance
+     * @throws com.github.pjfanning.xlsx.exceptions.OpenException if there is an issue opening the workbook
+     * @throws com.github.pjfanning.xlsx.exceptions.ReadException if there is an issue reading the workbook
+     * @since v5.3.0
+     */
+    public Workbook open(ByteBuffer buffer) throws OpenException, ReadException, ParseException {
+      StreamingWorkbookReader workbookReader = new StreamingWorkbookReader(this);
+      workbookReader.init(buffer);
+      return new StreamingWorkbook(workbookReader);
+    }
   }
 }
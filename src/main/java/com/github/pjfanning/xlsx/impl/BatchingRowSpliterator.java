@@ -0,0 +1,119 @@
+package com.github.pjfanning.xlsx.impl;
+
+import com.github.pjfanning.xlsx.CloseableIterator;
+import com.github.pjfanning.xlsx.exceptions.CloseException;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+
+import java.io.IOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over a row iterator that splits by handing off batches of rows that have already been
+ * parsed, so that the downstream operations of a parallel stream can run on multiple threads. The batches
+ * grow in size, like the batches in {@link Spliterators#spliterator(java.util.Iterator, long, int)}, but the
+ * size is only an estimate (based on the sheet dimension), so the spliterator does not report itself as
+ * <code>SIZED</code>. The row iterator is closed when all the rows have been read.
+ * <p>
+ * The contents of the cells in a batch are formatted before the batch is handed off, because the lazy formatting
+ * uses the state of the row iterator (e.g. its <code>DataFormatter</code>), which must not be shared by threads.
+ * </p>
+ */
+class BatchingRowSpliterator implements Spliterator<Row> {
+  static final int BATCH_UNIT = 1 << 10;
+  static final int MAX_BATCH = 1 << 16;
+
+  private final CloseableIterator<Row> iterator;
+  private long estimatedSize;
+  private int batchSize;
+  private boolean exhausted;
+
+  /**
+   * @param iterator the row iterator
+   * @param estimatedSize the estimated number of rows (Long.MAX_VALUE if unknown)
+   */
+  BatchingRowSpliterator(final CloseableIterator<Row> iterator, final long estimatedSize) {
+    this.iterator = iterator;
+    this.estimatedSize = estimatedSize;
+  }
+
+  @Override
+  public boolean tryAdvance(final Consumer<? super Row> action) {
+    if (!hasNext()) {
+      return false;
+    }
+    action.accept(iterator.next());
+    consumed(1);
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(final Consumer<? super Row> action) {
+    while (hasNext()) {
+      action.accept(iterator.next());
+      consumed(1);
+    }
+  }
+
+  @Override
+  public Spliterator<Row> trySplit() {
+    if (!hasNext()) {
+      return null;
+    }
+    final int n = Math.min(batchSize + BATCH_UNIT, MAX_BATCH);
+    batchSize = n;
+    final Object[] batch = new Object[n];
+    int count = 0;
+    do {
+      final Row row = iterator.next();
+      resolveContents(row);
+      batch[count++] = row;
+    } while (count < n && hasNext());
+    consumed(count);
+    return Spliterators.spliterator(batch, 0, count, characteristics());
+  }
+
+  @Override
+  public long estimateSize() {
+    return estimatedSize;
+  }
+
+  @Override
+  public int characteristics() {
+    return Spliterator.ORDERED | Spliterator.NONNULL;
+  }
+
+  private static void resolveContents(final Row row) {
+    for (Cell cell : row) {
+      if (cell instanceof StreamingCell) {
+        ((StreamingCell) cell).resolveContents();
+      }
+    }
+  }
+
+  private boolean hasNext() {
+    if (exhausted) {
+      return false;
+    }
+    if (iterator.hasNext()) {
+      return true;
+    }
+    exhausted = true;
+    estimatedSize = 0;
+    try {
+      iterator.close();
+    } catch (IOException e) {
+      throw new CloseException(e);
+    }
+    return false;
+  }
+
+  private void consumed(final int count) {
+    if (estimatedSize != Long.MAX_VALUE) {
+      // the estimate is based on the sheet dimension, so it can be less than the actual number of rows
+      estimatedSize = Math.max(estimatedSize - count, 1);
+    }
+  }
+}
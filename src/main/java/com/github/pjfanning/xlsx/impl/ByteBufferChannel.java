@@ -0,0 +1,82 @@
+package com.github.pjfanning.xlsx.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * A read-only {@link SeekableByteChannel} over the remaining bytes of a {@link ByteBuffer}.
+ * The position and limit of the buffer passed to the constructor are not changed.
+ */
+class ByteBufferChannel implements SeekableByteChannel {
+  private final ByteBuffer buffer;
+  private volatile boolean open = true;
+
+  ByteBufferChannel(final ByteBuffer buffer) {
+    this.buffer = buffer.slice();
+  }
+
+  @Override
+  public synchronized int read(final ByteBuffer dst) throws IOException {
+    ensureOpen();
+    if (!buffer.hasRemaining()) {
+      return -1;
+    }
+    final int count = Math.min(dst.remaining(), buffer.remaining());
+    final ByteBuffer src = buffer.duplicate();
+    src.limit(src.position() + count);
+    dst.put(src);
+    buffer.position(buffer.position() + count);
+    return count;
+  }
+
+  @Override
+  public int write(final ByteBuffer src) {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public synchronized long position() throws IOException {
+    ensureOpen();
+    return buffer.position();
+  }
+
+  @Override
+  public synchronized SeekableByteChannel position(final long newPosition) throws IOException {
+    ensureOpen();
+    if (newPosition < 0) {
+      throw new IllegalArgumentException("Position must not be negative: " + newPosition);
+    }
+    buffer.position((int) Math.min(newPosition, buffer.limit()));
+    return this;
+  }
+
+  @Override
+  public long size() throws IOException {
+    ensureOpen();
+    return buffer.limit();
+  }
+
+  @Override
+  public SeekableByteChannel truncate(final long size) {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return open;
+  }
+
+  @Override
+  public void close() {
+    open = false;
+  }
+
+  private void ensureOpen() throws ClosedChannelException {
+    if (!open) {
+      throw new ClosedChannelException();
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.github.pjfanning.xlsx.impl;
+
+import com.github.pjfanning.xlsx.StreamingReader;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.xssf.model.SharedStrings;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size-bounded, least-recently-used cache of the plain text of shared strings, in front of another
+ * {@link SharedStrings} implementation. The text of the most used strings is served from the heap, while
+ * the other strings stay in the underlying table (e.g. in a temp file). The number of cache hits and misses
+ * is recorded, so that the cache size can be tuned.
+ * <p>
+ * Only the plain text is cached: {@link #getItemAt(int)} (used when full-format rich text is enabled) is passed
+ * through to the underlying table. Lookups are synchronized.
+ * </p>
+ *
+ * @see StreamingReader.Builder#setSharedStringsCacheSize(int)
+ * @since v5.3.0
+ */
+public final class CachedSharedStrings implements SharedStrings, Closeable {
+  private final SharedStrings sharedStrings;
+  private final boolean usesPoiSharedStrings;
+  private final Map<Integer, String> cache;
+  private long hitCount;
+  private long missCount;
+
+  /**
+   * @param sharedStrings the underlying shared strings table (closed when this cache is closed)
+   * @param maxSize the maximum number of strings to cache
+   * @throws IllegalArgumentException if maxSize is less than 1
+   */
+  public CachedSharedStrings(final SharedStrings sharedStrings, final int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1");
+    }
+    this.sharedStrings = sharedStrings;
+    this.usesPoiSharedStrings = sharedStrings.getClass().getName().startsWith("com.github.pjfanning.poi.xssf");
+    this.cache = new LinkedHashMap<Integer, String>(Math.min(maxSize, 1024), 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Integer, String> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * @return the underlying shared strings table
+   */
+  public SharedStrings getSharedStrings() {
+    return sharedStrings;
+  }
+
+  /**
+   * @param idx 0-based index of the string
+   * @return the plain text of the string
+   */
+  public synchronized String getString(final int idx) {
+    final Integer key = idx;
+    String text = cache.get(key);
+    if (text == null) {
+      missCount++;
+      text = usesPoiSharedStrings ? PoiSharedStringsSupport.getSharedString(sharedStrings, idx)
+              : sharedStrings.getItemAt(idx).getString();
+      cache.put(key, text);
+    } else {
+      hitCount++;
+    }
+    return text;
+  }
+
+  /**
+   * @return the number of lookups that were served from the cache
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return the number of lookups that were not served from the cache
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * @return the fraction of lookups that were served from the cache (0 if there were no lookups)
+   */
+  public synchronized double getHitRate() {
+    final long lookups = hitCount + missCount;
+    return lookups == 0 ? 0 : (double) hitCount / lookups;
+  }
+
+  /**
+   * @return the number of strings in the cache
+   */
+  public synchronized int size() {
+    return cache.size();
+  }
+
+  @Override
+  public RichTextString getItemAt(final int idx) {
+    return sharedStrings.getItemAt(idx);
+  }
+
+  @Override
+  public int getCount() {
+    return sharedStrings.getCount();
+  }
+
+  @Override
+  public int getUniqueCount() {
+    return sharedStrings.getUniqueCount();
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      cache.clear();
+    }
+    if (sharedStrings instanceof AutoCloseable) {
+      try {
+        ((AutoCloseable) sharedStrings).close();
+      } catch (IOException | RuntimeException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new IOException("Failed to close shared strings", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,298 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+import java.util.*;
+
+/**
+ * The cells of a {@link StreamingRow}, keyed by column index. The cells are kept in an array that is sorted by
+ * column index, next to an <code>int[]</code> of the column indexes, so there is no entry object or boxed key per
+ * cell. The cells of a row are nearly always added in column order, so adding a cell is normally an append.
+ * <p>
+ * When the columns are contiguous (the common case), {@link #getCell(int)} indexes the array directly.
+ * For sparse rows, the column indexes are binary searched.
+ * </p>
+ */
+final class CellMap extends AbstractMap<Integer, Cell> {
+  private static final int INITIAL_CAPACITY = 8;
+
+  private int[] columns = new int[INITIAL_CAPACITY];
+  private Cell[] cells = new Cell[INITIAL_CAPACITY];
+  private int size;
+  private boolean dense = true;
+  private int modCount;
+  private Collection<Cell> values;
+  private Set<Entry<Integer, Cell>> entrySet;
+
+  /**
+   * @param column 0-based column index
+   * @return the cell or null if there is no cell with this column index
+   */
+  Cell getCell(final int column) {
+    final int index = indexOf(column);
+    return index < 0 ? null : cells[index];
+  }
+
+  /**
+   * @return the column index of the first cell (-1 if there are no cells)
+   */
+  int getFirstColumn() {
+    return size == 0 ? -1 : columns[0];
+  }
+
+  /**
+   * @return the column index of the last cell (-1 if there are no cells)
+   */
+  int getLastColumn() {
+    return size == 0 ? -1 : columns[size - 1];
+  }
+
+  /**
+   * Adds or replaces the cell with the given column index.
+   *
+   * @return the cell that was replaced (null if there was no cell with this column index)
+   */
+  Cell putCell(final int column, final Cell cell) {
+    if (size == 0 || column > columns[size - 1]) {
+      if (size > 0 && column != columns[size - 1] + 1) {
+        dense = false;
+      }
+      insert(size, column, cell);
+      return null;
+    }
+    final int index = indexOf(column);
+    if (index >= 0) {
+      final Cell previous = cells[index];
+      cells[index] = cell;
+      return previous;
+    }
+    insert(-(index + 1), column, cell);
+    updateDense();
+    return null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return key instanceof Integer && indexOf((Integer) key) >= 0;
+  }
+
+  @Override
+  public Cell get(final Object key) {
+    return key instanceof Integer ? getCell((Integer) key) : null;
+  }
+
+  @Override
+  public Cell put(final Integer key, final Cell value) {
+    return putCell(key, value);
+  }
+
+  @Override
+  public Cell remove(final Object key) {
+    if (!(key instanceof Integer)) {
+      return null;
+    }
+    final int index = indexOf((Integer) key);
+    if (index < 0) {
+      return null;
+    }
+    final Cell previous = cells[index];
+    removeAt(index);
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(cells, 0, size, null);
+    size = 0;
+    dense = true;
+    modCount++;
+  }
+
+  @Override
+  public Collection<Cell> values() {
+    if (values == null) {
+      values = new AbstractCollection<Cell>() {
+        @Override
+        public Iterator<Cell> iterator() {
+          return new CellMapIterator<Cell>() {
+            @Override
+            Cell get(final int index) {
+              return cells[index];
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+
+        @Override
+        public void clear() {
+          CellMap.this.clear();
+        }
+      };
+    }
+    return values;
+  }
+
+  @Override
+  public Set<Entry<Integer, Cell>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Entry<Integer, Cell>>() {
+        @Override
+        public Iterator<Entry<Integer, Cell>> iterator() {
+          return new CellMapIterator<Entry<Integer, Cell>>() {
+            @Override
+            Entry<Integer, Cell> get(final int index) {
+              return new CellEntry(index);
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+
+        @Override
+        public void clear() {
+          CellMap.this.clear();
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  private int indexOf(final int column) {
+    if (size == 0) {
+      return -1;
+    }
+    if (dense) {
+      final int index = column - columns[0];
+      // same result as a binary search, including the insertion point when the column is missing
+      return index < 0 ? -1 : (index < size ? index : -(size + 1));
+    }
+    return Arrays.binarySearch(columns, 0, size, column);
+  }
+
+  private void insert(final int index, final int column, final Cell cell) {
+    if (size == columns.length) {
+      final int newCapacity = size * 2;
+      columns = Arrays.copyOf(columns, newCapacity);
+      cells = Arrays.copyOf(cells, newCapacity);
+    }
+    if (index < size) {
+      System.arraycopy(columns, index, columns, index + 1, size - index);
+      System.arraycopy(cells, index, cells, index + 1, size - index);
+    }
+    columns[index] = column;
+    cells[index] = cell;
+    size++;
+    modCount++;
+  }
+
+  private void removeAt(final int index) {
+    final int moved = size - index - 1;
+    if (moved > 0) {
+      System.arraycopy(columns, index + 1, columns, index, moved);
+      System.arraycopy(cells, index + 1, cells, index, moved);
+    }
+    cells[--size] = null;
+    modCount++;
+    updateDense();
+  }
+
+  private void updateDense() {
+    // the column indexes are sorted and unique, so they are contiguous when the range matches the size
+    dense = size == 0 || columns[size - 1] - columns[0] == size - 1;
+  }
+
+  private abstract class CellMapIterator<T> implements Iterator<T> {
+    private int next;
+    private int last = -1;
+    private int expectedModCount = modCount;
+
+    abstract T get(int index);
+
+    @Override
+    public boolean hasNext() {
+      return next < size;
+    }
+
+    @Override
+    public T next() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (next >= size) {
+        throw new NoSuchElementException();
+      }
+      last = next++;
+      return get(last);
+    }
+
+    @Override
+    public void remove() {
+      if (last < 0) {
+        throw new IllegalStateException();
+      }
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      removeAt(last);
+      next = last;
+      last = -1;
+      expectedModCount = modCount;
+    }
+  }
+
+  private final class CellEntry implements Entry<Integer, Cell> {
+    private final int index;
+
+    CellEntry(final int index) {
+      this.index = index;
+    }
+
+    @Override
+    public Integer getKey() {
+      return columns[index];
+    }
+
+    @Override
+    public Cell getValue() {
+      return cells[index];
+    }
+
+    @Override
+    public Cell setValue(final Cell value) {
+      final Cell previous = cells[index];
+      cells[index] = value;
+      return previous;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      final Entry<?, ?> e = (Entry<?, ?>) o;
+      return getKey().equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return getKey().hashCode() ^ Objects.hashCode(getValue());
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + getValue();
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.github.pjfanning.xlsx.impl;
+
+/**
+ * Decodes A1-style cell references (e.g. <code>AB1234</code> or <code>$AB$1234</code>) by scanning
+ * the characters directly. Unlike {@link org.apache.poi.ss.util.CellAddress} and
+ * {@link org.apache.poi.ss.util.CellReference}, no substrings are created and no regular
+ * expressions are used. Callers should fall back to the POI classes when these methods
+ * return -1 so that unusual references are handled in the same way as before.
+ */
+final class CellReferenceUtil {
+
+  // XFD is the last column in xlsx files; anything longer than this could overflow
+  private static final int MAX_COLUMN_LETTERS = 3;
+  // 1048576 is the last row in xlsx files; anything longer than this could overflow
+  private static final int MAX_ROW_DIGITS = 7;
+
+  private CellReferenceUtil() {}
+
+  /**
+   * @param ref cell reference, e.g. <code>AB1234</code>
+   * @return the 0-based column index or -1 if the reference does not start with a column
+   */
+  static int parseColumnIndex(final String ref) {
+    return parseColumnIndex(ref, 0, ref.length());
+  }
+
+  /**
+   * @param ref string containing a cell reference
+   * @param start index of the first char of the cell reference
+   * @param end index after the last char of the cell reference
+   * @return the 0-based column index or -1 if the reference does not start with a column
+   */
+  static int parseColumnIndex(final String ref, final int start, final int end) {
+    int pos = start;
+    if (pos < end && ref.charAt(pos) == '$') {
+      pos++;
+    }
+    final int lettersStart = pos;
+    int col = 0;
+    while (pos < end) {
+      final char ch = ref.charAt(pos);
+      final int letter;
+      if (ch >= 'A' && ch <= 'Z') {
+        letter = ch - 'A' + 1;
+      } else if (ch >= 'a' && ch <= 'z') {
+        letter = ch - 'a' + 1;
+      } else {
+        break;
+      }
+      col = col * 26 + letter;
+      pos++;
+    }
+    final int numLetters = pos - lettersStart;
+    if (numLetters == 0 || numLetters > MAX_COLUMN_LETTERS) {
+      return -1;
+    }
+    return col - 1;
+  }
+
+  /**
+   * @param ref cell reference, e.g. <code>AB1234</code>
+   * @return the 0-based row index or -1 if the reference does not have a valid row
+   */
+  static int parseRowIndex(final String ref) {
+    return parseRowIndex(ref, 0, ref.length());
+  }
+
+  /**
+   * @param ref string containing a cell reference
+   * @param start index of the first char of the cell reference
+   * @param end index after the last char of the cell reference
+   * @return the 0-based row index or -1 if the reference does not have a valid row
+   */
+  static int parseRowIndex(final String ref, final int start, final int end) {
+    int pos = start;
+    if (pos < end && ref.charAt(pos) == '$') {
+      pos++;
+    }
+    while (pos < end && isLetter(ref.charAt(pos))) {
+      pos++;
+    }
+    if (pos < end && ref.charAt(pos) == '$') {
+      pos++;
+    }
+    final int numDigits = end - pos;
+    if (numDigits == 0 || numDigits > MAX_ROW_DIGITS) {
+      return -1;
+    }
+    int row = 0;
+    while (pos < end) {
+      final char ch = ref.charAt(pos);
+      if (ch < '0' || ch > '9') {
+        return -1;
+      }
+      row = row * 10 + (ch - '0');
+      pos++;
+    }
+    return row - 1;
+  }
+
+  private static boolean isLetter(final char ch) {
+    return (ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z');
+  }
+}
@@ -0,0 +1,99 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+
+/**
+ * The cell styles of a workbook and their number formats, resolved once per workbook and indexed by style index.
+ * This avoids looking up the style and its number format in the {@link StylesTable} for every cell.
+ */
+final class CellStyleFormats {
+  private final StylesTable stylesTable;
+  private final XSSFCellStyle[] styles;
+  private final Short[] formatIndexes;
+  private final String[] formatStrings;
+  private final boolean[] dateFormats;
+
+  /**
+   * @param stylesTable the styles table (must have all its parts, e.g. the theme, set)
+   */
+  CellStyleFormats(final StylesTable stylesTable) {
+    this.stylesTable = stylesTable;
+    final int count = stylesTable.getNumCellStyles();
+    this.styles = new XSSFCellStyle[count];
+    this.formatIndexes = new Short[count];
+    this.formatStrings = new String[count];
+    this.dateFormats = new boolean[count];
+    for (int i = 0; i < count; i++) {
+      final XSSFCellStyle style = stylesTable.getStyleAt(i);
+      styles[i] = style;
+      if (style != null) {
+        final short formatIndex = style.getDataFormat();
+        String formatString = style.getDataFormatString();
+        if (formatString == null) {
+          formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+        }
+        formatIndexes[i] = formatIndex;
+        formatStrings[i] = formatString;
+        dateFormats[i] = formatString != null && DateUtil.isADateFormat(formatIndex, formatString);
+      }
+    }
+  }
+
+  /**
+   * @param stylesTable the styles table (can be null)
+   * @return the resolved styles (null if <code>stylesTable</code> is null)
+   */
+  static CellStyleFormats of(final StylesTable stylesTable) {
+    return stylesTable == null ? null : new CellStyleFormats(stylesTable);
+  }
+
+  StylesTable getStylesTable() {
+    return stylesTable;
+  }
+
+  /**
+   * @return the number of cell styles
+   */
+  int size() {
+    return styles.length;
+  }
+
+  /**
+   * @param styleIndex index of the cell style
+   * @return the cell style (null if there is no style with this index)
+   */
+  XSSFCellStyle getStyle(final int styleIndex) {
+    return isValid(styleIndex) ? styles[styleIndex] : null;
+  }
+
+  /**
+   * @param styleIndex index of the cell style
+   * @return the number format index of the cell style (null if there is no style with this index)
+   */
+  Short getFormatIndex(final int styleIndex) {
+    return isValid(styleIndex) ? formatIndexes[styleIndex] : null;
+  }
+
+  /**
+   * @param styleIndex index of the cell style
+   * @return the number format of the cell style (null if there is no style with this index)
+   */
+  String getFormatString(final int styleIndex) {
+    return isValid(styleIndex) ? formatStrings[styleIndex] : null;
+  }
+
+  /**
+   * @param styleIndex index of the cell style
+   * @return true if the number format of the cell style is a date format
+   */
+  boolean isDateFormat(final int styleIndex) {
+    return isValid(styleIndex) && dateFormats[styleIndex];
+  }
+
+  private boolean isValid(final int styleIndex) {
+    return styleIndex >= 0 && styleIndex < styles.length;
+  }
+}
@@ -0,0 +1,136 @@
+package com.github.pjfanning.xlsx.impl;
+
+import com.github.pjfanning.xlsx.impl.ooxml.HyperlinkData;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over the chunks of a sheet (see {@link SheetXmlChunks}). Splitting hands off half of the
+ * chunks that have not been started, so each part of a parallel stream parses its own chunks. The merged cells
+ * and hyperlinks of a chunk are added to the sheet reader when the chunk has been read.
+ */
+class ChunkedRowSpliterator implements Spliterator<Row> {
+  private final StreamingSheetReader streamingSheetReader;
+  private final SheetXmlChunks chunks;
+  private final int firstColNum;
+  private final long estimatedRowsPerChunk;
+  private StreamingRowIterator firstChunkIterator;
+  private Set<CellRangeAddress> firstChunkMergedCells;
+  private Set<HyperlinkData> firstChunkHyperlinks;
+  private int fromChunk;
+  private int toChunk;
+  private StreamingRowIterator current;
+  private Set<CellRangeAddress> currentMergedCells;
+  private Set<HyperlinkData> currentHyperlinks;
+
+  /**
+   * Creates the iterator for the first chunk - this needs to be created before the iterators for the other
+   * chunks because it parses the sheet metadata (e.g. the dimension) that they use.
+   *
+   * @param streamingSheetReader the sheet reader
+   * @param chunks the sheet chunks
+   */
+  ChunkedRowSpliterator(final StreamingSheetReader streamingSheetReader, final SheetXmlChunks chunks) {
+    this.streamingSheetReader = streamingSheetReader;
+    this.chunks = chunks;
+    this.firstChunkMergedCells = new LinkedHashSet<>();
+    this.firstChunkHyperlinks = new LinkedHashSet<>();
+    this.firstChunkIterator = streamingSheetReader.createChunkIterator(chunks.openChunk(0), 0,
+            firstChunkMergedCells, firstChunkHyperlinks);
+    this.firstColNum = firstChunkIterator.getFirstColNum();
+    this.fromChunk = 0;
+    this.toChunk = chunks.getChunkCount();
+    final long estimatedRowCount = streamingSheetReader.getEstimatedRowCount();
+    this.estimatedRowsPerChunk = estimatedRowCount == Long.MAX_VALUE ? Long.MAX_VALUE :
+            Math.max(1, estimatedRowCount / chunks.getChunkCount());
+  }
+
+  private ChunkedRowSpliterator(final ChunkedRowSpliterator parent, final int fromChunk, final int toChunk) {
+    this.streamingSheetReader = parent.streamingSheetReader;
+    this.chunks = parent.chunks;
+    this.firstColNum = parent.firstColNum;
+    this.estimatedRowsPerChunk = parent.estimatedRowsPerChunk;
+    this.firstChunkIterator = parent.firstChunkIterator;
+    this.firstChunkMergedCells = parent.firstChunkMergedCells;
+    this.firstChunkHyperlinks = parent.firstChunkHyperlinks;
+    this.fromChunk = fromChunk;
+    this.toChunk = toChunk;
+  }
+
+  @Override
+  public boolean tryAdvance(final Consumer<? super Row> action) {
+    if (!hasNext()) {
+      return false;
+    }
+    action.accept(current.next());
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(final Consumer<? super Row> action) {
+    while (hasNext()) {
+      action.accept(current.next());
+    }
+  }
+
+  @Override
+  public Spliterator<Row> trySplit() {
+    final int remaining = toChunk - fromChunk;
+    if (current != null || remaining < 2) {
+      return null;
+    }
+    final int mid = fromChunk + remaining / 2;
+    final ChunkedRowSpliterator prefix = new ChunkedRowSpliterator(this, fromChunk, mid);
+    firstChunkIterator = null;
+    firstChunkMergedCells = null;
+    firstChunkHyperlinks = null;
+    fromChunk = mid;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    if (estimatedRowsPerChunk == Long.MAX_VALUE) {
+      return Long.MAX_VALUE;
+    }
+    return (toChunk - fromChunk + (current == null ? 0 : 1)) * estimatedRowsPerChunk;
+  }
+
+  @Override
+  public int characteristics() {
+    return Spliterator.ORDERED | Spliterator.NONNULL;
+  }
+
+  private boolean hasNext() {
+    while (current == null || !current.hasNext()) {
+      if (current != null) {
+        current.close(false);
+        current = null;
+        streamingSheetReader.addMergedCellsAndHyperlinks(currentMergedCells, currentHyperlinks);
+      }
+      if (fromChunk >= toChunk) {
+        return false;
+      }
+      final int chunkIndex = fromChunk++;
+      if (chunkIndex == 0 && firstChunkIterator != null) {
+        current = firstChunkIterator;
+        currentMergedCells = firstChunkMergedCells;
+        currentHyperlinks = firstChunkHyperlinks;
+        firstChunkIterator = null;
+        firstChunkMergedCells = null;
+        firstChunkHyperlinks = null;
+      } else {
+        currentMergedCells = new LinkedHashSet<>();
+        currentHyperlinks = new LinkedHashSet<>();
+        current = streamingSheetReader.createChunkIterator(chunks.openChunk(chunkIndex), firstColNum,
+                currentMergedCells, currentHyperlinks);
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,46 @@
+package com.github.pjfanning.xlsx.impl;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * {@link XmlElementAttributes} backed by a StAX {@link XMLStreamReader} that is positioned
+ * on a start element. Attributes are looked up by index so no attribute objects are created.
+ */
+final class CursorElementAttributes implements XmlElementAttributes {
+  private final XMLStreamReader reader;
+
+  CursorElementAttributes(XMLStreamReader reader) {
+    this.reader = reader;
+  }
+
+  @Override
+  public String getValue(QName name) {
+    final String localName = name.getLocalPart();
+    final int count = reader.getAttributeCount();
+    for (int i = 0; i < count; i++) {
+      if (localName.equals(reader.getAttributeLocalName(i)) && isEmpty(reader.getAttributeNamespace(i))) {
+        return reader.getAttributeValue(i);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public String getValue(String namespaceSuffix, String localName) {
+    final int count = reader.getAttributeCount();
+    for (int i = 0; i < count; i++) {
+      if (localName.equals(reader.getAttributeLocalName(i))) {
+        final String ns = reader.getAttributeNamespace(i);
+        if (ns != null && ns.endsWith(namespaceSuffix)) {
+          return reader.getAttributeValue(i);
+        }
+      }
+    }
+    return null;
+  }
+
+  private static boolean isEmpty(String s) {
+    return s == null || s.isEmpty();
+  }
+}
@@ -0,0 +1,36 @@
+package com.github.pjfanning.xlsx.impl;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import java.util.Iterator;
+
+/**
+ * {@link XmlElementAttributes} backed by a StAX {@link StartElement} event.
+ */
+final class EventElementAttributes implements XmlElementAttributes {
+  private StartElement startElement;
+
+  void setStartElement(StartElement startElement) {
+    this.startElement = startElement;
+  }
+
+  @Override
+  public String getValue(QName name) {
+    final Attribute att = startElement.getAttributeByName(name);
+    return att == null ? null : att.getValue();
+  }
+
+  @Override
+  public String getValue(String namespaceSuffix, String localName) {
+    Iterator<Attribute> attributeIterator = startElement.getAttributes();
+    while (attributeIterator.hasNext()) {
+      Attribute att = attributeIterator.next();
+      QName qn = att.getName();
+      if (localName.equals(qn.getLocalPart()) && qn.getNamespaceURI().endsWith(namespaceSuffix)) {
+        return att.getValue();
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,79 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the results of {@link DataFormatter#formatRawCellContents(double, int, String)}. Sheets tend to apply
+ * the same few number formats to the same values over and over (e.g. dates), and formatting is much slower than
+ * a cache lookup.
+ * <p>
+ * Each number format has a fixed size, direct-mapped cache keyed by the bits of the value: a value that maps to
+ * a slot that is in use replaces the cached value, so the memory use is bounded and a lookup creates no objects.
+ * The slots hold immutable entries, so lookups from different threads can only cause cache misses. The
+ * {@link DataFormatter} itself is not thread-safe, so formatting is subject to the same restrictions as before.
+ * </p>
+ */
+final class FormattedValueCache {
+  static final int MAX_SIZE = 1 << 20;
+
+  private final DataFormatter dataFormatter;
+  private final int slotBits;
+  private final Map<String, FormatCache> formatCaches = new ConcurrentHashMap<>();
+
+  /**
+   * @param dataFormatter the formatter used for cache misses
+   * @param size the number of values to cache per number format (rounded up to a power of two,
+   *             at most {@link #MAX_SIZE})
+   */
+  FormattedValueCache(final DataFormatter dataFormatter, final int size) {
+    this.dataFormatter = dataFormatter;
+    final int cappedSize = Math.min(Math.max(size, 2), MAX_SIZE);
+    this.slotBits = 32 - Integer.numberOfLeadingZeros(cappedSize - 1);
+  }
+
+  /**
+   * @return the same result as {@link DataFormatter#formatRawCellContents(double, int, String)}
+   */
+  String formatRawCellContents(final double value, final int formatIndex, final String formatString) {
+    FormatCache formatCache = formatCaches.get(formatString);
+    if (formatCache == null) {
+      formatCache = formatCaches.computeIfAbsent(formatString, f -> new FormatCache(formatIndex));
+    }
+    if (formatCache.formatIndex != formatIndex) {
+      // the same format string is used with another format index (the index can affect the date detection)
+      return dataFormatter.formatRawCellContents(value, formatIndex, formatString);
+    }
+    final long bits = Double.doubleToRawLongBits(value);
+    // multiplicative hashing - the low bits of the value are often zero (e.g. for whole numbers)
+    final int slot = (int) ((bits * 0x9E3779B97F4A7C15L) >>> (64 - slotBits));
+    final Entry entry = formatCache.entries[slot];
+    if (entry != null && entry.bits == bits) {
+      return entry.formatted;
+    }
+    final String formatted = dataFormatter.formatRawCellContents(value, formatIndex, formatString);
+    formatCache.entries[slot] = new Entry(bits, formatted);
+    return formatted;
+  }
+
+  private final class FormatCache {
+    private final int formatIndex;
+    private final Entry[] entries = new Entry[1 << slotBits];
+
+    FormatCache(final int formatIndex) {
+      this.formatIndex = formatIndex;
+    }
+  }
+
+  private static final class Entry {
+    private final long bits;
+    private final String formatted;
+
+    Entry(final long bits, final String formatted) {
+      this.bits = bits;
+      this.formatted = formatted;
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.github.pjfanning.xlsx.impl;
+
+import com.github.pjfanning.xlsx.SharedStringsImplementationType;
+import com.github.pjfanning.xlsx.exceptions.ReadException;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only shared strings table that parses <code>sharedStrings.xml</code> on demand. Opening the table only
+ * reads the counts; when a string is looked up, the XML is parsed up to that string. So, reading a sheet that
+ * only uses the first few shared strings (or no shared strings at all) never parses the rest of the XML.
+ * Like POI's <code>ReadOnlySharedStringsTable</code>, only the plain text of the strings is kept (no formatting).
+ * <p>
+ * The input stream stays open until the table is closed (or until all the strings are parsed).
+ * Lookups are synchronized.
+ * </p>
+ *
+ * @see SharedStringsImplementationType#LAZY
+ * @since v5.3.0
+ */
+public final class LazySharedStringsTable implements SharedStrings, Closeable {
+  private final SharedStringsXmlReader reader;
+  private final StringBuilder text = new StringBuilder();
+  private final List<String> strings;
+  private boolean fullyParsed;
+
+  /**
+   * @param inputStream the <code>sharedStrings.xml</code> data (closed when the table is closed)
+   * @param includePhoneticRuns whether to include the text of phonetic runs
+   * @throws IOException if the start of the data cannot be read or parsed
+   */
+  public LazySharedStringsTable(final InputStream inputStream, final boolean includePhoneticRuns)
+          throws IOException {
+    this.reader = new SharedStringsXmlReader(inputStream, includePhoneticRuns);
+    // uniqueCount is only a hint (it can be wrong), so the initial capacity is capped
+    this.strings = new ArrayList<>(Math.min(reader.getUniqueCount(), 1 << 16));
+  }
+
+  /**
+   * @return the number of strings that have been parsed so far
+   */
+  public synchronized int getParsedCount() {
+    return strings.size();
+  }
+
+  /**
+   * @param idx 0-based index of the string
+   * @return the string
+   * @throws IndexOutOfBoundsException if there is no string with this index
+   * @throws ReadException if the XML cannot be parsed
+   */
+  @Override
+  public synchronized RichTextString getItemAt(final int idx) {
+    if (idx >= strings.size() && idx >= 0) {
+      parseUpTo(idx);
+    }
+    return new XSSFRichTextString(strings.get(idx));
+  }
+
+  @Override
+  public int getCount() {
+    return reader.getCount();
+  }
+
+  @Override
+  public int getUniqueCount() {
+    return reader.getUniqueCount();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    fullyParsed = true;
+    reader.close();
+  }
+
+  private void parseUpTo(final int idx) {
+    if (fullyParsed) {
+      return;
+    }
+    try {
+      while (strings.size() <= idx) {
+        if (!reader.next(text)) {
+          fullyParsed = true;
+          reader.close();
+          return;
+        }
+        strings.add(text.toString());
+      }
+    } catch (IOException e) {
+      throw new ReadException("Failed to read shared strings", e);
+    }
+  }
+}
@@ -1,12 +1,140 @@
 package com.github.pjfanning.xlsx.impl;
 
 final class NumberUtil {
+  // the fast path is only used for numbers with a mantissa that is well below 2^53, so the mantissa and the
+  // power of ten are exact doubles and the division is correctly rounded (the same result as Double.parseDouble)
+  private static final int MAX_PLAIN_DECIMAL_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = {
+          1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+  };
 
   static int parseInt(final String s) {
     return Integer.parseInt(s.trim());
   }
 
+  /**
+   * Parses the number without creating a String when it only has digits (at most 9 digits, so that it cannot
+   * overflow), like the shared string indexes.
+   */
+  static int parseInt(final CharSequence s) {
+    final int length = s.length();
+    if (length == 0 || length > 9) {
+      return parseInt(s.toString());
+    }
+    int value = 0;
+    for (int pos = 0; pos < length; pos++) {
+      final char c = s.charAt(pos);
+      if (!isDigit(c)) {
+        return parseInt(s.toString());
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
   static double parseDouble(final String s) {
     return Double.parseDouble(s.trim());
   }
+
+  /**
+   * Parses the number without creating a String when it is a plain decimal number
+   * (see {@link #getPlainDecimalScale(CharSequence)}).
+   */
+  static double parseDouble(final CharSequence s) {
+    final int scale = getPlainDecimalScale(s);
+    return scale >= 0 ? parsePlainDecimal(s, scale) : parseDouble(s.toString());
+  }
+
+  /**
+   * Checks whether the text is a plain decimal number in canonical form: an optional minus sign, digits with no
+   * leading zeros (except for a single zero before the decimal point), an optional decimal point followed by at
+   * least one digit and no exponent - with at most 15 digits in total. These numbers can be parsed exactly
+   * by {@link #parsePlainDecimal(CharSequence, int)} and converted back to the same text by
+   * {@link #toPlainDecimalString(double, int)}.
+   *
+   * @return the number of digits after the decimal point, or -1 if the text is not a plain decimal number
+   */
+  static int getPlainDecimalScale(final CharSequence s) {
+    final int length = s.length();
+    int pos = 0;
+    boolean negative = false;
+    if (pos < length && s.charAt(pos) == '-') {
+      negative = true;
+      pos++;
+    }
+    final int intStart = pos;
+    boolean nonZero = false;
+    while (pos < length && isDigit(s.charAt(pos))) {
+      nonZero |= s.charAt(pos) != '0';
+      pos++;
+    }
+    final int intDigits = pos - intStart;
+    if (intDigits == 0 || (intDigits > 1 && s.charAt(intStart) == '0')) {
+      return -1;
+    }
+    int scale = 0;
+    if (pos < length && s.charAt(pos) == '.') {
+      pos++;
+      final int fracStart = pos;
+      while (pos < length && isDigit(s.charAt(pos))) {
+        nonZero |= s.charAt(pos) != '0';
+        pos++;
+      }
+      scale = pos - fracStart;
+      if (scale == 0) {
+        return -1;
+      }
+    }
+    if (pos != length || intDigits + scale > MAX_PLAIN_DECIMAL_DIGITS || (negative && !nonZero)) {
+      // trailing text, too many digits or negative zero
+      return -1;
+    }
+    return scale;
+  }
+
+  /**
+   * @param s a plain decimal number
+   * @param scale the result of {@link #getPlainDecimalScale(CharSequence)} for the number
+   * @return the number
+   */
+  static double parsePlainDecimal(final CharSequence s, final int scale) {
+    long mantissa = 0;
+    final int length = s.length();
+    final boolean negative = s.charAt(0) == '-';
+    for (int pos = negative ? 1 : 0; pos < length; pos++) {
+      final char c = s.charAt(pos);
+      if (c != '.') {
+        mantissa = mantissa * 10 + (c - '0');
+      }
+    }
+    final double value = mantissa / POWERS_OF_TEN[scale];
+    return negative ? -value : value;
+  }
+
+  /**
+   * @param value a number returned by {@link #parsePlainDecimal(CharSequence, int)}
+   * @param scale the scale that was used to parse the number
+   * @return the text that the number was parsed from
+   */
+  static String toPlainDecimalString(final double value, final int scale) {
+    // the mantissa has at most 15 digits, so rounding recovers it exactly
+    final String digits = Long.toString(Math.round(Math.abs(value) * POWERS_OF_TEN[scale]));
+    final StringBuilder sb = new StringBuilder(digits.length() + scale + 3);
+    if (value < 0) {
+      sb.append('-');
+    }
+    if (scale == 0) {
+      return sb.append(digits).toString();
+    }
+    for (int i = digits.length(); i <= scale; i++) {
+      sb.append('0');
+    }
+    sb.append(digits);
+    sb.insert(sb.length() - scale, '.');
+    return sb.toString();
+  }
+
+  private static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
 }
@@ -0,0 +1,77 @@
+package com.github.pjfanning.xlsx.impl;
+
+import com.github.pjfanning.xlsx.SharedStringsImplementationType;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Read-only shared strings table that keeps the strings UTF-8 encoded in off-heap memory.
+ * Like POI's <code>ReadOnlySharedStringsTable</code>, only the plain text of the strings is kept (no formatting).
+ *
+ * @see SharedStringsImplementationType#OFF_HEAP
+ * @since v5.3.0
+ */
+public final class OffHeapSharedStringsTable implements SharedStrings, Closeable {
+  private final OffHeapStringStore store;
+  private final int count;
+  private final int uniqueCount;
+
+  /**
+   * Reads all the strings in the input stream. The stream is closed when this constructor returns.
+   *
+   * @param inputStream the <code>sharedStrings.xml</code> data
+   * @param includePhoneticRuns whether to include the text of phonetic runs
+   * @throws IOException if the data cannot be read or parsed
+   */
+  public OffHeapSharedStringsTable(final InputStream inputStream, final boolean includePhoneticRuns)
+          throws IOException {
+    this.store = new OffHeapStringStore();
+    try (SharedStringsXmlReader reader = new SharedStringsXmlReader(inputStream, includePhoneticRuns)) {
+      final StringBuilder text = new StringBuilder();
+      while (reader.next(text)) {
+        store.add(text);
+      }
+      this.count = reader.getCount();
+      this.uniqueCount = reader.getUniqueCount();
+    } catch (IOException | RuntimeException e) {
+      store.clear();
+      throw e;
+    }
+    store.trim();
+  }
+
+  OffHeapSharedStringsTable(final OffHeapStringStore store, final int count, final int uniqueCount) {
+    this.store = store;
+    this.count = count;
+    this.uniqueCount = uniqueCount;
+  }
+
+  OffHeapStringStore getStore() {
+    return store;
+  }
+
+  @Override
+  public RichTextString getItemAt(final int idx) {
+    return new XSSFRichTextString(store.get(idx));
+  }
+
+  @Override
+  public int getCount() {
+    return count;
+  }
+
+  @Override
+  public int getUniqueCount() {
+    return uniqueCount;
+  }
+
+  @Override
+  public void close() {
+    store.clear();
+  }
+}
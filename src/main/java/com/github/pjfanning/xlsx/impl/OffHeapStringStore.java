@@ -0,0 +1,183 @@
+package com.github.pjfanning.xlsx.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An append-only list of strings that are stored UTF-8 encoded in a single direct (off-heap) {@link ByteBuffer}.
+ * The heap only holds an <code>int</code> offset per string, so the heap use does not depend on the length of
+ * the strings. The strings are decoded when they are read.
+ * <p>
+ * Reads do not change the state of the store, so a store that is no longer appended to can be read from
+ * multiple threads.
+ * </p>
+ */
+final class OffHeapStringStore {
+  private static final int INITIAL_CAPACITY = 1 << 16;
+  private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+  private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private ByteBuffer buffer;
+  // offsets[i] is the start of string i and offsets[size] is the end of the last string
+  private int[] offsets;
+  private int size;
+
+  OffHeapStringStore() {
+    this(ByteBuffer.allocateDirect(INITIAL_CAPACITY), new int[1024], 0);
+  }
+
+  private OffHeapStringStore(final ByteBuffer buffer, final int[] offsets, final int size) {
+    this.buffer = buffer;
+    this.offsets = offsets;
+    this.size = size;
+  }
+
+  /**
+   * @return the number of strings
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return the number of bytes used to store the strings
+   */
+  int byteSize() {
+    return offsets[size];
+  }
+
+  /**
+   * @param text the string to append
+   * @throws IllegalStateException if the encoded strings would not fit in a buffer (about 2GB)
+   */
+  void add(final CharSequence text) {
+    if (size + 1 == offsets.length) {
+      final int[] newOffsets = new int[offsets.length * 2];
+      System.arraycopy(offsets, 0, newOffsets, 0, offsets.length);
+      offsets = newOffsets;
+    }
+    final CharBuffer in = CharBuffer.wrap(text);
+    encoder.reset();
+    CoderResult result = encoder.encode(in, buffer, true);
+    while (result.isOverflow()) {
+      grow();
+      result = encoder.encode(in, buffer, true);
+    }
+    result = encoder.flush(buffer);
+    while (result.isOverflow()) {
+      grow();
+      result = encoder.flush(buffer);
+    }
+    size++;
+    offsets[size] = buffer.position();
+  }
+
+  /**
+   * @param index 0-based index of the string
+   * @return the string
+   * @throws IndexOutOfBoundsException if there is no string with this index
+   */
+  String get(final int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " is out of bounds (size " + size + ")");
+    }
+    final int start = offsets[index];
+    final byte[] bytes = new byte[offsets[index + 1] - start];
+    final ByteBuffer src = buffer.duplicate();
+    src.position(start);
+    src.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes the strings (still UTF-8 encoded) so that they can be read back with {@link #read(DataInputStream)}.
+   */
+  void write(final DataOutputStream out) throws IOException {
+    out.writeInt(size);
+    for (int i = 1; i <= size; i++) {
+      out.writeInt(offsets[i] - offsets[i - 1]);
+    }
+    final ByteBuffer src = buffer.duplicate();
+    src.flip();
+    final byte[] chunk = new byte[Math.min(src.remaining(), 1 << 16)];
+    while (src.hasRemaining()) {
+      final int length = Math.min(chunk.length, src.remaining());
+      src.get(chunk, 0, length);
+      out.write(chunk, 0, length);
+    }
+  }
+
+  /**
+   * @return a store with the strings that were written using {@link #write(DataOutputStream)}
+   * @throws IOException if the data cannot be read or it is not valid
+   */
+  static OffHeapStringStore read(final DataInputStream in) throws IOException {
+    final int size = in.readInt();
+    if (size < 0) {
+      throw new IOException("Invalid string count " + size);
+    }
+    final int[] offsets = new int[size + 1];
+    long byteSize = 0;
+    for (int i = 1; i <= size; i++) {
+      final int length = in.readInt();
+      byteSize += length;
+      if (length < 0 || byteSize > MAX_CAPACITY) {
+        throw new IOException("Invalid string length " + length);
+      }
+      offsets[i] = (int) byteSize;
+    }
+    final ByteBuffer buffer = ByteBuffer.allocateDirect((int) byteSize);
+    final byte[] chunk = new byte[(int) Math.min(byteSize, 1 << 16)];
+    while (buffer.hasRemaining()) {
+      final int length = Math.min(chunk.length, buffer.remaining());
+      in.readFully(chunk, 0, length);
+      buffer.put(chunk, 0, length);
+    }
+    return new OffHeapStringStore(buffer, offsets, size);
+  }
+
+  /**
+   * Releases the unused part of the buffer. Call this when no more strings will be added.
+   */
+  void trim() {
+    final int used = buffer.position();
+    if (used < buffer.capacity() - (buffer.capacity() >>> 2)) {
+      buffer = copy(used);
+    }
+  }
+
+  /**
+   * Drops the reference to the buffer, so that the off-heap memory can be freed by the garbage collector.
+   */
+  void clear() {
+    buffer = ByteBuffer.allocateDirect(0);
+    offsets = new int[1];
+    size = 0;
+  }
+
+  private void grow() {
+    final int capacity = buffer.capacity();
+    if (capacity >= MAX_CAPACITY) {
+      throw new IllegalStateException("Shared strings do not fit in an off-heap buffer (more than "
+              + MAX_CAPACITY + " bytes)");
+    }
+    buffer = copy((int) Math.min((long) capacity * 2, MAX_CAPACITY));
+  }
+
+  private ByteBuffer copy(final int capacity) {
+    final ByteBuffer src = buffer.duplicate();
+    src.flip();
+    final ByteBuffer copy = ByteBuffer.allocateDirect(capacity);
+    copy.put(src);
+    return copy;
+  }
+}
@@ -0,0 +1,165 @@
+package com.github.pjfanning.xlsx.impl;
+
+import com.github.pjfanning.xlsx.CloseableIterator;
+import com.github.pjfanning.xlsx.exceptions.ReadException;
+import com.github.pjfanning.xlsx.impl.ooxml.HyperlinkData;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Parses the chunks of a sheet in parallel and returns the rows in sheet order. Only a limited number of
+ * chunks are parsed ahead of the consumer, so the memory use is bounded by the chunk size.
+ * <p>
+ * The merged cells and hyperlinks of each chunk are collected by the chunk task and added to the sheet
+ * reader on the consumer thread, when the consumer reaches the chunk.
+ * </p>
+ */
+class ParallelRowIterator implements CloseableIterator<Row> {
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelRowIterator.class);
+
+  /**
+   * The approximate number of bytes of row XML in each chunk.
+   */
+  static final int CHUNK_SIZE = 1024 * 1024;
+
+  private final StreamingSheetReader streamingSheetReader;
+  private final SheetXmlChunks chunks;
+  private final Executor executor;
+  private final int maxChunksInFlight;
+  private final int firstColNum;
+  private final ArrayDeque<CompletableFuture<ChunkRows>> pending = new ArrayDeque<>();
+  private int nextChunk;
+  private Iterator<Row> currentRows = Collections.emptyIterator();
+  private volatile boolean closed;
+
+  /**
+   * The rows and the sheet metadata that were read from one chunk.
+   */
+  private static final class ChunkRows {
+    private final List<Row> rows = new ArrayList<>();
+    private final Set<CellRangeAddress> mergedCells = new LinkedHashSet<>();
+    private final Set<HyperlinkData> hyperlinks = new LinkedHashSet<>();
+  }
+
+  ParallelRowIterator(final StreamingSheetReader streamingSheetReader, final SheetXmlChunks chunks,
+                      final Executor executor, final int maxChunksInFlight) {
+    this.streamingSheetReader = streamingSheetReader;
+    this.chunks = chunks;
+    this.executor = executor;
+    this.maxChunksInFlight = Math.max(1, maxChunksInFlight);
+    // the first chunk has the sheet metadata (e.g. the default row height and the dimension) that the iterators
+    // for the other chunks need, so the metadata is parsed (by the iterator constructor) before they are created
+    final ChunkRows firstChunk = new ChunkRows();
+    final StreamingRowIterator firstChunkIterator = streamingSheetReader.createChunkIterator(chunks.openChunk(0),
+            0, firstChunk.mergedCells, firstChunk.hyperlinks);
+    this.firstColNum = firstChunkIterator.getFirstColNum();
+    pending.add(CompletableFuture.supplyAsync(() -> readRows(firstChunkIterator, firstChunk), executor));
+    nextChunk = 1;
+    submitChunks();
+  }
+
+  /**
+   * Reads the rows from a chunk iterator (until the iterator is exhausted or this iterator is closed)
+   * and closes it.
+   */
+  private ChunkRows readRows(final StreamingRowIterator iterator, final ChunkRows chunk) {
+    try {
+      while (!closed && iterator.hasNext()) {
+        chunk.rows.add(iterator.next());
+      }
+      return chunk;
+    } finally {
+      iterator.close(false);
+    }
+  }
+
+  private ChunkRows readChunk(final int chunkIndex) {
+    final ChunkRows chunk = new ChunkRows();
+    if (closed) {
+      return chunk;
+    }
+    return readRows(streamingSheetReader.createChunkIterator(chunks.openChunk(chunkIndex), firstColNum,
+            chunk.mergedCells, chunk.hyperlinks), chunk);
+  }
+
+  private void submitChunks() {
+    while (pending.size() < maxChunksInFlight && nextChunk < chunks.getChunkCount()) {
+      final int chunkIndex = nextChunk++;
+      pending.add(CompletableFuture.supplyAsync(() -> readChunk(chunkIndex), executor));
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!currentRows.hasNext()) {
+      if (closed || pending.isEmpty()) {
+        return false;
+      }
+      final CompletableFuture<ChunkRows> future = pending.poll();
+      submitChunks();
+      final ChunkRows chunk = join(future);
+      streamingSheetReader.addMergedCellsAndHyperlinks(chunk.mergedCells, chunk.hyperlinks);
+      currentRows = chunk.rows.iterator();
+    }
+    return true;
+  }
+
+  @Override
+  public Row next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return currentRows.next();
+  }
+
+  private static ChunkRows join(final CompletableFuture<ChunkRows> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new ReadException("Failed to parse sheet chunk", e);
+    }
+  }
+
+  /**
+   * Stops the chunk tasks and waits for the tasks that are running, so that no chunk is parsed after the
+   * sheet (and the workbook) is closed.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    streamingSheetReader.removeParallelIterator(this);
+    for (CompletableFuture<ChunkRows> future : pending) {
+      try {
+        future.join();
+      } catch (CompletionException | CancellationException e) {
+        LOG.debug("ignoring exception from sheet chunk after parallel row iterator was closed", e);
+      }
+    }
+    pending.clear();
+    currentRows = Collections.emptyIterator();
+  }
+}
@@ -0,0 +1,137 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+import org.apache.poi.util.TempFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Holds a copy of a zip entry that was read before it could be used (see {@link SinglePassSheetIterator}).
+ * The data is compressed again (with the fastest compression level) and kept in memory until the memory
+ * limit is reached - after that, the data is written to a temp file.
+ */
+final class PartSpool implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(PartSpool.class);
+
+  private final UnsynchronizedByteArrayOutputStream memory = UnsynchronizedByteArrayOutputStream.builder()
+          .setBufferSize(4096).get();
+  private File tempFile;
+
+  /**
+   * @param inputStream the data to spool (it is not closed)
+   * @param memoryLimit the maximum number of (compressed) bytes to keep in memory
+   * @param allowTempFile whether data beyond the memory limit can be written to a temp file
+   * @throws IOException if the data cannot be read or if the memory limit is exceeded when temp files
+   * are not allowed
+   */
+  PartSpool(final InputStream inputStream, final long memoryLimit, final boolean allowTempFile) throws IOException {
+    final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try (OutputStream os = new DeflaterOutputStream(new SpillingOutputStream(memoryLimit, allowTempFile), deflater)) {
+      final byte[] buffer = new byte[8192];
+      int read;
+      while ((read = inputStream.read(buffer)) != -1) {
+        os.write(buffer, 0, read);
+      }
+    } catch (IOException | RuntimeException e) {
+      close();
+      throw e;
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * @return the number of bytes held in memory
+   */
+  long getMemorySize() {
+    return memory.size();
+  }
+
+  /**
+   * @return a new stream with the (uncompressed) data
+   * @throws IOException if the temp file cannot be opened
+   */
+  InputStream getInputStream() throws IOException {
+    final InputStream compressed = tempFile == null ? memory.toInputStream() : new FileInputStream(tempFile);
+    final Inflater inflater = new Inflater();
+    return new InflaterInputStream(compressed, inflater, 8192) {
+      private boolean closed;
+
+      @Override
+      public void close() throws IOException {
+        if (!closed) {
+          closed = true;
+          try {
+            super.close();
+          } finally {
+            inflater.end();
+          }
+        }
+      }
+    };
+  }
+
+  @Override
+  public void close() {
+    memory.reset();
+    if (tempFile != null && !tempFile.delete()) {
+      LOG.debug("failed to delete temp file");
+    }
+  }
+
+  private final class SpillingOutputStream extends OutputStream {
+    private final long memoryLimit;
+    private final boolean allowTempFile;
+    private OutputStream fileStream;
+
+    SpillingOutputStream(final long memoryLimit, final boolean allowTempFile) {
+      this.memoryLimit = memoryLimit;
+      this.allowTempFile = allowTempFile;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      if (fileStream == null && memory.size() + len > memoryLimit) {
+        if (!allowTempFile) {
+          throw new IOException("The data that has to be buffered exceeds the single-pass spool limit of " +
+                  memoryLimit + " bytes (see StreamingReader.Builder.setSinglePassSpoolLimit)");
+        }
+        tempFile = TempFile.createTempFile("excel-streaming-reader-spool", ".tmp");
+        LOG.debug("spooling part data to temp file [{}]", tempFile.getAbsolutePath());
+        fileStream = new BufferedOutputStream(new FileOutputStream(tempFile));
+        memory.writeTo(fileStream);
+        memory.reset();
+      }
+      if (fileStream == null) {
+        memory.write(b, off, len);
+      } else {
+        fileStream.write(b, off, len);
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (fileStream != null) {
+        fileStream.flush();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (fileStream != null) {
+        fileStream.close();
+      }
+    }
+  }
+}
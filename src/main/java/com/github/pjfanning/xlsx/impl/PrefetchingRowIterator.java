@@ -0,0 +1,173 @@
+package com.github.pjfanning.xlsx.impl;
+
+import com.github.pjfanning.xlsx.CloseableIterator;
+import com.github.pjfanning.xlsx.exceptions.CloseException;
+import com.github.pjfanning.xlsx.exceptions.ReadException;
+import org.apache.poi.ss.usermodel.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wraps a row iterator and reads its rows on a background thread, so that the sheet is parsed while the
+ * consumer processes the earlier rows. The background thread stops when the queue is full.
+ * <p>
+ * The background thread is never interrupted: it is usually reading the sheet XML and interrupting a thread
+ * that reads from a <code>FileChannel</code> closes the channel, which is shared by all the sheets of a
+ * workbook that was opened from a file. When the iterator is closed, the background thread stops at its
+ * next row.
+ * </p>
+ */
+class PrefetchingRowIterator implements CloseableIterator<Row> {
+  private static final Logger LOG = LoggerFactory.getLogger(PrefetchingRowIterator.class);
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+  private static final Object END_OF_ROWS = new Object();
+  private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+  private final StreamingSheetReader streamingSheetReader;
+  private final CloseableIterator<Row> delegate;
+  private final BlockingQueue<Object> queue;
+  private final Thread producer;
+  private volatile boolean closed;
+  private Object nextItem;
+
+  /**
+   * Wraps exceptions thrown by the delegate so that they can be rethrown on the consumer thread.
+   */
+  private static final class Failure {
+    private final Throwable throwable;
+
+    private Failure(Throwable throwable) {
+      this.throwable = throwable;
+    }
+  }
+
+  /**
+   * @param streamingSheetReader the reader that created the delegate (can be null)
+   * @param delegate the iterator that parses the rows
+   * @param queueSize the maximum number of parsed rows waiting to be consumed
+   * @param threadFactory the factory used to create the background thread (null means use a daemon thread)
+   */
+  PrefetchingRowIterator(final StreamingSheetReader streamingSheetReader, final CloseableIterator<Row> delegate,
+                         final int queueSize, final ThreadFactory threadFactory) {
+    this.streamingSheetReader = streamingSheetReader;
+    this.delegate = delegate;
+    this.queue = new ArrayBlockingQueue<>(queueSize);
+    this.producer = threadFactory == null ? createDefaultThread(this::produce) : threadFactory.newThread(this::produce);
+    producer.start();
+  }
+
+  private static Thread createDefaultThread(final Runnable runnable) {
+    final Thread thread = new Thread(runnable, "excel-streaming-reader-prefetch-" + THREAD_COUNT.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  private void produce() {
+    try {
+      while (!closed && delegate.hasNext()) {
+        if (!enqueue(delegate.next())) {
+          return;
+        }
+      }
+      enqueue(END_OF_ROWS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException | Error e) {
+      if (closed) {
+        LOG.debug("ignoring exception after prefetching row iterator was closed", e);
+      } else {
+        try {
+          enqueue(new Failure(e));
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  /**
+   * Waits until there is space in the queue for the item, unless this iterator is closed.
+   *
+   * @return false if this iterator was closed before the item was added
+   */
+  private boolean enqueue(final Object item) throws InterruptedException {
+    while (!closed) {
+      if (queue.offer(item, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (nextItem == null) {
+      if (closed) {
+        return false;
+      }
+      try {
+        nextItem = queue.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ReadException("Interrupted while waiting for the next row", e);
+      }
+    }
+    if (nextItem instanceof Failure) {
+      final Throwable throwable = ((Failure) nextItem).throwable;
+      if (throwable instanceof Error) {
+        throw (Error) throwable;
+      }
+      throw (RuntimeException) throwable;
+    }
+    return nextItem != END_OF_ROWS;
+  }
+
+  @Override
+  public Row next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    final Row row = (Row) nextItem;
+    nextItem = null;
+    return row;
+  }
+
+  /**
+   * Stops the background thread. This can be called on a different thread than the consumer (e.g. when the
+   * workbook is closed) - a consumer that is waiting for the next row is woken up and finds no more rows.
+   */
+  @Override
+  public synchronized void close() throws CloseException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (streamingSheetReader != null) streamingSheetReader.removePrefetchingIterator(this);
+    // wakes up the background thread if it is waiting for space in the queue
+    queue.clear();
+    try {
+      producer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CloseException(e);
+    } finally {
+      // the background thread does not add END_OF_ROWS after it is closed, so it is added here for a
+      // consumer that is waiting for the next row
+      queue.clear();
+      queue.offer(END_OF_ROWS);
+      try {
+        delegate.close();
+      } catch (IOException e) {
+        throw new CloseException(e);
+      }
+    }
+  }
+}
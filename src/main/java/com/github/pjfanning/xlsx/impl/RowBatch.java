@@ -0,0 +1,317 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.poi.xssf.model.SharedStrings;
+
+import java.util.Arrays;
+
+/**
+ * A batch of rows stored as column vectors, filled by {@link StreamingSheet#rowBatchIterator(int, int)}.
+ * The same instance (and the same arrays) are reused for every batch, so reading a sheet in batches creates
+ * almost no objects per cell.
+ * <p>
+ * The values for a column are stored in primitive arrays that are indexed by the position of the row in
+ * the batch (0 to <code>size() - 1</code>). Which array holds the value of a cell depends on the cell type
+ * (see {@link #getTypes(int)}):
+ * </p>
+ * <ul>
+ *   <li>{@link #TYPE_NUMERIC} and {@link #TYPE_BOOLEAN} (1 or 0): {@link #getNumbers(int)}</li>
+ *   <li>{@link #TYPE_SHARED_STRING}: {@link #getSharedStringIndexes(int)}</li>
+ *   <li>{@link #TYPE_STRING}, {@link #TYPE_ERROR} and {@link #TYPE_ISO_DATE}: {@link #getStrings(int)}</li>
+ * </ul>
+ * <p>
+ * Cells without a value have the type {@link #TYPE_NULL} and their bit is set in the null bitmap
+ * (see {@link #getNullBitmap(int)}). The entries for null cells and the entries in the arrays that do not
+ * match the cell type are undefined. Cells in columns at or after <code>columnCount</code> are ignored.
+ * </p>
+ *
+ * @since v5.3.0
+ */
+public final class RowBatch {
+  /** The cell has no value. */
+  public static final byte TYPE_NULL = 0;
+  /** Numeric cell (including dates that are stored as numbers). */
+  public static final byte TYPE_NUMERIC = 1;
+  /** String stored in the shared strings table. */
+  public static final byte TYPE_SHARED_STRING = 2;
+  /** Inline string or the string result of a formula. */
+  public static final byte TYPE_STRING = 3;
+  /** Boolean cell, stored as 1 (true) or 0 (false). */
+  public static final byte TYPE_BOOLEAN = 4;
+  /** Error cell, the string is the error code (e.g. <code>#DIV/0!</code>). */
+  public static final byte TYPE_ERROR = 5;
+  /** Date stored in ISO 8601 format. */
+  public static final byte TYPE_ISO_DATE = 6;
+
+  private final int capacity;
+  private final int columnCount;
+  private final int[] rowNums;
+  private final byte[][] types;
+  private final double[][] numbers;
+  private final int[][] sharedStringIndexes;
+  private final int[][] styleIndexes;
+  private final String[][] strings;
+  private final long[][] nullBitmaps;
+
+  private SharedStrings sst;
+  private boolean usesPoiSharedStrings;
+  private int size;
+
+  /**
+   * @param capacity the maximum number of rows in the batch
+   * @param columnCount the number of columns (starting at column 0) to keep
+   * @throws IllegalArgumentException if capacity is less than 1 or columnCount is negative
+   */
+  public RowBatch(int capacity, int columnCount) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1");
+    }
+    if (columnCount < 0) {
+      throw new IllegalArgumentException("columnCount must not be negative");
+    }
+    this.capacity = capacity;
+    this.columnCount = columnCount;
+    this.rowNums = new int[capacity];
+    this.types = new byte[columnCount][capacity];
+    this.numbers = new double[columnCount][capacity];
+    this.sharedStringIndexes = new int[columnCount][capacity];
+    this.styleIndexes = new int[columnCount][capacity];
+    this.strings = new String[columnCount][capacity];
+    this.nullBitmaps = new long[columnCount][(capacity + 63) >>> 6];
+  }
+
+  /**
+   * @return the maximum number of rows in the batch
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return the number of columns in the batch
+   */
+  public int getColumnCount() {
+    return columnCount;
+  }
+
+  /**
+   * @return the number of rows in the batch
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param row position of the row in the batch
+   * @return the 0-based row number in the sheet
+   */
+  public int getRowNum(int row) {
+    return rowNums[checkRow(row)];
+  }
+
+  /**
+   * @return the 0-based row numbers in the sheet, indexed by the position of the row in the batch
+   */
+  public int[] getRowNums() {
+    return rowNums;
+  }
+
+  /**
+   * @param column 0-based column index
+   * @return the cell types (see the <code>TYPE_</code> constants)
+   */
+  public byte[] getTypes(int column) {
+    return types[column];
+  }
+
+  /**
+   * @param column 0-based column index
+   * @return the values of the numeric and boolean cells
+   */
+  public double[] getNumbers(int column) {
+    return numbers[column];
+  }
+
+  /**
+   * @param column 0-based column index
+   * @return the indexes into the shared strings table of the shared string cells
+   */
+  public int[] getSharedStringIndexes(int column) {
+    return sharedStringIndexes[column];
+  }
+
+  /**
+   * @param column 0-based column index
+   * @return the cell style indexes, see {@link StreamingSheet#getCellStyleAt(int)}
+   */
+  public int[] getStyleIndexes(int column) {
+    return styleIndexes[column];
+  }
+
+  /**
+   * @param column 0-based column index
+   * @return the values of the string, error and ISO date cells
+   */
+  public String[] getStrings(int column) {
+    return strings[column];
+  }
+
+  /**
+   * @param column 0-based column index
+   * @return bitmap with a bit set for each null cell (bit <code>row % 64</code> of word <code>row / 64</code>)
+   */
+  public long[] getNullBitmap(int column) {
+    return nullBitmaps[column];
+  }
+
+  /**
+   * @param column 0-based column index
+   * @param row position of the row in the batch
+   * @return true if the cell has no value
+   */
+  public boolean isNull(int column, int row) {
+    checkRow(row);
+    return (nullBitmaps[column][row >>> 6] & (1L << row)) != 0;
+  }
+
+  /**
+   * @param column 0-based column index
+   * @param row position of the row in the batch
+   * @return the cell type (see the <code>TYPE_</code> constants)
+   */
+  public byte getType(int column, int row) {
+    return types[column][checkRow(row)];
+  }
+
+  /**
+   * @param column 0-based column index
+   * @param row position of the row in the batch
+   * @return the cell value for numeric and boolean cells (NaN for other cells)
+   */
+  public double getDouble(int column, int row) {
+    final byte type = types[column][checkRow(row)];
+    return type == TYPE_NUMERIC || type == TYPE_BOOLEAN ? numbers[column][row] : Double.NaN;
+  }
+
+  /**
+   * @param column 0-based column index
+   * @param row position of the row in the batch
+   * @return the index into the shared strings table (-1 if the cell is not a shared string)
+   */
+  public int getSharedStringIndex(int column, int row) {
+    return types[column][checkRow(row)] == TYPE_SHARED_STRING ? sharedStringIndexes[column][row] : -1;
+  }
+
+  /**
+   * @param column 0-based column index
+   * @param row position of the row in the batch
+   * @return the cell style index
+   */
+  public int getStyleIndex(int column, int row) {
+    return styleIndexes[column][checkRow(row)];
+  }
+
+  /**
+   * Returns the string value of string, shared string, error and ISO date cells. Shared strings
+   * are looked up in the shared strings table.
+   *
+   * @param column 0-based column index
+   * @param row position of the row in the batch
+   * @return the string value (null for other cells)
+   */
+  public String getString(int column, int row) {
+    switch (types[column][checkRow(row)]) {
+      case TYPE_SHARED_STRING:
+        final int idx = sharedStringIndexes[column][row];
+        if (sst instanceof CachedSharedStrings) {
+          return ((CachedSharedStrings) sst).getString(idx);
+        } else if (usesPoiSharedStrings) {
+          return PoiSharedStringsSupport.getSharedString(sst, idx);
+        }
+        return sst.getItemAt(idx).getString();
+      case TYPE_STRING:
+      case TYPE_ERROR:
+      case TYPE_ISO_DATE:
+        return strings[column][row];
+      default:
+        return null;
+    }
+  }
+
+  void reset(final SharedStrings sst, final boolean usesPoiSharedStrings) {
+    this.sst = sst;
+    this.usesPoiSharedStrings = usesPoiSharedStrings;
+    this.size = 0;
+    for (long[] nullBitmap : nullBitmaps) {
+      Arrays.fill(nullBitmap, -1L);
+    }
+  }
+
+  boolean isFull() {
+    return size == capacity;
+  }
+
+  void startRow(final int rowNum) {
+    rowNums[size] = rowNum;
+    for (int column = 0; column < columnCount; column++) {
+      types[column][size] = TYPE_NULL;
+      strings[column][size] = null;
+    }
+  }
+
+  void setCell(final int column, final String type, final CharSequence value, final int styleIndex) {
+    if (column >= columnCount) {
+      return;
+    }
+    final int row = size;
+    styleIndexes[column][row] = styleIndex;
+    final byte cellType;
+    switch (type) {
+      case "n":
+        if (value.length() == 0) {
+          return;
+        }
+        numbers[column][row] = NumberUtil.parseDouble(value);
+        cellType = TYPE_NUMERIC;
+        break;
+      case "s":
+        if (value.length() == 0) {
+          return;
+        }
+        sharedStringIndexes[column][row] = NumberUtil.parseInt(value);
+        cellType = TYPE_SHARED_STRING;
+        break;
+      case "b":
+        if (value.length() == 0) {
+          return;
+        }
+        numbers[column][row] = value.charAt(0) == '1' ? 1 : 0;
+        cellType = TYPE_BOOLEAN;
+        break;
+      case "e":
+        strings[column][row] = value.toString();
+        cellType = TYPE_ERROR;
+        break;
+      case "d":
+        strings[column][row] = value.toString();
+        cellType = TYPE_ISO_DATE;
+        break;
+      default:
+        strings[column][row] = value.toString();
+        cellType = TYPE_STRING;
+        break;
+    }
+    types[column][row] = cellType;
+    nullBitmaps[column][row >>> 6] &= ~(1L << row);
+  }
+
+  void endRow() {
+    size++;
+  }
+
+  private int checkRow(final int row) {
+    if (row < 0 || row >= size) {
+      throw new IndexOutOfBoundsException("row " + row + " is not in the batch (size " + size + ")");
+    }
+    return row;
+  }
+}
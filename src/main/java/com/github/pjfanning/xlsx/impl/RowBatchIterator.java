@@ -0,0 +1,67 @@
+package com.github.pjfanning.xlsx.impl;
+
+import com.github.pjfanning.xlsx.CloseableIterator;
+import com.github.pjfanning.xlsx.RowHandler;
+import com.github.pjfanning.xlsx.exceptions.CloseException;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Fills a {@link RowBatch} with the rows that a {@link StreamingRowIterator} pushes in push mode.
+ * Every call to {@link #next()} returns the same batch instance, refilled with the next rows.
+ */
+final class RowBatchIterator implements CloseableIterator<RowBatch>, RowHandler {
+  private final RowBatch batch;
+  private StreamingRowIterator rowIterator;
+  private boolean filled;
+  private boolean exhausted;
+
+  RowBatchIterator(final RowBatch batch) {
+    this.batch = batch;
+  }
+
+  void setRowIterator(final StreamingRowIterator rowIterator) {
+    this.rowIterator = rowIterator;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (!filled) {
+      batch.reset(rowIterator.getSharedStrings(), rowIterator.usesPoiSharedStrings());
+      if (!exhausted) {
+        exhausted = !rowIterator.processRows(batch.getCapacity());
+      }
+      filled = true;
+    }
+    return batch.size() > 0;
+  }
+
+  @Override
+  public RowBatch next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    filled = false;
+    return batch;
+  }
+
+  @Override
+  public void rowStart(final int rowNum) {
+    batch.startRow(rowNum);
+  }
+
+  @Override
+  public void cell(final int columnIndex, final String type, final CharSequence value, final int styleIndex) {
+    batch.setCell(columnIndex, type, value, styleIndex);
+  }
+
+  @Override
+  public void rowEnd(final int rowNum) {
+    batch.endRow();
+  }
+
+  @Override
+  public void close() throws CloseException {
+    rowIterator.close();
+  }
+}
@@ -0,0 +1,429 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.function.IOSupplier;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+
+/**
+ * Records the offset in the (inflated) sheet XML of every Nth <code>&lt;row</code> start tag, so that the sheet
+ * can be parsed from the nearest of these checkpoints instead of from the start. The XML before the first row
+ * (the root element start tag, the dimension, the columns, etc.) is kept and put in front of the sheet XML
+ * from the checkpoint, so the parser sees a well-formed sheet that only has the rows from the checkpoint on.
+ * <p>
+ * The index is built with a byte level scan, which skips comments, CDATA sections and processing instructions.
+ * Only UTF-8 (and ASCII) encoded sheets can be indexed. The checkpoints are only set on rows that have an
+ * <code>r</code> attribute, so that the row numbers stay the same when the parse starts at a checkpoint.
+ * </p>
+ */
+final class RowOffsetIndex {
+  private static final byte[] SHEET_DATA = {'s', 'h', 'e', 'e', 't', 'D', 'a', 't', 'a'};
+  private static final byte[] ROW = {'r', 'o', 'w'};
+
+  private final byte[] header;
+  private final int[] rowNums;
+  private final long[] offsets;
+  private final int rowCount;
+
+  private RowOffsetIndex(final byte[] header, final int[] rowNums, final long[] offsets, final int rowCount) {
+    this.header = header;
+    this.rowNums = rowNums;
+    this.offsets = offsets;
+    this.rowCount = rowCount;
+  }
+
+  /**
+   * Scans the sheet XML. The input stream is not closed.
+   *
+   * @param inputStream the sheet XML
+   * @param interval the number of rows between checkpoints
+   * @return the index, or null if the sheet cannot be indexed (e.g. the XML is not UTF-8 encoded or the
+   * rows are not in ascending order)
+   * @throws IllegalArgumentException if interval is less than 1
+   * @throws IOException if the sheet XML cannot be read
+   */
+  static RowOffsetIndex build(final InputStream inputStream, final int interval) throws IOException {
+    if (interval < 1) {
+      throw new IllegalArgumentException("interval must be at least 1");
+    }
+    return new Builder(inputStream, interval).build();
+  }
+
+  /**
+   * Writes the index so that it can be read back with {@link #read(DataInputStream)}.
+   */
+  void write(final DataOutputStream out) throws IOException {
+    out.writeInt(rowCount);
+    out.writeInt(header.length);
+    out.write(header);
+    out.writeInt(rowNums.length);
+    for (int i = 0; i < rowNums.length; i++) {
+      out.writeInt(rowNums[i]);
+      out.writeLong(offsets[i]);
+    }
+  }
+
+  /**
+   * @return the index that was written using {@link #write(DataOutputStream)}
+   * @throws IOException if the data cannot be read or it is not valid
+   */
+  static RowOffsetIndex read(final DataInputStream in) throws IOException {
+    final int rowCount = in.readInt();
+    final int headerLength = in.readInt();
+    if (rowCount < 0 || headerLength < 0 || headerLength > 1 << 26) {
+      throw new IOException("Invalid row offset index");
+    }
+    final byte[] header = new byte[headerLength];
+    in.readFully(header);
+    final int checkpointCount = in.readInt();
+    if (checkpointCount < 0 || checkpointCount > rowCount) {
+      throw new IOException("Invalid row offset index");
+    }
+    final int[] rowNums = new int[checkpointCount];
+    final long[] offsets = new long[checkpointCount];
+    for (int i = 0; i < checkpointCount; i++) {
+      rowNums[i] = in.readInt();
+      offsets[i] = in.readLong();
+    }
+    return new RowOffsetIndex(header, rowNums, offsets, rowCount);
+  }
+
+  /**
+   * @return the number of <code>row</code> elements in the sheet
+   */
+  int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * @return the number of checkpoints
+   */
+  int getCheckpointCount() {
+    return rowNums.length;
+  }
+
+  /**
+   * @param rowNum 0-based row number
+   * @return the 0-based row number of the last checkpoint at or before <code>rowNum</code>,
+   * or -1 if there is no such checkpoint (the sheet needs to be parsed from the start)
+   */
+  int getCheckpointRowNum(final int rowNum) {
+    final int checkpoint = findCheckpoint(rowNum);
+    return checkpoint < 0 ? -1 : rowNums[checkpoint];
+  }
+
+  /**
+   * Opens the sheet XML so that the first row is the row of the last checkpoint at or before <code>rowNum</code>.
+   * The sheet XML before the checkpoint is skipped without being parsed.
+   *
+   * @param sheetXmlSupplier opens the sheet XML that the index was built from
+   * @param rowNum 0-based row number
+   * @return the sheet XML
+   * @throws IOException if the sheet XML cannot be read
+   */
+  InputStream open(final IOSupplier<InputStream> sheetXmlSupplier, final int rowNum) throws IOException {
+    final int checkpoint = findCheckpoint(rowNum);
+    final InputStream inputStream = sheetXmlSupplier.get();
+    if (checkpoint < 0) {
+      return inputStream;
+    }
+    try {
+      IOUtils.skipFully(inputStream, offsets[checkpoint]);
+    } catch (IOException | RuntimeException e) {
+      IOUtils.closeQuietly(inputStream);
+      throw e;
+    }
+    return new SequenceInputStream(new ByteArrayInputStream(header), inputStream);
+  }
+
+  private int findCheckpoint(final int rowNum) {
+    final int pos = Arrays.binarySearch(rowNums, rowNum);
+    return pos >= 0 ? pos : -pos - 2;
+  }
+
+  /**
+   * Scans the sheet XML tag by tag, keeping track of the offset of the current byte.
+   */
+  private static final class Builder {
+    private final InputStream in;
+    private final int interval;
+    private final byte[] buffer = new byte[1 << 16];
+    private final ByteArrayOutputStream header = new ByteArrayOutputStream();
+    private final byte[] name = new byte[64];
+    private int pos;
+    private int limit;
+    private long bufferOffset;
+    private boolean recordingHeader = true;
+
+    private int nameLength;
+    private boolean endTag;
+    private boolean emptyElement;
+    private int rowNumAttr;
+
+    private int[] rowNums = new int[16];
+    private long[] offsets = new long[16];
+    private int checkpointCount;
+
+    Builder(final InputStream in, final int interval) {
+      this.in = in;
+      this.interval = interval;
+    }
+
+    RowOffsetIndex build() throws IOException {
+      while (limit < 2) {
+        final int count = in.read(buffer, limit, buffer.length - limit);
+        if (count < 0) {
+          return null;
+        }
+        limit += count;
+      }
+      if ((buffer[0] & 0xFF) == 0xFE || (buffer[0] & 0xFF) == 0xFF || buffer[0] == 0 || buffer[1] == 0) {
+        // UTF-16
+        return null;
+      }
+      boolean inSheetData = false;
+      int rowCount = 0;
+      int rowsSinceCheckpoint = 0;
+      int lastRowNum = -1;
+      int b = read();
+      while (true) {
+        if (b == '<') {
+          final long tagStart = offset() - 1;
+          if (!readTag()) {
+            break;
+          }
+          if (nameLength == 0) {
+            // comment, CDATA section, processing instruction, etc.
+          } else if (!inSheetData) {
+            if (!endTag && isLocalName(SHEET_DATA)) {
+              if (emptyElement) {
+                break;
+              }
+              inSheetData = true;
+              recordingHeader = false;
+            }
+          } else if (isLocalName(SHEET_DATA)) {
+            if (endTag) {
+              break;
+            }
+          } else if (!endTag && isLocalName(ROW)) {
+            final int rowNum = rowNumAttr >= 0 ? rowNumAttr : lastRowNum + 1;
+            if (rowNum <= lastRowNum) {
+              return null;
+            }
+            if (rowCount > 0 && rowsSinceCheckpoint >= interval && rowNumAttr >= 0) {
+              addCheckpoint(rowNum, tagStart);
+              rowsSinceCheckpoint = 0;
+            }
+            lastRowNum = rowNum;
+            rowCount++;
+            rowsSinceCheckpoint++;
+          }
+        }
+        b = read();
+        if (b < 0) {
+          break;
+        }
+      }
+      return new RowOffsetIndex(header.toByteArray(), Arrays.copyOf(rowNums, checkpointCount),
+              Arrays.copyOf(offsets, checkpointCount), rowCount);
+    }
+
+    private void addCheckpoint(final int rowNum, final long offset) {
+      if (checkpointCount == rowNums.length) {
+        rowNums = Arrays.copyOf(rowNums, checkpointCount * 2);
+        offsets = Arrays.copyOf(offsets, checkpointCount * 2);
+      }
+      rowNums[checkpointCount] = rowNum;
+      offsets[checkpointCount] = offset;
+      checkpointCount++;
+    }
+
+    /**
+     * Reads the rest of a tag (the <code>&lt;</code> has been read). Afterwards, <code>nameLength</code>
+     * is 0 if this was not a start or end tag, and <code>rowNumAttr</code> is the 0-based value of the
+     * <code>r</code> attribute (-1 if there is no valid <code>r</code> attribute).
+     *
+     * @return false if the end of the stream was reached
+     */
+    private boolean readTag() throws IOException {
+      nameLength = 0;
+      endTag = false;
+      emptyElement = false;
+      rowNumAttr = -1;
+      int b = read();
+      if (b == '?') {
+        return skipTo("?>");
+      } else if (b == '!') {
+        b = read();
+        if (b == '-') {
+          return skipTo("-->");
+        } else if (b == '[') {
+          return skipTo("]]>");
+        }
+        return b >= 0 && skipTo(">");
+      } else if (b == '/') {
+        endTag = true;
+        b = read();
+      }
+      while (b >= 0 && !isNameEnd(b)) {
+        if (nameLength < name.length) {
+          name[nameLength] = (byte) b;
+        }
+        nameLength++;
+        b = read();
+      }
+      return readAttributes(b);
+    }
+
+    /**
+     * @param first the first byte after the tag name
+     */
+    private boolean readAttributes(final int first) throws IOException {
+      int b = first;
+      final boolean isRow = !endTag && isLocalName(ROW);
+      while (true) {
+        if (b < 0) {
+          return false;
+        } else if (b == '>') {
+          return true;
+        } else if (b == '/') {
+          emptyElement = true;
+          b = read();
+        } else if (isWhitespace(b)) {
+          b = read();
+        } else {
+          // attribute name
+          final boolean isRef = b == 'r';
+          int attrNameLength = 0;
+          while (b >= 0 && b != '=' && !isWhitespace(b) && b != '>') {
+            attrNameLength++;
+            b = read();
+          }
+          while (isWhitespace(b)) {
+            b = read();
+          }
+          if (b != '=') {
+            continue;
+          }
+          b = read();
+          while (isWhitespace(b)) {
+            b = read();
+          }
+          if (b != '"' && b != '\'') {
+            continue;
+          }
+          final int quote = b;
+          final boolean readValue = isRow && isRef && attrNameLength == 1;
+          int value = 0;
+          boolean validValue = readValue;
+          b = read();
+          while (b >= 0 && b != quote) {
+            if (readValue) {
+              if (b >= '0' && b <= '9' && value < Integer.MAX_VALUE / 10) {
+                value = value * 10 + (b - '0');
+              } else {
+                validValue = false;
+              }
+            }
+            b = read();
+          }
+          if (validValue && value > 0) {
+            rowNumAttr = value - 1;
+          }
+          b = read();
+        }
+      }
+    }
+
+    /**
+     * Skips to just after the next occurrence of <code>end</code>.
+     *
+     * @return false if the end of the stream was reached
+     */
+    private boolean skipTo(final String end) throws IOException {
+      final int last = end.length() - 1;
+      // the bytes before the current byte, shifted along (end is at most 3 bytes long)
+      int previous1 = -1;
+      int previous2 = -1;
+      while (true) {
+        final int b = read();
+        if (b < 0) {
+          return false;
+        }
+        if (b == end.charAt(last) && (last < 1 || previous1 == end.charAt(last - 1))
+                && (last < 2 || previous2 == end.charAt(last - 2))) {
+          return true;
+        }
+        previous2 = previous1;
+        previous1 = b;
+      }
+    }
+
+    private boolean isLocalName(final byte[] localName) {
+      if (nameLength > name.length) {
+        return false;
+      }
+      int localStart = 0;
+      for (int i = 0; i < nameLength; i++) {
+        if (name[i] == ':') {
+          localStart = i + 1;
+        }
+      }
+      if (nameLength - localStart != localName.length) {
+        return false;
+      }
+      for (int i = 0; i < localName.length; i++) {
+        if (name[localStart + i] != localName[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * @return the offset of the next byte
+     */
+    private long offset() {
+      return bufferOffset + pos;
+    }
+
+    private int read() throws IOException {
+      if (pos == limit && !fill()) {
+        return -1;
+      }
+      final byte b = buffer[pos++];
+      if (recordingHeader) {
+        header.write(b);
+      }
+      return b & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+      bufferOffset += limit;
+      pos = 0;
+      limit = 0;
+      final int count = in.read(buffer, 0, buffer.length);
+      if (count <= 0) {
+        return false;
+      }
+      limit = count;
+      return true;
+    }
+
+    private static boolean isNameEnd(final int b) {
+      return b == '>' || b == '/' || isWhitespace(b);
+    }
+
+    private static boolean isWhitespace(final int b) {
+      return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+  }
+}
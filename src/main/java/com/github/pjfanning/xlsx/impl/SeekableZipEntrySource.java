@@ -0,0 +1,94 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.InputStreamStatistics;
+import org.apache.poi.openxml4j.util.ZipEntrySource;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Enumeration;
+
+/**
+ * A {@link ZipEntrySource} that reads the zip central directory from a {@link SeekableByteChannel} and
+ * inflates entries on demand, so the zip does not need to be copied to a temp file or fully inflated
+ * into memory.
+ * <p>
+ * The entries are checked against the same limits that POI applies when it opens a file
+ * (see {@link ZipSecureFile}).
+ * </p>
+ */
+class SeekableZipEntrySource implements ZipEntrySource {
+  private final ZipFile zipFile;
+  private volatile boolean closed;
+
+  /**
+   * @param channel the channel to read the zip from - it is closed when this source is closed
+   * @throws IOException if the channel does not contain a valid zip
+   */
+  SeekableZipEntrySource(final SeekableByteChannel channel) throws IOException {
+    this.zipFile = ZipFile.builder().setSeekableByteChannel(channel).get();
+    try {
+      long entryCount = 0;
+      final Enumeration<ZipArchiveEntry> entries = zipFile.getEntries();
+      while (entries.hasMoreElements()) {
+        entries.nextElement();
+        if (++entryCount > ZipSecureFile.getMaxFileCount()) {
+          throw new IOException(ZipSecureFile.MAX_FILE_COUNT_MSG);
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      zipFile.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public Enumeration<? extends ZipArchiveEntry> getEntries() {
+    return zipFile.getEntries();
+  }
+
+  @Override
+  public ZipArchiveEntry getEntry(final String path) {
+    final String normalizedPath = path.replace('\\', '/');
+    final ZipArchiveEntry entry = zipFile.getEntry(normalizedPath);
+    if (entry != null) {
+      return entry;
+    }
+    // the part names are case-insensitive
+    final Enumeration<ZipArchiveEntry> entries = zipFile.getEntries();
+    while (entries.hasMoreElements()) {
+      final ZipArchiveEntry candidate = entries.nextElement();
+      if (normalizedPath.equalsIgnoreCase(candidate.getName().replace('\\', '/'))) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public InputStream getInputStream(final ZipArchiveEntry entry) throws IOException {
+    if (entry.getSize() > ZipSecureFile.getMaxEntrySize()) {
+      throw new IOException("Zip entry " + entry.getName() + " is larger than the max entry size " +
+              ZipSecureFile.getMaxEntrySize() + " (see ZipSecureFile.setMaxEntrySize)");
+    }
+    final InputStream inputStream = zipFile.getInputStream(entry);
+    return new ZipThresholdInputStream(entry.getName(), inputStream,
+            inputStream instanceof InputStreamStatistics ? (InputStreamStatistics) inputStream : null);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      zipFile.close();
+    }
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed;
+  }
+}
@@ -0,0 +1,139 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.poi.util.XMLHelper;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Pull parser for <code>sharedStrings.xml</code> that returns the text of one <code>si</code> element at a time.
+ * The text is extracted the same way as in POI's <code>ReadOnlySharedStringsTable</code>: the text of all the
+ * <code>t</code> elements in the item is concatenated and phonetic runs are only included if requested.
+ */
+final class SharedStringsXmlReader implements Closeable {
+  private final InputStream inputStream;
+  private final XMLStreamReader reader;
+  private final boolean includePhoneticRuns;
+  private int count;
+  private int uniqueCount;
+  private boolean finished;
+
+  /**
+   * Reads up to the <code>sst</code> start element, so the counts are available after construction.
+   *
+   * @param inputStream the <code>sharedStrings.xml</code> data (closed when this reader is closed)
+   * @param includePhoneticRuns whether to include the text of phonetic runs
+   * @throws IOException if the XML cannot be parsed
+   */
+  SharedStringsXmlReader(final InputStream inputStream, final boolean includePhoneticRuns) throws IOException {
+    this.inputStream = inputStream;
+    this.includePhoneticRuns = includePhoneticRuns;
+    try {
+      this.reader = XMLHelper.newXMLInputFactory().createXMLStreamReader(inputStream);
+      while (reader.hasNext()) {
+        if (reader.next() == XMLStreamConstants.START_ELEMENT && "sst".equals(reader.getLocalName())) {
+          count = parseCount(reader.getAttributeValue(null, "count"));
+          uniqueCount = parseCount(reader.getAttributeValue(null, "uniqueCount"));
+          return;
+        }
+      }
+      finished = true;
+    } catch (XMLStreamException e) {
+      throw new IOException("Failed to parse shared strings", e);
+    }
+  }
+
+  /**
+   * @return the value of the <code>count</code> attribute (0 if it is not set)
+   */
+  int getCount() {
+    return count;
+  }
+
+  /**
+   * @return the value of the <code>uniqueCount</code> attribute (0 if it is not set)
+   */
+  int getUniqueCount() {
+    return uniqueCount;
+  }
+
+  /**
+   * Reads the next shared string item.
+   *
+   * @param text the text of the item is written to this builder (it is cleared first)
+   * @return false if there are no more items
+   * @throws IOException if the XML cannot be parsed
+   */
+  boolean next(final StringBuilder text) throws IOException {
+    if (finished) {
+      return false;
+    }
+    text.setLength(0);
+    try {
+      boolean inItem = false;
+      boolean inText = false;
+      boolean inPhoneticRun = false;
+      while (reader.hasNext()) {
+        switch (reader.next()) {
+          case XMLStreamConstants.START_ELEMENT:
+            final String startName = reader.getLocalName();
+            if ("si".equals(startName)) {
+              inItem = true;
+            } else if ("t".equals(startName)) {
+              inText = inItem;
+            } else if ("rPh".equals(startName)) {
+              inPhoneticRun = true;
+              // the phonetic runs come after the regular text
+              if (includePhoneticRuns && text.length() > 0) {
+                text.append(' ');
+              }
+            }
+            break;
+          case XMLStreamConstants.CHARACTERS:
+          case XMLStreamConstants.CDATA:
+          case XMLStreamConstants.SPACE:
+            if (inText && (!inPhoneticRun || includePhoneticRuns)) {
+              text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            }
+            break;
+          case XMLStreamConstants.END_ELEMENT:
+            final String endName = reader.getLocalName();
+            if ("t".equals(endName)) {
+              inText = false;
+            } else if ("rPh".equals(endName)) {
+              inPhoneticRun = false;
+            } else if ("si".equals(endName) && inItem) {
+              return true;
+            }
+            break;
+          default:
+            break;
+        }
+      }
+    } catch (XMLStreamException e) {
+      throw new IOException("Failed to parse shared strings", e);
+    }
+    finished = true;
+    return false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    finished = true;
+    try {
+      reader.close();
+    } catch (XMLStreamException e) {
+      throw new IOException("Failed to close shared strings parser", e);
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  private static int parseCount(final String value) {
+    return value == null ? 0 : NumberUtil.parseInt(value);
+  }
+}
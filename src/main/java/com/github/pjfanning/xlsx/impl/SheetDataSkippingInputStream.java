@@ -0,0 +1,176 @@
+package com.github.pjfanning.xlsx.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Removes the content of the <code>sheetData</code> element from sheet XML at the byte level, so that the
+ * sheet metadata before and after the rows (e.g. the columns, the merged cells and the hyperlinks) can be
+ * parsed without parsing the rows. The <code>sheetData</code> start and end tags are kept, so the result is
+ * the XML of a sheet with no rows.
+ * <p>
+ * The end of the <code>sheetData</code> element is found by looking for its end tag, so a literal
+ * <code>&lt;/sheetData&gt;</code> in a CDATA section in a cell would end the element early.
+ * </p>
+ */
+final class SheetDataSkippingInputStream extends InputStream {
+  private static final byte[] SHEET_DATA = {'s', 'h', 'e', 'e', 't', 'D', 'a', 't', 'a'};
+  // enough for a tag name with a namespace prefix
+  private static final int LOOKAHEAD = 64;
+
+  private static final int BEFORE = 0;
+  private static final int START_TAG = 1;
+  private static final int SKIPPING = 2;
+  private static final int AFTER = 3;
+
+  private final InputStream in;
+  private final byte[] buffer = new byte[1 << 16];
+  private int pos;
+  private int limit;
+  private int state = BEFORE;
+  private byte quote;
+  private byte lastByte;
+
+  SheetDataSkippingInputStream(final InputStream in) {
+    this.in = in;
+  }
+
+  @Override
+  public int read() throws IOException {
+    final byte[] b = new byte[1];
+    final int count = read(b, 0, 1);
+    return count <= 0 ? -1 : b[0] & 0xff;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (state == SKIPPING) {
+      skipSheetData();
+    }
+    if (state == AFTER && pos == limit) {
+      return in.read(b, off, len);
+    }
+    if (ensure(1) == 0) {
+      return -1;
+    }
+    final int max = Math.min(limit, pos + len);
+    int end = pos;
+    if (state == BEFORE) {
+      while (end < max && buffer[end] != '<') {
+        end++;
+      }
+      if (end == pos) {
+        // a tag starts here
+        ensure(LOOKAHEAD);
+        if (isSheetDataTag(pos + 1)) {
+          state = START_TAG;
+        }
+        end = pos + 1;
+      }
+    } else if (state == START_TAG) {
+      while (end < max) {
+        final byte c = buffer[end++];
+        if (quote != 0) {
+          if (c == quote) {
+            quote = 0;
+          }
+        } else if (c == '"' || c == '\'') {
+          quote = c;
+        } else if (c == '>') {
+          state = lastByte == '/' ? AFTER : SKIPPING;
+          break;
+        }
+        if (c > ' ') {
+          lastByte = c;
+        }
+      }
+    } else {
+      end = max;
+    }
+    final int count = end - pos;
+    System.arraycopy(buffer, pos, b, off, count);
+    pos = end;
+    return count;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  /**
+   * Skips to the <code>sheetData</code> end tag (or to the end of the stream).
+   */
+  private void skipSheetData() throws IOException {
+    while (ensure(1) > 0) {
+      int i = pos;
+      while (i < limit && buffer[i] != '<') {
+        i++;
+      }
+      pos = i;
+      if (i < limit) {
+        ensure(LOOKAHEAD);
+        if (pos + 1 < limit && buffer[pos + 1] == '/' && isSheetDataTag(pos + 2)) {
+          state = AFTER;
+          return;
+        }
+        pos++;
+      }
+    }
+    state = AFTER;
+  }
+
+  /**
+   * @param start the position of the tag name in the buffer
+   * @return true if the tag name has <code>sheetData</code> as its local name
+   */
+  private boolean isSheetDataTag(final int start) {
+    int localStart = start;
+    int i = start;
+    while (i < limit) {
+      final byte c = buffer[i];
+      if (c == '>' || c == '/' || c <= ' ') {
+        break;
+      } else if (c == ':') {
+        localStart = i + 1;
+      }
+      i++;
+    }
+    if (i == limit || i - localStart != SHEET_DATA.length) {
+      return false;
+    }
+    for (int j = 0; j < SHEET_DATA.length; j++) {
+      if (buffer[localStart + j] != SHEET_DATA[j]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads more data into the buffer (if needed) so that at least <code>count</code> bytes are available.
+   *
+   * @return the number of available bytes (less than <code>count</code> at the end of the stream)
+   */
+  private int ensure(final int count) throws IOException {
+    if (limit - pos >= count) {
+      return limit - pos;
+    }
+    if (pos > 0) {
+      System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+      limit -= pos;
+      pos = 0;
+    }
+    while (limit < count) {
+      final int read = in.read(buffer, limit, buffer.length - limit);
+      if (read < 0) {
+        break;
+      }
+      limit += read;
+    }
+    return limit - pos;
+  }
+}
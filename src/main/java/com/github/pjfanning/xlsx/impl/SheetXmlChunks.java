@@ -0,0 +1,292 @@
+package com.github.pjfanning.xlsx.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The XML of a sheet split at <code>&lt;row</code> boundaries into chunks that can be parsed independently.
+ * Each chunk is presented as a well-formed sheet XML document:
+ * <ul>
+ *   <li>the first chunk has everything before the <code>sheetData</code> element (cols, dimension, etc.)</li>
+ *   <li>the other chunks only have the root element start tag (for the namespace declarations) and the
+ *   <code>sheetData</code> start tag</li>
+ *   <li>the last chunk has everything after the <code>sheetData</code> element (merged cells, hyperlinks, etc.)</li>
+ * </ul>
+ * The split is done with a byte level scan that skips comments, CDATA sections and processing instructions.
+ * Only UTF-8 (and ASCII) encoded sheets can be split.
+ */
+final class SheetXmlChunks {
+  private static final String SHEET_DATA = "sheetData";
+  private static final String ROW = "row";
+
+  private final byte[] xml;
+  private final int rootStartTagEnd;
+  private final int sheetDataStartTagStart;
+  private final int sheetDataContentStart;
+  private final byte[] closingTags;
+  private final int[] chunkStarts;
+
+  private SheetXmlChunks(final byte[] xml, final int rootStartTagEnd, final int sheetDataStartTagStart,
+                         final int sheetDataContentStart, final byte[] closingTags, final int[] chunkStarts) {
+    this.xml = xml;
+    this.rootStartTagEnd = rootStartTagEnd;
+    this.sheetDataStartTagStart = sheetDataStartTagStart;
+    this.sheetDataContentStart = sheetDataContentStart;
+    this.closingTags = closingTags;
+    this.chunkStarts = chunkStarts;
+  }
+
+  /**
+   * @param xml the sheet XML
+   * @param targetChunkSize the approximate number of bytes of row data in each chunk
+   * @return the chunks, or null if the sheet cannot be split (e.g. it has no rows, some rows have no
+   * <code>r</code> attribute or the XML is not UTF-8 encoded)
+   */
+  static SheetXmlChunks split(final byte[] xml, final int targetChunkSize) {
+    if (xml.length < 2 || (xml[0] & 0xFF) == 0xFE || (xml[0] & 0xFF) == 0xFF || xml[0] == 0 || xml[1] == 0) {
+      // UTF-16
+      return null;
+    }
+    final Scanner scanner = new Scanner(xml);
+    final String rootTagName = scanner.nextStartTagName(0);
+    if (rootTagName == null) {
+      return null;
+    }
+    final int rootStartTagEnd = scanner.position;
+    String sheetDataTagName;
+    int sheetDataStartTagStart;
+    do {
+      sheetDataTagName = scanner.nextStartTagName(scanner.position);
+      sheetDataStartTagStart = scanner.tagStart;
+    } while (sheetDataTagName != null && !SHEET_DATA.equals(localName(sheetDataTagName)));
+    if (sheetDataTagName == null || scanner.emptyElement) {
+      return null;
+    }
+    final int sheetDataContentStart = scanner.position;
+    final String rowTagName = prefix(sheetDataTagName) + ROW;
+
+    final List<Integer> chunkStarts = new ArrayList<>();
+    chunkStarts.add(sheetDataContentStart);
+    int nextChunkPosition = sheetDataContentStart + targetChunkSize;
+    int rowCount = 0;
+    int pos = sheetDataContentStart;
+    while (true) {
+      final String tagName = scanner.nextTagName(pos);
+      if (tagName == null) {
+        // sheetData end tag is missing
+        return null;
+      }
+      pos = scanner.position;
+      if (scanner.endTag) {
+        if (tagName.equals(sheetDataTagName)) {
+          break;
+        }
+      } else if (tagName.equals(rowTagName)) {
+        if (!scanner.hasRefAttribute) {
+          return null;
+        }
+        if (rowCount > 0 && scanner.tagStart >= nextChunkPosition) {
+          chunkStarts.add(scanner.tagStart);
+          nextChunkPosition = scanner.tagStart + targetChunkSize;
+        }
+        rowCount++;
+      }
+    }
+    if (rowCount == 0) {
+      return null;
+    }
+    final int[] starts = new int[chunkStarts.size()];
+    for (int i = 0; i < starts.length; i++) {
+      starts[i] = chunkStarts.get(i);
+    }
+    final byte[] closingTags = ("</" + sheetDataTagName + "></" + rootTagName + ">").getBytes(StandardCharsets.UTF_8);
+    return new SheetXmlChunks(xml, rootStartTagEnd, sheetDataStartTagStart, sheetDataContentStart, closingTags, starts);
+  }
+
+  int getChunkCount() {
+    return chunkStarts.length;
+  }
+
+  /**
+   * @param chunkIndex 0-based chunk index
+   * @return a well-formed sheet XML document with the rows in the chunk
+   */
+  InputStream openChunk(final int chunkIndex) {
+    final boolean last = chunkIndex == chunkStarts.length - 1;
+    final int rowsEnd = last ? xml.length : chunkStarts[chunkIndex + 1];
+    final List<InputStream> streams;
+    if (chunkIndex == 0) {
+      streams = new ArrayList<>(Collections.singletonList(new ByteArrayInputStream(xml, 0, rowsEnd)));
+    } else {
+      final int rowsStart = chunkStarts[chunkIndex];
+      streams = new ArrayList<>(Arrays.asList(
+              new ByteArrayInputStream(xml, 0, rootStartTagEnd),
+              new ByteArrayInputStream(xml, sheetDataStartTagStart, sheetDataContentStart - sheetDataStartTagStart),
+              new ByteArrayInputStream(xml, rowsStart, rowsEnd - rowsStart)));
+    }
+    if (!last) {
+      streams.add(new ByteArrayInputStream(closingTags));
+    }
+    return streams.size() == 1 ? streams.get(0) : new SequenceInputStream(Collections.enumeration(streams));
+  }
+
+  private static String localName(final String tagName) {
+    final int colon = tagName.indexOf(':');
+    return colon < 0 ? tagName : tagName.substring(colon + 1);
+  }
+
+  private static String prefix(final String tagName) {
+    final int colon = tagName.indexOf(':');
+    return colon < 0 ? "" : tagName.substring(0, colon + 1);
+  }
+
+  /**
+   * Finds tags in UTF-8 encoded XML. Tag and attribute names are ASCII in sheet XML, so multibyte UTF-8
+   * sequences (which never contain bytes below 0x80) can be skipped like any other text.
+   */
+  private static final class Scanner {
+    private final byte[] xml;
+    private int position;
+    private int tagStart;
+    private boolean endTag;
+    private boolean emptyElement;
+    private boolean hasRefAttribute;
+
+    Scanner(final byte[] xml) {
+      this.xml = xml;
+    }
+
+    String nextStartTagName(final int from) {
+      int pos = from;
+      while (true) {
+        final String name = nextTagName(pos);
+        if (name == null || !endTag) {
+          return name;
+        }
+        pos = position;
+      }
+    }
+
+    /**
+     * Finds the next start or end tag, skipping comments, CDATA sections, processing instructions and
+     * DOCTYPE declarations. Afterwards, <code>position</code> is just after the end of the tag.
+     *
+     * @return the qualified name of the tag, or null if there are no more tags
+     */
+    String nextTagName(final int from) {
+      int pos = from;
+      while (true) {
+        pos = indexOf((byte) '<', pos);
+        if (pos < 0 || pos + 1 >= xml.length) {
+          return null;
+        }
+        final byte next = xml[pos + 1];
+        if (next == '?') {
+          pos = indexOf("?>", pos + 2);
+        } else if (next == '!') {
+          if (startsWith("<!--", pos)) {
+            pos = indexOf("-->", pos + 4);
+          } else if (startsWith("<![CDATA[", pos)) {
+            pos = indexOf("]]>", pos + 9);
+          } else {
+            pos = indexOf((byte) '>', pos + 2);
+          }
+        } else {
+          tagStart = pos;
+          endTag = next == '/';
+          int nameStart = endTag ? pos + 2 : pos + 1;
+          int nameEnd = nameStart;
+          while (nameEnd < xml.length && !isNameEnd(xml[nameEnd])) {
+            nameEnd++;
+          }
+          final String name = new String(xml, nameStart, nameEnd - nameStart, StandardCharsets.US_ASCII);
+          if (!scanAttributes(nameEnd)) {
+            return null;
+          }
+          return name;
+        }
+        if (pos < 0) {
+          return null;
+        }
+      }
+    }
+
+    /**
+     * Skips to the end of the tag, noting whether there is an <code>r</code> attribute and whether
+     * the element is empty.
+     */
+    private boolean scanAttributes(final int from) {
+      hasRefAttribute = false;
+      emptyElement = false;
+      int pos = from;
+      while (pos < xml.length) {
+        final byte b = xml[pos];
+        if (b == '>') {
+          emptyElement = xml[pos - 1] == '/';
+          position = pos + 1;
+          return true;
+        } else if (b == '"' || b == '\'') {
+          pos = indexOf(b, pos + 1);
+          if (pos < 0) {
+            return false;
+          }
+          pos++;
+        } else if (b == 'r' && isWhitespace(xml[pos - 1]) && pos + 1 < xml.length
+                && (xml[pos + 1] == '=' || isWhitespace(xml[pos + 1]))) {
+          hasRefAttribute = true;
+          pos++;
+        } else {
+          pos++;
+        }
+      }
+      return false;
+    }
+
+    private int indexOf(final byte b, final int from) {
+      for (int i = from; i < xml.length; i++) {
+        if (xml[i] == b) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private int indexOf(final String s, final int from) {
+      final byte first = (byte) s.charAt(0);
+      int pos = from;
+      while ((pos = indexOf(first, pos)) >= 0) {
+        if (startsWith(s, pos)) {
+          return pos + s.length();
+        }
+        pos++;
+      }
+      return -1;
+    }
+
+    private boolean startsWith(final String s, final int pos) {
+      if (pos + s.length() > xml.length) {
+        return false;
+      }
+      for (int i = 0; i < s.length(); i++) {
+        if (xml[pos + i] != s.charAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static boolean isNameEnd(final byte b) {
+      return b == '>' || b == '/' || isWhitespace(b);
+    }
+
+    private static boolean isWhitespace(final byte b) {
+      return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+  }
+}
@@ -0,0 +1,518 @@
+package com.github.pjfanning.xlsx.impl;
+
+import com.github.pjfanning.xlsx.CloseableIterator;
+import com.github.pjfanning.xlsx.SharedStringsImplementationType;
+import com.github.pjfanning.xlsx.StreamingReader.Builder;
+import com.github.pjfanning.xlsx.exceptions.ExcelRuntimeException;
+import com.github.pjfanning.xlsx.exceptions.NotSupportedException;
+import com.github.pjfanning.xlsx.exceptions.ParseException;
+import com.github.pjfanning.xlsx.exceptions.ReadException;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.function.IOSupplier;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.poi.openxml4j.opc.PackagingURIHelper;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.model.ThemesTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.util.*;
+
+import static com.github.pjfanning.xlsx.XmlUtils.readDocument;
+import static com.github.pjfanning.xlsx.XmlUtils.searchForNodeList;
+
+/**
+ * Reads the sheets of a workbook from an input stream in a single pass, using the zip local file headers
+ * instead of the zip central directory (which is at the end of the stream). No temp file copy of the
+ * workbook is made.
+ * <p>
+ * The workbook, styles and shared strings parts are parsed when they are found in the stream. Sheets
+ * that are found after these parts are parsed directly from the stream. Parts that are found before they
+ * can be used (e.g. sheets that are before the shared strings part, which is common in files saved by
+ * Excel) are spooled - they are compressed again and kept in memory, up to the limit set with
+ * {@link Builder#setSinglePassSpoolLimit(long)}, and written to a temp file after that.
+ * </p>
+ * <p>
+ * The sheets are returned in the order that they become available, which is the order of the
+ * sheets in the zip, except that spooled sheets are returned in workbook order. A sheet can only be
+ * read until <code>hasNext()</code> or <code>next()</code> is called again. Sheets that are parsed directly
+ * from the stream can only be iterated once and their metadata (e.g. the column widths) is only available
+ * after an iterator has been created.
+ * </p>
+ * <p>
+ * Comments, shapes, pictures, the core properties and the hyperlink targets (which are stored in
+ * separate parts) are not read. Strict OOXML and encrypted workbooks are not supported.
+ * </p>
+ *
+ * @see Builder#openSinglePass(InputStream)
+ * @since v5.3.0
+ */
+public class SinglePassSheetIterator implements CloseableIterator<Sheet> {
+  private static final Logger LOG = LoggerFactory.getLogger(SinglePassSheetIterator.class);
+  private static final String ROOT_RELATIONSHIPS = "_rels/.rels";
+  private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+  private static final String DOCUMENT_RELATIONSHIPS_NS =
+          "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+  private static final String STRICT_MAIN_NS = "http://purl.oclc.org/ooxml/spreadsheetml/main";
+
+  private final Builder builder;
+  private final ZipArchiveInputStream zipStream;
+  private final Map<String, PartSpool> spooledParts = new LinkedHashMap<>();
+  private final ArrayDeque<PendingSheet> readySheets = new ArrayDeque<>();
+  private PendingSheet currentSheet;
+  private long entryCount;
+  private boolean endOfStream;
+  private boolean closed;
+
+  private String workbookPath;
+  private String workbookRelationshipsPath;
+  private boolean workbookRead;
+  private boolean relationshipsRead;
+  private final List<String> sheetNames = new ArrayList<>();
+  private final List<String> sheetRelationshipIds = new ArrayList<>();
+  private final Map<String, String> relationshipTargets = new HashMap<>();
+  private final Set<String> worksheetPaths = new HashSet<>();
+  private final Map<String, Integer> sheetIndexes = new HashMap<>();
+  private String stylesPath;
+  private String themePath;
+  private String sharedStringsPath;
+  private boolean use1904Dates;
+  private SharedStrings sst;
+  private StylesTable styles;
+  private CellStyleFormats styleFormats;
+  private ThemesTable theme;
+  private boolean stylesRead;
+  private boolean themeRead;
+  private boolean sharedStringsRead;
+
+  /**
+   * A sheet that is ready to be returned, with the resource that holds its XML.
+   */
+  private static final class PendingSheet {
+    private final StreamingSheet sheet;
+    private final Closeable resource;
+
+    private PendingSheet(StreamingSheet sheet, Closeable resource) {
+      this.sheet = sheet;
+      this.resource = resource;
+    }
+  }
+
+  /**
+   * Supplies the XML of a sheet that is parsed directly from the zip stream - it can only be opened once
+   * and only until the iterator moves to the next zip entry.
+   */
+  private static final class StreamSheetXml implements IOSupplier<InputStream>, Closeable {
+    private final InputStream inputStream;
+    private boolean opened;
+    private boolean expired;
+
+    private StreamSheetXml(InputStream inputStream) {
+      this.inputStream = inputStream;
+    }
+
+    @Override
+    public InputStream get() {
+      if (opened || expired) {
+        throw new IllegalStateException("In single-pass mode, a sheet can only be read once and only " +
+                "until the next sheet is requested");
+      }
+      opened = true;
+      return inputStream;
+    }
+
+    @Override
+    public void close() {
+      expired = true;
+    }
+  }
+
+  /**
+   * @param builder the builder with the reader settings
+   * @param inputStream the workbook data (it is closed when this iterator is closed)
+   * @throws NotSupportedException if a password is set on the builder
+   */
+  public SinglePassSheetIterator(final Builder builder, final InputStream inputStream) throws NotSupportedException {
+    if (builder.getPassword() != null) {
+      throw new NotSupportedException("Encrypted workbooks cannot be read in single-pass mode");
+    }
+    this.builder = builder;
+    this.zipStream = new ZipArchiveInputStream(inputStream, "UTF-8", true, true);
+  }
+
+  /**
+   * Returns true if there is another sheet. This ends the use of the previously returned sheet.
+   *
+   * @return whether there is another sheet
+   * @throws ReadException if the workbook cannot be read
+   * @throws ParseException if the workbook XML cannot be parsed
+   */
+  @Override
+  public boolean hasNext() throws ReadException, ParseException {
+    if (closed) {
+      return false;
+    }
+    releaseCurrentSheet();
+    try {
+      while (readySheets.isEmpty() && !endOfStream) {
+        readNextEntry();
+      }
+    } catch (IOException e) {
+      throw new ReadException("Failed to read workbook stream", e);
+    } catch (SAXException e) {
+      throw new ParseException("Failed to parse workbook stream", e);
+    }
+    if (readySheets.isEmpty()) {
+      checkComplete();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the next sheet. This ends the use of the previously returned sheet.
+   *
+   * @return the next sheet
+   * @throws NoSuchElementException if there are no more sheets
+   * @throws ReadException if the workbook cannot be read
+   * @throws ParseException if the workbook XML cannot be parsed
+   */
+  @Override
+  public Sheet next() throws ReadException, ParseException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    currentSheet = readySheets.poll();
+    return currentSheet.sheet;
+  }
+
+  /**
+   * @return whether the workbook uses the 1904 date system (only valid once a sheet has been returned)
+   */
+  public boolean isDate1904() {
+    return use1904Dates;
+  }
+
+  private void readNextEntry() throws IOException, SAXException {
+    final ZipArchiveEntry entry = zipStream.getNextEntry();
+    if (entry == null) {
+      endOfStream = true;
+      return;
+    }
+    if (++entryCount > ZipSecureFile.getMaxFileCount()) {
+      throw new IOException(ZipSecureFile.MAX_FILE_COUNT_MSG);
+    }
+    if (entry.isDirectory()) {
+      return;
+    }
+    final String name = normalizePath(entry.getName());
+    // the zip stream must stay open when the part parsers close their input streams
+    final InputStream inputStream = new ZipThresholdInputStream(entry.getName(),
+            CloseShieldInputStream.wrap(zipStream), zipStream);
+    if (canHandle(name)) {
+      handlePart(name, inputStream, null);
+    } else if (name.endsWith(".xml") || name.endsWith(".rels")) {
+      spool(name, inputStream);
+    }
+    processSpooledParts();
+  }
+
+  /**
+   * @return whether the role of the part is known (or known to be irrelevant) and it can be read now
+   */
+  private boolean canHandle(final String name) {
+    if (ROOT_RELATIONSHIPS.equals(name)) {
+      return true;
+    } else if (workbookPath == null) {
+      return false;
+    } else if (name.equals(workbookPath) || name.equals(workbookRelationshipsPath)) {
+      return true;
+    } else if (!relationshipsRead) {
+      return false;
+    }
+    return !worksheetPaths.contains(name) || prerequisitesRead();
+  }
+
+  private boolean prerequisitesRead() {
+    return workbookRead && relationshipsRead
+            && (sharedStringsPath == null || sharedStringsRead)
+            && (!builder.readStyles() || ((stylesPath == null || stylesRead) && (themePath == null || themeRead)));
+  }
+
+  /**
+   * @param spool the spool that the part data came from (null if the data is read directly from the zip stream)
+   */
+  private void handlePart(final String name, final InputStream inputStream, final PartSpool spool)
+          throws IOException, SAXException {
+    if (ROOT_RELATIONSHIPS.equals(name)) {
+      readRootRelationships(inputStream);
+    } else if (name.equals(workbookPath)) {
+      readWorkbook(inputStream);
+    } else if (name.equals(workbookRelationshipsPath)) {
+      readWorkbookRelationships(inputStream);
+    } else if (name.equals(sharedStringsPath)) {
+      sst = readSharedStrings(inputStream);
+      if (sst != null && builder.getSharedStringsCacheSize() > 0) {
+        sst = new CachedSharedStrings(sst, builder.getSharedStringsCacheSize());
+      }
+      sharedStringsRead = true;
+    } else if (name.equals(stylesPath) && builder.readStyles()) {
+      styles = new StylesTable(inputStream);
+      if (theme != null) styles.setTheme(theme);
+      stylesRead = true;
+    } else if (name.equals(themePath) && builder.readStyles()) {
+      theme = new ThemesTable(inputStream);
+      if (styles != null) styles.setTheme(theme);
+      themeRead = true;
+    } else if (worksheetPaths.contains(name)) {
+      if (spool == null) {
+        final StreamSheetXml sheetXml = new StreamSheetXml(inputStream);
+        readySheets.add(new PendingSheet(createSheet(name, sheetXml, true), sheetXml));
+      } else {
+        readySheets.add(new PendingSheet(createSheet(name, spool::getInputStream, false), spool));
+      }
+    } else {
+      LOG.debug("ignoring part {}", name);
+    }
+  }
+
+  private StreamingSheet createSheet(final String path, final IOSupplier<InputStream> sheetXmlSupplier,
+                                     final boolean singleUse) {
+    final Integer index = sheetIndexes.get(path);
+    final String sheetName = index == null ? path : sheetNames.get(index);
+    if (styleFormats == null) {
+      // the sheets are only created when the styles and the theme have been read
+      styleFormats = CellStyleFormats.of(styles);
+    }
+    return new StreamingSheet(sheetName,
+            new StreamingSheetReader(builder, sheetXmlSupplier, singleUse, sst, styleFormats, use1904Dates));
+  }
+
+  private void spool(final String name, final InputStream inputStream) throws IOException {
+    long memoryUsed = 0;
+    for (PartSpool spool : spooledParts.values()) {
+      memoryUsed += spool.getMemorySize();
+    }
+    for (PendingSheet pendingSheet : readySheets) {
+      if (pendingSheet.resource instanceof PartSpool) {
+        memoryUsed += ((PartSpool) pendingSheet.resource).getMemorySize();
+      }
+    }
+    LOG.debug("spooling part {} because it cannot be read yet", name);
+    final PartSpool spool = new PartSpool(inputStream,
+            Math.max(0, builder.getSinglePassSpoolLimit() - memoryUsed), !builder.avoidTempFiles());
+    final PartSpool previous = spooledParts.put(name, spool);
+    if (previous != null) {
+      previous.close();
+    }
+  }
+
+  private void processSpooledParts() throws IOException, SAXException {
+    boolean handled = true;
+    while (handled) {
+      handled = false;
+      for (String name : new ArrayList<>(spooledParts.keySet())) {
+        if (canHandle(name) && !worksheetPaths.contains(name)) {
+          try (PartSpool spool = spooledParts.remove(name); InputStream is = spool.getInputStream()) {
+            handlePart(name, is, spool);
+          }
+          handled = true;
+        }
+      }
+    }
+    if (prerequisitesRead()) {
+      final List<String> sheetPaths = new ArrayList<>(spooledParts.keySet());
+      sheetPaths.sort(Comparator.comparing(path -> sheetIndexes.getOrDefault(path, Integer.MAX_VALUE)));
+      for (String path : sheetPaths) {
+        handlePart(path, null, spooledParts.remove(path));
+      }
+    }
+  }
+
+  private void readRootRelationships(final InputStream inputStream) throws IOException, SAXException {
+    for (Element relationship : readRelationships(inputStream)) {
+      if (relationship.getAttribute("Type").endsWith("/officeDocument")) {
+        workbookPath = resolvePath("", relationship.getAttribute("Target"));
+        final int slash = workbookPath.lastIndexOf('/');
+        workbookRelationshipsPath = workbookPath.substring(0, slash + 1) + "_rels/" +
+                workbookPath.substring(slash + 1) + ".rels";
+        return;
+      }
+    }
+    throw new ReadException("The workbook part is not referenced in " + ROOT_RELATIONSHIPS);
+  }
+
+  private void readWorkbook(final InputStream inputStream) throws IOException, SAXException {
+    final Document workbookDoc = readDocument(inputStream);
+    if (STRICT_MAIN_NS.equals(workbookDoc.getDocumentElement().getNamespaceURI())) {
+      throw new NotSupportedException("Strict OOXML workbooks cannot be read in single-pass mode");
+    }
+    use1904Dates = WorkbookUtil.use1904Dates(workbookDoc);
+    final NodeList nl = searchForNodeList(workbookDoc, "/ss:workbook/ss:sheets/ss:sheet");
+    for (int i = 0; i < nl.getLength(); i++) {
+      final Element sheet = (Element) nl.item(i);
+      sheetNames.add(sheet.getAttribute("name"));
+      sheetRelationshipIds.add(sheet.getAttributeNS(DOCUMENT_RELATIONSHIPS_NS, "id"));
+    }
+    workbookRead = true;
+    indexSheets();
+  }
+
+  private void readWorkbookRelationships(final InputStream inputStream) throws IOException, SAXException {
+    for (Element relationship : readRelationships(inputStream)) {
+      if ("External".equals(relationship.getAttribute("TargetMode"))) {
+        continue;
+      }
+      final String type = relationship.getAttribute("Type");
+      final String target = resolvePath(workbookPath, relationship.getAttribute("Target"));
+      relationshipTargets.put(relationship.getAttribute("Id"), target);
+      if (type.endsWith("/worksheet")) {
+        worksheetPaths.add(target);
+      } else if (type.endsWith("/styles")) {
+        stylesPath = target;
+      } else if (type.endsWith("/theme")) {
+        themePath = target;
+      } else if (type.endsWith("/sharedStrings")) {
+        sharedStringsPath = target;
+      }
+    }
+    relationshipsRead = true;
+    indexSheets();
+  }
+
+  private void indexSheets() {
+    if (workbookRead && relationshipsRead) {
+      for (int i = 0; i < sheetRelationshipIds.size(); i++) {
+        final String path = relationshipTargets.get(sheetRelationshipIds.get(i));
+        if (path != null) {
+          sheetIndexes.put(path, i);
+        }
+      }
+    }
+  }
+
+  private SharedStrings readSharedStrings(final InputStream inputStream) throws IOException, SAXException {
+    final SharedStringsImplementationType type = builder.getSharedStringsImplementationType();
+    // the shared strings cannot be parsed lazily, the input stream is needed for the parts that follow
+    if (type == SharedStringsImplementationType.POI_READ_ONLY || type == SharedStringsImplementationType.LAZY) {
+      return new ReadOnlySharedStringsTable(inputStream, builder.includePhoneticRuns());
+    }
+    if (type == SharedStringsImplementationType.OFF_HEAP) {
+      return new OffHeapSharedStringsTable(inputStream, builder.includePhoneticRuns());
+    }
+    final SharedStringsTable table;
+    if (type == SharedStringsImplementationType.TEMP_FILE_BACKED) {
+      table = PoiSharedStringsSupport.createTempFileSharedStringsTable(builder);
+    } else if (type == SharedStringsImplementationType.CUSTOM_MAP_BACKED) {
+      table = PoiSharedStringsSupport.createMapBackedSharedStringsTable(builder);
+    } else {
+      table = new SharedStringsTable();
+    }
+    try {
+      table.readFrom(inputStream);
+    } catch (IOException | RuntimeException e) {
+      IOUtils.closeQuietly(table);
+      throw e;
+    }
+    return table;
+  }
+
+  private static List<Element> readRelationships(final InputStream inputStream) throws IOException, SAXException {
+    final NodeList nl = readDocument(inputStream).getElementsByTagNameNS(RELATIONSHIPS_NS, "Relationship");
+    final List<Element> relationships = new ArrayList<>(nl.getLength());
+    for (int i = 0; i < nl.getLength(); i++) {
+      final Node node = nl.item(i);
+      relationships.add((Element) node);
+    }
+    return relationships;
+  }
+
+  private static String resolvePath(final String sourcePath, final String target) throws ReadException {
+    try {
+      return normalizePath(PackagingURIHelper.resolvePartUri(
+              PackagingURIHelper.toURI("/" + sourcePath), PackagingURIHelper.toURI(target)).getPath());
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      throw new ReadException("Invalid relationship target " + target, e);
+    }
+  }
+
+  /**
+   * Part names are case-insensitive, so they are compared in lower case without the leading slash.
+   */
+  private static String normalizePath(final String path) {
+    String normalized = path.replace('\\', '/');
+    while (normalized.startsWith("/")) {
+      normalized = normalized.substring(1);
+    }
+    return normalized.toLowerCase(Locale.ROOT);
+  }
+
+  private void checkComplete() throws ReadException {
+    if (workbookPath == null) {
+      throw new ReadException("The stream is not an xlsx file (" + ROOT_RELATIONSHIPS + " was not found)");
+    } else if (!workbookRead || !relationshipsRead) {
+      throw new ReadException("The stream is not an xlsx file (the workbook part was not found)");
+    } else if (!prerequisitesRead()) {
+      throw new ReadException("The styles or shared strings part was not found in the stream");
+    }
+  }
+
+  private void releaseCurrentSheet() {
+    if (currentSheet != null) {
+      final PendingSheet sheet = currentSheet;
+      currentSheet = null;
+      try {
+        sheet.sheet.getReader().close();
+      } finally {
+        IOUtils.closeQuietly(sheet.resource);
+      }
+    }
+  }
+
+  /**
+   * Closes the input stream and releases the shared strings, the spooled parts and any temp files.
+   *
+   * @throws IOException if the input stream cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      releaseCurrentSheet();
+    } catch (ExcelRuntimeException e) {
+      LOG.warn("Failed to close sheet", e);
+    } finally {
+      readySheets.forEach(pendingSheet -> IOUtils.closeQuietly(pendingSheet.resource));
+      readySheets.clear();
+      spooledParts.values().forEach(PartSpool::close);
+      spooledParts.clear();
+      if (sst instanceof AutoCloseable) {
+        try {
+          ((AutoCloseable) sst).close();
+        } catch (Exception e) {
+          LOG.warn("Failed to close sst", e);
+        }
+      }
+      zipStream.close();
+    }
+  }
+}
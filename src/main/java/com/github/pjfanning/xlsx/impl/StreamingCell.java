@@ -21,13 +21,15 @@ public class StreamingCell implements Cell {
   private static final Supplier NULL_SUPPLIER = () -> null;
 
   private final Sheet sheet;
-  private final int columnIndex;
+  private int columnIndex;
   private int rowIndex;
   private Row row;
   private final boolean use1904Dates;
 
   private Supplier contentsSupplier = NULL_SUPPLIER;
   private String rawContents;
+  private double numericValue;
+  private int numericScale = -1;
   private String formula;
   private String numericFormat;
   private Short numericFormatIndex;
@@ -51,14 +53,64 @@ public class StreamingCell implements Cell {
     this.use1904Dates = use1904Dates;
   }
 
+  /**
+   * Prepares a recycled cell for reuse.
+   */
+  void reset(int columnIndex, Row row, int rowIndex) {
+    this.columnIndex = columnIndex;
+    this.row = row;
+    this.rowIndex = rowIndex;
+    this.contentsSupplier = NULL_SUPPLIER;
+    this.rawContents = null;
+    this.numericScale = -1;
+    this.formula = null;
+    this.numericFormat = null;
+    this.numericFormatIndex = null;
+    this.type = null;
+    this.cellStyle = null;
+    this.formulaType = false;
+    this.sharedFormula = false;
+    this.formulaSI = null;
+  }
+
   void setContentSupplier(Supplier contentsSupplier) {
     this.contentsSupplier = contentsSupplier;
   }
 
+  /**
+   * Formats the contents now (if they are formatted lazily). The formatting uses the state of the iterator
+   * that created the cell (e.g. its <code>DataFormatter</code>, which is not thread-safe), so this is needed
+   * before the cell is handed to another thread.
+   */
+  void resolveContents() {
+    contentsSupplier.getContent();
+  }
+
   void setRawContents(String rawContents) {
     this.rawContents = rawContents;
   }
 
+  /**
+   * Sets the value of a numeric cell that was parsed by {@link NumberUtil#parsePlainDecimal(CharSequence, int)}.
+   * The raw contents are only created if they are needed.
+   */
+  void setNumericValue(double numericValue, int scale) {
+    this.numericValue = numericValue;
+    this.numericScale = scale;
+    this.rawContents = null;
+  }
+
+  String getRawContents() {
+    if (rawContents == null && numericScale >= 0) {
+      rawContents = NumberUtil.toPlainDecimalString(numericValue, numericScale);
+    }
+    return rawContents;
+  }
+
+  private boolean hasRawContents() {
+    return rawContents != null || numericScale >= 0;
+  }
+
   public String getNumericFormat() {
     return numericFormat;
   }
@@ -202,6 +254,9 @@ public class StreamingCell implements Cell {
         }
       }
     }
+    if (numericScale >= 0) {
+      return numericValue;
+    }
     return rawContents == null ? 0.0 : parseDouble(rawContents);
   }
 
@@ -218,7 +273,7 @@ public class StreamingCell implements Cell {
     if(getCellType() == CellType.STRING) {
       throw new IllegalStateException("Cell type cannot be CELL_TYPE_STRING");
     }
-    return rawContents == null ? null : DateUtil.getJavaDate(getNumericCellValue(), use1904Dates);
+    return hasRawContents() ? DateUtil.getJavaDate(getNumericCellValue(), use1904Dates) : null;
   }
 
   /**
@@ -354,7 +409,7 @@ public class StreamingCell implements Cell {
     if(getCellType() == CellType.STRING) {
       throw new IllegalStateException("Cell type cannot be CELL_TYPE_STRING");
     }
-    return rawContents == null ? null : DateUtil.getLocalDateTime(getNumericCellValue(), use1904Dates);
+    return hasRawContents() ? DateUtil.getLocalDateTime(getNumericCellValue(), use1904Dates) : null;
   }
 
   @Override
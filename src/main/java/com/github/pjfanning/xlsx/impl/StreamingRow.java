@@ -7,10 +7,10 @@ import java.util.*;
 
 public class StreamingRow implements Row {
   private final Sheet sheet;
-  private final int rowIndex;
-  private final boolean isHidden;
+  private int rowIndex;
+  private boolean isHidden;
   private float height = -1.0f;
-  private TreeMap<Integer, Cell> cellMap = new TreeMap<>();
+  private final CellMap cellMap = new CellMap();
   private StreamingSheetReader streamingSheetReader;
   private CellStyle rowStyle;
 
@@ -20,6 +20,17 @@ public class StreamingRow implements Row {
     this.isHidden = isHidden;
   }
 
+  /**
+   * Prepares a recycled row for reuse. The cells must have been removed from the cell map.
+   */
+  void reset(int rowIndex, boolean isHidden) {
+    this.rowIndex = rowIndex;
+    this.isHidden = isHidden;
+    this.height = -1.0f;
+    this.rowStyle = null;
+    cellMap.clear();
+  }
+
   void setStreamingSheetReader(StreamingSheetReader streamingSheetReader) {
     this.streamingSheetReader = streamingSheetReader;
   }
@@ -28,6 +39,13 @@ public class StreamingRow implements Row {
     this.height = height;
   }
 
+  void addCell(Cell cell) {
+    cellMap.putCell(cell.getColumnIndex(), cell);
+  }
+
+  /**
+   * @return a live view of the cells in this row, keyed by column index and in column order
+   */
   public Map<Integer, Cell> getCellMap() {
     return cellMap;
   }
@@ -79,7 +97,7 @@ public class StreamingRow implements Row {
    */
   @Override
   public Cell getCell(int cellnum) {
-    return cellMap.get(cellnum);
+    return cellMap.getCell(cellnum);
   }
 
   /**
@@ -90,7 +108,7 @@ public class StreamingRow implements Row {
    */
   @Override
   public short getLastCellNum() {
-    return (short) (cellMap.isEmpty() ? -1 : cellMap.lastEntry().getValue().getColumnIndex() + 1);
+    return (short) (cellMap.isEmpty() ? -1 : cellMap.getLastColumn() + 1);
   }
 
   /**
@@ -129,10 +147,7 @@ public class StreamingRow implements Row {
    */
   @Override
   public short getFirstCellNum() {
-    if(cellMap.isEmpty()) {
-      return -1;
-    }
-    return cellMap.firstKey().shortValue();
+    return (short) cellMap.getFirstColumn();
   }
 
   /**
@@ -140,7 +155,7 @@ public class StreamingRow implements Row {
    */
   @Override
   public Cell getCell(int cellnum, MissingCellPolicy policy) {
-    StreamingCell cell = (StreamingCell) cellMap.get(cellnum);
+    StreamingCell cell = (StreamingCell) cellMap.getCell(cellnum);
     if(policy == MissingCellPolicy.CREATE_NULL_AS_BLANK) {
       if(cell == null) {
         boolean use1904Dates = streamingSheetReader != null && streamingSheetReader.isUse1904Dates();
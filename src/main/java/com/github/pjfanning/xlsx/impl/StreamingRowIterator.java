@@ -1,6 +1,8 @@
 package com.github.pjfanning.xlsx.impl;
 
-import com.github.pjfanning.xlsx.CloseableIterator;
+import com.github.pjfanning.xlsx.ResumableRowIterator;
+import com.github.pjfanning.xlsx.RowHandler;
+import com.github.pjfanning.xlsx.RowPosition;
 import com.github.pjfanning.xlsx.SharedFormula;
 import com.github.pjfanning.xlsx.StreamingReader;
 import com.github.pjfanning.xlsx.XmlUtils;
@@ -30,41 +32,64 @@ import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.Attribute;
-import javax.xml.stream.events.EndElement;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.*;
 
 import static com.github.pjfanning.xlsx.impl.NumberUtil.parseDouble;
 import static com.github.pjfanning.xlsx.impl.NumberUtil.parseInt;
 
-class StreamingRowIterator implements CloseableIterator<Row> {
+class StreamingRowIterator implements ResumableRowIterator {
   private static final Logger LOG = LoggerFactory.getLogger(StreamingRowIterator.class);
+  private static final QName QNAME_ACTIVE_CELL = QName.valueOf("activeCell");
+  private static final QName QNAME_ACTIVE_PANE = QName.valueOf("activePane");
+  private static final QName QNAME_BASE_COL_WIDTH = QName.valueOf("baseColWidth");
+  private static final QName QNAME_DEFAULT_ROW_HEIGHT = QName.valueOf("defaultRowHeight");
+  private static final QName QNAME_DISPLAY = QName.valueOf("display");
   private static final QName QNAME_HIDDEN = QName.valueOf("hidden");
   private static final QName QNAME_HT = QName.valueOf("ht");
+  private static final QName QNAME_LOCATION = QName.valueOf("location");
   private static final QName QNAME_MAX = QName.valueOf("max");
   private static final QName QNAME_MIN = QName.valueOf("min");
   private static final QName QNAME_R = QName.valueOf("r");
   private static final QName QNAME_REF = QName.valueOf("ref");
   private static final QName QNAME_S = QName.valueOf("s");
+  private static final QName QNAME_SI = QName.valueOf("si");
+  private static final QName QNAME_STATE = QName.valueOf("state");
   private static final QName QNAME_T = QName.valueOf("t");
+  private static final QName QNAME_TOOLTIP = QName.valueOf("tooltip");
+  private static final QName QNAME_TOP_LEFT_CELL = QName.valueOf("topLeftCell");
   private static final QName QNAME_WIDTH = QName.valueOf("width");
+  private static final QName QNAME_X_SPLIT = QName.valueOf("xSplit");
+  private static final QName QNAME_Y_SPLIT = QName.valueOf("ySplit");
 
   private final StreamingSheetReader streamingSheetReader;
   private final SharedStrings sst;
   private final boolean usesPoiSharedStrings;
-  private final StylesTable stylesTable;
+  private final CachedSharedStrings cachedSharedStrings;
+  private final CellStyleFormats styleFormats;
   private final XMLEventReader parser;
+  private final XMLStreamReader streamReader;
+  private final InputStream sheetInputStream;
+  private final EventElementAttributes eventAttributes;
+  private final CursorElementAttributes cursorAttributes;
   private final boolean use1904Dates;
   private final int rowCacheSize;
+  private final int rowRangeStart;
+  private final int rowRangeEnd;
+  private final RowHandler rowHandler;
+  private final boolean pushSharedStringIndexes;
   private final StreamingSheet sheet;
   private final Set<Integer> hiddenColumns;
   private final Map<Integer, Float> columnWidths;
   private final Set<CellRangeAddress> mergedCells;
   private final Set<HyperlinkData> hyperlinks;
   private final DataFormatter dataFormatter = new DataFormatter();
+  private final FormattedValueCache formattedValueCache;
   private final List<Row> rowCache = new ArrayList<>();
   private final StringBuilder contentBuilder = new StringBuilder(64);
   private final StringBuilder formulaBuilder = new StringBuilder(64);
@@ -76,24 +101,53 @@ class StreamingRowIterator implements CloseableIterator<Row> {
   private float defaultRowHeight;
   private Iterator<Row> rowCacheIterator;
 
+  private Deque<StreamingRow> rowPool;
+  private Deque<StreamingCell> cellPool;
+
+  private BitSet selectedColumns;
+  private Set<String> selectedColumnNames;
+  private boolean headerColumnsSelected;
+  private final boolean resumed;
+  private int nextRowNum;
+
   private StreamingRow currentRow;
   private StreamingCell currentCell;
+  private boolean skippingRow;
+  private boolean pushingRow;
+  private String pushCellType;
+  private int pushCellStyleIndex;
+  private int pushedRowCount;
+  private boolean skippingCell;
+  private String skippedCellFormulaSI;
+  private boolean parserClosed;
   private boolean insideCharElement;
   private boolean insideFormulaElement;
   private boolean insideIS;
 
+  /**
+   * Exactly one of <code>parser</code> and <code>streamReader</code> should be set, depending on
+   * which StAX API is used to read the sheet XML. When a <code>rowHandler</code> is set, no rows
+   * are read until {@link #processRows()} is called.
+   */
   StreamingRowIterator(final StreamingSheetReader streamingSheetReader,
-                       final SharedStrings sst, final StylesTable stylesTable,
-                       final XMLEventReader parser, final boolean use1904Dates, final int rowCacheSize,
+                       final SharedStrings sst, final CellStyleFormats styleFormats,
+                       final XMLEventReader parser, final XMLStreamReader streamReader,
+                       final InputStream sheetInputStream, final boolean use1904Dates, final int rowCacheSize,
                        final Set<Integer> hiddenColumns, final Map<Integer, Float> columnWidths,
                        final Set<CellRangeAddress> mergedCells, final Set<HyperlinkData> hyperlinks,
                        final Map<String, SharedFormula> sharedFormulaMap, final float defaultRowHeight,
-                       final StreamingSheet sheet) throws ParseException {
+                       final int firstColNum, final int rowRangeStart, final int rowRangeEnd, final RowHandler rowHandler,
+                       final StreamingSheet sheet, final RowPosition resumePosition) throws ParseException {
     this.streamingSheetReader = streamingSheetReader;
     this.sst = sst;
     this.usesPoiSharedStrings = sst != null && sst.getClass().getName().startsWith("com.github.pjfanning.poi.xssf");
-    this.stylesTable = stylesTable;
+    this.cachedSharedStrings = sst instanceof CachedSharedStrings ? (CachedSharedStrings) sst : null;
+    this.styleFormats = styleFormats;
     this.parser = parser;
+    this.streamReader = streamReader;
+    this.sheetInputStream = sheetInputStream;
+    this.eventAttributes = parser == null ? null : new EventElementAttributes();
+    this.cursorAttributes = streamReader == null ? null : new CursorElementAttributes(streamReader);
     this.use1904Dates = use1904Dates;
     this.rowCacheSize = rowCacheSize;
     this.hiddenColumns = hiddenColumns;
@@ -102,13 +156,100 @@ class StreamingRowIterator implements CloseableIterator<Row> {
     this.hyperlinks = hyperlinks;
     this.sharedFormulaMap = sharedFormulaMap;
     this.defaultRowHeight = defaultRowHeight;
+    this.firstColNum = firstColNum;
+    this.rowRangeStart = rowRangeStart;
+    this.rowRangeEnd = rowRangeEnd;
+    this.rowHandler = rowHandler;
+    // a RowBatch stores the shared string indexes and only looks up the strings that are needed
+    this.pushSharedStringIndexes = rowHandler instanceof RowBatchIterator;
     this.sheet = sheet;
+    final StreamingReader.Builder builder = streamingSheetReader.getBuilder();
+    this.formattedValueCache = builder != null && builder.getFormattedValueCacheSize() > 0
+            ? new FormattedValueCache(dataFormatter, builder.getFormattedValueCacheSize()) : null;
+    this.selectedColumns = streamingSheetReader.getSelectedColumns();
+    this.selectedColumnNames = streamingSheetReader.getSelectedColumnNames();
+    this.resumed = resumePosition != null;
+    this.nextRowNum = rowRangeStart;
+    if (resumePosition != null && resumePosition.getSelectedColumns() != null) {
+      // the header row was read before the position, so the column selection is already known
+      final BitSet selection = new BitSet();
+      resumePosition.getSelectedColumns().forEach(selection::set);
+      this.selectedColumns = selection;
+      this.selectedColumnNames = null;
+      this.headerColumnsSelected = true;
+    }
 
-    if (!getRow()) {
+    if (rowHandler == null && !getRow()) {
       LOG.debug("there appear to be no rows");
     }
   }
 
+  /**
+   * Parses the rest of the sheet, passing the rows to the <code>rowHandler</code> instead of creating
+   * {@link StreamingRow} instances.
+   */
+  void processRows() throws ParseException {
+    try {
+      while(parseNext()) {
+        // parseNext passes completed cells and rows to rowHandler
+      }
+    } catch(XMLStreamException e) {
+      throw new ParseException("Error reading XML stream", e);
+    }
+  }
+
+  /**
+   * Parses the sheet until <code>maxRows</code> rows have been passed to the <code>rowHandler</code>
+   * or the end of the sheet is reached. The parse can be continued with another call to this method.
+   *
+   * @return false if the end of the sheet has been reached
+   */
+  boolean processRows(final int maxRows) throws ParseException {
+    pushedRowCount = 0;
+    try {
+      while(pushedRowCount < maxRows) {
+        if (!parseNext()) {
+          return false;
+        }
+      }
+      return true;
+    } catch(XMLStreamException e) {
+      throw new ParseException("Error reading XML stream", e);
+    }
+  }
+
+  /**
+   * Recycles the rows (and their cells) that were returned by this iterator when the next batch of rows is read.
+   */
+  void enableRowReuse() {
+    rowPool = new ArrayDeque<>(rowCacheSize);
+    cellPool = new ArrayDeque<>();
+  }
+
+  SharedStrings getSharedStrings() {
+    return sst;
+  }
+
+  boolean usesPoiSharedStrings() {
+    return usesPoiSharedStrings;
+  }
+
+  /**
+   * @return the 0-based index of the first column in the sheet dimension (0 if the dimension has not been
+   * parsed) - this is the column of the first cell in a row when the cells have no <code>r</code> attribute
+   */
+  int getFirstColNum() {
+    return firstColNum;
+  }
+
+  /**
+   * @return whether the sheet is parsed with an <code>XMLStreamReader</code> (the cursor API) instead of an
+   * <code>XMLEventReader</code>
+   */
+  boolean usesXmlStreamReader() {
+    return streamReader != null;
+  }
+
   private float getDefaultRowHeight() {
     return defaultRowHeight;
   }
@@ -120,9 +261,12 @@ class StreamingRowIterator implements CloseableIterator<Row> {
    */
   private boolean getRow() throws ParseException {
     try {
+      if (rowPool != null) {
+        recycleRows();
+      }
       rowCache.clear();
-      while(rowCache.size() < rowCacheSize && parser.hasNext()) {
-        handleEvent(parser.nextEvent());
+      while(rowCache.size() < rowCacheSize && parseNext()) {
+        // parseNext adds completed rows to rowCache
       }
       rowCacheIterator = rowCache.iterator();
       return rowCacheIterator.hasNext();
@@ -131,261 +275,441 @@ class StreamingRowIterator implements CloseableIterator<Row> {
     }
   }
 
+  private void recycleRows() {
+    for (Row row : rowCache) {
+      for (Cell cell : row) {
+        cellPool.push((StreamingCell) cell);
+      }
+      rowPool.push((StreamingRow) row);
+    }
+  }
+
+  private StreamingRow newRow(final int rowIndex, final boolean isHidden) {
+    final StreamingRow row = rowPool == null ? null : rowPool.poll();
+    if (row == null) {
+      return new StreamingRow(sheet, rowIndex, isHidden);
+    }
+    row.reset(rowIndex, isHidden);
+    return row;
+  }
+
+  /**
+   * @param row the row that the cell belongs to (null if the cell row index does not match the current row)
+   * @param rowIndex the row index of the cell, only used if <code>row</code> is null
+   */
+  private StreamingCell newCell(final Row row, final int rowIndex) {
+    final StreamingCell cell = cellPool == null ? null : cellPool.poll();
+    if (cell == null) {
+      return row == null ? new StreamingCell(sheet, currentColNum, rowIndex, use1904Dates)
+              : new StreamingCell(sheet, currentColNum, row, use1904Dates);
+    }
+    cell.reset(currentColNum, row, rowIndex);
+    return cell;
+  }
+
+  /**
+   * Reads the next XML event from whichever StAX API is in use and handles it.
+   *
+   * @return false if the end of the XML has been reached
+   */
+  private boolean parseNext() throws XMLStreamException {
+    if (parserClosed) {
+      return false;
+    }
+    if (streamReader != null) {
+      if (!streamReader.hasNext()) {
+        return false;
+      }
+      handleCursorEvent(streamReader.next());
+    } else {
+      if (!parser.hasNext()) {
+        return false;
+      }
+      handleEvent(parser.nextEvent());
+    }
+    return true;
+  }
+
   private void handleEvent(XMLEvent event) {
     if (event.getEventType() == XMLStreamConstants.CHARACTERS) {
-      if (insideCharElement) {
-        contentBuilder.append(event.asCharacters().getData());
+      handleCharacters(event.asCharacters().getData());
+    } else if (event.getEventType() == XMLStreamConstants.START_ELEMENT) {
+      StartElement startElement = event.asStartElement();
+      QName name = startElement.getName();
+      if (isSpreadsheetTag(name.getNamespaceURI())) {
+        eventAttributes.setStartElement(startElement);
+        handleStartElement(name.getLocalPart(), eventAttributes);
       }
-      if (insideFormulaElement) {
-        formulaBuilder.append(event.asCharacters().getData());
+    } else if (event.getEventType() == XMLStreamConstants.END_ELEMENT) {
+      QName name = event.asEndElement().getName();
+      if (isSpreadsheetTag(name.getNamespaceURI())) {
+        handleEndElement(name.getLocalPart());
       }
-    } else if (event.getEventType() == XMLStreamConstants.START_ELEMENT
-            && isSpreadsheetTag(event.asStartElement().getName())) {
-      StartElement startElement = event.asStartElement();
-      String tagLocalName = startElement.getName().getLocalPart();
+    }
+  }
 
-      if ("row".equals(tagLocalName)) {
-        Attribute rowNumAttr = startElement.getAttributeByName(QNAME_R);
-        int rowIndex = currentRowNum;
-        if (rowNumAttr != null) {
-          rowIndex = parseInt(rowNumAttr.getValue()) - 1;
-          currentRowNum = rowIndex;
-        }
-        Attribute isHiddenAttr = startElement.getAttributeByName(QNAME_HIDDEN);
-        Attribute htAttr = startElement.getAttributeByName(QNAME_HT);
-        float height = getDefaultRowHeight();
-        if (htAttr != null) {
-          try {
-            height = Float.parseFloat(htAttr.getValue());
-          } catch (Exception e) {
-            LOG.warn("unable to parse row {} height {}", rowIndex, htAttr.getValue());
-          }
-        }
-        boolean isHidden = isHiddenAttr != null && XmlUtils.evaluateBoolean(isHiddenAttr.getValue());
-        currentRow = new StreamingRow(sheet, rowIndex, isHidden);
-        currentRow.setStreamingSheetReader(streamingSheetReader);
-        currentRow.setHeight(height);
-        if (stylesTable != null) {
-          Attribute styleAttr = startElement.getAttributeByName(QNAME_S);
-          if (styleAttr != null) {
-            String indexStr = styleAttr.getValue();
-            try {
-              final int index = parseInt(indexStr);
-              currentRow.setRowStyle(stylesTable.getStyleAt(index));
-            } catch (NumberFormatException nfe) {
-              LOG.warn("Ignoring invalid row style index {}", indexStr);
-            }
-          }
+  private void handleCursorEvent(int eventType) {
+    if (eventType == XMLStreamConstants.CHARACTERS) {
+      if (insideCharElement || insideFormulaElement) {
+        handleCharacters(streamReader.getTextCharacters(), streamReader.getTextStart(), streamReader.getTextLength());
+      }
+    } else if (eventType == XMLStreamConstants.START_ELEMENT) {
+      if (isSpreadsheetTag(streamReader.getNamespaceURI())) {
+        handleStartElement(streamReader.getLocalName(), cursorAttributes);
+      }
+    } else if (eventType == XMLStreamConstants.END_ELEMENT) {
+      if (isSpreadsheetTag(streamReader.getNamespaceURI())) {
+        handleEndElement(streamReader.getLocalName());
+      }
+    }
+  }
+
+  private void handleCharacters(String data) {
+    if (insideCharElement) {
+      contentBuilder.append(data);
+    }
+    if (insideFormulaElement) {
+      formulaBuilder.append(data);
+    }
+  }
+
+  private void handleCharacters(char[] chars, int start, int length) {
+    if (insideCharElement) {
+      contentBuilder.append(chars, start, length);
+    }
+    if (insideFormulaElement) {
+      formulaBuilder.append(chars, start, length);
+    }
+  }
+
+  private void handleStartElement(final String tagLocalName, final XmlElementAttributes attributes) {
+    if (skippingCell && !skippingRow && "f".equals(tagLocalName)) {
+      startSkippedCellFormula(attributes);
+      return;
+    }
+    if (skippingCell || skippingRow) {
+      // element inside a cell or row that is not needed
+      return;
+    }
+    if ("row".equals(tagLocalName)) {
+      String rowNumAttr = attributes.getValue(QNAME_R);
+      int rowIndex = currentRowNum;
+      if (rowNumAttr != null) {
+        rowIndex = parseInt(rowNumAttr) - 1;
+        currentRowNum = rowIndex;
+      }
+      if (rowIndex > rowRangeEnd) {
+        LOG.debug("stopping parse at row {} because it is after the requested row range", rowIndex);
+        closeParser();
+        return;
+      }
+      if (rowIndex < rowRangeStart && canSkipRowsBeforeRange()) {
+        skippingRow = true;
+        return;
+      }
+      currentColNum = firstColNum;
+      if (rowHandler != null && selectedColumnNames == null) {
+        pushingRow = true;
+        rowHandler.rowStart(rowIndex);
+        return;
+      }
+      String isHiddenAttr = attributes.getValue(QNAME_HIDDEN);
+      String htAttr = attributes.getValue(QNAME_HT);
+      float height = getDefaultRowHeight();
+      if (htAttr != null) {
+        try {
+          height = Float.parseFloat(htAttr);
+        } catch (Exception e) {
+          LOG.warn("unable to parse row {} height {}", rowIndex, htAttr);
         }
-        currentColNum = firstColNum;
-      } else if ("col".equals(tagLocalName)) {
-        Attribute isHiddenAttr = startElement.getAttributeByName(QNAME_HIDDEN);
-        Attribute widthAttr = startElement.getAttributeByName(QNAME_WIDTH);
-        float width = -1;
-        if (widthAttr != null) {
+      }
+      boolean isHidden = isHiddenAttr != null && XmlUtils.evaluateBoolean(isHiddenAttr);
+      currentRow = newRow(rowIndex, isHidden);
+      currentRow.setStreamingSheetReader(streamingSheetReader);
+      currentRow.setHeight(height);
+      if (styleFormats != null) {
+        String indexStr = attributes.getValue(QNAME_S);
+        if (indexStr != null) {
           try {
-            width = Float.parseFloat(widthAttr.getValue());
-          } catch (Exception e) {
-            LOG.warn("Failed to parse column width {}", width);
+            final int index = parseInt(indexStr);
+            currentRow.setRowStyle(styleFormats.getStyle(index));
+          } catch (NumberFormatException nfe) {
+            LOG.warn("Ignoring invalid row style index {}", indexStr);
           }
         }
-        boolean isHidden = isHiddenAttr != null && XmlUtils.evaluateBoolean(isHiddenAttr.getValue());
-        if (isHidden || width >= 0) {
-          Attribute minAttr = startElement.getAttributeByName(QNAME_MIN);
-          Attribute maxAttr = startElement.getAttributeByName(QNAME_MAX);
-          int min = parseInt(minAttr.getValue()) - 1;
-          int max = parseInt(maxAttr.getValue()) - 1;
-          for (int columnIndex = min; columnIndex <= max; columnIndex++) {
-            if (isHidden) hiddenColumns.add(columnIndex);
-            if (width >= 0) columnWidths.put(columnIndex, width);
-          }
+      }
+    } else if ("col".equals(tagLocalName)) {
+      String isHiddenAttr = attributes.getValue(QNAME_HIDDEN);
+      String widthAttr = attributes.getValue(QNAME_WIDTH);
+      float width = -1;
+      if (widthAttr != null) {
+        try {
+          width = Float.parseFloat(widthAttr);
+        } catch (Exception e) {
+          LOG.warn("Failed to parse column width {}", width);
         }
-      } else if ("c".equals(tagLocalName)) {
-        Attribute ref = startElement.getAttributeByName(QNAME_R);
-
-        if (ref != null) {
-          CellAddress cellAddress = new CellAddress(ref.getValue());
-          currentColNum = cellAddress.getColumn();
-          if (currentRow.getRowNum() == currentRowNum) {
-            currentCell = new StreamingCell(sheet, currentColNum, currentRow, use1904Dates);
-          } else {
-            currentCell = new StreamingCell(sheet, currentColNum, cellAddress.getRow(), use1904Dates);
-          }
-        } else if (currentRow != null) {
-          currentCell = new StreamingCell(sheet, currentColNum, currentRow, use1904Dates);
-        } else {
-          currentCell = new StreamingCell(sheet, currentColNum, currentRowNum, use1904Dates);
+      }
+      boolean isHidden = isHiddenAttr != null && XmlUtils.evaluateBoolean(isHiddenAttr);
+      if (isHidden || width >= 0) {
+        int min = parseInt(attributes.getValue(QNAME_MIN)) - 1;
+        int max = parseInt(attributes.getValue(QNAME_MAX)) - 1;
+        for (int columnIndex = min; columnIndex <= max; columnIndex++) {
+          if (isHidden) hiddenColumns.add(columnIndex);
+          if (width >= 0) columnWidths.put(columnIndex, width);
         }
-        streamingSheetReader.setFormatString(startElement, currentCell);
-
-        Attribute type = startElement.getAttributeByName(QNAME_T);
-        if (type != null) {
-          currentCell.setType(type.getValue());
-        } else {
-          currentCell.setType("n");
+      }
+    } else if ("c".equals(tagLocalName)) {
+      String ref = attributes.getValue(QNAME_R);
+      int cellRowIndex = -1;
+      if (ref != null) {
+        int colIndex = CellReferenceUtil.parseColumnIndex(ref);
+        cellRowIndex = colIndex < 0 ? -1 : CellReferenceUtil.parseRowIndex(ref);
+        if (cellRowIndex < 0) {
+          // unusual reference - let POI deal with it
+          CellAddress cellAddress = new CellAddress(ref);
+          colIndex = cellAddress.getColumn();
+          cellRowIndex = cellAddress.getRow();
         }
+        currentColNum = colIndex;
+      }
+      if (isColumnSkipped(currentColNum)) {
+        skippingCell = true;
+        return;
+      }
 
-        if (stylesTable != null) {
-          Attribute style = startElement.getAttributeByName(QNAME_S);
-          if (style != null) {
-            String indexStr = style.getValue();
-            try {
-              final int index = Integer.parseInt(indexStr);
-              currentCell.setCellStyle(stylesTable.getStyleAt(index));
-            } catch (NumberFormatException nfe) {
-              LOG.warn("Ignoring invalid style index {}", indexStr);
-            }
-          } else {
-            currentCell.setCellStyle(stylesTable.getStyleAt(0));
-          }
-        }
-      } else if ("pane".equals(tagLocalName)) {
-        parsePane(startElement);
-      } else if ("v".equals(tagLocalName) || "t".equals(tagLocalName)) {
-        insideCharElement = true;
-      } else if ("is".equals(tagLocalName)) {
-        insideIS = true;
-      } else if ("dimension".equals(tagLocalName)) {
-        Attribute refAttr = startElement.getAttributeByName(QNAME_REF);
-        String ref = refAttr != null ? refAttr.getValue() : null;
-        if (ref != null) {
-          // ref is formatted as A1 or A1:F25. Take the last numbers of this string and use it as lastRowNum
-          for (int i = ref.length() - 1; i >= 0; i--) {
-            if (!Character.isDigit(ref.charAt(i))) {
-              try {
-                streamingSheetReader.setLastRowNum(parseInt(ref.substring(i + 1)) - 1);
-              } catch (NumberFormatException ignore) {
-              }
-              break;
-            }
-          }
-          int colonPos = ref.indexOf(':');
-          if (colonPos > 0) {
-            String firstPart = ref.substring(0, colonPos);
-            try {
-              CellReference cellReference = new CellReference(firstPart);
-              streamingSheetReader.setFirstRowNum(cellReference.getRow());
-            } catch (Exception e) {
-              LOG.warn("Failed to parse cell reference {}", firstPart);
-            }
-          }
-          for (int i = 0; i < ref.length(); i++) {
-            if (!Character.isAlphabetic(ref.charAt(i))) {
-              firstColNum = CellReference.convertColStringToIndex(ref.substring(0, i));
-              break;
-            }
-          }
+      if (pushingRow) {
+        final String type = attributes.getValue(QNAME_T);
+        pushCellType = type == null ? "n" : type;
+        pushCellStyleIndex = parseCellStyleIndex(attributes.getValue(QNAME_S));
+      } else {
+        startCell(ref != null, cellRowIndex, attributes);
+      }
+    } else if ("pane".equals(tagLocalName)) {
+      parsePane(attributes);
+    } else if ("v".equals(tagLocalName) || "t".equals(tagLocalName)) {
+      insideCharElement = true;
+    } else if ("is".equals(tagLocalName)) {
+      insideIS = true;
+    } else if ("dimension".equals(tagLocalName)) {
+      String ref = attributes.getValue(QNAME_REF);
+      if (ref != null) {
+        parseDimension(ref);
+      }
+    } else if ("f".equals(tagLocalName)) {
+      insideFormulaElement = true;
+      if (currentCell != null) {
+        currentCell.setFormulaType(true);
+        String tAttr = attributes.getValue(QNAME_T);
+        if ("shared".equals(tAttr)) {
+          currentCell.setSharedFormula(true);
         }
-      } else if ("f".equals(tagLocalName)) {
-        insideFormulaElement = true;
-        if (currentCell != null) {
-          currentCell.setFormulaType(true);
-          Attribute tAttr = startElement.getAttributeByName(new QName("t"));
-          if (tAttr != null && tAttr.getValue().equals("shared")) {
-            currentCell.setSharedFormula(true);
-          }
-          Attribute siAttr = startElement.getAttributeByName(new QName("si"));
-          if (siAttr != null) {
-            currentCell.setFormulaSI(siAttr.getValue());
-          }
+        String siAttr = attributes.getValue(QNAME_SI);
+        if (siAttr != null) {
+          currentCell.setFormulaSI(siAttr);
         }
-      } else if ("mergeCell".equals(tagLocalName)) {
-        parseMergeCell(startElement);
-      } else if ("selection".equals(tagLocalName)) {
-        Attribute activeCellAttr = startElement.getAttributeByName(QName.valueOf("activeCell"));
-        if (activeCellAttr != null) {
-          String activeCellRef = getAttributeValue(activeCellAttr);
-          try {
-            streamingSheetReader.setActiveCell(new CellAddress(activeCellRef));
-          } catch (Exception e) {
-            LOG.warn("unable to parse active cell reference {}", activeCellRef);
-          }
+      }
+    } else if ("mergeCell".equals(tagLocalName)) {
+      parseMergeCell(attributes);
+    } else if ("selection".equals(tagLocalName)) {
+      String activeCellRef = attributes.getValue(QNAME_ACTIVE_CELL);
+      if (activeCellRef != null) {
+        try {
+          streamingSheetReader.setActiveCell(new CellAddress(activeCellRef));
+        } catch (Exception e) {
+          LOG.warn("unable to parse active cell reference {}", activeCellRef);
         }
-      } else if ("hyperlink".equals(tagLocalName)) {
-        parseHyperlink(startElement);
-      } else if ("sheetFormatPr".equals(tagLocalName)) {
-        parseSheetFormatPr(startElement);
       }
+    } else if ("hyperlink".equals(tagLocalName)) {
+      parseHyperlink(attributes);
+    } else if ("sheetFormatPr".equals(tagLocalName)) {
+      parseSheetFormatPr(attributes);
+    }
+
+    if (!insideIS) {
+      contentBuilder.setLength(0);
+    }
+    formulaBuilder.setLength(0);
+  }
 
-      if (!insideIS) {
-        contentBuilder.setLength(0);
+  private void startCell(final boolean hasRef, final int cellRowIndex, final XmlElementAttributes attributes) {
+    if (hasRef) {
+      if (currentRow.getRowNum() == currentRowNum) {
+        currentCell = newCell(currentRow, currentRowNum);
+      } else {
+        currentCell = newCell(null, cellRowIndex);
       }
+    } else if (currentRow != null) {
+      currentCell = newCell(currentRow, currentRowNum);
+    } else {
+      currentCell = newCell(null, currentRowNum);
+    }
+    String type = attributes.getValue(QNAME_T);
+    if (type != null) {
+      currentCell.setType(type);
+    } else {
+      currentCell.setType("n");
+    }
+
+    if (styleFormats != null) {
+      final int styleIndex = parseCellStyleIndex(attributes.getValue(QNAME_S));
+      currentCell.setCellStyle(styleFormats.getStyle(styleIndex));
+      currentCell.setNumericFormatIndex(styleFormats.getFormatIndex(styleIndex));
+      currentCell.setNumericFormat(styleFormats.getFormatString(styleIndex));
+    }
+  }
+
+  /**
+   * @return the style index - an index that is not a number or that is not the index of a style in the
+   * workbook is ignored and the default style (index 0) is used instead
+   */
+  private int parseCellStyleIndex(final String styleIndexStr) {
+    if (styleIndexStr != null) {
+      int styleIndex;
+      try {
+        styleIndex = parseInt(styleIndexStr);
+      } catch (NumberFormatException nfe) {
+        styleIndex = -1;
+      }
+      if (styleIndex >= 0 && (styleFormats == null || styleIndex < styleFormats.size())) {
+        return styleIndex;
+      }
+      LOG.warn("Ignoring invalid style index {}", styleIndexStr);
+    }
+    return 0;
+  }
+
+  /**
+   * Cells in columns that are not selected are skipped, but a skipped cell can be the base cell of a shared
+   * formula that is used by cells in the selected columns, so the formula of the base cell is still read.
+   */
+  private void startSkippedCellFormula(final XmlElementAttributes attributes) {
+    if (!getBuilder().readSharedFormulas() || !"shared".equals(attributes.getValue(QNAME_T))) {
+      return;
+    }
+    final String siAttr = attributes.getValue(QNAME_SI);
+    if (siAttr != null && (sharedFormulaMap == null || !sharedFormulaMap.containsKey(siAttr))) {
+      skippedCellFormulaSI = siAttr;
+      insideFormulaElement = true;
       formulaBuilder.setLength(0);
-    } else if (event.getEventType() == XMLStreamConstants.END_ELEMENT
-            && isSpreadsheetTag(event.asEndElement().getName())) {
-      EndElement endElement = event.asEndElement();
-      String tagLocalName = endElement.getName().getLocalPart();
-
-      if ("v".equals(tagLocalName) || "t".equals(tagLocalName)) {
-        if (currentCell == null) {
-          throw new ParseException("Found value/text element outside of cell, this may be caused by malformed XML");
-        }
+    }
+  }
 
-        insideCharElement = false;
+  private void endSkippedCellFormula() {
+    insideFormulaElement = false;
+    final String formula = formulaBuilder.toString();
+    if (!formula.isEmpty()) {
+      if (sharedFormulaMap == null) {
+        sharedFormulaMap = new HashMap<>();
+      }
+      addSharedFormula(skippedCellFormulaSI, new SharedFormula(new CellAddress(currentRowNum, currentColNum), formula));
+    }
+    skippedCellFormulaSI = null;
+  }
+
+  private void addSharedFormula(final String formulaSI, final SharedFormula sharedFormula) {
+    sharedFormulaMap.put(formulaSI, sharedFormula);
+    streamingSheetReader.addSharedFormula(formulaSI, sharedFormula);
+  }
+
+  private void handleEndElement(final String tagLocalName) {
+    if (skippingRow) {
+      if ("row".equals(tagLocalName)) {
+        skippingRow = false;
+        currentRowNum++;
+      }
+      return;
+    }
+    if (skippingCell) {
+      if ("c".equals(tagLocalName)) {
+        skippingCell = false;
+        currentColNum++;
+      } else if ("f".equals(tagLocalName) && skippedCellFormulaSI != null) {
+        endSkippedCellFormula();
+      }
+      return;
+    }
+    if (pushingRow) {
+      handlePushEndElement(tagLocalName);
+      return;
+    }
+    if ("v".equals(tagLocalName) || "t".equals(tagLocalName)) {
+      if (currentCell == null) {
+        throw new ParseException("Found value/text element outside of cell, this may be caused by malformed XML");
+      }
+
+      insideCharElement = false;
+      if (!setNumericValue()) {
         Supplier formattedContentSupplier = formattedContents();
         currentCell.setRawContents(unformattedContents(formattedContentSupplier));
         currentCell.setContentSupplier(formattedContentSupplier);
-      } else if ("row".equals(tagLocalName) && currentRow != null) {
-        rowCache.add(currentRow);
-        currentRowNum++;
-      } else if ("c".equals(tagLocalName)) {
-        if (currentRow == null) {
-          final CellAddress cellAddress = currentCell == null ? null : currentCell.getAddress();
-          LOG.warn("failed to add cell {} to cell map because currentRow is null", cellAddress);
+      }
+    } else if ("row".equals(tagLocalName) && currentRow != null) {
+      if (selectedColumnNames != null) {
+        selectHeaderColumns(currentRow);
+      }
+      if (currentRow.getRowNum() >= rowRangeStart) {
+        if (rowHandler != null) {
+          pushRow(currentRow);
         } else {
-          currentRow.getCellMap().put(currentCell.getColumnIndex(), currentCell);
+          rowCache.add(currentRow);
         }
-        currentCell = null;
-        currentColNum++;
-      } else if ("is".equals(tagLocalName)) {
-        insideIS = false;
-      } else if ("f".equals(tagLocalName)) {
-        insideFormulaElement = false;
-        if (currentCell != null) {
-          final String formula = formulaBuilder.toString();
-          currentCell.setFormula(formula);
-          if (currentCell.isSharedFormula() && currentCell.getFormulaSI() != null && getBuilder().readSharedFormulas()) {
-            if (sharedFormulaMap == null) {
-              sharedFormulaMap = new HashMap<>();
-            }
-            String formulaSI = currentCell.getFormulaSI();
-            if (!sharedFormulaMap.containsKey(formulaSI) && !formula.isEmpty()) {
-              SharedFormula sharedFormula = new SharedFormula(currentCell.getAddress(), formula);
-              sharedFormulaMap.put(formulaSI, sharedFormula);
-              streamingSheetReader.addSharedFormula(formulaSI, sharedFormula);
-            } else if (formula.isEmpty()) {
-              Workbook wb = getWorkbook();
-              if (wb != null) {
-                SharedFormula sf = sharedFormulaMap.get(formulaSI);
-                if (sf == null) {
-                  LOG.warn("No SharedFormula found for si={}", formulaSI);
-                } else {
-                  final CurrentRowEvaluationWorkbook evaluationWorkbook =
-                          new CurrentRowEvaluationWorkbook(wb, currentRow);
-                  int sheetIndex = wb.getSheetIndex(sheet);
-                  if (sheetIndex < 0) {
-                    LOG.warn("Failed to find correct sheet index; defaulting to zero");
-                    sheetIndex = 0;
-                  }
-                  try {
-                    Ptg[] ptgs = FormulaParser.parse(
-                        sf.getFormula(), evaluationWorkbook, FormulaType.CELL, sheetIndex, currentRow.getRowNum());
-                    final int rowsToMove = currentRowNum - sf.getCellAddress().getRow();
-                    final int colsToMove = currentColNum - sf.getCellAddress().getColumn();
-                    org.apache.poi.ss.formula.SharedFormula formulaShifter = new org.apache.poi.ss.formula.SharedFormula(
-                            SpreadsheetVersion.EXCEL2007);
-                    ptgs = formulaShifter.convertSharedFormulas(ptgs, rowsToMove, colsToMove);
-                    // There are some corner cases regarding formulas in this PR
-                    // https://github.com/pjfanning/excel-streaming-reader/issues/151
-                    String shiftedFmla = FormulaRenderer.toFormulaString(evaluationWorkbook, ptgs);
-
-                    LOG.debug("cell {} should have formula {} based on shared formula {} (rowsToMove={} colsToMove={})",
-                            currentCell.getAddress(), shiftedFmla, sf.getFormula(), rowsToMove, colsToMove);
-                    currentCell.setFormula(shiftedFmla);
-                  } catch (Exception e) {
-                    LOG.warn("cell {} has a shared formula but excel-streaming-reader has an issue parsing it - will ignore the formula",
-                            currentCell.getAddress(), e);
-                  }
+      }
+      currentRowNum++;
+    } else if ("c".equals(tagLocalName)) {
+      if (currentRow == null) {
+        final CellAddress cellAddress = currentCell == null ? null : currentCell.getAddress();
+        LOG.warn("failed to add cell {} to cell map because currentRow is null", cellAddress);
+      } else {
+        currentRow.addCell(currentCell);
+      }
+      currentCell = null;
+      currentColNum++;
+    } else if ("is".equals(tagLocalName)) {
+      insideIS = false;
+    } else if ("f".equals(tagLocalName)) {
+      insideFormulaElement = false;
+      if (currentCell != null) {
+        final String formula = formulaBuilder.toString();
+        currentCell.setFormula(formula);
+        if (currentCell.isSharedFormula() && currentCell.getFormulaSI() != null && getBuilder().readSharedFormulas()) {
+          if (sharedFormulaMap == null) {
+            sharedFormulaMap = new HashMap<>();
+          }
+          String formulaSI = currentCell.getFormulaSI();
+          if (!sharedFormulaMap.containsKey(formulaSI) && !formula.isEmpty()) {
+            addSharedFormula(formulaSI, new SharedFormula(currentCell.getAddress(), formula));
+          } else if (formula.isEmpty()) {
+            Workbook wb = getWorkbook();
+            if (wb != null) {
+              SharedFormula sf = sharedFormulaMap.get(formulaSI);
+              if (sf == null) {
+                LOG.warn("No SharedFormula found for si={}", formulaSI);
+              } else {
+                final CurrentRowEvaluationWorkbook evaluationWorkbook =
+                        new CurrentRowEvaluationWorkbook(wb, currentRow);
+                int sheetIndex = wb.getSheetIndex(sheet);
+                if (sheetIndex < 0) {
+                  LOG.warn("Failed to find correct sheet index; defaulting to zero");
+                  sheetIndex = 0;
+                }
+                try {
+                  Ptg[] ptgs = FormulaParser.parse(
+                      sf.getFormula(), evaluationWorkbook, FormulaType.CELL, sheetIndex, currentRow.getRowNum());
+                  final int rowsToMove = currentRowNum - sf.getCellAddress().getRow();
+                  final int colsToMove = currentColNum - sf.getCellAddress().getColumn();
+                  org.apache.poi.ss.formula.SharedFormula formulaShifter = new org.apache.poi.ss.formula.SharedFormula(
+                          SpreadsheetVersion.EXCEL2007);
+                  ptgs = formulaShifter.convertSharedFormulas(ptgs, rowsToMove, colsToMove);
+                  // There are some corner cases regarding formulas in this PR
+                  // https://github.com/pjfanning/excel-streaming-reader/issues/151
+                  String shiftedFmla = FormulaRenderer.toFormulaString(evaluationWorkbook, ptgs);
+
+                  LOG.debug("cell {} should have formula {} based on shared formula {} (rowsToMove={} colsToMove={})",
+                          currentCell.getAddress(), shiftedFmla, sf.getFormula(), rowsToMove, colsToMove);
+                  currentCell.setFormula(shiftedFmla);
+                } catch (Exception e) {
+                  LOG.warn("cell {} has a shared formula but excel-streaming-reader has an issue parsing it - will ignore the formula",
+                          currentCell.getAddress(), e);
                 }
               }
             }
@@ -395,91 +719,210 @@ class StreamingRowIterator implements CloseableIterator<Row> {
     }
   }
 
-  private void parseHyperlink(StartElement startElement) {
-    String id = null;
-    Iterator<Attribute> attributeIterator = startElement.getAttributes();
-    while (attributeIterator.hasNext()) {
-      Attribute att = attributeIterator.next();
-      QName qn = att.getName();
-      if ("id".equals(qn.getLocalPart()) && qn.getNamespaceURI().endsWith("relationships")) {
-        id = att.getValue();
+  private void handlePushEndElement(final String tagLocalName) {
+    if ("v".equals(tagLocalName) || "t".equals(tagLocalName)) {
+      insideCharElement = false;
+    } else if ("c".equals(tagLocalName)) {
+      rowHandler.cell(currentColNum, pushCellType, pushCellValue(), pushCellStyleIndex);
+      currentColNum++;
+    } else if ("row".equals(tagLocalName)) {
+      rowHandler.rowEnd(currentRowNum);
+      pushedRowCount++;
+      pushingRow = false;
+      currentRowNum++;
+    } else if ("is".equals(tagLocalName)) {
+      insideIS = false;
+    } else if ("f".equals(tagLocalName)) {
+      insideFormulaElement = false;
+    }
+  }
+
+  private String getSharedString(final int idx) {
+    if (cachedSharedStrings != null) {
+      return cachedSharedStrings.getString(idx);
+    } else if (usesPoiSharedStrings) {
+      return PoiSharedStringsSupport.getSharedString(sst, idx);
+    }
+    return sst.getItemAt(idx).getString();
+  }
+
+  /**
+   * @return the value of the current cell in push mode, the content builder is returned
+   * when no conversion is needed
+   */
+  private CharSequence pushCellValue() {
+    switch (pushCellType) {
+      case "s":
+        if (contentBuilder.length() > 0 && !pushSharedStringIndexes) {
+          return getSharedString(parseInt(contentBuilder.toString()));
+        }
+        return contentBuilder;
+      case "inlineStr":
+        if (contentBuilder.indexOf("_x") >= 0) {
+          // decode escaped characters
+          return new XSSFRichTextString(contentBuilder.toString()).getString();
+        }
+        return contentBuilder;
+      default:
+        return contentBuilder;
+    }
+  }
+
+  /**
+   * Passes a row that had to be read in full (the header row when columns are selected by name)
+   * to the <code>rowHandler</code>.
+   */
+  private void pushRow(final StreamingRow row) {
+    rowHandler.rowStart(row.getRowNum());
+    for (Cell cell : row.getCellMap().values()) {
+      final StreamingCell streamingCell = (StreamingCell) cell;
+      final String rawContents = streamingCell.getRawContents();
+      final CellStyle cellStyle = streamingCell.getCellStyle();
+      String type = streamingCell.getType();
+      if (pushSharedStringIndexes && "s".equals(type)) {
+        // the raw contents of a full cell is the shared string and not the index
+        type = "str";
+      }
+      rowHandler.cell(streamingCell.getColumnIndex(), type,
+              rawContents == null ? "" : rawContents, cellStyle == null ? 0 : cellStyle.getIndex());
+    }
+    rowHandler.rowEnd(row.getRowNum());
+    pushedRowCount++;
+  }
+
+  /**
+   * Rows before the requested row range are normally skipped without creating any rows or cells.
+   * They need to be parsed if they might contain the header row (when columns are selected by name)
+   * or the base cells for shared formulas (which are not needed when rows are pushed to a RowHandler
+   * and which are part of the position that a resumed iterator starts from).
+   */
+  private boolean canSkipRowsBeforeRange() {
+    // a resumed iterator starts with the shared formulas that were found before the position
+    return selectedColumnNames == null && (rowHandler != null || resumed || !getBuilder().readSharedFormulas());
+  }
+
+  /**
+   * @param colIndex 0-based column index
+   * @return true if a column selection is in place and it does not include this column
+   */
+  private boolean isColumnSkipped(final int colIndex) {
+    // the header row is read in full when columns are selected by name
+    return selectedColumns != null && selectedColumnNames == null && !selectedColumns.get(colIndex);
+  }
+
+  /**
+   * Resolves the selected column names using the cells in the header row and removes the
+   * unselected cells from the header row.
+   */
+  private void selectHeaderColumns(final StreamingRow headerRow) {
+    final BitSet selection = selectedColumns == null ? new BitSet() : (BitSet) selectedColumns.clone();
+    for (Cell cell : headerRow.getCellMap().values()) {
+      if (selectedColumnNames.contains(cell.getStringCellValue())) {
+        selection.set(cell.getColumnIndex());
       }
     }
-    Attribute ref = startElement.getAttributeByName(QNAME_REF);
-    Attribute location = startElement.getAttributeByName(QName.valueOf("location"));
-    Attribute display = startElement.getAttributeByName(QName.valueOf("display"));
-    Attribute tooltip = startElement.getAttributeByName(QName.valueOf("tooltip"));
-    hyperlinks.add(new HyperlinkData(id, getAttributeValue(ref), getAttributeValue(location),
-            getAttributeValue(display), getAttributeValue(tooltip)));
+    headerRow.getCellMap().keySet().removeIf(colIndex -> !selection.get(colIndex));
+    selectedColumns = selection;
+    selectedColumnNames = null;
+    headerColumnsSelected = true;
   }
 
-  private void parseMergeCell(StartElement startElement) {
-    Attribute ref = startElement.getAttributeByName(QNAME_REF);
+  /**
+   * @param ref formatted as A1 or A1:F25
+   */
+  private void parseDimension(final String ref) {
+    final int colonPos = ref.indexOf(':');
+    final int lastRowNum = CellReferenceUtil.parseRowIndex(ref, colonPos + 1, ref.length());
+    if (lastRowNum >= 0) {
+      streamingSheetReader.setLastRowNum(lastRowNum);
+    }
+    if (colonPos > 0) {
+      final int firstRowNum = CellReferenceUtil.parseRowIndex(ref, 0, colonPos);
+      if (firstRowNum >= 0) {
+        streamingSheetReader.setFirstRowNum(firstRowNum);
+      } else {
+        LOG.warn("Failed to parse cell reference {}", ref.substring(0, colonPos));
+      }
+    }
+    final int firstColIndex = CellReferenceUtil.parseColumnIndex(ref, 0, colonPos > 0 ? colonPos : ref.length());
+    if (firstColIndex >= 0) {
+      firstColNum = firstColIndex;
+    }
+  }
+
+  private void parseHyperlink(XmlElementAttributes attributes) {
+    String id = attributes.getValue("relationships", "id");
+    hyperlinks.add(new HyperlinkData(id, attributes.getValue(QNAME_REF), attributes.getValue(QNAME_LOCATION),
+            attributes.getValue(QNAME_DISPLAY), attributes.getValue(QNAME_TOOLTIP)));
+  }
+
+  private void parseMergeCell(XmlElementAttributes attributes) {
+    String ref = attributes.getValue(QNAME_REF);
     if (ref != null) {
-      mergedCells.add(CellRangeAddress.valueOf(ref.getValue()));
+      mergedCells.add(CellRangeAddress.valueOf(ref));
     }
   }
 
-  private void parsePane(final StartElement startElement) {
-    final Attribute stateAtt = startElement.getAttributeByName(QName.valueOf("state"));
-    final Attribute activePaneAtt = startElement.getAttributeByName(QName.valueOf("activePane"));
-    final Attribute topLeftCellAtt = startElement.getAttributeByName(QName.valueOf("topLeftCell"));
-    final Float xValue = parseAttValueAsFloat("xSplit", startElement);
+  private void parsePane(final XmlElementAttributes attributes) {
+    final String stateAtt = attributes.getValue(QNAME_STATE);
+    final String activePaneAtt = attributes.getValue(QNAME_ACTIVE_PANE);
+    final String topLeftCellAtt = attributes.getValue(QNAME_TOP_LEFT_CELL);
+    final Float xValue = parseAttValueAsFloat(QNAME_X_SPLIT, attributes);
     final short x = xValue == null ? 0 : xValue.shortValue();
-    final Float yValue = parseAttValueAsFloat("ySplit", startElement);
+    final Float yValue = parseAttValueAsFloat(QNAME_Y_SPLIT, attributes);
     final short y = yValue == null ? 0 : yValue.shortValue();
     short row = 0;
     short col = 0;
     if (topLeftCellAtt != null) {
       try {
-        final CellReference cellRef = new CellReference(topLeftCellAtt.getValue());
+        final CellReference cellRef = new CellReference(topLeftCellAtt);
         row = (short)cellRef.getRow();
         col = cellRef.getCol();
       } catch (Exception e) {
-        LOG.warn("unable to parse topLeftCell {}", topLeftCellAtt.getValue());
+        LOG.warn("unable to parse topLeftCell {}", topLeftCellAtt);
       }
     }
-    final boolean frozen = stateAtt != null && "frozen".equals(stateAtt.getValue());
+    final boolean frozen = "frozen".equals(stateAtt);
     byte active = 0;
     if (activePaneAtt != null) {
       try {
-        STPane.Enum stPaneEnum = STPane.Enum.forString(activePaneAtt.getValue());
+        STPane.Enum stPaneEnum = STPane.Enum.forString(activePaneAtt);
         active = (byte)(stPaneEnum.intValue() - 1);
       } catch (Exception e) {
-        LOG.warn("unable to parse activePane {}", activePaneAtt.getValue());
+        LOG.warn("unable to parse activePane {}", activePaneAtt);
       }
     }
     streamingSheetReader.setPane(new PaneInformation(x, y, row, col, active, frozen));
   }
 
-  private Float parseAttValueAsFloat(final String name, final StartElement startElement) {
-    final Attribute att = startElement.getAttributeByName(QName.valueOf(name));
-    if (att != null) {
+  private Float parseAttValueAsFloat(final QName name, final XmlElementAttributes attributes) {
+    final String value = attributes.getValue(name);
+    if (value != null) {
       try {
-        return Float.parseFloat(att.getValue());
+        return Float.parseFloat(value);
       } catch (Exception e) {
-        LOG.warn("unable to parse {} {}", name, att.getValue());
+        LOG.warn("unable to parse {} {}", name.getLocalPart(), value);
       }
     }
     return null;
   }
 
-  private void parseSheetFormatPr(final StartElement startElement) {
-    final Attribute defaultRowHeightAtt = startElement.getAttributeByName(QName.valueOf("defaultRowHeight"));
+  private void parseSheetFormatPr(final XmlElementAttributes attributes) {
+    final String defaultRowHeightAtt = attributes.getValue(QNAME_DEFAULT_ROW_HEIGHT);
     if (defaultRowHeightAtt != null) {
       try {
-        defaultRowHeight = Float.parseFloat(defaultRowHeightAtt.getValue());
+        defaultRowHeight = Float.parseFloat(defaultRowHeightAtt);
         streamingSheetReader.setDefaultRowHeight(defaultRowHeight);
       } catch (Exception e) {
-        LOG.warn("unable to parse defaultRowHeight {}", defaultRowHeightAtt.getValue());
+        LOG.warn("unable to parse defaultRowHeight {}", defaultRowHeightAtt);
       }
     }
-    final Attribute baseColWidthAtt = startElement.getAttributeByName(QName.valueOf("baseColWidth"));
+    final String baseColWidthAtt = attributes.getValue(QNAME_BASE_COL_WIDTH);
     if (baseColWidthAtt != null) {
       try {
-        streamingSheetReader.setBaseColWidth(parseInt(baseColWidthAtt.getValue()));
+        streamingSheetReader.setBaseColWidth(parseInt(baseColWidthAtt));
       } catch (Exception e) {
-        LOG.warn("unable to parse baseColWidth {}", baseColWidthAtt.getValue());
+        LOG.warn("unable to parse baseColWidth {}", baseColWidthAtt);
       }
     }
   }
@@ -492,9 +935,9 @@ class StreamingRowIterator implements CloseableIterator<Row> {
    * </ul>
    * As opposed to http://schemas.openxmlformats.org/drawingml/2006/spreadsheetDrawing, etc.
    */
-  private boolean isSpreadsheetTag(QName name) {
-    return (name.getNamespaceURI() != null
-        && name.getNamespaceURI().endsWith("/main"));
+  private boolean isSpreadsheetTag(String namespaceURI) {
+    return (namespaceURI != null
+        && namespaceURI.endsWith("/main"));
   }
 
   /**
@@ -516,10 +959,7 @@ class StreamingRowIterator implements CloseableIterator<Row> {
         if (!lastContents.isEmpty()) {
           final int idx = parseInt(lastContents);
           if (!getBuilder().fullFormatRichText()) {
-            if (usesPoiSharedStrings) {
-              return new LazySupplier<>(() -> PoiSharedStringsSupport.getSharedString(sst, idx));
-            }
-            return new LazySupplier<>(() -> sst.getItemAt(idx).getString());
+            return new LazySupplier<>(() -> getSharedString(idx));
           }
           return new LazySupplier<>(() -> sst.getItemAt(idx));
         }
@@ -537,7 +977,7 @@ class StreamingRowIterator implements CloseableIterator<Row> {
           final int currentNumericFormatIndex = currentCell.getNumericFormatIndex();
           final String currentNumericFormat = currentCell.getNumericFormat();
 
-          return new LazySupplier<>(() -> dataFormatter.formatRawCellContents(
+          return new LazySupplier<>(() -> formatRawCellContents(
                   parseDouble(lastContents),
                   currentNumericFormatIndex,
                   currentNumericFormat));
@@ -562,7 +1002,7 @@ class StreamingRowIterator implements CloseableIterator<Row> {
               } catch (Exception e) {
                 dv = DateTimeUtil.convertTime(lastContents);
               }
-              return dataFormatter.formatRawCellContents(
+              return formatRawCellContents(
                       dv,
                       currentNumericFormatIndex,
                       currentNumericFormat);
@@ -579,6 +1019,36 @@ class StreamingRowIterator implements CloseableIterator<Row> {
     }
   }
 
+  /**
+   * Fast path for numeric cells that have a number format: plain decimal values are parsed straight from the
+   * content builder, so no String is created unless the raw contents are needed later.
+   *
+   * @return false if the current cell is not a numeric cell with a plain decimal value
+   */
+  private boolean setNumericValue() {
+    if (!"n".equals(currentCell.getType()) || currentCell.getNumericFormat() == null) {
+      return false;
+    }
+    final int scale = NumberUtil.getPlainDecimalScale(contentBuilder);
+    if (scale < 0) {
+      return false;
+    }
+    final double value = NumberUtil.parsePlainDecimal(contentBuilder, scale);
+    final int currentNumericFormatIndex = currentCell.getNumericFormatIndex();
+    final String currentNumericFormat = currentCell.getNumericFormat();
+    currentCell.setNumericValue(value, scale);
+    currentCell.setContentSupplier(new LazySupplier<>(() -> formatRawCellContents(
+            value, currentNumericFormatIndex, currentNumericFormat)));
+    return true;
+  }
+
+  private String formatRawCellContents(final double value, final int formatIndex, final String formatString) {
+    if (formattedValueCache != null) {
+      return formattedValueCache.formatRawCellContents(value, formatIndex, formatString);
+    }
+    return dataFormatter.formatRawCellContents(value, formatIndex, formatString);
+  }
+
   /**
    * Returns the contents of the cell, with no formatting applied
    *
@@ -599,10 +1069,7 @@ class StreamingRowIterator implements CloseableIterator<Row> {
         if (!lastContents.isEmpty()) {
           final int idx = parseInt(lastContents);
           if (sst == null) throw new NullPointerException("sst is null");
-          if (usesPoiSharedStrings) {
-            return PoiSharedStringsSupport.getSharedString(sst, idx);
-          }
-          return sst.getItemAt(idx).getString();
+          return getSharedString(idx);
         }
         return lastContents;
       case "inlineStr":   //inline string (not in sst)
@@ -619,11 +1086,31 @@ class StreamingRowIterator implements CloseableIterator<Row> {
 
   //we avoid ConcurrentModificationException when closing all iterators by setting removeFromReader=false
   void close(final boolean removeFromReader) throws CloseException {
+    if (removeFromReader) streamingSheetReader.removeIterator(this);
+    closeParser();
+  }
+
+  private void closeParser() throws CloseException {
+    if (parserClosed) {
+      return;
+    }
+    parserClosed = true;
     try {
-      if (removeFromReader) streamingSheetReader.removeIterator(this);
-      parser.close();
+      if (streamReader != null) {
+        streamReader.close();
+      } else {
+        parser.close();
+      }
     } catch(XMLStreamException e) {
       throw new CloseException(e);
+    } finally {
+      if (sheetInputStream != null) {
+        try {
+          sheetInputStream.close();
+        } catch (IOException e) {
+          LOG.debug("failed to close sheet input stream", e);
+        }
+      }
     }
   }
 
@@ -635,10 +1122,6 @@ class StreamingRowIterator implements CloseableIterator<Row> {
     return streamingSheetReader.getWorkbook();
   }
 
-  private String getAttributeValue(Attribute att) {
-    return att == null ? null : att.getValue();
-  }
-
   @Override
   public boolean hasNext() throws ParseException {
     return (rowCacheIterator != null && rowCacheIterator.hasNext()) || getRow();
@@ -646,15 +1129,35 @@ class StreamingRowIterator implements CloseableIterator<Row> {
 
   @Override
   public Row next() {
+    Row row;
     try {
-      return rowCacheIterator.next();
+      row = rowCacheIterator.next();
     } catch(NoSuchElementException nsee) {
       //see https://github.com/monitorjbl/excel-streaming-reader/issues/176
       if (hasNext()) {
-        return rowCacheIterator.next();
+        row = rowCacheIterator.next();
+      } else {
+        throw nsee;
+      }
+    }
+    nextRowNum = row.getRowNum() + 1;
+    return row;
+  }
+
+  /**
+   * The shared formulas in the position may include formulas from rows after the position that have
+   * already been parsed (see <code>rowCacheSize</code>), which does no harm when the sheet is resumed.
+   */
+  @Override
+  public RowPosition getPosition() {
+    List<Integer> selection = null;
+    if (headerColumnsSelected) {
+      selection = new ArrayList<>();
+      for (int i = selectedColumns.nextSetBit(0); i >= 0; i = selectedColumns.nextSetBit(i + 1)) {
+        selection.add(i);
       }
-      throw nsee;
     }
+    return new RowPosition(sheet == null ? null : sheet.getSheetName(), nextRowNum, sharedFormulaMap, selection);
   }
 
   @Override
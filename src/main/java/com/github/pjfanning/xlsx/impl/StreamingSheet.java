@@ -1,6 +1,9 @@
 package com.github.pjfanning.xlsx.impl;
 
 import com.github.pjfanning.xlsx.CloseableIterator;
+import com.github.pjfanning.xlsx.ResumableRowIterator;
+import com.github.pjfanning.xlsx.RowHandler;
+import com.github.pjfanning.xlsx.RowPosition;
 import com.github.pjfanning.xlsx.SharedFormula;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellAddress;
@@ -11,6 +14,8 @@ import org.apache.poi.xssf.model.Comments;
 import org.apache.poi.xssf.usermodel.XSSFComment;
 
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class StreamingSheet implements Sheet {
 
@@ -65,12 +70,193 @@ public class StreamingSheet implements Sheet {
   }
 
   /**
-   * {@inheritDoc}
+   * Returns a new iterator of the physical rows with row numbers in the given range. Rows before
+   * the range are skipped without creating any rows or cells, and the sheet XML parser is closed as
+   * soon as the first row after the range is reached. For example, <code>rowIterator(0, 49)</code>
+   * can be used to preview the first 50 rows of a sheet. When the row offset index is enabled (see
+   * {@link com.github.pjfanning.xlsx.StreamingReader.Builder#setRowOffsetIndexInterval(int)}), the sheet XML
+   * before the nearest checkpoint is not parsed at all.
+   * <p>
+   * Data that appears after the rows in the sheet XML (e.g. merged regions and hyperlinks) is not read
+   * when the parse stops early. If columns are selected by name or shared formulas are read, the rows
+   * before the range are still parsed (but not returned) because they may contain the header row or
+   * the base cells for shared formulas.
+   * </p>
+   *
+   * @param firstRowNum the 0-based row number of the first row to return
+   * @param lastRowNum the 0-based row number of the last row to return (inclusive)
+   * @return the streaming iterator, an instance of {@link CloseableIterator} -
+   * it is recommended that you close the iterator when finished with it if you intend to keep the sheet open.
+   * @throws IllegalArgumentException if firstRowNum is negative or lastRowNum is less than firstRowNum
+   * @since v5.3.0
+   */
+  public CloseableIterator<Row> rowIterator(int firstRowNum, int lastRowNum) {
+    return reader.iterator(firstRowNum, lastRowNum);
+  }
+
+  /**
+   * Returns a new iterator of the physical rows that can report its position (see
+   * {@link ResumableRowIterator#getPosition()}). The position can be saved, so that reading the sheet can be
+   * resumed with {@link #resumableRowIterator(RowPosition)} if the application stops before the end of the sheet.
+   * This iterator does not prefetch rows or parse the sheet in parallel.
+   *
+   * @return the resumable iterator -
+   * it is recommended that you close the iterator when finished with it if you intend to keep the sheet open.
+   * @since v5.3.0
+   */
+  public ResumableRowIterator resumableRowIterator() {
+    return reader.resumableIterator(null);
+  }
+
+  /**
+   * Returns a new iterator of the physical rows that starts at the given position, which was taken from an
+   * iterator on the same sheet of the same workbook file (possibly in an earlier run of the application).
+   * The rows before the position are skipped without creating any rows or cells, and the shared formulas and
+   * the columns selected by name are restored from the position, so these rows are not needed. When the row offset
+   * index is enabled (see {@link com.github.pjfanning.xlsx.StreamingReader.Builder#setRowOffsetIndexInterval(int)}),
+   * the sheet XML before the nearest checkpoint is not parsed at all.
+   *
+   * @param position the position to resume from (null to start at the beginning of the sheet)
+   * @return the resumable iterator -
+   * it is recommended that you close the iterator when finished with it if you intend to keep the sheet open.
+   * @throws IllegalArgumentException if the position was taken from a sheet with a different name
+   * @since v5.3.0
+   */
+  public ResumableRowIterator resumableRowIterator(RowPosition position) {
+    return reader.resumableIterator(position);
+  }
+
+  /**
+   * Returns a parallel stream of the physical rows. When
+   * {@link com.github.pjfanning.xlsx.StreamingReader.Builder#setParallelSheetParsing(boolean)} is enabled
+   * (and the sheet can be split), chunks of the sheet XML are parsed in parallel using the fork-join common
+   * pool. Otherwise, the rows are parsed on a single thread and only the downstream operations run in parallel.
+   * The stream has the rows in sheet order (use <code>forEachOrdered</code> or <code>collect</code> if the
+   * order matters).
+   *
+   * @return a parallel stream of the rows
+   * @since v5.3.0
+   */
+  public Stream<Row> parallelRowStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+
+  /**
+   * Parses the physical rows of the sheet and passes them to the <code>rowHandler</code>, without creating
+   * any {@link Row} or {@link Cell} instances. This is the fastest way to read a sheet when you convert the
+   * cell values into your own data structures. The builder settings (shared strings, styles, column selection)
+   * still apply.
+   *
+   * @param rowHandler the handler that receives the rows
+   * @since v5.3.0
+   */
+  public void processRows(RowHandler rowHandler) {
+    reader.processRows(rowHandler, 0, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Like {@link #processRows(RowHandler)} but only the rows with row numbers in the given range are passed to
+   * the <code>rowHandler</code>. The parse stops as soon as the first row after the range is reached.
+   *
+   * @param rowHandler the handler that receives the rows
+   * @param firstRowNum the 0-based row number of the first row to process
+   * @param lastRowNum the 0-based row number of the last row to process (inclusive)
+   * @throws IllegalArgumentException if firstRowNum is negative or lastRowNum is less than firstRowNum
+   * @since v5.3.0
+   */
+  public void processRows(RowHandler rowHandler, int firstRowNum, int lastRowNum) {
+    reader.processRows(rowHandler, firstRowNum, lastRowNum);
+  }
+
+  /**
+   * Returns an iterator over the physical rows of the sheet in batches of up to <code>batchSize</code> rows.
+   * The values are stored as column vectors (see {@link RowBatch}), without any {@link Row} or {@link Cell}
+   * instances being created. Every call to <code>next()</code> returns the same {@link RowBatch} instance,
+   * refilled with the next rows, so the values of a batch must be used before moving to the next batch.
+   * The builder settings (shared strings, styles, column selection) still apply. The iterator should be
+   * closed if it is not read to the end.
+   *
+   * @param batchSize the maximum number of rows in each batch
+   * @param columnCount the number of columns (starting at column 0) to keep - cells in later columns are ignored
+   * @return an iterator over the row batches
+   * @throws IllegalArgumentException if batchSize is less than 1 or columnCount is negative
+   * @since v5.3.0
+   */
+  public CloseableIterator<RowBatch> rowBatchIterator(int batchSize, int columnCount) {
+    return reader.rowBatchIterator(batchSize, columnCount, 0, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Like {@link #rowBatchIterator(int, int)} but only the rows with row numbers in the given range are read.
+   *
+   * @param batchSize the maximum number of rows in each batch
+   * @param columnCount the number of columns (starting at column 0) to keep - cells in later columns are ignored
+   * @param firstRowNum the 0-based row number of the first row to read
+   * @param lastRowNum the 0-based row number of the last row to read (inclusive)
+   * @return an iterator over the row batches
+   * @throws IllegalArgumentException if batchSize is less than 1, columnCount is negative, firstRowNum
+   * is negative or lastRowNum is less than firstRowNum
+   * @since v5.3.0
+   */
+  public CloseableIterator<RowBatch> rowBatchIterator(int batchSize, int columnCount, int firstRowNum,
+                                                      int lastRowNum) {
+    return reader.rowBatchIterator(batchSize, columnCount, firstRowNum, lastRowNum);
+  }
+
+  /**
+   * Returns the cell style with the given index. This is useful with {@link RowHandler}, which
+   * only provides the style index for each cell.
+   *
+   * @param styleIndex index of the cell style
+   * @return the cell style (null if the workbook has no styles table)
+   * @since v5.3.0
+   */
+  public CellStyle getCellStyleAt(int styleIndex) {
+    return reader.getCellStyleAt(styleIndex);
+  }
+
+  /**
+   * Returns a spliterator over the physical rows that can be split for parallel streams. Splitting hands off
+   * batches of rows that have already been parsed or, when
+   * {@link com.github.pjfanning.xlsx.StreamingReader.Builder#setParallelSheetParsing(boolean)} is enabled,
+   * chunks of the sheet XML that have not been parsed yet. The size is estimated using the sheet dimension.
+   *
+   * @return a spliterator over the rows
    */
   @Override
   public Spliterator<Row> spliterator() {
-    // Long.MAX_VALUE is the documented value to use if the size is unknown
-    return Spliterators.spliterator(rowIterator(), Long.MAX_VALUE, Spliterator.ORDERED);
+    return reader.spliterator();
+  }
+
+  /**
+   * Returns the row with the given row number. This is only supported when the row offset index is enabled
+   * (see {@link com.github.pjfanning.xlsx.StreamingReader.Builder#setRowOffsetIndexInterval(int)}): each call
+   * parses the sheet XML from the nearest checkpoint before the row, so it is much slower than iterating
+   * over the rows when many rows are needed.
+   *
+   * @param rownum 0-based row number
+   * @return the row, or null if the sheet has no row with this row number
+   * @throws UnsupportedOperationException if the row offset index is not enabled -
+   * use {@link #iterator()} or {@link #rowIterator()} instead
+   */
+  @Override
+  public Row getRow(int rownum) {
+    return reader.getRow(rownum);
+  }
+
+  /**
+   * Returns the number of physical rows (rows that are defined in the sheet XML). This is only supported
+   * when the row offset index is enabled
+   * (see {@link com.github.pjfanning.xlsx.StreamingReader.Builder#setRowOffsetIndexInterval(int)}):
+   * the rows are counted when the index is built.
+   *
+   * @return the number of physical rows
+   * @throws UnsupportedOperationException if the row offset index is not enabled -
+   * use {@link #iterator()} or {@link #rowIterator()} to iterate over rows and count the rows
+   */
+  @Override
+  public int getPhysicalNumberOfRows() {
+    return reader.getPhysicalNumberOfRows();
   }
 
   /**
@@ -175,7 +361,8 @@ public class StreamingSheet implements Sheet {
 
   /**
    * Only works after sheet is fully read (because merged regions data is stored
-   * at the end of the sheet XML).
+   * at the end of the sheet XML), unless
+   * {@link com.github.pjfanning.xlsx.StreamingReader.Builder#setPreScanSheetMetadata(boolean)} is set to true.
    */
   @Override
   public List<CellRangeAddress> getMergedRegions() {
@@ -184,7 +371,8 @@ public class StreamingSheet implements Sheet {
 
   /**
    * Only works after sheet is fully read (because merged regions data is stored
-   * at the end of the sheet XML).
+   * at the end of the sheet XML), unless
+   * {@link com.github.pjfanning.xlsx.StreamingReader.Builder#setPreScanSheetMetadata(boolean)} is set to true.
    */
   @Override
   public int getNumMergedRegions() {
@@ -219,7 +407,8 @@ public class StreamingSheet implements Sheet {
   /**
    * Get hyperlink associated with cell (only if feature is enabled on the Builder).
    * This should only be called after all the rows are read because the hyperlink data is
-   * at the end of the sheet.
+   * at the end of the sheet (unless
+   * {@link com.github.pjfanning.xlsx.StreamingReader.Builder#setPreScanSheetMetadata(boolean)} is set to true).
    *
    * @param cellAddress the location of the cell
    * @return the hyperlink associated with this cell (only if feature is enabled on the Builder) - null if not found
@@ -239,7 +428,8 @@ public class StreamingSheet implements Sheet {
   /**
    * Get hyperlinks associated with sheet (only if feature is enabled on the Builder).
    * This should only be called after all the rows are read because the hyperlink data is
-   * at the end of the sheet.
+   * at the end of the sheet (unless
+   * {@link com.github.pjfanning.xlsx.StreamingReader.Builder#setPreScanSheetMetadata(boolean)} is set to true).
    *
    * @return the hyperlinks associated with this sheet (only if feature is enabled on the Builder) - cast to {@link XlsxHyperlink} to access cell reference
    * @throws IllegalStateException if {@link com.github.pjfanning.xlsx.StreamingReader.Builder#setReadHyperlinks(boolean)} is not set to true
@@ -337,6 +527,41 @@ public class StreamingSheet implements Sheet {
     return reader.removeSharedFormula(siValue);
   }
 
+  /**
+   * Only read the cells in these columns when iterating over the rows in this sheet. This overrides
+   * the selection set on the {@link com.github.pjfanning.xlsx.StreamingReader.Builder} and only affects
+   * iterators that are created after this call.
+   *
+   * @param columnIndexes the 0-based indexes of the columns to read (no indexes means all the columns are read)
+   * @throws IllegalArgumentException if any of the columnIndexes is negative
+   * @see com.github.pjfanning.xlsx.StreamingReader.Builder#setSelectedColumns(int...)
+   * @since v5.3.0
+   */
+  public void setSelectedColumns(int... columnIndexes) {
+    List<Integer> list = new ArrayList<>(columnIndexes.length);
+    for (int columnIndex : columnIndexes) {
+      if (columnIndex < 0) {
+        throw new IllegalArgumentException("columnIndexes must not be negative");
+      }
+      list.add(columnIndex);
+    }
+    reader.setSelectedColumns(list);
+  }
+
+  /**
+   * Only read the cells in the columns with these header names when iterating over the rows in this sheet.
+   * The first row is treated as the header row. This overrides the selection set on the
+   * {@link com.github.pjfanning.xlsx.StreamingReader.Builder} and only affects iterators that are created
+   * after this call.
+   *
+   * @param columnNames the header names of the columns to read (no names means columns are not selected by name)
+   * @see com.github.pjfanning.xlsx.StreamingReader.Builder#setSelectedColumnNames(String...)
+   * @since v5.3.0
+   */
+  public void setSelectedColumnNames(String... columnNames) {
+    reader.setSelectedColumnNames(Arrays.asList(columnNames));
+  }
+
   /* Unsupported */
 
   /**
@@ -355,23 +580,6 @@ public class StreamingSheet implements Sheet {
     throw new UnsupportedOperationException("update operations are not supported");
   }
 
-  /**
-   * Not supported - use {@link #iterator()} or {@link #rowIterator()} instead
-   */
-  @Override
-  public Row getRow(int rownum) {
-    throw new UnsupportedOperationException("use iterator() or rowIterator() instead");
-  }
-
-  /**
-   * Not supported - use {@link #iterator()} or {@link #rowIterator()} to iterate over rows
-   * and count the rows
-   */
-  @Override
-  public int getPhysicalNumberOfRows() {
-    throw new UnsupportedOperationException();
-  }
-
   /**
    * Update operations are not supported
    */
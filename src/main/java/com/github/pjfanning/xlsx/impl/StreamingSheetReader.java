@@ -1,18 +1,23 @@
 package com.github.pjfanning.xlsx.impl;
 
 import com.github.pjfanning.xlsx.CloseableIterator;
+import com.github.pjfanning.xlsx.ResumableRowIterator;
+import com.github.pjfanning.xlsx.RowHandler;
+import com.github.pjfanning.xlsx.RowPosition;
 import com.github.pjfanning.xlsx.SharedFormula;
+import com.github.pjfanning.xlsx.SheetParserImplementationType;
 import com.github.pjfanning.xlsx.StreamingReader;
 import com.github.pjfanning.xlsx.exceptions.CloseException;
 import com.github.pjfanning.xlsx.exceptions.OpenException;
 import com.github.pjfanning.xlsx.exceptions.ReadException;
 import com.github.pjfanning.xlsx.impl.ooxml.HyperlinkData;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.function.IOSupplier;
 import org.apache.poi.ooxml.POIXMLException;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.opc.PackagePart;
 import org.apache.poi.openxml4j.opc.PackageRelationship;
 import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
-import org.apache.poi.ss.usermodel.BuiltinFormats;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellAddress;
@@ -21,7 +26,6 @@ import org.apache.poi.ss.util.PaneInformation;
 import org.apache.poi.util.XMLHelper;
 import org.apache.poi.xssf.model.Comments;
 import org.apache.poi.xssf.model.SharedStrings;
-import org.apache.poi.xssf.model.StylesTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
@@ -29,16 +33,17 @@ import org.apache.poi.xssf.usermodel.XSSFDrawing;
 import org.apache.poi.xssf.usermodel.XSSFRelation;
 import org.apache.poi.xssf.usermodel.XSSFShape;
 
-import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.Attribute;
-import javax.xml.stream.events.StartElement;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
-
-import static com.github.pjfanning.xlsx.impl.NumberUtil.parseInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
 
 public class StreamingSheetReader implements Iterable<Row> {
   private static final Logger LOG = LoggerFactory.getLogger(StreamingSheetReader.class);
@@ -46,17 +51,26 @@ public class StreamingSheetReader implements Iterable<Row> {
   private static XMLInputFactory xmlInputFactory;
 
   private final StreamingWorkbookReader streamingWorkbookReader;
+  private final StreamingReader.Builder builder;
   private final PackagePart packagePart;
+  private final IOSupplier<InputStream> sheetXmlSupplier;
+  private final boolean singleUse;
   private final SharedStrings sst;
-  private final StylesTable stylesTable;
+  private final CellStyleFormats styleFormats;
   private final Comments commentsTable;
   private final boolean use1904Dates;
   private final int rowCacheSize;
-  private final Set<Integer> hiddenColumns = new HashSet<>();
-  private final Map<Integer, Float> columnWidths = new HashMap<>();
-  private final Set<CellRangeAddress> mergedCells = new LinkedHashSet<>();  // use HashSet to prevent duplicates
+  // concurrent because a prefetching iterator can parse the columns on a background thread while they are read
+  private final Set<Integer> hiddenColumns = ConcurrentHashMap.newKeySet();
+  private final Map<Integer, Float> columnWidths = new ConcurrentHashMap<>();
+  // use HashSet to prevent duplicates - the sets are synchronized because prefetching iterators add to them
+  // on a background thread, so they need to be locked when they are copied
+  private final Set<CellRangeAddress> mergedCells = Collections.synchronizedSet(new LinkedHashSet<>());
   private final List<StreamingRowIterator> iterators = new ArrayList<>();
-  private final Set<HyperlinkData> hyperlinks = new LinkedHashSet<>();  // use HashSet to prevent duplicates
+  // prefetching iterators can be closed on a different thread than the one that created them
+  private final List<PrefetchingRowIterator> prefetchingIterators = new CopyOnWriteArrayList<>();
+  private final List<ParallelRowIterator> parallelIterators = new ArrayList<>();
+  private final Set<HyperlinkData> hyperlinks = Collections.synchronizedSet(new LinkedHashSet<>());
 
   private List<XlsxHyperlink> xlsxHyperlinks;
   private Map<String, SharedFormula> sharedFormulaMap;
@@ -67,18 +81,56 @@ public class StreamingSheetReader implements Iterable<Row> {
   private StreamingSheet sheet;
   private CellAddress activeCell;
   private PaneInformation pane;
+  private BitSet selectedColumns;
+  private Set<String> selectedColumnNames;
+  private boolean metadataScanned;
+  private RowOffsetIndex rowOffsetIndex;
+  private boolean rowOffsetIndexBuilt;
 
   StreamingSheetReader(final StreamingWorkbookReader streamingWorkbookReader,
                        final PackagePart packagePart,
-                       final SharedStrings sst, final StylesTable stylesTable, final Comments commentsTable,
+                       final SharedStrings sst, final CellStyleFormats styleFormats, final Comments commentsTable,
                        final boolean use1904Dates, final int rowCacheSize) {
+    this(streamingWorkbookReader, streamingWorkbookReader == null ? null : streamingWorkbookReader.getBuilder(),
+            packagePart, packagePart::getInputStream, false, sst, styleFormats, commentsTable, use1904Dates, rowCacheSize);
+  }
+
+  /**
+   * Creates a reader for a sheet that is not read from an {@link org.apache.poi.openxml4j.opc.OPCPackage}
+   * (see {@link SinglePassSheetIterator}). The relationships of the sheet (e.g. the hyperlink targets) are
+   * not available.
+   *
+   * @param sheetXmlSupplier opens the sheet XML
+   * @param singleUse whether the sheet XML can only be opened once - when true, the sheet metadata
+   *                  (e.g. the column widths) is only available after an iterator has been created
+   */
+  StreamingSheetReader(final StreamingReader.Builder builder, final IOSupplier<InputStream> sheetXmlSupplier,
+                       final boolean singleUse, final SharedStrings sst, final CellStyleFormats styleFormats,
+                       final boolean use1904Dates) {
+    this(null, builder, null, sheetXmlSupplier, singleUse, sst, styleFormats, null,
+            use1904Dates, builder.getRowCacheSize());
+  }
+
+  private StreamingSheetReader(final StreamingWorkbookReader streamingWorkbookReader,
+                               final StreamingReader.Builder builder,
+                               final PackagePart packagePart, final IOSupplier<InputStream> sheetXmlSupplier,
+                               final boolean singleUse,
+                               final SharedStrings sst, final CellStyleFormats styleFormats, final Comments commentsTable,
+                               final boolean use1904Dates, final int rowCacheSize) {
     this.streamingWorkbookReader = streamingWorkbookReader;
+    this.builder = builder;
     this.packagePart = packagePart;
+    this.sheetXmlSupplier = sheetXmlSupplier;
+    this.singleUse = singleUse;
     this.sst = sst;
-    this.stylesTable = stylesTable;
+    this.styleFormats = styleFormats;
     this.commentsTable = commentsTable;
     this.use1904Dates = use1904Dates;
     this.rowCacheSize = rowCacheSize;
+    if (builder != null) {
+      setSelectedColumns(builder.getSelectedColumns());
+      setSelectedColumnNames(builder.getSelectedColumnNames());
+    }
   }
 
   void setSheet(StreamingSheet sheet) {
@@ -89,6 +141,14 @@ public class StreamingSheetReader implements Iterable<Row> {
     iterators.remove(iterator);
   }
 
+  void removePrefetchingIterator(PrefetchingRowIterator iterator) {
+    prefetchingIterators.remove(iterator);
+  }
+
+  void removeParallelIterator(ParallelRowIterator iterator) {
+    parallelIterators.remove(iterator);
+  }
+
   Map<String, SharedFormula> getSharedFormulaMap() {
     if (getBuilder().readSharedFormulas()) {
       if (sharedFormulaMap == null) {
@@ -136,6 +196,142 @@ public class StreamingSheetReader implements Iterable<Row> {
     this.baseColWidth = baseColWidth;
   }
 
+  /**
+   * Parses the start of the sheet XML (if no iterator has done so yet), so that the sheet metadata
+   * (e.g. the dimension and the column widths) is available.
+   */
+  private void parseMetadata() {
+    if (preScanMetadata()) {
+      scanMetadata();
+    } else if (iterators.isEmpty() && !singleUse) {
+      // create a new streaming iterator to parse sheet
+      createIterator(0, Integer.MAX_VALUE, null);
+    }
+  }
+
+  private boolean preScanMetadata() {
+    return builder != null && builder.preScanSheetMetadata() && !singleUse;
+  }
+
+  /**
+   * Parses the sheet XML with the content of the <code>sheetData</code> element removed, so that all the
+   * sheet metadata (including the merged cells and the hyperlinks at the end of the sheet) is read without
+   * parsing the rows. The sheet is only scanned once.
+   */
+  private void scanMetadata() {
+    if (metadataScanned) {
+      return;
+    }
+    final InputStream inputStream;
+    try {
+      inputStream = new SheetDataSkippingInputStream(sheetXmlSupplier.get());
+    } catch (IOException e) {
+      throw new OpenException("Failed to open stream", e);
+    }
+    final StreamingRowIterator iterator = createIterator(inputStream, 0, Integer.MAX_VALUE, null);
+    try {
+      while (iterator.hasNext()) {
+        iterator.next();
+      }
+    } finally {
+      iterator.close(false);
+    }
+    metadataScanned = true;
+  }
+
+  /**
+   * @return the row offset index (built on first use), or null if the index is not enabled or the sheet
+   * cannot be indexed
+   */
+  private RowOffsetIndex getRowOffsetIndex() {
+    if (!isRowOffsetIndexEnabled()) {
+      return null;
+    }
+    if (!rowOffsetIndexBuilt) {
+      final int interval = builder.getRowOffsetIndexInterval();
+      final WorkbookIndexCache indexCache = streamingWorkbookReader == null || packagePart == null ? null
+              : streamingWorkbookReader.getIndexCache();
+      final String partName = packagePart == null ? null : packagePart.getPartName().getName();
+      if (indexCache != null) {
+        rowOffsetIndex = indexCache.loadRowOffsetIndex(partName, interval);
+      }
+      if (rowOffsetIndex == null) {
+        try (InputStream inputStream = sheetXmlSupplier.get()) {
+          rowOffsetIndex = RowOffsetIndex.build(inputStream, interval);
+        } catch (IOException e) {
+          throw new ReadException("Failed to index the rows of the sheet", e);
+        }
+        if (rowOffsetIndex == null) {
+          LOG.debug("sheet rows cannot be indexed, the sheet will be parsed from the start");
+        } else if (indexCache != null) {
+          indexCache.saveRowOffsetIndex(partName, interval, rowOffsetIndex);
+        }
+      }
+      rowOffsetIndexBuilt = true;
+    }
+    return rowOffsetIndex;
+  }
+
+  /**
+   * @param rowNum 0-based row number
+   * @return the row, or null if the sheet has no row with this row number
+   * @throws UnsupportedOperationException if the row offset index is not enabled
+   */
+  Row getRow(final int rowNum) throws OpenException, ReadException {
+    requireRowOffsetIndex();
+    if (rowNum < 0) {
+      return null;
+    }
+    final StreamingRowIterator iterator = createIterator(rowNum, rowNum, null);
+    try {
+      while (iterator.hasNext()) {
+        final Row row = iterator.next();
+        if (row.getRowNum() == rowNum) {
+          return row;
+        }
+      }
+      return null;
+    } finally {
+      iterator.close();
+    }
+  }
+
+  /**
+   * @return the number of <code>row</code> elements in the sheet
+   * @throws UnsupportedOperationException if the row offset index is not enabled
+   */
+  int getPhysicalNumberOfRows() throws OpenException, ReadException {
+    requireRowOffsetIndex();
+    final RowOffsetIndex index = getRowOffsetIndex();
+    if (index != null) {
+      return index.getRowCount();
+    }
+    final int[] rowCount = new int[1];
+    processRows(new RowHandler() {
+      @Override
+      public void cell(int columnIndex, String type, CharSequence value, int styleIndex) {
+        // only the rows are counted
+      }
+
+      @Override
+      public void rowEnd(int rowNum) {
+        rowCount[0]++;
+      }
+    }, 0, Integer.MAX_VALUE);
+    return rowCount[0];
+  }
+
+  private boolean isRowOffsetIndexEnabled() {
+    return builder != null && builder.getRowOffsetIndexInterval() > 0 && !singleUse;
+  }
+
+  private void requireRowOffsetIndex() {
+    if (!isRowOffsetIndexEnabled()) {
+      throw new UnsupportedOperationException(
+              "enable the row offset index using StreamingReader.Builder.setRowOffsetIndexInterval(int) or use iterator() instead");
+    }
+  }
+
   /**
    * Get the hidden state for a given column
    *
@@ -143,18 +339,12 @@ public class StreamingSheetReader implements Iterable<Row> {
    * @return hidden - <code>false</code> if the column is visible
    */
   boolean isColumnHidden(int columnIndex) {
-    if (iterators.isEmpty()) {
-      // create a new streaming iterator to parse sheet
-      iterator();
-    }
+    parseMetadata();
     return hiddenColumns.contains(columnIndex);
   }
 
   float getColumnWidth(int columnIndex) {
-    if (iterators.isEmpty()) {
-      // create a new streaming iterator to parse sheet
-      iterator();
-    }
+    parseMetadata();
     Float width = columnWidths.get(columnIndex);
     return width == null ? getBaseColWidth() : width;
   }
@@ -163,10 +353,7 @@ public class StreamingSheetReader implements Iterable<Row> {
    * Gets the first row on the sheet
    */
   int getFirstRowNum() {
-    if (iterators.isEmpty()) {
-      // create a new streaming iterator to parse sheet
-      iterator();
-    }
+    parseMetadata();
     return firstRowNum;
   }
 
@@ -178,10 +365,7 @@ public class StreamingSheetReader implements Iterable<Row> {
    * Gets the last row on the sheet
    */
   int getLastRowNum() {
-    if (iterators.isEmpty()) {
-      // create a new streaming iterator to parse sheet
-      iterator();
-    }
+    parseMetadata();
     return lastRowNum;
   }
 
@@ -190,37 +374,48 @@ public class StreamingSheetReader implements Iterable<Row> {
   }
 
   /**
-   * Read the numeric format string out of the styles table for this cell. Stores
-   * the result in the Cell.
-   *
-   * @param startElement
-   * @param cell
+   * @param styleIndex index of the cell style
+   * @return the cell style (null if there is no styles table)
+   */
+  XSSFCellStyle getCellStyleAt(int styleIndex) {
+    return styleFormats == null ? null : styleFormats.getStyle(styleIndex);
+  }
+
+  /**
+   * @return the selected column indexes or null if all columns are to be read
    */
-  void setFormatString(StartElement startElement, StreamingCell cell) {
-    Attribute cellStyle = startElement.getAttributeByName(new QName("s"));
-    String cellStyleString = (cellStyle != null) ? cellStyle.getValue() : null;
-    XSSFCellStyle style = null;
-
-    if (stylesTable != null) {
-      if(cellStyleString != null) {
-        style = stylesTable.getStyleAt(parseInt(cellStyleString));
-      } else if(stylesTable.getNumCellStyles() > 0) {
-        style = stylesTable.getStyleAt(0);
+  BitSet getSelectedColumns() {
+    if (selectedColumns == null && selectedColumnNames != null) {
+      // only columns with matching header names will be read
+      return new BitSet();
+    }
+    return selectedColumns;
+  }
+
+  void setSelectedColumns(Collection<Integer> columnIndexes) {
+    if (columnIndexes == null || columnIndexes.isEmpty()) {
+      selectedColumns = null;
+    } else {
+      BitSet bitSet = new BitSet();
+      for (Integer columnIndex : columnIndexes) {
+        bitSet.set(columnIndex);
       }
+      selectedColumns = bitSet;
     }
+  }
 
-    if(style != null) {
-      cell.setNumericFormatIndex(style.getDataFormat());
-      String formatString = style.getDataFormatString();
+  /**
+   * @return the header names of the selected columns or null if columns are not selected by name
+   */
+  Set<String> getSelectedColumnNames() {
+    return selectedColumnNames;
+  }
 
-      if(formatString != null) {
-        cell.setNumericFormat(formatString);
-      } else {
-        cell.setNumericFormat(BuiltinFormats.getBuiltinFormat(cell.getNumericFormatIndex()));
-      }
+  void setSelectedColumnNames(Collection<String> columnNames) {
+    if (columnNames == null || columnNames.isEmpty()) {
+      selectedColumnNames = null;
     } else {
-      cell.setNumericFormatIndex(null);
-      cell.setNumericFormat(null);
+      selectedColumnNames = new HashSet<>(columnNames);
     }
   }
 
@@ -233,10 +428,7 @@ public class StreamingSheetReader implements Iterable<Row> {
   }
 
   PaneInformation getPane() {
-    if (iterators.isEmpty()) {
-      // create a new streaming iterator to parse sheet
-      iterator();
-    }
+    parseMetadata();
     return pane;
   }
 
@@ -263,18 +455,277 @@ public class StreamingSheetReader implements Iterable<Row> {
    */
   @Override
   public CloseableIterator<Row> iterator() throws OpenException, ReadException {
+    return iterator(0, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns a new streaming iterator that only returns the rows with row numbers in the given range.
+   * Rows before the range are skipped without creating any rows or cells and the sheet XML parser is
+   * closed as soon as a row after the range is found.
+   *
+   * @param firstRowNum the 0-based row number of the first row to return
+   * @param lastRowNum the 0-based row number of the last row to return (inclusive)
+   * @return the streaming iterator
+   * @throws IllegalArgumentException if firstRowNum is negative or lastRowNum is less than firstRowNum
+   * @throws OpenException if there is an IO issue
+   * @throws ReadException if there is a parse issue
+   */
+  CloseableIterator<Row> iterator(final int firstRowNum, final int lastRowNum) throws OpenException, ReadException {
+    return iterator(firstRowNum, lastRowNum, builder != null && builder.reuseRows());
+  }
+
+  private CloseableIterator<Row> iterator(final int firstRowNum, final int lastRowNum, final boolean reuseRows)
+          throws OpenException, ReadException {
+    if (firstRowNum == 0 && lastRowNum == Integer.MAX_VALUE && canParseInParallel()) {
+      return parallelIterator();
+    }
+    final StreamingRowIterator iterator = createIterator(firstRowNum, lastRowNum, null);
+    final int prefetchQueueSize = builder == null ? 0 : builder.getPrefetchQueueSize();
+    if (prefetchQueueSize > 0) {
+      final PrefetchingRowIterator prefetchingIterator = new PrefetchingRowIterator(this, iterator,
+              prefetchQueueSize, getBuilder().getPrefetchThreadFactory());
+      prefetchingIterators.add(prefetchingIterator);
+      return prefetchingIterator;
+    }
+    if (reuseRows) {
+      iterator.enableRowReuse();
+    }
+    return iterator;
+  }
+
+  /**
+   * Parses the rows with row numbers in the given range and passes them to the <code>rowHandler</code>
+   * without creating any rows or cells.
+   *
+   * @param rowHandler the handler that receives the rows
+   * @param firstRowNum the 0-based row number of the first row to process
+   * @param lastRowNum the 0-based row number of the last row to process (inclusive)
+   * @throws IllegalArgumentException if firstRowNum is negative or lastRowNum is less than firstRowNum
+   * @throws OpenException if there is an IO issue
+   * @throws ReadException if there is a parse issue
+   */
+  void processRows(final RowHandler rowHandler, final int firstRowNum, final int lastRowNum)
+          throws OpenException, ReadException {
+    if (rowHandler == null) {
+      throw new IllegalArgumentException("rowHandler must not be null");
+    }
+    final StreamingRowIterator iterator = createIterator(firstRowNum, lastRowNum, rowHandler);
     try {
-      //StreamingRowIterator requires a new XMLEventReader with a new InputStream to be provided to start from the
-      //beginning of the Sheet
-      XMLEventReader parser = getXmlInputFactory().createXMLEventReader(packagePart.getInputStream());
-      StreamingRowIterator iterator = new StreamingRowIterator(this,
-              sst, stylesTable, parser, use1904Dates, rowCacheSize, hiddenColumns, columnWidths, mergedCells, hyperlinks,
-              sharedFormulaMap, defaultRowHeight, sheet);
+      iterator.processRows();
+    } finally {
+      iterator.close();
+    }
+  }
+
+  /**
+   * Returns an iterator that can report its position. When a position is given, the iterator starts at the
+   * row of the position and it starts with the parser state of the position, so the rows before the position
+   * are skipped without creating any rows or cells (or, when the row offset index is enabled, without being
+   * parsed at all). The iterator does not prefetch rows or parse the sheet in parallel.
+   *
+   * @param position the position to resume from (null to start at the beginning of the sheet)
+   * @return the resumable iterator
+   * @throws IllegalArgumentException if the position was taken from a sheet with a different name
+   * @throws OpenException if there is an IO issue
+   * @throws ReadException if there is a parse issue
+   */
+  ResumableRowIterator resumableIterator(final RowPosition position) throws OpenException, ReadException {
+    if (position != null) {
+      if (sheet != null && position.getSheetName() != null && !position.getSheetName().equals(sheet.getSheetName())) {
+        throw new IllegalArgumentException("position is for sheet " + position.getSheetName()
+                + " and not for sheet " + sheet.getSheetName());
+      }
+      position.getSharedFormulas().forEach(this::addSharedFormula);
+    }
+    final StreamingRowIterator iterator = createIterator(position == null ? 0 : position.getRowNum(),
+            Integer.MAX_VALUE, null, position);
+    if (builder != null && builder.reuseRows()) {
+      iterator.enableRowReuse();
+    }
+    return iterator;
+  }
+
+  /**
+   * Returns an iterator that fills a {@link RowBatch} with the rows with row numbers in the given range.
+   *
+   * @param batchSize the maximum number of rows in each batch
+   * @param columnCount the number of columns (starting at column 0) to keep
+   * @param firstRowNum the 0-based row number of the first row to read
+   * @param lastRowNum the 0-based row number of the last row to read (inclusive)
+   * @throws IllegalArgumentException if batchSize is less than 1, columnCount is negative, firstRowNum
+   * is negative or lastRowNum is less than firstRowNum
+   * @throws OpenException if there is an IO issue
+   * @throws ReadException if there is a parse issue
+   */
+  CloseableIterator<RowBatch> rowBatchIterator(final int batchSize, final int columnCount,
+                                               final int firstRowNum, final int lastRowNum)
+          throws OpenException, ReadException {
+    final RowBatchIterator batchIterator = new RowBatchIterator(new RowBatch(batchSize, columnCount));
+    batchIterator.setRowIterator(createIterator(firstRowNum, lastRowNum, batchIterator));
+    return batchIterator;
+  }
+
+  /**
+   * Returns a spliterator over the rows in the sheet. When parallel sheet parsing is enabled and the sheet
+   * can be split into chunks, splitting the spliterator hands off chunks of the sheet XML, so the parsing is
+   * done in parallel. Otherwise, splitting hands off batches of rows that have already been parsed.
+   *
+   * @return a spliterator over the rows (in sheet order)
+   * @throws OpenException if there is an IO issue
+   * @throws ReadException if there is a parse issue
+   */
+  @Override
+  public Spliterator<Row> spliterator() throws OpenException, ReadException {
+    if (canParseInParallel()) {
+      final byte[] xml = readSheetXml();
+      final SheetXmlChunks chunks = SheetXmlChunks.split(xml, ParallelRowIterator.CHUNK_SIZE);
+      if (chunks != null) {
+        return new ChunkedRowSpliterator(this, chunks);
+      }
+      final StreamingRowIterator iterator = createIterator(new ByteArrayInputStream(xml), 0, Integer.MAX_VALUE, null);
+      iterators.add(iterator);
+      return new BatchingRowSpliterator(iterator, getEstimatedRowCount());
+    }
+    // the spliterator holds on to batches of rows, so the rows cannot be reused
+    final CloseableIterator<Row> iterator = iterator(0, Integer.MAX_VALUE, false);
+    return new BatchingRowSpliterator(iterator, getEstimatedRowCount());
+  }
+
+  /**
+   * Only valid after an iterator has been created (the dimension is parsed when the iterator is created).
+   *
+   * @return the number of rows based on the sheet dimension (Long.MAX_VALUE if the dimension is not known)
+   */
+  long getEstimatedRowCount() {
+    return lastRowNum > 0 ? lastRowNum - firstRowNum + 1L : Long.MAX_VALUE;
+  }
+
+  private boolean canParseInParallel() {
+    // rows can only be parsed independently when they don't depend on earlier rows
+    return builder != null && builder.parallelSheetParsing()
+            && !getBuilder().readSharedFormulas() && selectedColumnNames == null;
+  }
+
+  private CloseableIterator<Row> parallelIterator() throws OpenException, ReadException {
+    final byte[] xml = readSheetXml();
+    final SheetXmlChunks chunks = SheetXmlChunks.split(xml, ParallelRowIterator.CHUNK_SIZE);
+    if (chunks == null || chunks.getChunkCount() < 2) {
+      LOG.debug("sheet cannot be split into chunks, it will be parsed on a single thread");
+      final StreamingRowIterator iterator = createIterator(new ByteArrayInputStream(xml), 0, Integer.MAX_VALUE, null);
       iterators.add(iterator);
       return iterator;
+    }
+    final ParallelRowIterator parallelIterator = new ParallelRowIterator(this, chunks, ForkJoinPool.commonPool(),
+            ForkJoinPool.commonPool().getParallelism() + 1);
+    parallelIterators.add(parallelIterator);
+    return parallelIterator;
+  }
+
+  private byte[] readSheetXml() throws OpenException {
+    try (InputStream inputStream = sheetXmlSupplier.get()) {
+      return IOUtils.toByteArray(inputStream);
     } catch (IOException e) {
       throw new OpenException("Failed to open stream", e);
+    }
+  }
+
+  /**
+   * Creates an iterator for one chunk of the sheet XML. The iterator is not tracked by this reader,
+   * so it must be closed using <code>close(false)</code>. Chunks are parsed on other threads, so the merged
+   * cells and hyperlinks of the chunk are added to the given sets, and they are added to this reader later
+   * (see {@link #addMergedCellsAndHyperlinks(Collection, Collection)}).
+   *
+   * @param inputStream the chunk XML
+   * @param firstColNum the first column of the sheet dimension (only the first chunk has the dimension)
+   * @param chunkMergedCells the set that the merged cells of the chunk are added to
+   * @param chunkHyperlinks the set that the hyperlinks of the chunk are added to
+   */
+  StreamingRowIterator createChunkIterator(final InputStream inputStream, final int firstColNum,
+                                           final Set<CellRangeAddress> chunkMergedCells,
+                                           final Set<HyperlinkData> chunkHyperlinks) throws ReadException {
+    return createIterator(inputStream, 0, Integer.MAX_VALUE, null, null, firstColNum,
+            chunkMergedCells, chunkHyperlinks);
+  }
+
+  void addMergedCellsAndHyperlinks(final Collection<CellRangeAddress> chunkMergedCells,
+                                   final Collection<HyperlinkData> chunkHyperlinks) {
+    mergedCells.addAll(chunkMergedCells);
+    hyperlinks.addAll(chunkHyperlinks);
+  }
+
+  private StreamingRowIterator createIterator(final int firstRowNum, final int lastRowNum, final RowHandler rowHandler)
+          throws OpenException, ReadException {
+    return createIterator(firstRowNum, lastRowNum, rowHandler, null);
+  }
+
+  private StreamingRowIterator createIterator(final int firstRowNum, final int lastRowNum, final RowHandler rowHandler,
+                                              final RowPosition resumePosition)
+          throws OpenException, ReadException {
+    if (firstRowNum < 0) {
+      throw new IllegalArgumentException("firstRowNum must not be negative");
+    }
+    if (lastRowNum < firstRowNum) {
+      throw new IllegalArgumentException("lastRowNum must not be less than firstRowNum");
+    }
+    final RowOffsetIndex index = firstRowNum > 0 && canStartAtCheckpoint(rowHandler, resumePosition)
+            ? getRowOffsetIndex() : null;
+    final InputStream inputStream;
+    try {
+      //StreamingRowIterator requires a new XML parser with a new InputStream to be provided to start from the
+      //beginning of the Sheet (or from the last row offset checkpoint before the first row)
+      inputStream = index == null ? sheetXmlSupplier.get() : index.open(sheetXmlSupplier, firstRowNum);
+    } catch (IOException e) {
+      throw new OpenException("Failed to open stream", e);
+    }
+    final StreamingRowIterator iterator = createIterator(inputStream, firstRowNum, lastRowNum, rowHandler,
+            resumePosition);
+    iterators.add(iterator);
+    return iterator;
+  }
+
+  /**
+   * The rows before a checkpoint are not parsed at all, so the parse can only start at a checkpoint when these
+   * rows are not needed (see <code>StreamingRowIterator.canSkipRowsBeforeRange()</code>).
+   */
+  private boolean canStartAtCheckpoint(final RowHandler rowHandler, final RowPosition resumePosition) {
+    final boolean headerColumnsSelected = selectedColumnNames == null
+            || (resumePosition != null && resumePosition.getSelectedColumns() != null);
+    return isRowOffsetIndexEnabled() && headerColumnsSelected
+            && (rowHandler != null || resumePosition != null || !getBuilder().readSharedFormulas());
+  }
+
+  private StreamingRowIterator createIterator(final InputStream inputStream, final int firstRowNum,
+                                              final int lastRowNum, final RowHandler rowHandler) throws ReadException {
+    return createIterator(inputStream, firstRowNum, lastRowNum, rowHandler, null);
+  }
+
+  private StreamingRowIterator createIterator(final InputStream inputStream, final int firstRowNum,
+                                              final int lastRowNum, final RowHandler rowHandler,
+                                              final RowPosition resumePosition) throws ReadException {
+    return createIterator(inputStream, firstRowNum, lastRowNum, rowHandler, resumePosition, 0,
+            mergedCells, hyperlinks);
+  }
+
+  private StreamingRowIterator createIterator(final InputStream inputStream, final int firstRowNum,
+                                              final int lastRowNum, final RowHandler rowHandler,
+                                              final RowPosition resumePosition, final int firstColNum,
+                                              final Set<CellRangeAddress> mergedCells,
+                                              final Set<HyperlinkData> hyperlinks) throws ReadException {
+    try {
+      XMLEventReader eventReader = null;
+      XMLStreamReader streamReader = null;
+      if (getSheetParserImplementationType() == SheetParserImplementationType.XML_STREAM_READER) {
+        streamReader = getXmlInputFactory().createXMLStreamReader(inputStream);
+      } else {
+        eventReader = getXmlInputFactory().createXMLEventReader(inputStream);
+      }
+      return new StreamingRowIterator(this,
+              sst, styleFormats, eventReader, streamReader, inputStream, use1904Dates, rowCacheSize,
+              hiddenColumns, columnWidths, mergedCells, hyperlinks,
+              sharedFormulaMap, defaultRowHeight, firstColNum, firstRowNum, lastRowNum, rowHandler, sheet,
+              resumePosition);
     } catch (XMLStreamException e) {
+      IOUtils.closeQuietly(inputStream);
       throw new ReadException("Unable to read row data", e);
     }
   }
@@ -284,21 +735,26 @@ public class StreamingSheetReader implements Iterable<Row> {
    * @throws IllegalStateException if {@link com.github.pjfanning.xlsx.StreamingReader.Builder#setReadComments(boolean)} is not set to true
    */
   Comments getCellComments() {
-    if (!streamingWorkbookReader.getBuilder().readComments()) {
+    if (!getBuilder().readComments()) {
       throw new IllegalStateException("getCellComments() only works if StreamingWorking.Builder setReadComments is set to true");
     }
     return this.commentsTable;
   }
 
   List<CellRangeAddress> getMergedCells() {
-    return new ArrayList<>(this.mergedCells);
+    if (preScanMetadata()) {
+      scanMetadata();
+    }
+    synchronized (mergedCells) {
+      return new ArrayList<>(this.mergedCells);
+    }
   }
 
   XSSFDrawing getDrawingPatriarch() {
-    if (!streamingWorkbookReader.getBuilder().readShapes()) {
+    if (!getBuilder().readShapes()) {
       throw new IllegalStateException("getDrawingPatriarch() only works if StreamingWorking.Builder setReadShapes is set to true");
     }
-    if (sheet != null) {
+    if (sheet != null && streamingWorkbookReader != null) {
       List<XSSFShape> shapes = streamingWorkbookReader.getShapes(sheet.getSheetName());
       if (shapes != null) {
         Iterator<XSSFShape> shapesIter = shapes.iterator();
@@ -312,6 +768,9 @@ public class StreamingSheetReader implements Iterable<Row> {
 
   public void close() throws CloseException {
     try {
+      // stop the prefetch threads and the chunk tasks before closing the parsers that they use
+      prefetchingIterators.forEach(PrefetchingRowIterator::close);
+      new ArrayList<>(parallelIterators).forEach(ParallelRowIterator::close);
       iterators.forEach(iter -> iter.close(false));
     } finally {
       // The sst instance is closed at the workbook level
@@ -326,11 +785,17 @@ public class StreamingSheetReader implements Iterable<Row> {
   }
 
   StreamingReader.Builder getBuilder() {
-    return streamingWorkbookReader.getBuilder();
+    return builder;
+  }
+
+  private SheetParserImplementationType getSheetParserImplementationType() {
+    // builder is only null when this class is used directly (e.g. in unit tests)
+    return builder == null ?
+            SheetParserImplementationType.XML_EVENT_READER : getBuilder().getSheetParserImplementationType();
   }
 
   Workbook getWorkbook() {
-    return streamingWorkbookReader.getWorkbook();
+    return streamingWorkbookReader == null ? null : streamingWorkbookReader.getWorkbook();
   }
 
   /**
@@ -341,6 +806,9 @@ public class StreamingSheetReader implements Iterable<Row> {
     if (!getBuilder().readHyperlinks()) {
       throw new IllegalStateException("getHyperlinks() only works if StreamingWorking.Builder setReadHyperlinks is set to true");
     }
+    if (preScanMetadata()) {
+      scanMetadata();
+    }
     initHyperlinks();
     return xlsxHyperlinks;
   }
@@ -350,13 +818,18 @@ public class StreamingSheetReader implements Iterable<Row> {
       ArrayList<XlsxHyperlink> links = new ArrayList<>();
 
       try {
-        PackageRelationshipCollection hyperRels =
+        PackageRelationshipCollection hyperRels = packagePart == null ? null :
                 packagePart.getRelationshipsByType(XSSFRelation.SHEET_HYPERLINKS.getRelation());
 
+        final List<HyperlinkData> hyperlinkData;
+        synchronized (hyperlinks) {
+          hyperlinkData = new ArrayList<>(hyperlinks);
+        }
+
         // Turn each one into a XSSFHyperlink
-        for(HyperlinkData hyperlink : hyperlinks) {
+        for(HyperlinkData hyperlink : hyperlinkData) {
           PackageRelationship hyperRel = null;
-          if(hyperlink.getId() != null) {
+          if(hyperlink.getId() != null && hyperRels != null) {
             hyperRel = hyperRels.getRelationshipByID(hyperlink.getId());
           }
 
@@ -369,7 +842,9 @@ public class StreamingSheetReader implements Iterable<Row> {
     }
   }
 
-  private static XMLInputFactory getXmlInputFactory() {
+  // the factory is shared by the sheets that are parsed concurrently (see StreamingWorkbook.processSheets),
+  // so it is configured once and then only used to create new parsers
+  private static synchronized XMLInputFactory getXmlInputFactory() {
     if (xmlInputFactory == null) {
       try {
         xmlInputFactory = XMLHelper.newXMLInputFactory();
@@ -9,12 +9,15 @@ import org.apache.poi.ss.formula.EvaluationWorkbook;
 import org.apache.poi.ss.formula.udf.UDFFinder;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.usermodel.Row.MissingCellPolicy;
+import org.apache.poi.xssf.model.SharedStrings;
 import org.apache.poi.xssf.usermodel.XSSFPictureData;
 
 import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 public class StreamingWorkbook implements Workbook, Date1904Support, AutoCloseable {
@@ -61,6 +64,29 @@ public class StreamingWorkbook implements Workbook, Date1904Support, AutoCloseab
     return reader.spliterator();
   }
 
+  /**
+   * Applies the <code>sheetFunction</code> to every sheet, using the <code>executor</code> to process the sheets
+   * concurrently. Each sheet is parsed with its own XML parser, while the shared strings table and the
+   * styles table are shared (read-only) by all the sheets. This method waits until all the sheets have
+   * been processed. If any of the functions fail, the first failure (in sheet order) is thrown after the
+   * other sheets have been processed.
+   * <p>
+   * The function should only read the sheet that it is passed and should close any row iterators that it
+   * does not read to the end. Do not close the workbook until this method returns.
+   * </p>
+   *
+   * @param executor the executor used to run the sheet functions (e.g. a fixed thread pool)
+   * @param sheetFunction the function to apply to each sheet
+   * @param <T> the type of the results
+   * @return the results of the sheet functions, in sheet order
+   * @throws ReadException if the sheets cannot be read or if the thread is interrupted while waiting
+   * @since v5.3.0
+   */
+  public <T> List<T> processSheets(Executor executor, Function<? super StreamingSheet, ? extends T> sheetFunction)
+          throws ReadException {
+    return reader.processSheets(executor, sheetFunction);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -185,6 +211,29 @@ public class StreamingWorkbook implements Workbook, Date1904Support, AutoCloseab
     this.coreProperties = coreProperties;
   }
 
+  /**
+   * Returns the shared strings cache, which records the cache hits and misses.
+   *
+   * @return the shared strings cache (null if the cache is not enabled or if the workbook has no shared strings)
+   * @see com.github.pjfanning.xlsx.StreamingReader.Builder#setSharedStringsCacheSize(int)
+   * @since v5.3.0
+   */
+  public CachedSharedStrings getSharedStringsCache() {
+    final SharedStrings sst = reader.getSharedStrings();
+    return sst instanceof CachedSharedStrings ? (CachedSharedStrings) sst : null;
+  }
+
+  /**
+   * @return the shared strings table (including the shared strings cache, if it is enabled)
+   */
+  SharedStrings getSharedStrings() {
+    return reader.getSharedStrings();
+  }
+
+  WorkbookIndexCache getIndexCache() {
+    return reader.getIndexCache();
+  }
+
   /**
    * Gets all pictures from the Workbook. This approach is not stream friendly.
    *
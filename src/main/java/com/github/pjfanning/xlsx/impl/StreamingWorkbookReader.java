@@ -24,6 +24,7 @@ import org.apache.poi.ss.usermodel.Date1904Support;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.model.*;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
 import org.apache.poi.xssf.usermodel.XSSFShape;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,8 +37,21 @@ import javax.xml.stream.XMLStreamException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.GeneralSecurityException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
 
 import static com.github.pjfanning.xlsx.XmlUtils.readDocument;
 import static com.github.pjfanning.xlsx.XmlUtils.searchForNodeList;
@@ -53,12 +67,13 @@ public class StreamingWorkbookReader implements Iterable<Sheet>, Date1904Support
   private File tmp;
   private OPCPackage pkg;
   private SharedStrings sst;
-  private StylesTable styles;
+  private CellStyleFormats styleFormats;
   private boolean use1904Dates = false;
   private boolean strictFormat = false;
   private StreamingWorkbook workbook = null;
   private POIXMLProperties.CoreProperties coreProperties = null;
   private OoxmlReader ooxmlReader;
+  private WorkbookIndexCache indexCache;
 
   public StreamingWorkbookReader(Builder builder) {
     this.builder = builder;
@@ -130,6 +145,14 @@ public class StreamingWorkbookReader implements Iterable<Sheet>, Date1904Support
    * @throws ParseException if an error occurs while parsing the file
    */
   public void init(File f) throws OpenException, ReadException, ParseException {
+    // the decoded data of encrypted workbooks is not written to disk
+    if (builder.getIndexCacheDirectory() != null && builder.getPassword() == null) {
+      try {
+        indexCache = WorkbookIndexCache.create(builder.getIndexCacheDirectory(), f, builder.getIndexCacheMaxSize());
+      } catch (IOException e) {
+        log.warn("Failed to compute the index cache key, the index cache will not be used", e);
+      }
+    }
     try {
       if(builder.getPassword() != null) {
         POIFSFileSystem poifs = new POIFSFileSystem(f);
@@ -162,6 +185,94 @@ public class StreamingWorkbookReader implements Iterable<Sheet>, Date1904Support
     }
   }
 
+  /**
+   * Initializes the reader with the given path. Paths on the default file system are opened
+   * like files. Paths on other file systems are read using a {@link SeekableByteChannel}.
+   * @param path the path to read from
+   * @throws OpenException if an error occurs while opening the file
+   * @throws ReadException if an error occurs while reading the file
+   * @throws ParseException if an error occurs while parsing the file
+   */
+  public void init(Path path) throws OpenException, ReadException, ParseException {
+    if (path.getFileSystem() == FileSystems.getDefault()) {
+      init(path.toFile());
+    } else {
+      final SeekableByteChannel channel;
+      try {
+        channel = Files.newByteChannel(path);
+      } catch(IOException e) {
+        throw new OpenException("Failed to open file", e);
+      }
+      init(channel);
+    }
+  }
+
+  /**
+   * Initializes the reader with the given buffer. The zip entries are inflated directly from
+   * the buffer, without a temp file being written. The position and limit of the buffer are
+   * not changed, but the buffer contents must not be changed until the reader is closed.
+   * @param buffer the buffer to read from (the bytes between its position and its limit are read)
+   * @throws OpenException if an error occurs while opening the workbook
+   * @throws ReadException if an error occurs while reading the workbook
+   * @throws ParseException if an error occurs while parsing the workbook
+   */
+  public void init(ByteBuffer buffer) throws OpenException, ReadException, ParseException {
+    init(new ByteBufferChannel(buffer));
+  }
+
+  /**
+   * Initializes the reader with the given channel. The zip entries are inflated directly from
+   * the channel, without a temp file being written. The channel is closed when the reader is closed
+   * (or if this method fails).
+   * @param channel the channel to read from
+   * @throws OpenException if an error occurs while opening the workbook
+   * @throws ReadException if an error occurs while reading the workbook
+   * @throws ParseException if an error occurs while parsing the workbook
+   */
+  public void init(SeekableByteChannel channel) throws OpenException, ReadException, ParseException {
+    try {
+      if(builder.getPassword() != null) {
+        try {
+          POIFSFileSystem poifs = new POIFSFileSystem(Channels.newInputStream(channel));
+          pkg = decryptWorkbook(poifs);
+        } finally {
+          channel.close();
+        }
+      } else {
+        pkg = OPCPackage.open(new SeekableZipEntrySource(channel));
+      }
+      loadPackage(pkg);
+    } catch(SAXException e) {
+      closeQuietly(pkg, channel);
+      throw new ParseException("Failed to parse workbook", e);
+    } catch(IOException e) {
+      closeQuietly(pkg, channel);
+      throw new OpenException("Failed to open workbook", e);
+    } catch(UnsupportedFileFormatException e) {
+      closeQuietly(pkg, channel);
+      throw new ReadException("Unsupported File Format (only xlsx files are supported)", e);
+    } catch(OpenXML4JException | XMLStreamException e) {
+      closeQuietly(pkg, channel);
+      throw new ReadException("Unable to read workbook", e);
+    } catch(GeneralSecurityException e) {
+      closeQuietly(pkg, channel);
+      throw new ReadException("Unable to read workbook - Decryption failed", e);
+    } catch(ExcelRuntimeException e) {
+      closeQuietly(pkg, channel);
+      throw e;
+    } catch(RuntimeException e) {
+      closeQuietly(pkg, channel);
+      throw new ReadException("Unable to read workbook", e);
+    }
+  }
+
+  private static void closeQuietly(OPCPackage pkg, SeekableByteChannel channel) {
+    if (pkg != null) {
+      pkg.revert();
+    }
+    IOUtils.closeQuietly(channel);
+  }
+
   private OPCPackage decryptWorkbook(POIFSFileSystem poifs) throws IOException, GeneralSecurityException, InvalidFormatException {
     // Based on: https://poi.apache.org/encryption.html
     EncryptionInfo info = new EncryptionInfo(poifs);
@@ -181,34 +292,158 @@ public class StreamingWorkbookReader implements Iterable<Sheet>, Date1904Support
     use1904Dates = WorkbookUtil.use1904Dates(workbookDoc);
     lookupSheetNames(workbookDoc);
 
+    // the shared strings, the core properties and the styles are independent parts, so they can be loaded
+    // concurrently - without an executor, the tasks are run one after another on this thread
+    final Executor executor = builder.getOpenExecutor();
+    if (executor != null) {
+      // the package properties are loaded lazily and the package is not thread safe
+      pkg.getPackageProperties();
+    }
+    final FutureTask<SharedStrings> sstTask = startTask(() -> loadSharedStrings(pkg), executor);
+    final FutureTask<POIXMLProperties.CoreProperties> corePropertiesTask =
+            builder.readCoreProperties() ? startTask(() -> loadCoreProperties(pkg), executor) : null;
+    FutureTask<StylesTable> stylesTask = null;
+    FutureTask<ThemesTable> themesTask = null;
+    if (builder.readStyles()) {
+      if (strictFormat) {
+        themesTask = startTask(() -> OoxmlStrictHelper.getThemesTable(builder, pkg), executor);
+        stylesTask = startTask(() -> OoxmlStrictHelper.getStylesTable(builder, pkg), executor);
+      } else {
+        stylesTask = startTask(ooxmlReader::getStylesTable, executor);
+      }
+    }
+    awaitTasks(sstTask, corePropertiesTask, stylesTask, themesTask);
+
+    sst = getTaskResult(sstTask);
+    try {
+      coreProperties = getTaskResult(corePropertiesTask);
+      final StylesTable styles = getTaskResult(stylesTask);
+      final ThemesTable themes = getTaskResult(themesTask);
+      if (styles != null && themes != null) styles.setTheme(themes);
+      styleFormats = CellStyleFormats.of(styles);
+    } catch (Exception e) {
+      if (sst instanceof AutoCloseable) {
+        try {
+          ((AutoCloseable) sst).close();
+        } catch (Exception e2) {
+          e.addSuppressed(e2);
+        }
+      }
+      sst = null;
+      throw e;
+    }
+  }
+
+  private SharedStrings loadSharedStrings(OPCPackage pkg) throws IOException, OpenXML4JException, SAXException, XMLStreamException {
+    SharedStrings sharedStrings;
     if (builder.getSharedStringsImplementationType() == SharedStringsImplementationType.TEMP_FILE_BACKED) {
       log.info("Created sst cache file");
-      sst = PoiSharedStringsSupport.createTempFileSharedStringsTable(pkg, builder);
+      sharedStrings = PoiSharedStringsSupport.createTempFileSharedStringsTable(pkg, builder);
     } else if (builder.getSharedStringsImplementationType() == SharedStringsImplementationType.CUSTOM_MAP_BACKED) {
-      sst = PoiSharedStringsSupport.createMapBackedSharedStringsTable(pkg, builder);
+      sharedStrings = PoiSharedStringsSupport.createMapBackedSharedStringsTable(pkg, builder);
     } else if (strictFormat) {
-      sst = OoxmlStrictHelper.getSharedStringsTable(builder, pkg);
+      sharedStrings = OoxmlStrictHelper.getSharedStringsTable(builder, pkg);
+    } else if (indexCache != null && canUseIndexCacheForSharedStrings()) {
+      sharedStrings = loadSharedStringsUsingIndexCache(pkg);
     } else {
-      sst = ooxmlReader.getSharedStrings(builder);
+      sharedStrings = ooxmlReader.getSharedStrings(builder);
+    }
+    if (sharedStrings != null && builder.getSharedStringsCacheSize() > 0) {
+      sharedStrings = new CachedSharedStrings(sharedStrings, builder.getSharedStringsCacheSize());
     }
+    return sharedStrings;
+  }
 
-    if (builder.readCoreProperties()) {
-      try {
-        final POIXMLProperties xmlProperties = new POIXMLProperties(pkg);
-        coreProperties = xmlProperties.getCoreProperties();
-      } catch (Exception e) {
-        log.warn("Failed to read coreProperties", e);
+  /**
+   * The index cache only has the plain text of the shared strings, so it is only used when the shared strings
+   * table would only have the plain text anyway (the lazy table is not used because it avoids parsing the
+   * strings that are not needed).
+   */
+  private boolean canUseIndexCacheForSharedStrings() {
+    final SharedStringsImplementationType type = builder.getSharedStringsImplementationType();
+    return type == SharedStringsImplementationType.POI_READ_ONLY || type == SharedStringsImplementationType.OFF_HEAP;
+  }
+
+  private SharedStrings loadSharedStringsUsingIndexCache(OPCPackage pkg) throws IOException, InvalidFormatException {
+    final boolean includePhoneticRuns = builder.includePhoneticRuns();
+    OffHeapSharedStringsTable sharedStrings = indexCache.loadSharedStrings(includePhoneticRuns);
+    if (sharedStrings == null) {
+      final List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+      if (parts.isEmpty()) {
+        return null;
       }
+      sharedStrings = new OffHeapSharedStringsTable(parts.get(0).getInputStream(), includePhoneticRuns);
+      indexCache.saveSharedStrings(sharedStrings, includePhoneticRuns);
+    } else {
+      log.debug("Loaded shared strings from index cache");
     }
+    return sharedStrings;
+  }
 
-    if (builder.readStyles()) {
-      if (strictFormat) {
-        ThemesTable themesTable = OoxmlStrictHelper.getThemesTable(builder, pkg);
-        styles = OoxmlStrictHelper.getStylesTable(builder, pkg);
-        if (styles != null) styles.setTheme(themesTable);
-      } else {
-        styles = ooxmlReader.getStylesTable();
+  private POIXMLProperties.CoreProperties loadCoreProperties(OPCPackage pkg) {
+    try {
+      final POIXMLProperties xmlProperties = new POIXMLProperties(pkg);
+      return xmlProperties.getCoreProperties();
+    } catch (Exception e) {
+      log.warn("Failed to read coreProperties", e);
+      return null;
+    }
+  }
+
+  private static <T> FutureTask<T> startTask(final Callable<T> callable, final Executor executor) {
+    final FutureTask<T> task = new FutureTask<>(callable);
+    if (executor == null) {
+      task.run();
+    } else {
+      executor.execute(task);
+    }
+    return task;
+  }
+
+  /**
+   * Waits until all the tasks are done, so that no task is still reading the package when a failure is reported.
+   */
+  private static void awaitTasks(final FutureTask<?>... tasks) throws InterruptedIOException {
+    for (FutureTask<?> task : tasks) {
+      if (task != null) {
+        try {
+          task.get();
+        } catch (ExecutionException e) {
+          // reported by getTaskResult
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while loading the workbook parts");
+        }
+      }
+    }
+  }
+
+  private static <T> T getTaskResult(final FutureTask<T> task)
+          throws IOException, OpenXML4JException, SAXException, XMLStreamException {
+    if (task == null) {
+      return null;
+    }
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while loading the workbook parts");
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof OpenXML4JException) {
+        throw (OpenXML4JException) cause;
+      } else if (cause instanceof SAXException) {
+        throw (SAXException) cause;
+      } else if (cause instanceof XMLStreamException) {
+        throw (XMLStreamException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
       }
+      throw new IOException("Failed to load workbook part", cause);
     }
   }
 
@@ -277,7 +512,7 @@ public class StreamingWorkbookReader implements Iterable<Sheet>, Date1904Support
     }
     return new StreamingSheet(
               sheetProperties.get(idx).get("name"),
-              new StreamingSheetReader(this, part, sst, styles,
+              new StreamingSheetReader(this, part, sst, styleFormats,
                       sheetData.getComments(), use1904Dates, builder.getRowCacheSize()));
   }
 
@@ -301,6 +536,68 @@ public class StreamingWorkbookReader implements Iterable<Sheet>, Date1904Support
     return sheets;
   }
 
+  /**
+   * Applies the <code>sheetFunction</code> to every sheet, using the <code>executor</code> to process the sheets
+   * concurrently. Each sheet is parsed with its own XML parser. The shared strings table and the styles table
+   * are shared by all the sheets - they are only read while the sheets are parsed.
+   * <p>
+   * Every {@link SharedStringsImplementationType} supports concurrent lookups: the POI tables are not modified
+   * after they are loaded, the <code>poi-shared-strings</code> tables are backed by concurrent maps, the off-heap
+   * table reads through duplicates of its buffer and the lazy table and the shared strings cache synchronize their
+   * lookups.
+   * The temp data stores that are used while a Strict OOXML workbook is opened are not shared by the sheets, and
+   * each row iterator has its own <code>DataFormatter</code> and formatted value cache.
+   * </p>
+   * <p>
+   * This method waits until all the sheets have been processed. If any of the functions fail, the first
+   * failure (in sheet order) is thrown after all the other sheets have been processed.
+   * </p>
+   *
+   * @param executor the executor used to run the sheet functions
+   * @param sheetFunction the function to apply to each sheet, it must only use the sheet that it is passed
+   * @param <T> the type of the results
+   * @return the results of the sheet functions, in sheet order
+   * @throws ReadException if the sheets cannot be read or if the thread is interrupted while waiting
+   */
+  public <T> List<T> processSheets(final Executor executor,
+                                   final Function<? super StreamingSheet, ? extends T> sheetFunction)
+          throws ReadException {
+    final List<StreamingSheet> sheetList;
+    try {
+      // the sheets are created up front because the package metadata is not thread safe
+      sheetList = getSheets();
+    } catch (XMLStreamException|IOException e) {
+      throw new ReadException(e);
+    }
+    final List<CompletableFuture<T>> futures = new ArrayList<>(sheetList.size());
+    for (StreamingSheet sheet : sheetList) {
+      futures.add(CompletableFuture.<T>supplyAsync(() -> sheetFunction.apply(sheet), executor));
+    }
+    final List<T> results = new ArrayList<>(futures.size());
+    Throwable failure = null;
+    for (CompletableFuture<T> future : futures) {
+      try {
+        results.add(future.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ReadException("Interrupted while waiting for sheets to be processed", e);
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        }
+        results.add(null);
+      }
+    }
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    } else if (failure != null) {
+      throw new ReadException("Failed to process sheet", (Exception) failure);
+    }
+    return results;
+  }
+
   public List<Map<String, String>> getSheetProperties() {
     return sheetProperties;
   }
@@ -317,7 +614,8 @@ public class StreamingWorkbookReader implements Iterable<Sheet>, Date1904Support
   @Override
   public Spliterator<Sheet> spliterator() throws ReadException {
     try {
-      return Spliterators.spliterator(getSheets(), Spliterator.ORDERED);
+      // the ArrayList spliterator splits in halves (the iterator based spliterators only split in batches of 1024)
+      return Collections.<Sheet>unmodifiableList(getSheets()).spliterator();
     } catch (XMLStreamException|IOException e) {
       throw new ReadException(e);
     }
@@ -367,6 +665,17 @@ public class StreamingWorkbookReader implements Iterable<Sheet>, Date1904Support
     return builder;
   }
 
+  SharedStrings getSharedStrings() {
+    return sst;
+  }
+
+  /**
+   * @return the index cache of this workbook (null if the index cache is not enabled)
+   */
+  WorkbookIndexCache getIndexCache() {
+    return indexCache;
+  }
+
   OPCPackage getOPCPackage() {
     return pkg;
   }
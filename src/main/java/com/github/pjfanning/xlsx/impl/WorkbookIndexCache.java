@@ -0,0 +1,316 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.commons.io.function.IOConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Files with data that was decoded from a workbook, so that the data does not need to be decoded again when the
+ * same workbook is opened again. The file names start with a SHA-256 hash of the workbook file, so a workbook that
+ * has changed never uses the files of an older version. The files are:
+ * <ul>
+ *   <li><code>&lt;hash&gt;.sst</code> - the plain text of the shared strings (UTF-8 encoded)</li>
+ *   <li><code>&lt;hash&gt;.&lt;sheet part name&gt;.rows</code> - the row offset index of a sheet
+ *   (see {@link RowOffsetIndex})</li>
+ *   <li><code>&lt;fingerprint&gt;.key</code> - the hash of the workbook file with the given canonical path, size
+ *   and last modified time, so that the whole file is only hashed the first time that it is opened</li>
+ * </ul>
+ * A file that cannot be read (e.g. because it was written by a different version or it is truncated) is ignored
+ * and overwritten. Files are written to a temp file first and then moved, so other readers never see a partly
+ * written file. Failures to read or write the files are logged, they never cause the workbook to fail to open.
+ * <p>
+ * If a maximum size is set, the least recently used files are deleted after a file is written, until the files
+ * fit in the maximum size. Reading a file counts as a use (its last modified time is updated).
+ * </p>
+ */
+final class WorkbookIndexCache {
+  private static final Logger LOG = LoggerFactory.getLogger(WorkbookIndexCache.class);
+
+  private static final int SST_MAGIC = 0x58535354; // XSST
+  private static final int ROWS_MAGIC = 0x58524f57; // XROW
+  private static final int KEY_MAGIC = 0x584b4559; // XKEY
+  private static final int VERSION = 1;
+
+  private final Path directory;
+  private final String key;
+  private final long maxSize;
+  private final AtomicInteger loadCount = new AtomicInteger();
+
+  private WorkbookIndexCache(final Path directory, final String key, final long maxSize) {
+    this.directory = directory;
+    this.key = key;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Looks up the hash of the workbook file using a fingerprint of the file (its canonical path, size and last
+   * modified time). The whole file is only read to compute the hash when the fingerprint has not been seen before
+   * (e.g. because the file is new or it has changed). The hash confirms that the file has the same content as the
+   * file that the cache files were written for, so copies of a workbook share the cache files.
+   *
+   * @param directory the directory that has the cache files (created when the first file is written)
+   * @param workbookFile the workbook file
+   * @param maxSize the maximum total size of the cache files in bytes (0 means that there is no limit)
+   * @return the cache for the workbook
+   * @throws IOException if the workbook file cannot be read
+   */
+  static WorkbookIndexCache create(final Path directory, final File workbookFile, final long maxSize)
+          throws IOException {
+    final String fingerprint = fingerprint(workbookFile);
+    final Path keyFile = directory.resolve(fingerprint + ".key");
+    String key = null;
+    try (DataInputStream in = openFile(keyFile, KEY_MAGIC)) {
+      key = in.readUTF();
+    } catch (NoSuchFileException e) {
+      // the file has not been opened before
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Ignoring invalid index cache file {}", keyFile, e);
+    }
+    final WorkbookIndexCache cache;
+    if (key != null) {
+      cache = new WorkbookIndexCache(directory, key, maxSize);
+      cache.touch(keyFile);
+    } else {
+      cache = new WorkbookIndexCache(directory, hash(workbookFile), maxSize);
+      // the fingerprint is only saved if the file did not change while it was hashed
+      if (fingerprint.equals(fingerprint(workbookFile))) {
+        cache.writeFile(fingerprint + ".key", KEY_MAGIC, out -> out.writeUTF(cache.key));
+      }
+    }
+    return cache;
+  }
+
+  static WorkbookIndexCache create(final Path directory, final File workbookFile) throws IOException {
+    return create(directory, workbookFile, 0);
+  }
+
+  private static String fingerprint(final File workbookFile) throws IOException {
+    final Path path = workbookFile.toPath();
+    final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    final MessageDigest digest = newDigest();
+    digest.update((workbookFile.getCanonicalPath() + "\n" + attributes.size() + "\n"
+            + attributes.lastModifiedTime().toMillis()).getBytes(StandardCharsets.UTF_8));
+    return toHex(digest.digest());
+  }
+
+  private static String hash(final File workbookFile) throws IOException {
+    final MessageDigest digest = newDigest();
+    try (InputStream is = Files.newInputStream(workbookFile.toPath())) {
+      final byte[] buffer = new byte[1 << 16];
+      int count;
+      while ((count = is.read(buffer)) >= 0) {
+        digest.update(buffer, 0, count);
+      }
+    }
+    return toHex(digest.digest());
+  }
+
+  private static MessageDigest newDigest() throws IOException {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IOException("SHA-256 is not available", e);
+    }
+  }
+
+  private static String toHex(final byte[] bytes) {
+    final StringBuilder sb = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return sb.toString();
+  }
+
+  String getKey() {
+    return key;
+  }
+
+  /**
+   * @return the number of shared strings and row offset index files that have been loaded from the cache
+   */
+  int getLoadCount() {
+    return loadCount.get();
+  }
+
+  /**
+   * @param includePhoneticRuns whether the text of phonetic runs was included in the strings
+   * @return the shared strings, or null if there is no valid cache file
+   */
+  OffHeapSharedStringsTable loadSharedStrings(final boolean includePhoneticRuns) {
+    final Path file = directory.resolve(key + ".sst");
+    try (DataInputStream in = openFile(file, SST_MAGIC)) {
+      if (in.readBoolean() != includePhoneticRuns) {
+        return null;
+      }
+      final int count = in.readInt();
+      final int uniqueCount = in.readInt();
+      final OffHeapSharedStringsTable sharedStrings =
+              new OffHeapSharedStringsTable(OffHeapStringStore.read(in), count, uniqueCount);
+      touch(file);
+      loadCount.incrementAndGet();
+      return sharedStrings;
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Ignoring invalid index cache file {}", file, e);
+      return null;
+    }
+  }
+
+  void saveSharedStrings(final OffHeapSharedStringsTable sharedStrings, final boolean includePhoneticRuns) {
+    writeFile(key + ".sst", SST_MAGIC, out -> {
+      out.writeBoolean(includePhoneticRuns);
+      out.writeInt(sharedStrings.getCount());
+      out.writeInt(sharedStrings.getUniqueCount());
+      sharedStrings.getStore().write(out);
+    });
+  }
+
+  /**
+   * @param partName the name of the sheet part
+   * @param interval the number of rows between the checkpoints of the index
+   * @return the row offset index, or null if there is no valid cache file
+   */
+  RowOffsetIndex loadRowOffsetIndex(final String partName, final int interval) {
+    final Path file = directory.resolve(rowsFileName(partName));
+    try (DataInputStream in = openFile(file, ROWS_MAGIC)) {
+      if (in.readInt() != interval) {
+        return null;
+      }
+      final RowOffsetIndex index = RowOffsetIndex.read(in);
+      touch(file);
+      loadCount.incrementAndGet();
+      return index;
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Ignoring invalid index cache file {}", file, e);
+      return null;
+    }
+  }
+
+  void saveRowOffsetIndex(final String partName, final int interval, final RowOffsetIndex index) {
+    writeFile(rowsFileName(partName), ROWS_MAGIC, out -> {
+      out.writeInt(interval);
+      index.write(out);
+    });
+  }
+
+  private String rowsFileName(final String partName) {
+    return key + "." + partName.replaceAll("[^A-Za-z0-9.]+", "_") + ".rows";
+  }
+
+  private static DataInputStream openFile(final Path file, final int magic) throws IOException {
+    final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+    try {
+      if (in.readInt() != magic || in.readInt() != VERSION) {
+        throw new IOException("Unexpected file header");
+      }
+    } catch (IOException | RuntimeException e) {
+      in.close();
+      throw e;
+    }
+    return in;
+  }
+
+  private void writeFile(final String fileName, final int magic, final IOConsumer<DataOutputStream> writer) {
+    Path tempFile = null;
+    try {
+      Files.createDirectories(directory);
+      tempFile = Files.createTempFile(directory, fileName, ".tmp");
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+        out.writeInt(magic);
+        out.writeInt(VERSION);
+        writer.accept(out);
+      }
+      final Path file = directory.resolve(fileName);
+      try {
+        Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      tempFile = null;
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to write index cache file {}", fileName, e);
+    } finally {
+      if (tempFile != null) {
+        try {
+          Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+          LOG.debug("Failed to delete temp file {}", tempFile, e);
+        }
+      }
+    }
+    if (maxSize > 0) {
+      trim();
+    }
+  }
+
+  private void touch(final Path file) {
+    try {
+      Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException e) {
+      LOG.debug("Failed to update the last modified time of {}", file, e);
+    }
+  }
+
+  /**
+   * Deletes the least recently used cache files until the total size is at most <code>maxSize</code>.
+   * Other readers may delete the same files at the same time, so missing files are ignored.
+   */
+  private void trim() {
+    final List<Map.Entry<Path, BasicFileAttributes>> files = new ArrayList<>();
+    long totalSize = 0;
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.{sst,rows,key}")) {
+      for (Path file : stream) {
+        try {
+          final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+          files.add(new AbstractMap.SimpleImmutableEntry<>(file, attributes));
+          totalSize += attributes.size();
+        } catch (NoSuchFileException e) {
+          // deleted by another reader
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to list the index cache files in {}", directory, e);
+      return;
+    }
+    files.sort(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()));
+    for (Map.Entry<Path, BasicFileAttributes> entry : files) {
+      if (totalSize <= maxSize) {
+        break;
+      }
+      try {
+        Files.deleteIfExists(entry.getKey());
+        totalSize -= entry.getValue().size();
+      } catch (IOException e) {
+        LOG.debug("Failed to delete index cache file {}", entry.getKey(), e);
+      }
+    }
+  }
+}
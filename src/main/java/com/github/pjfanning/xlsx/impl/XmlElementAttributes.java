@@ -0,0 +1,24 @@
+package com.github.pjfanning.xlsx.impl;
+
+import javax.xml.namespace.QName;
+
+/**
+ * Read access to the attributes of the start element that is currently being handled. This
+ * allows the sheet parsing code to work with both the StAX event API and the StAX cursor API.
+ */
+interface XmlElementAttributes {
+
+  /**
+   * @param name the name of an attribute with no namespace
+   * @return the attribute value or null if the attribute is not set
+   */
+  String getValue(QName name);
+
+  /**
+   * @param namespaceSuffix the suffix of the attribute namespace URI
+   *                        (e.g. <code>relationships</code>)
+   * @param localName the local name of the attribute
+   * @return the value of the first matching attribute or null if no attribute matches
+   */
+  String getValue(String namespaceSuffix, String localName);
+}
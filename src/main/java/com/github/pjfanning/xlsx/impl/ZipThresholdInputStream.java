@@ -0,0 +1,65 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.commons.compress.utils.InputStreamStatistics;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Checks the inflated size and the inflate ratio of a zip entry as it is read, like POI's
+ * <code>ZipArchiveThresholdInputStream</code>, using the limits configured in {@link ZipSecureFile}.
+ */
+class ZipThresholdInputStream extends FilterInputStream {
+  private final String entryName;
+  private final InputStreamStatistics statistics;
+
+  /**
+   * @param entryName the name of the zip entry (used in the error messages)
+   * @param in the inflated entry data
+   * @param statistics the statistics for the entry (null means that only the entry size is checked)
+   */
+  ZipThresholdInputStream(final String entryName, final InputStream in, final InputStreamStatistics statistics) {
+    super(in);
+    this.entryName = entryName;
+    this.statistics = statistics;
+  }
+
+  @Override
+  public int read() throws IOException {
+    final int b = super.read();
+    if (b >= 0) {
+      checkThreshold();
+    }
+    return b;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    final int count = super.read(b, off, len);
+    if (count > 0) {
+      checkThreshold();
+    }
+    return count;
+  }
+
+  private void checkThreshold() throws IOException {
+    if (statistics == null) {
+      return;
+    }
+    final long uncompressed = statistics.getUncompressedCount();
+    if (uncompressed > ZipSecureFile.getMaxEntrySize()) {
+      throw new IOException("Zip entry " + entryName + " is larger than the max entry size " +
+              ZipSecureFile.getMaxEntrySize() + " (see ZipSecureFile.setMaxEntrySize)");
+    }
+    if (uncompressed > ZipSecureFile.getGraceEntrySize()) {
+      final double ratio = (double) statistics.getCompressedCount() / uncompressed;
+      if (ratio < ZipSecureFile.getMinInflateRatio()) {
+        throw new IOException("Zip bomb detected! The inflate ratio of " + entryName + " (" + ratio +
+                ") is below the min inflate ratio " + ZipSecureFile.getMinInflateRatio() +
+                " (see ZipSecureFile.setMinInflateRatio)");
+      }
+    }
+  }
+}
@@ -20,6 +20,8 @@ import com.github.pjfanning.xlsx.CommentsImplementationType;
 import com.github.pjfanning.xlsx.StreamingReader;
 import com.github.pjfanning.xlsx.exceptions.MissingSheetException;
 import com.github.pjfanning.xlsx.exceptions.OpenException;
+import com.github.pjfanning.xlsx.impl.LazySharedStringsTable;
+import com.github.pjfanning.xlsx.impl.OffHeapSharedStringsTable;
 import com.github.pjfanning.xlsx.impl.PoiSharedStringsSupport;
 import org.apache.poi.ooxml.POIXMLException;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
@@ -133,6 +135,10 @@ public class OoxmlReader extends XSSFReader {
           return PoiSharedStringsSupport.createMapBackedSharedStringsTable(parts.get(0).getPackage(), builder);
         case TEMP_FILE_BACKED:
           return PoiSharedStringsSupport.createTempFileSharedStringsTable(parts.get(0).getPackage(), builder);
+        case OFF_HEAP:
+          return new OffHeapSharedStringsTable(parts.get(0).getInputStream(), builder.includePhoneticRuns());
+        case LAZY:
+          return new LazySharedStringsTable(parts.get(0).getInputStream(), builder.includePhoneticRuns());
         default:
           return new ReadOnlySharedStringsTable(parts.get(0), builder.includePhoneticRuns());
       }
@@ -1,6 +1,7 @@
 package com.github.pjfanning.xlsx.impl.ooxml;
 
 import com.github.pjfanning.xlsx.StreamingReader;
+import com.github.pjfanning.xlsx.impl.OffHeapSharedStringsTable;
 import com.github.pjfanning.xlsx.impl.PoiSharedStringsSupport;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.openxml4j.opc.PackagePart;
@@ -119,6 +120,8 @@ public class OoxmlStrictHelper {
                 throw e;
               }
               return mbst;
+            case OFF_HEAP:
+              return new OffHeapSharedStringsTable(is, builder.includePhoneticRuns());
             default:
               return new ReadOnlySharedStringsTable(is);
           }
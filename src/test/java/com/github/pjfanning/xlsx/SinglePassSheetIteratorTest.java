@@ -0,0 +1,117 @@
+package com.github.pjfanning.xlsx;
+
+import com.github.pjfanning.xlsx.exceptions.NotSupportedException;
+import com.github.pjfanning.xlsx.exceptions.ReadException;
+import com.github.pjfanning.xlsx.impl.SinglePassSheetIterator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.github.pjfanning.xlsx.TestUtils.getInputStream;
+import static org.junit.Assert.*;
+
+public class SinglePassSheetIteratorTest {
+
+  @Test
+  public void testMatchesWorkbook() throws Exception {
+    // data_types.xlsx has the sheet after the styles and shared strings, the other files have the sheets
+    // before the workbook part (and sheets.xlsx has sheet2.xml before sheet1.xml)
+    String[] fileNames = {"data_types.xlsx", "formula_test.xlsx", "gaps.xlsx", "sheets.xlsx", "large.xlsx",
+        "hidden.xlsx", "WidthsAndHeights.xlsx", "InlineString.xlsx", "1904Dates.xlsx"};
+    for (String fileName : fileNames) {
+      List<String> expected = describeWorkbook(StreamingReader.builder(), fileName);
+      assertFalse(fileName, expected.isEmpty());
+      assertEquals(fileName, expected, describeSinglePass(StreamingReader.builder(), fileName));
+    }
+  }
+
+  @Test
+  public void testSpoolToTempFile() throws Exception {
+    List<String> expected = describeWorkbook(StreamingReader.builder(), "sheets.xlsx");
+    assertEquals(expected, describeSinglePass(StreamingReader.builder().setSinglePassSpoolLimit(0), "sheets.xlsx"));
+  }
+
+  @Test
+  public void testSpoolLimitWithAvoidTempFiles() throws Exception {
+    StreamingReader.Builder builder = StreamingReader.builder()
+            .setAvoidTempFiles(true)
+            .setSinglePassSpoolLimit(100);
+    try (CloseableIterator<Sheet> sheets = builder.openSinglePass(getInputStream("sheets.xlsx"))) {
+      assertThrows(ReadException.class, sheets::hasNext);
+    }
+  }
+
+  @Test
+  public void testSheetFromStreamCanOnlyBeReadOnce() throws Exception {
+    try (CloseableIterator<Sheet> sheets = StreamingReader.builder().openSinglePass(getInputStream("data_types.xlsx"))) {
+      assertTrue(sheets.hasNext());
+      Sheet sheet = sheets.next();
+      assertEquals(0, sheet.getLastRowNum());
+      Iterator<Row> rows = sheet.rowIterator();
+      assertTrue(rows.hasNext());
+      assertEquals(0, rows.next().getRowNum());
+      assertEquals(6, sheet.getLastRowNum());
+      assertThrows(IllegalStateException.class, sheet::rowIterator);
+      assertFalse(sheets.hasNext());
+    }
+  }
+
+  @Test
+  public void testSheetNotReadBeforeNextSheet() throws Exception {
+    List<String> names = new ArrayList<>();
+    try (CloseableIterator<Sheet> sheets = StreamingReader.builder().openSinglePass(getInputStream("sheets.xlsx"))) {
+      while (sheets.hasNext()) {
+        names.add(sheets.next().getSheetName());
+      }
+    }
+    try (Workbook workbook = StreamingReader.builder().open(getInputStream("sheets.xlsx"))) {
+      assertEquals(workbook.getNumberOfSheets(), names.size());
+      for (int i = 0; i < names.size(); i++) {
+        assertEquals(workbook.getSheetName(i), names.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void testDate1904() throws Exception {
+    try (SinglePassSheetIterator sheets = (SinglePassSheetIterator) StreamingReader.builder()
+            .openSinglePass(getInputStream("1904Dates.xlsx"))) {
+      assertTrue(sheets.hasNext());
+      assertTrue(sheets.isDate1904());
+    }
+  }
+
+  @Test
+  public void testEncryptedWorkbook() throws Exception {
+    try (InputStream is = getInputStream("encrypted.xlsx")) {
+      assertThrows(NotSupportedException.class, () -> StreamingReader.builder().password("test").openSinglePass(is));
+    }
+  }
+
+  @Test
+  public void testNotAWorkbook() throws Exception {
+    try (CloseableIterator<Sheet> sheets = StreamingReader.builder().openSinglePass(getInputStream("strict.dates.xml"))) {
+      assertThrows(ReadException.class, sheets::hasNext);
+    }
+  }
+
+  private static List<String> describeWorkbook(StreamingReader.Builder builder, String fileName) throws Exception {
+    return TestUtils.describeWorkbook(builder, fileName);
+  }
+
+  private static List<String> describeSinglePass(StreamingReader.Builder builder, String fileName) throws Exception {
+    List<String> lines = new ArrayList<>();
+    try (CloseableIterator<Sheet> sheets = builder.openSinglePass(getInputStream(fileName))) {
+      while (sheets.hasNext()) {
+        lines.addAll(TestUtils.describeSheet(sheets.next(), false));
+      }
+    }
+    return lines;
+  }
+}
@@ -1,13 +1,23 @@
 package com.github.pjfanning.xlsx;
 
 import com.github.pjfanning.xlsx.exceptions.MissingSheetException;
+import com.github.pjfanning.xlsx.exceptions.OpenException;
+import com.github.pjfanning.xlsx.impl.CachedSharedStrings;
+import com.github.pjfanning.xlsx.impl.ImplTestUtils;
+import com.github.pjfanning.xlsx.impl.LazySharedStringsTable;
+import com.github.pjfanning.xlsx.impl.OffHeapSharedStringsTable;
 import com.github.pjfanning.xlsx.impl.StreamingSheet;
 import com.github.pjfanning.xlsx.impl.StreamingWorkbook;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.util.DefaultTempFileCreationStrategy;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.util.TempFileCreationStrategy;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
@@ -17,12 +27,30 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static org.apache.poi.ss.usermodel.CellType.*;
 import static org.apache.poi.ss.usermodel.Row.MissingCellPolicy.CREATE_NULL_AS_BLANK;
@@ -712,6 +740,307 @@ public class StreamingReaderTest {
     }
   }
 
+  @Test
+  public void testEncryptionUsingByteBuffer() throws Exception {
+    byte[] bytes = Files.readAllBytes(Paths.get("src/test/resources/encrypted.xlsx"));
+    try (Workbook wb = StreamingReader.builder().password("test").open(ByteBuffer.wrap(bytes))) {
+      iterateEncryptedFile(wb);
+    }
+  }
+
+  @Test
+  public void testFormattedValueCache() throws Exception {
+    String[] fileNames = {"data_types.xlsx", "formats.xlsx", "datetime.xlsx", "1904Dates.xlsx", "large.xlsx"};
+    for (String fileName : fileNames) {
+      List<String> expected = TestUtils.describeWorkbook(StreamingReader.builder(), fileName);
+      assertEquals(fileName, expected,
+              TestUtils.describeWorkbook(StreamingReader.builder().setFormattedValueCacheSize(4), fileName));
+    }
+    assertThrows(IllegalArgumentException.class, () -> StreamingReader.builder().setFormattedValueCacheSize(-1));
+
+    // a cache hit returns the cached String, while the DataFormatter creates a new String for every cell
+    try (UnsynchronizedByteArrayOutputStream bos = UnsynchronizedByteArrayOutputStream.builder().get()) {
+      try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+        CellStyle style = workbook.createCellStyle();
+        style.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+        Row row = workbook.createSheet().createRow(0);
+        for (int col = 0; col < 2; col++) {
+          Cell cell = row.createCell(col);
+          cell.setCellValue(1234.5);
+          cell.setCellStyle(style);
+        }
+        workbook.write(bos);
+      }
+      for (int cacheSize : new int[]{0, 4}) {
+        try (Workbook wb = StreamingReader.builder().setFormattedValueCacheSize(cacheSize).open(bos.toInputStream())) {
+          Row row = wb.getSheetAt(0).iterator().next();
+          String value0 = row.getCell(0).getStringCellValue();
+          String value1 = row.getCell(1).getStringCellValue();
+          assertEquals("1,234.50", value0);
+          assertEquals(value0, value1);
+          assertEquals("cache size " + cacheSize, cacheSize > 0, value0 == value1);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testLazySharedStrings() throws Exception {
+    String[] fileNames = {"data_types.xlsx", "data_types-strict-ooxml.xlsx", "ja-issue.xlsx", "large.xlsx"};
+    for (String fileName : fileNames) {
+      List<String> expected = TestUtils.describeWorkbook(StreamingReader.builder(), fileName);
+      assertEquals(fileName, expected, TestUtils.describeWorkbook(StreamingReader.builder()
+              .setSharedStringsImplementationType(SharedStringsImplementationType.LAZY), fileName));
+    }
+    try (Workbook wb = StreamingReader.builder()
+            .setSharedStringsImplementationType(SharedStringsImplementationType.LAZY)
+            .open(new File("src/test/resources/large.xlsx"))) {
+      LazySharedStringsTable sst = (LazySharedStringsTable) ImplTestUtils.getSharedStrings(wb);
+      // nothing is parsed until a string is looked up
+      assertEquals(0, sst.getParsedCount());
+      TestUtils.describeWorkbook(wb, false);
+      assertTrue(sst.getParsedCount() > 0);
+    }
+  }
+
+  @Test
+  public void testSharedStringsCache() throws Exception {
+    String[] fileNames = {"data_types.xlsx", "data_types-strict-ooxml.xlsx", "ja-issue.xlsx", "large.xlsx"};
+    SharedStringsImplementationType[] types = {SharedStringsImplementationType.POI_READ_ONLY,
+            SharedStringsImplementationType.TEMP_FILE_BACKED, SharedStringsImplementationType.LAZY};
+    for (String fileName : fileNames) {
+      List<String> expected = TestUtils.describeWorkbook(StreamingReader.builder(), fileName);
+      for (SharedStringsImplementationType type : types) {
+        assertEquals(fileName, expected, TestUtils.describeWorkbook(StreamingReader.builder()
+                .setSharedStringsImplementationType(type).setSharedStringsCacheSize(2), fileName));
+      }
+    }
+    for (SharedStringsImplementationType type : types) {
+      try (Workbook wb = StreamingReader.builder()
+              .setSharedStringsImplementationType(type).setSharedStringsCacheSize(2)
+              .open(new File("src/test/resources/large.xlsx"))) {
+        TestUtils.describeWorkbook(wb, false);
+        assertTrue(type.toString(), ((StreamingWorkbook) wb).getSharedStringsCache().getMissCount() > 0);
+      }
+    }
+    try (Workbook wb = StreamingReader.builder()
+            .setSharedStringsImplementationType(SharedStringsImplementationType.TEMP_FILE_BACKED)
+            .setSharedStringsCacheSize(100)
+            .open(new File("src/test/resources/large.xlsx"))) {
+      CachedSharedStrings cache = ((StreamingWorkbook) wb).getSharedStringsCache();
+      assertNotNull(cache);
+      for (Row row : wb.getSheetAt(0)) {
+        for (Cell cell : row) {
+          if (cell.getCellType() == CellType.STRING) {
+            assertNotNull(cell.getStringCellValue());
+          }
+        }
+      }
+      assertTrue(cache.getMissCount() > 0);
+      assertEquals(cache.getHitCount() / (double) (cache.getHitCount() + cache.getMissCount()),
+              cache.getHitRate(), 1e-9);
+    }
+    try (Workbook wb = StreamingReader.builder().open(new File("src/test/resources/large.xlsx"))) {
+      assertNull(((StreamingWorkbook) wb).getSharedStringsCache());
+    }
+    assertThrows(IllegalArgumentException.class, () -> StreamingReader.builder().setSharedStringsCacheSize(-1));
+  }
+
+  @Test
+  public void testOpenExecutor() throws Exception {
+    String[] fileNames = {"data_types.xlsx", "data_types-strict-ooxml.xlsx", "formats.xlsx", "large.xlsx"};
+    ExecutorService executorService = Executors.newFixedThreadPool(4);
+    try {
+      AtomicInteger taskCount = new AtomicInteger();
+      Set<Thread> taskThreads = ConcurrentHashMap.newKeySet();
+      Executor executor = task -> {
+        taskCount.incrementAndGet();
+        executorService.execute(() -> {
+          taskThreads.add(Thread.currentThread());
+          task.run();
+        });
+      };
+      for (String fileName : fileNames) {
+        List<String> expected = TestUtils.describeWorkbook(StreamingReader.builder(), fileName);
+        assertEquals(fileName, expected,
+                TestUtils.describeWorkbook(StreamingReader.builder().setOpenExecutor(executor), fileName));
+      }
+      assertTrue(taskCount.get() >= fileNames.length * 2);
+      // the parts were loaded on the executor's threads
+      assertFalse(taskThreads.isEmpty());
+      assertFalse(taskThreads.contains(Thread.currentThread()));
+      try (Workbook wb = StreamingReader.builder()
+              .setOpenExecutor(executor)
+              .setReadCoreProperties(true)
+              .open(new File("src/test/resources/sample.strict.xlsx"))) {
+        StreamingWorkbook swb = (StreamingWorkbook) wb;
+        assertNotNull(swb.getCoreProperties());
+        assertEquals(2007, swb.getCoreProperties().getCreated().toInstant().atZone(ZoneOffset.UTC).getYear());
+        assertEquals("Lorem", wb.getSheet("Sheet1").rowIterator().next().getCell(0).getStringCellValue());
+      }
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  @Test
+  public void testPreScanSheetMetadata() throws Exception {
+    String[] fileNames = {"data_types.xlsx", "data_types-strict-ooxml.xlsx", "sharedhyperlink.xlsx", "large.xlsx"};
+    for (String fileName : fileNames) {
+      List<String> expected = TestUtils.describeWorkbook(StreamingReader.builder().setReadHyperlinks(true), fileName);
+      assertEquals(fileName, expected, TestUtils.describeWorkbook(StreamingReader.builder()
+              .setReadHyperlinks(true).setPreScanSheetMetadata(true), fileName));
+    }
+  }
+
+  @Test
+  public void testIndexCache() throws Exception {
+    Path cacheDir = Files.createTempDirectory("xlsx-index-cache");
+    try {
+      String[] fileNames = {"data_types.xlsx", "data_types-strict-ooxml.xlsx", "ja-issue.xlsx", "large.xlsx"};
+      for (String fileName : fileNames) {
+        List<String> expected = TestUtils.describeWorkbook(StreamingReader.builder(), fileName);
+        StreamingReader.Builder builder = StreamingReader.builder().setIndexCacheDirectory(cacheDir);
+        // the first open writes the cache files and the second open reads them
+        assertEquals(fileName, expected, TestUtils.describeWorkbook(builder, fileName));
+        try (Workbook wb = builder.open(new File("src/test/resources/" + fileName))) {
+          assertEquals(fileName, expected, TestUtils.describeWorkbook(wb, false));
+          // Strict OOXML shared strings are not cached
+          assertEquals(fileName, fileName.contains("strict") ? 0 : 1, ImplTestUtils.getIndexCacheLoadCount(wb));
+        }
+        List<String> expectedPhonetic = TestUtils.describeWorkbook(
+                StreamingReader.builder().setIncludePhoneticRuns(true), fileName);
+        assertEquals(fileName, expectedPhonetic, TestUtils.describeWorkbook(StreamingReader.builder()
+                .setIndexCacheDirectory(cacheDir).setIncludePhoneticRuns(true), fileName));
+      }
+
+      File file = new File("src/test/resources/large.xlsx");
+      List<String> expectedRows = new ArrayList<>();
+      try (Workbook wb = StreamingReader.builder().open(file)) {
+        for (Row row : wb.getSheetAt(0)) {
+          expectedRows.add(row.getRowNum() + " " + row.getCell(row.getFirstCellNum()).getStringCellValue());
+        }
+      }
+      StreamingReader.Builder builder = StreamingReader.builder()
+              .setIndexCacheDirectory(cacheDir).setRowOffsetIndexInterval(10);
+      for (int i = 0; i < 3; i++) {
+        try (Workbook wb = builder.open(file)) {
+          Sheet sheet = wb.getSheetAt(0);
+          assertEquals(expectedRows.size(), sheet.getPhysicalNumberOfRows());
+          for (String expectedRow : Arrays.asList(expectedRows.get(0), expectedRows.get(expectedRows.size() / 2),
+                  expectedRows.get(expectedRows.size() - 1))) {
+            int rowNum = Integer.parseInt(expectedRow.substring(0, expectedRow.indexOf(' ')));
+            Row row = sheet.getRow(rowNum);
+            assertEquals(expectedRow, row.getRowNum() + " " + row.getCell(row.getFirstCellNum()).getStringCellValue());
+          }
+        }
+        List<Path> cacheFiles;
+        try (Stream<Path> files = Files.list(cacheDir)) {
+          cacheFiles = files.collect(Collectors.toList());
+        }
+        assertTrue(cacheFiles.stream().anyMatch(path -> path.toString().endsWith(".sst")));
+        assertTrue(cacheFiles.stream().anyMatch(path -> path.toString().endsWith(".rows")));
+        if (i == 1) {
+          // invalid cache files are ignored and overwritten
+          for (Path cacheFile : cacheFiles) {
+            Files.write(cacheFile, new byte[]{1, 2, 3});
+          }
+        }
+      }
+    } finally {
+      FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+  }
+
+  @Test
+  public void testOpenPathChannelAndByteBuffer() throws Exception {
+    String[] fileNames = {"data_types.xlsx", "data_types-strict-ooxml.xlsx", "sharedhyperlink.xlsx", "large.xlsx"};
+    for (String fileName : fileNames) {
+      List<String> expected = TestUtils.describeWorkbook(StreamingReader.builder().setReadHyperlinks(true), fileName);
+      assertFalse(fileName, expected.isEmpty());
+      Path path = Paths.get("src/test/resources", fileName);
+      StreamingReader.Builder builder = StreamingReader.builder().setReadHyperlinks(true);
+      try (Workbook wb = builder.open(path)) {
+        assertEquals(fileName, expected, TestUtils.describeWorkbook(wb, true));
+      }
+      try (Workbook wb = builder.open(Files.newByteChannel(path))) {
+        assertEquals(fileName, expected, TestUtils.describeWorkbook(wb, true));
+      }
+      byte[] bytes = Files.readAllBytes(path);
+      ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 10);
+      buffer.position(5);
+      buffer.put(bytes);
+      buffer.position(5);
+      buffer.limit(5 + bytes.length);
+      try (Workbook wb = builder.open(buffer)) {
+        assertEquals(fileName, expected, TestUtils.describeWorkbook(wb, true));
+      }
+      assertEquals(5, buffer.position());
+      assertEquals(5 + bytes.length, buffer.limit());
+    }
+    // unlike open(InputStream), these do not copy the workbook to a temp file
+    AtomicInteger tempFileCount = new AtomicInteger();
+    DefaultTempFileCreationStrategy defaultStrategy = new DefaultTempFileCreationStrategy();
+    TempFile.setTempFileCreationStrategy(new TempFileCreationStrategy() {
+      @Override
+      public File createTempFile(String prefix, String suffix) throws IOException {
+        tempFileCount.incrementAndGet();
+        return defaultStrategy.createTempFile(prefix, suffix);
+      }
+
+      @Override
+      public File createTempDirectory(String prefix) throws IOException {
+        return defaultStrategy.createTempDirectory(prefix);
+      }
+    });
+    try {
+      Path path = Paths.get("src/test/resources/large.xlsx");
+      StreamingReader.Builder builder = StreamingReader.builder();
+      try (Workbook wb = builder.open(path)) {
+        TestUtils.describeWorkbook(wb, false);
+      }
+      try (Workbook wb = builder.open(Files.newByteChannel(path))) {
+        TestUtils.describeWorkbook(wb, false);
+      }
+      try (Workbook wb = builder.open(ByteBuffer.wrap(Files.readAllBytes(path)))) {
+        TestUtils.describeWorkbook(wb, false);
+      }
+      assertEquals(0, tempFileCount.get());
+      try (Workbook wb = builder.open(Files.newInputStream(path))) {
+        TestUtils.describeWorkbook(wb, false);
+      }
+      assertEquals(1, tempFileCount.get());
+    } finally {
+      TempFile.setTempFileCreationStrategy(defaultStrategy);
+    }
+  }
+
+  @Test
+  public void testOpenPathInZipFileSystem() throws Exception {
+    File zip = File.createTempFile("excel-streaming-reader", ".zip");
+    try {
+      assertTrue(zip.delete());
+      Map<String, String> env = Collections.singletonMap("create", "true");
+      try (FileSystem fs = FileSystems.newFileSystem(URI.create("jar:" + zip.toURI()), env)) {
+        Path path = fs.getPath("/data_types.xlsx");
+        Files.copy(Paths.get("src/test/resources/data_types.xlsx"), path);
+        List<String> expected = TestUtils.describeWorkbook(StreamingReader.builder(), "data_types.xlsx");
+        try (Workbook wb = StreamingReader.builder().open(path)) {
+          assertEquals(expected, TestUtils.describeWorkbook(wb, false));
+        }
+      }
+    } finally {
+      zip.delete();
+    }
+  }
+
+  @Test
+  public void testOpenChannelWithInvalidData() throws Exception {
+    SeekableByteChannel channel = Files.newByteChannel(Paths.get("src/test/resources/strict.dates.xml"));
+    assertThrows(OpenException.class, () -> StreamingReader.builder().open(channel));
+    assertFalse(channel.isOpen());
+  }
+
   private void iterateEncryptedFile(Workbook wb) {
     OUTER:
     for (Row r : wb.getSheetAt(0)) {
@@ -1031,6 +1360,16 @@ public class StreamingReaderTest {
     testStrictOOMXLWithCustomSST(SharedStringsImplementationType.CUSTOM_MAP_BACKED, true);
   }
 
+  @Test
+  public void testStrictOOMXLWithOffHeapSST() throws Exception {
+    testStrictOOMXLWithCustomSST(SharedStringsImplementationType.OFF_HEAP, false);
+    try (Workbook wb = StreamingReader.builder()
+            .setSharedStringsImplementationType(SharedStringsImplementationType.OFF_HEAP)
+            .open(new File("src/test/resources/sample.strict.xlsx"))) {
+      assertTrue(ImplTestUtils.getSharedStrings(wb) instanceof OffHeapSharedStringsTable);
+    }
+  }
+
   @Test
   public void testStrictOOMXLDates() throws Exception {
     try (
@@ -1788,6 +2127,200 @@ public class StreamingReaderTest {
     }
   }
 
+  @Test
+  public void testXmlStreamReaderMatchesXmlEventReader() throws Exception {
+    String[] fileNames = {"1904Dates.xlsx", "data_types.xlsx", "data_types-strict-ooxml.xlsx", "formats.xlsx",
+        "formula_test.xlsx", "gaps.xlsx", "hidden.xlsx", "inline.xlsx", "large.xlsx", "missing-r-attrs.xlsx",
+        "sharedformula-simple.xlsx", "sharedhyperlink.xlsx", "special_types.xlsx", "WidthsAndHeights.xlsx"};
+    for (String fileName : fileNames) {
+      List<String> expected = TestUtils.describeWorkbook(StreamingReader.builder()
+              .setReadHyperlinks(true)
+              .setReadSharedFormulas(true), fileName);
+      List<String> actual = TestUtils.describeWorkbook(StreamingReader.builder()
+              .setReadHyperlinks(true)
+              .setReadSharedFormulas(true)
+              .setSheetParserImplementationType(SheetParserImplementationType.XML_STREAM_READER), fileName);
+      assertFalse(fileName, expected.isEmpty());
+      assertEquals(fileName, expected, actual);
+    }
+    try (Workbook wb = StreamingReader.builder()
+            .setSheetParserImplementationType(SheetParserImplementationType.XML_STREAM_READER)
+            .open(new File("src/test/resources/large.xlsx"));
+         CloseableIterator<Row> iterator = ((StreamingSheet) wb.getSheetAt(0)).iterator()) {
+      assertTrue(ImplTestUtils.usesXmlStreamReader(iterator));
+    }
+  }
+
+  @Test
+  public void testPrefetchMatchesDefault() throws Exception {
+    String[] fileNames = {"data_types.xlsx", "formula_test.xlsx", "gaps.xlsx", "large.xlsx",
+        "sharedformula-simple.xlsx", "sharedhyperlink.xlsx"};
+    for (String fileName : fileNames) {
+      List<String> expected = TestUtils.describeWorkbook(StreamingReader.builder()
+              .setReadHyperlinks(true)
+              .setReadSharedFormulas(true), fileName);
+      List<String> actual = TestUtils.describeWorkbook(StreamingReader.builder()
+              .setReadHyperlinks(true)
+              .setReadSharedFormulas(true)
+              .rowCacheSize(2)
+              .setPrefetchQueueSize(3), fileName);
+      assertFalse(fileName, expected.isEmpty());
+      assertEquals(fileName, expected, actual);
+    }
+  }
+
+  @Test
+  public void testPrefetchCloseEarlyThenReadOtherSheet() throws Exception {
+    File file = File.createTempFile("excel-streaming-reader", ".xlsx");
+    try {
+      try (SXSSFWorkbook workbook = new SXSSFWorkbook(); OutputStream os = Files.newOutputStream(file.toPath())) {
+        for (int sheetNum = 0; sheetNum < 2; sheetNum++) {
+          Sheet sheet = workbook.createSheet();
+          for (int rowNum = 0; rowNum < 100000; rowNum++) {
+            Row row = sheet.createRow(rowNum);
+            row.createCell(0).setCellValue(rowNum);
+            row.createCell(1).setCellValue("text" + rowNum);
+          }
+        }
+        workbook.write(os);
+      }
+      for (int i = 0; i < 3; i++) {
+        try (Workbook workbook = StreamingReader.builder()
+                .rowCacheSize(20000)
+                .setPrefetchQueueSize(100000)
+                .open(file)) {
+          try (CloseableIterator<Row> rows = ((StreamingSheet) workbook.getSheetAt(0)).rowIterator(0, Integer.MAX_VALUE)) {
+            assertTrue(rows.hasNext());
+            assertEquals(0, rows.next().getRowNum());
+            // gives the background thread time to start reading the next batch of rows from the file
+            Thread.sleep(20);
+          }
+          int rowCount = 0;
+          for (Row row : workbook.getSheetAt(1)) {
+            assertEquals(rowCount++, row.getRowNum());
+          }
+          assertEquals(100000, rowCount);
+        }
+      }
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testParallelSheetParsing() throws Exception {
+    try (UnsynchronizedByteArrayOutputStream bos = UnsynchronizedByteArrayOutputStream.builder().get()) {
+      try (SXSSFWorkbook workbook = new SXSSFWorkbook()) {
+        Sheet sheet = workbook.createSheet();
+        sheet.setColumnWidth(1, 5000);
+        for (int rowNum = 0; rowNum < 30000; rowNum += (rowNum % 7 == 0 ? 2 : 1)) {
+          Row row = sheet.createRow(rowNum);
+          row.createCell(0).setCellValue("text" + rowNum);
+          row.createCell(1).setCellValue(rowNum * 1.5);
+          row.createCell(3).setCellValue(rowNum % 2 == 0);
+        }
+        sheet.addMergedRegion(new CellRangeAddress(0, 1, 0, 0));
+        workbook.write(bos);
+      }
+      for (SheetParserImplementationType type : SheetParserImplementationType.values()) {
+        List<String> expected = new ArrayList<>();
+        int expectedWidth;
+        try (Workbook workbook = StreamingReader.builder().setSheetParserImplementationType(type)
+                .open(bos.toInputStream())) {
+          for (Row row : workbook.getSheetAt(0)) {
+            expected.add(describeRow(row));
+          }
+          expectedWidth = workbook.getSheetAt(0).getColumnWidth(1);
+          assertEquals(expected, StreamSupport.stream(workbook.getSheetAt(0).spliterator(), true)
+                  .map(StreamingReaderTest::describeRow).collect(Collectors.toList()));
+          assertEquals(expected.size(), StreamSupport.stream(workbook.getSheetAt(0).spliterator(), true).count());
+        }
+        assertTrue(expected.size() > 20000);
+        try (Workbook workbook = StreamingReader.builder().setSheetParserImplementationType(type)
+                .setParallelSheetParsing(true).open(bos.toInputStream())) {
+          StreamingSheet sheet = (StreamingSheet) workbook.getSheetAt(0);
+          List<String> actual = new ArrayList<>();
+          for (Row row : sheet) {
+            actual.add(describeRow(row));
+          }
+          assertEquals(expected, actual);
+          assertEquals(expectedWidth, sheet.getColumnWidth(1));
+          assertEquals(1, sheet.getMergedRegions().size());
+          assertEquals(expected, sheet.parallelRowStream().map(StreamingReaderTest::describeRow)
+                  .collect(Collectors.toList()));
+          assertEquals(expected.size(), sheet.parallelRowStream().count());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testParallelRowStreamFormatsLikeSequential() throws Exception {
+    try (UnsynchronizedByteArrayOutputStream bos = UnsynchronizedByteArrayOutputStream.builder().get()) {
+      try (SXSSFWorkbook workbook = new SXSSFWorkbook()) {
+        DataFormat dataFormat = workbook.createDataFormat();
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(dataFormat.getFormat("yyyy-mm-dd hh:mm"));
+        CellStyle numberStyle = workbook.createCellStyle();
+        numberStyle.setDataFormat(dataFormat.getFormat("#,##0.000"));
+        CellStyle percentStyle = workbook.createCellStyle();
+        percentStyle.setDataFormat(dataFormat.getFormat("0.00%"));
+        Sheet sheet = workbook.createSheet();
+        for (int rowNum = 0; rowNum < 30000; rowNum++) {
+          Row row = sheet.createRow(rowNum);
+          Cell dateCell = row.createCell(0);
+          dateCell.setCellValue(40000 + rowNum / 7.0);
+          dateCell.setCellStyle(dateStyle);
+          Cell numberCell = row.createCell(1);
+          numberCell.setCellValue(rowNum * 1234.5678);
+          numberCell.setCellStyle(numberStyle);
+          Cell percentCell = row.createCell(2);
+          percentCell.setCellValue(rowNum / 30000.0);
+          percentCell.setCellStyle(percentStyle);
+        }
+        workbook.write(bos);
+      }
+      for (int formattedValueCacheSize : new int[]{0, 64}) {
+        StreamingReader.Builder builder = StreamingReader.builder().setFormattedValueCacheSize(formattedValueCacheSize);
+        List<String> expected = new ArrayList<>();
+        try (Workbook workbook = builder.open(bos.toInputStream())) {
+          for (Row row : workbook.getSheetAt(0)) {
+            expected.add(describeFormattedRow(row));
+          }
+        }
+        assertEquals(30000, expected.size());
+        // use a pool with several threads so that the batches are processed concurrently even on a single CPU
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try (Workbook workbook = builder.open(bos.toInputStream())) {
+          StreamingSheet sheet = (StreamingSheet) workbook.getSheetAt(0);
+          List<String> actual = pool.submit(() -> sheet.parallelRowStream()
+                  .map(StreamingReaderTest::describeFormattedRow).collect(Collectors.toList())).get();
+          assertEquals(expected, actual);
+        } finally {
+          pool.shutdown();
+        }
+      }
+    }
+  }
+
+  private static String describeFormattedRow(Row row) {
+    DataFormatter formatter = new DataFormatter();
+    StringBuilder sb = new StringBuilder().append(row.getRowNum());
+    for (Cell cell : row) {
+      sb.append(',').append(cell.getStringCellValue()).append('|').append(formatter.formatCellValue(cell));
+    }
+    return sb.toString();
+  }
+
+  private static String describeRow(Row row) {
+    DataFormatter formatter = new DataFormatter();
+    StringBuilder sb = new StringBuilder().append(row.getRowNum());
+    for (Cell cell : row) {
+      sb.append(',').append(cell.getColumnIndex()).append('=').append(formatter.formatCellValue(cell));
+    }
+    return sb.toString();
+  }
+
   private void testReadFile(boolean useReadOnlySst) throws Exception {
     try (
             InputStream inputStream = new FileInputStream("src/test/resources/stream_reader_test.xlsx");
@@ -1,6 +1,8 @@
 package com.github.pjfanning.xlsx;
 
 import com.github.pjfanning.xlsx.exceptions.MissingSheetException;
+import com.github.pjfanning.xlsx.impl.RowBatch;
+import com.github.pjfanning.xlsx.impl.StreamingSheet;
 import com.github.pjfanning.xlsx.impl.XlsxHyperlink;
 import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
 import org.apache.poi.common.usermodel.HyperlinkType;
@@ -18,9 +20,17 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 import static com.github.pjfanning.xlsx.TestUtils.getInputStream;
 import static com.github.pjfanning.xlsx.TestUtils.nextRow;
@@ -152,6 +162,247 @@ public class StreamingSheetTest {
     }
   }
 
+  @Test
+  public void testPreScanSheetMetadata() throws IOException {
+    try (UnsynchronizedByteArrayOutputStream bos = UnsynchronizedByteArrayOutputStream.builder().get()) {
+      try (XSSFWorkbook wb = new XSSFWorkbook()) {
+        XSSFSheet sheet = wb.createSheet();
+        for (int r = 0; r < 500; r++) {
+          sheet.createRow(r).createCell(0).setCellValue("row " + r);
+        }
+        sheet.addMergedRegion(new CellRangeAddress(1, 1, 1, 2));
+        sheet.addMergedRegion(new CellRangeAddress(3, 4, 0, 0));
+        sheet.setColumnHidden(2, true);
+        sheet.setColumnWidth(1, 20 * 256);
+        wb.write(bos);
+      }
+      try (Workbook workbook = StreamingReader.builder().setPreScanSheetMetadata(true).open(bos.toInputStream())) {
+        Sheet sheet = workbook.getSheetAt(0);
+        Iterator<Row> rowIterator = sheet.rowIterator();
+        assertEquals("row 0", rowIterator.next().getCell(0).getStringCellValue());
+        // the merged regions are at the end of the sheet XML
+        assertEquals(Arrays.asList(new CellRangeAddress(1, 1, 1, 2), new CellRangeAddress(3, 4, 0, 0)),
+                sheet.getMergedRegions());
+        assertTrue(sheet.isColumnHidden(2));
+        assertFalse(sheet.isColumnHidden(1));
+        assertEquals(20 * 256, sheet.getColumnWidth(1));
+        assertEquals(0, sheet.getFirstRowNum());
+        assertEquals(499, sheet.getLastRowNum());
+        int count = 1;
+        while (rowIterator.hasNext()) {
+          assertEquals("row " + count, rowIterator.next().getCell(0).getStringCellValue());
+          count++;
+        }
+        assertEquals(500, count);
+        assertEquals(2, sheet.getNumMergedRegions());
+      }
+    }
+  }
+
+  @Test
+  public void testPreScanSheetMetadataHyperlinks() throws Exception {
+    try (
+            InputStream is = getInputStream("59775.xlsx");
+            Workbook workbook = StreamingReader.builder()
+                    .setReadHyperlinks(true)
+                    .setPreScanSheetMetadata(true)
+                    .open(is)
+    ) {
+      Sheet sheet = workbook.getSheetAt(0);
+      List<? extends Hyperlink> hps = sheet.getHyperlinkList();
+      assertEquals(7, hps.size());
+      XlsxHyperlink link = (XlsxHyperlink) sheet.getHyperlink(new CellAddress("A2"));
+      assertNotNull(link);
+      assertEquals("http://google.com/", link.getAddress());
+      for (Row row : sheet) {
+        //iterating must not duplicate the hyperlink data
+      }
+      assertEquals(7, sheet.getHyperlinkList().size());
+    }
+  }
+
+  @Test
+  public void testRowOffsetIndex() throws IOException {
+    try (UnsynchronizedByteArrayOutputStream bos = UnsynchronizedByteArrayOutputStream.builder().get()) {
+      try (XSSFWorkbook wb = new XSSFWorkbook()) {
+        XSSFSheet sheet = wb.createSheet();
+        for (int r = 0; r < 1000; r++) {
+          if (r % 10 != 7) {
+            sheet.createRow(r).createCell(0).setCellValue("row " + r);
+          }
+        }
+        sheet.addMergedRegion(new CellRangeAddress(1, 1, 1, 2));
+        wb.write(bos);
+      }
+      try (Workbook workbook = StreamingReader.builder().setRowOffsetIndexInterval(50).open(bos.toInputStream())) {
+        StreamingSheet sheet = (StreamingSheet) workbook.getSheetAt(0);
+        assertEquals(900, sheet.getPhysicalNumberOfRows());
+        assertEquals("row 0", sheet.getRow(0).getCell(0).getStringCellValue());
+        assertEquals("row 523", sheet.getRow(523).getCell(0).getStringCellValue());
+        assertEquals(999, sheet.getRow(999).getRowNum());
+        assertNull(sheet.getRow(517));
+        assertNull(sheet.getRow(1000));
+        assertNull(sheet.getRow(-1));
+        try (CloseableIterator<Row> rowIterator = sheet.rowIterator(695, 702)) {
+          List<Integer> rowNums = new ArrayList<>();
+          rowIterator.forEachRemaining(row -> rowNums.add(row.getRowNum()));
+          assertEquals(Arrays.asList(695, 696, 698, 699, 700, 701, 702), rowNums);
+        }
+        // the parse from a checkpoint reads the sheet metadata after the rows
+        List<Integer> handledRows = new ArrayList<>();
+        sheet.processRows(new RowHandler() {
+          @Override
+          public void rowStart(int rowNum) {
+            handledRows.add(rowNum);
+          }
+
+          @Override
+          public void cell(int columnIndex, String type, CharSequence value, int styleIndex) {
+            assertEquals("row " + handledRows.get(handledRows.size() - 1), value.toString());
+          }
+        }, 990, Integer.MAX_VALUE);
+        assertEquals(Arrays.asList(990, 991, 992, 993, 994, 995, 996, 998, 999), handledRows);
+        assertEquals(Arrays.asList(new CellRangeAddress(1, 1, 1, 2)), sheet.getMergedRegions());
+      }
+      try (Workbook workbook = StreamingReader.builder().open(bos.toInputStream())) {
+        Sheet sheet = workbook.getSheetAt(0);
+        assertThrows(UnsupportedOperationException.class, () -> sheet.getRow(0));
+        assertThrows(UnsupportedOperationException.class, sheet::getPhysicalNumberOfRows);
+      }
+    }
+  }
+
+  @Test
+  public void testResumableRowIteratorSharedFormulas() throws Exception {
+    for (String fileName : new String[]{"sharedformula-simple.xlsx", "SharedFormula252.xlsx"}) {
+      for (int rowOffsetIndexInterval : new int[]{0, 5}) {
+        StreamingReader.Builder builder = StreamingReader.builder().setReadSharedFormulas(true)
+                .setRowOffsetIndexInterval(rowOffsetIndexInterval);
+        List<String> expected = new ArrayList<>();
+        try (InputStream is = getInputStream(fileName); Workbook workbook = builder.open(is)) {
+          for (Row row : workbook.getSheetAt(0)) {
+            expected.add(describeFormulas(row));
+          }
+        }
+        RowPosition position;
+        List<String> actual = new ArrayList<>();
+        try (
+                InputStream is = getInputStream(fileName);
+                Workbook workbook = builder.open(is);
+                ResumableRowIterator rowIterator = ((StreamingSheet) workbook.getSheetAt(0)).resumableRowIterator()
+        ) {
+          for (int i = 0; i < 10; i++) {
+            actual.add(describeFormulas(rowIterator.next()));
+          }
+          position = rowIterator.getPosition();
+        }
+        position = serializeAndDeserialize(position);
+        try (
+                InputStream is = getInputStream(fileName);
+                Workbook workbook = builder.open(is);
+                ResumableRowIterator rowIterator = ((StreamingSheet) workbook.getSheetAt(0)).resumableRowIterator(position)
+        ) {
+          rowIterator.forEachRemaining(row -> actual.add(describeFormulas(row)));
+        }
+        assertEquals(fileName, expected, actual);
+      }
+    }
+  }
+
+  @Test
+  public void testResumableRowIteratorSelectedColumnNames() throws Exception {
+    try (UnsynchronizedByteArrayOutputStream bos = UnsynchronizedByteArrayOutputStream.builder().get()) {
+      try (XSSFWorkbook wb = new XSSFWorkbook()) {
+        XSSFSheet sheet = wb.createSheet("data");
+        Row header = sheet.createRow(0);
+        for (int c = 0; c < 4; c++) {
+          header.createCell(c).setCellValue("col" + c);
+        }
+        for (int r = 1; r < 100; r++) {
+          Row row = sheet.createRow(r);
+          for (int c = 0; c < 4; c++) {
+            row.createCell(c).setCellValue(r * 10 + c);
+          }
+        }
+        wb.write(bos);
+      }
+      StreamingReader.Builder builder = StreamingReader.builder().setSelectedColumnNames("col1", "col3");
+      RowPosition position;
+      try (
+              Workbook workbook = builder.open(bos.toInputStream());
+              ResumableRowIterator rowIterator = ((StreamingSheet) workbook.getSheetAt(0)).resumableRowIterator()
+      ) {
+        assertEquals(0, rowIterator.getPosition().getRowNum());
+        for (int i = 0; i < 20; i++) {
+          rowIterator.next();
+        }
+        position = serializeAndDeserialize(rowIterator.getPosition());
+      }
+      assertEquals("data", position.getSheetName());
+      assertEquals(20, position.getRowNum());
+      assertEquals(new HashSet<>(Arrays.asList(1, 3)), position.getSelectedColumns());
+      try (Workbook workbook = builder.setRowOffsetIndexInterval(8).open(bos.toInputStream())) {
+        StreamingSheet sheet = (StreamingSheet) workbook.getSheetAt(0);
+        try (ResumableRowIterator rowIterator = sheet.resumableRowIterator(position)) {
+          int rowNum = 20;
+          while (rowIterator.hasNext()) {
+            Row row = rowIterator.next();
+            assertEquals(rowNum, row.getRowNum());
+            assertEquals(2, row.getPhysicalNumberOfCells());
+            assertEquals(rowNum * 10 + 1, row.getCell(1).getNumericCellValue(), 0);
+            assertEquals(rowNum * 10 + 3, row.getCell(3).getNumericCellValue(), 0);
+            rowNum++;
+          }
+          assertEquals(100, rowNum);
+          assertEquals(100, rowIterator.getPosition().getRowNum());
+        }
+        RowPosition otherSheetPosition = new RowPosition("other", 5, null, null);
+        assertThrows(IllegalArgumentException.class, () -> sheet.resumableRowIterator(otherSheetPosition));
+      }
+    }
+  }
+
+  private static String describeFormulas(Row row) {
+    StringBuilder sb = new StringBuilder().append(row.getRowNum());
+    for (Cell cell : row) {
+      sb.append(' ').append(cell.getCellType() == CellType.FORMULA ? cell.getCellFormula() : "-");
+    }
+    return sb.toString();
+  }
+
+  private static RowPosition serializeAndDeserialize(RowPosition position) throws Exception {
+    UnsynchronizedByteArrayOutputStream bos = UnsynchronizedByteArrayOutputStream.builder().get();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+      oos.writeObject(position);
+    }
+    try (ObjectInputStream ois = new ObjectInputStream(bos.toInputStream())) {
+      return (RowPosition) ois.readObject();
+    }
+  }
+
+  @Test
+  public void testRowOffsetIndexMissingRefAttributes() throws Exception {
+    try (
+            InputStream is = getInputStream("missing-r-attrs.xlsx");
+            Workbook workbook = StreamingReader.builder().setRowOffsetIndexInterval(1).open(is)
+    ) {
+      Sheet sheet = workbook.getSheetAt(0);
+      List<Row> rows = new ArrayList<>();
+      sheet.rowIterator().forEachRemaining(rows::add);
+      assertEquals(rows.size(), sheet.getPhysicalNumberOfRows());
+      DataFormatter formatter = new DataFormatter();
+      for (Row row : rows) {
+        Row indexedRow = sheet.getRow(row.getRowNum());
+        assertNotNull(indexedRow);
+        assertEquals(row.getPhysicalNumberOfCells(), indexedRow.getPhysicalNumberOfCells());
+        for (Cell cell : row) {
+          assertEquals(formatter.formatCellValue(cell),
+                  formatter.formatCellValue(indexedRow.getCell(cell.getColumnIndex())));
+        }
+      }
+    }
+  }
+
   @Test
   public void testHyperlinksEnabled() throws Exception {
     try (
@@ -621,4 +872,421 @@ public class StreamingSheetTest {
       }
     }
   }
+
+  @Test
+  public void testSelectedColumns() throws IOException {
+    try (UnsynchronizedByteArrayOutputStream bos = createColumnsWorkbook()) {
+      try (Workbook wb = StreamingReader.builder().setSelectedColumns(0, 2).open(bos.toInputStream())) {
+        int rowCount = 0;
+        for (Row row : wb.getSheetAt(0)) {
+          assertEquals(2, row.getPhysicalNumberOfCells());
+          assertNotNull(row.getCell(0));
+          assertNull(row.getCell(1));
+          assertNotNull(row.getCell(2));
+          assertNull(row.getCell(3));
+          assertEquals(3, row.getLastCellNum());
+          rowCount++;
+        }
+        assertEquals(4, rowCount);
+      }
+    }
+  }
+
+  @Test
+  public void testSelectedColumnNames() throws IOException {
+    try (UnsynchronizedByteArrayOutputStream bos = createColumnsWorkbook()) {
+      try (Workbook wb = StreamingReader.builder().setSelectedColumnNames("name", "notes").open(bos.toInputStream())) {
+        Iterator<Row> rowIterator = wb.getSheetAt(0).rowIterator();
+        Row header = rowIterator.next();
+        assertEquals(2, header.getPhysicalNumberOfCells());
+        assertEquals("name", header.getCell(1).getStringCellValue());
+        assertEquals("notes", header.getCell(3).getStringCellValue());
+        Row row = rowIterator.next();
+        assertEquals(2, row.getPhysicalNumberOfCells());
+        assertNull(row.getCell(0));
+        assertEquals("name1", row.getCell(1).getStringCellValue());
+        assertNull(row.getCell(2));
+        assertEquals("notes1", row.getCell(3).getStringCellValue());
+      }
+    }
+  }
+
+  @Test
+  public void testSelectedColumnsNegativeIndex() throws IOException {
+    assertThrows(IllegalArgumentException.class, () -> StreamingReader.builder().setSelectedColumns(0, -1));
+    try (UnsynchronizedByteArrayOutputStream bos = createColumnsWorkbook();
+         Workbook wb = StreamingReader.builder().open(bos.toInputStream())) {
+      StreamingSheet sheet = (StreamingSheet) wb.getSheetAt(0);
+      assertThrows(IllegalArgumentException.class, () -> sheet.setSelectedColumns(-1));
+    }
+  }
+
+  @Test
+  public void testSelectedColumnsWithSharedFormulaInSkippedColumn() throws Exception {
+    // the shared formula in row 11 has its base cell in column A
+    for (SheetParserImplementationType type : SheetParserImplementationType.values()) {
+      StreamingReader.Builder builder = StreamingReader.builder()
+              .setReadSharedFormulas(true)
+              .setSheetParserImplementationType(type);
+      List<String> expected = new ArrayList<>();
+      try (InputStream is = getInputStream("SharedFormula252.xlsx"); Workbook wb = builder.open(is)) {
+        for (Row row : wb.getSheetAt(0)) {
+          if (row.getRowNum() == 10) {
+            for (int col = 1; col <= 4; col++) {
+              expected.add(row.getCell(col).getCellFormula());
+            }
+          }
+        }
+      }
+      assertEquals("SUM(B12:B20)", expected.get(0));
+      try (InputStream is = getInputStream("SharedFormula252.xlsx");
+           Workbook wb = builder.setSelectedColumns(1, 2, 3, 4).open(is)) {
+        List<String> actual = new ArrayList<>();
+        for (Row row : wb.getSheetAt(0)) {
+          if (row.getRowNum() == 10) {
+            assertNull(row.getCell(0));
+            for (int col = 1; col <= 4; col++) {
+              actual.add(row.getCell(col).getCellFormula());
+            }
+          }
+        }
+        assertEquals(expected, actual);
+      }
+    }
+  }
+
+  @Test
+  public void testSelectedColumnsOnSheet() throws IOException {
+    try (UnsynchronizedByteArrayOutputStream bos = createColumnsWorkbook()) {
+      try (Workbook wb = StreamingReader.builder()
+              .setSelectedColumns(0)
+              .setSheetParserImplementationType(SheetParserImplementationType.XML_STREAM_READER)
+              .open(bos.toInputStream())) {
+        StreamingSheet sheet = (StreamingSheet) wb.getSheetAt(0);
+        sheet.setSelectedColumns();
+        sheet.setSelectedColumnNames("amount");
+        Iterator<Row> rowIterator = sheet.rowIterator();
+        assertEquals("amount", rowIterator.next().getCell(2).getStringCellValue());
+        Row row = rowIterator.next();
+        assertEquals(1, row.getPhysicalNumberOfCells());
+        assertEquals(1.5, row.getCell(2).getNumericCellValue(), 0.0001);
+      }
+    }
+  }
+
+  @Test
+  public void testRowIteratorRange() throws IOException {
+    try (UnsynchronizedByteArrayOutputStream bos = createColumnsWorkbook()) {
+      for (SheetParserImplementationType type : SheetParserImplementationType.values()) {
+        try (Workbook wb = StreamingReader.builder()
+                .setSheetParserImplementationType(type)
+                .open(bos.toInputStream())) {
+          StreamingSheet sheet = (StreamingSheet) wb.getSheetAt(0);
+          List<Integer> rowNums = new ArrayList<>();
+          try (CloseableIterator<Row> rowIterator = sheet.rowIterator(1, 2)) {
+            while (rowIterator.hasNext()) {
+              Row row = rowIterator.next();
+              rowNums.add(row.getRowNum());
+              assertEquals("name" + row.getRowNum(), row.getCell(1).getStringCellValue());
+            }
+          }
+          assertEquals(Arrays.asList(1, 2), rowNums);
+
+          try (CloseableIterator<Row> rowIterator = sheet.rowIterator(0, 0)) {
+            assertEquals("id", rowIterator.next().getCell(0).getStringCellValue());
+            assertFalse(rowIterator.hasNext());
+          }
+
+          try (CloseableIterator<Row> rowIterator = sheet.rowIterator(10, 20)) {
+            assertFalse(rowIterator.hasNext());
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRowIteratorRangeWithSelectedColumnNames() throws IOException {
+    try (UnsynchronizedByteArrayOutputStream bos = createColumnsWorkbook()) {
+      try (Workbook wb = StreamingReader.builder().setSelectedColumnNames("amount").open(bos.toInputStream())) {
+        StreamingSheet sheet = (StreamingSheet) wb.getSheetAt(0);
+        try (CloseableIterator<Row> rowIterator = sheet.rowIterator(3, 3)) {
+          Row row = rowIterator.next();
+          assertEquals(3, row.getRowNum());
+          assertEquals(1, row.getPhysicalNumberOfCells());
+          assertEquals(3.5, row.getCell(2).getNumericCellValue(), 0.0001);
+          assertFalse(rowIterator.hasNext());
+        }
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRowIteratorInvalidRange() throws IOException {
+    try (UnsynchronizedByteArrayOutputStream bos = createColumnsWorkbook()) {
+      try (Workbook wb = StreamingReader.builder().open(bos.toInputStream())) {
+        ((StreamingSheet) wb.getSheetAt(0)).rowIterator(2, 1);
+      }
+    }
+  }
+
+  @Test
+  public void testProcessRowsMatchesRowIterator() throws Exception {
+    String[] fileNames = {"data_types.xlsx", "InlineString.xlsx", "gaps.xlsx", "missing-r-attrs.xlsx",
+            "sparse-columns.xlsx", "shared_styled_string.xlsx", "large.xlsx"};
+    for (String fileName : fileNames) {
+      for (SheetParserImplementationType type : SheetParserImplementationType.values()) {
+        StreamingReader.Builder builder = StreamingReader.builder().setSheetParserImplementationType(type);
+        List<String> pulled = new ArrayList<>();
+        try (InputStream is = getInputStream(fileName); Workbook wb = builder.open(is)) {
+          for (Row row : wb.getSheetAt(0)) {
+            pulled.add("row " + row.getRowNum());
+            for (Cell cell : row) {
+              String value;
+              switch (cell.getCellType()) {
+                case STRING:
+                  value = cell.getStringCellValue();
+                  break;
+                case NUMERIC:
+                  value = Double.toString(cell.getNumericCellValue());
+                  break;
+                default:
+                  value = "?";
+              }
+              pulled.add(cell.getColumnIndex() + "=" + value + " style=" + cell.getCellStyle().getIndex());
+            }
+          }
+        }
+        List<String> pushed = new ArrayList<>();
+        try (InputStream is = getInputStream(fileName); Workbook wb = builder.open(is)) {
+          ((StreamingSheet) wb.getSheetAt(0)).processRows(new RowHandler() {
+            @Override
+            public void rowStart(int rowNum) {
+              pushed.add("row " + rowNum);
+            }
+
+            @Override
+            public void cell(int columnIndex, String type, CharSequence value, int styleIndex) {
+              String text;
+              switch (type) {
+                case "s":
+                case "inlineStr":
+                  text = value.toString();
+                  break;
+                case "n":
+                  text = value.length() == 0 ? "?" : Double.toString(Double.parseDouble(value.toString()));
+                  break;
+                default:
+                  text = "?";
+              }
+              pushed.add(columnIndex + "=" + text + " style=" + styleIndex);
+            }
+          });
+        }
+        assertEquals(fileName + " with " + type, pulled, pushed);
+      }
+    }
+  }
+
+  @Test
+  public void testProcessRowsWithSelectedColumnNamesAndRange() throws IOException {
+    try (UnsynchronizedByteArrayOutputStream bos = createColumnsWorkbook()) {
+      try (Workbook wb = StreamingReader.builder().setSelectedColumnNames("name").open(bos.toInputStream())) {
+        StreamingSheet sheet = (StreamingSheet) wb.getSheetAt(0);
+        List<String> values = new ArrayList<>();
+        sheet.processRows((columnIndex, type, value, styleIndex) ->
+                values.add(columnIndex + ":" + type + ":" + value), 0, 2);
+        assertEquals(Arrays.asList("1:s:name", "1:s:name1", "1:s:name2"), values);
+        assertNotNull(sheet.getCellStyleAt(0));
+      }
+    }
+  }
+
+  @Test
+  public void testRowBatchIteratorMatchesRows() throws IOException {
+    for (String fileName : Arrays.asList("data_types.xlsx", "gaps.xlsx", "inline.xlsx", "sparse-columns.xlsx",
+            "blank_cells.xlsx", "large.xlsx")) {
+      for (int batchSize : new int[]{1, 3, 1024}) {
+        List<String> pulled = new ArrayList<>();
+        try (InputStream is = getInputStream(fileName); Workbook wb = StreamingReader.builder().open(is)) {
+          for (Row row : wb.getSheetAt(0)) {
+            pulled.add("row " + row.getRowNum());
+            for (Cell cell : row) {
+              if (cell.getColumnIndex() < 5) {
+                CellType cellType = cell.getCellType() == CellType.FORMULA
+                        ? cell.getCachedFormulaResultType() : cell.getCellType();
+                switch (cellType) {
+                  case STRING:
+                    pulled.add(cell.getColumnIndex() + "=" + cell.getStringCellValue());
+                    break;
+                  case NUMERIC:
+                    pulled.add(cell.getColumnIndex() + "=" + cell.getNumericCellValue());
+                    break;
+                  case BOOLEAN:
+                    pulled.add(cell.getColumnIndex() + "=" + cell.getBooleanCellValue());
+                    break;
+                  default:
+                    break;
+                }
+              }
+            }
+          }
+        }
+        List<String> batched = new ArrayList<>();
+        try (InputStream is = getInputStream(fileName); Workbook wb = StreamingReader.builder().open(is);
+             CloseableIterator<RowBatch> batches = ((StreamingSheet) wb.getSheetAt(0)).rowBatchIterator(batchSize, 5)) {
+          while (batches.hasNext()) {
+            RowBatch batch = batches.next();
+            assertTrue(batch.size() > 0 && batch.size() <= batchSize);
+            for (int row = 0; row < batch.size(); row++) {
+              batched.add("row " + batch.getRowNum(row));
+              for (int col = 0; col < batch.getColumnCount(); col++) {
+                switch (batch.getType(col, row)) {
+                  case RowBatch.TYPE_NULL:
+                    assertTrue(batch.isNull(col, row));
+                    break;
+                  case RowBatch.TYPE_NUMERIC:
+                    batched.add(col + "=" + batch.getDouble(col, row));
+                    break;
+                  case RowBatch.TYPE_BOOLEAN:
+                    batched.add(col + "=" + (batch.getDouble(col, row) == 1));
+                    break;
+                  case RowBatch.TYPE_SHARED_STRING:
+                  case RowBatch.TYPE_STRING:
+                    assertFalse(batch.isNull(col, row));
+                    batched.add(col + "=" + batch.getString(col, row));
+                    break;
+                  default:
+                    break;
+                }
+              }
+            }
+          }
+        }
+        assertEquals(fileName + " with batch size " + batchSize, pulled, batched);
+      }
+    }
+  }
+
+  @Test
+  public void testRowBatchIteratorColumnVectors() throws IOException {
+    try (UnsynchronizedByteArrayOutputStream bos = createColumnsWorkbook();
+         Workbook wb = StreamingReader.builder().open(bos.toInputStream());
+         CloseableIterator<RowBatch> batches = ((StreamingSheet) wb.getSheetAt(0)).rowBatchIterator(2, 3, 1, 3)) {
+      assertTrue(batches.hasNext());
+      RowBatch batch = batches.next();
+      assertEquals(2, batch.size());
+      assertArrayEquals(new int[]{1, 2}, Arrays.copyOf(batch.getRowNums(), 2));
+      assertEquals(1.0, batch.getNumbers(0)[0], 0.0);
+      assertEquals(2.5, batch.getNumbers(2)[1], 0.0);
+      assertEquals(RowBatch.TYPE_SHARED_STRING, batch.getTypes(1)[0]);
+      assertEquals("name2", batch.getString(1, 1));
+      assertTrue(batch.getSharedStringIndex(1, 0) >= 0);
+      assertEquals(-1, batch.getSharedStringIndex(0, 0));
+      assertEquals(0L, batch.getNullBitmap(0)[0] & 3L);
+
+      assertTrue(batches.hasNext());
+      assertSame(batch, batches.next());
+      assertEquals(1, batch.size());
+      assertEquals(3, batch.getRowNum(0));
+      assertEquals("name3", batch.getString(1, 0));
+      assertFalse(batches.hasNext());
+    }
+  }
+
+  @Test
+  public void testRowBatchIteratorWithSelectedColumnNames() throws IOException {
+    try (UnsynchronizedByteArrayOutputStream bos = createColumnsWorkbook();
+         Workbook wb = StreamingReader.builder().setSelectedColumnNames("amount").open(bos.toInputStream());
+         CloseableIterator<RowBatch> batches = ((StreamingSheet) wb.getSheetAt(0)).rowBatchIterator(10, 4)) {
+      RowBatch batch = batches.next();
+      assertEquals(4, batch.size());
+      assertEquals("amount", batch.getString(2, 0));
+      assertTrue(batch.isNull(1, 0));
+      assertTrue(batch.isNull(3, 0));
+      for (int row = 1; row < 4; row++) {
+        assertEquals(row + 0.5, batch.getDouble(2, row), 0.0);
+        assertTrue(batch.isNull(0, row));
+        assertTrue(batch.isNull(1, row));
+      }
+      assertFalse(batches.hasNext());
+    }
+  }
+
+  @Test
+  public void testReuseRows() throws IOException {
+    for (String fileName : Arrays.asList("data_types.xlsx", "gaps.xlsx", "formula_test.xlsx", "sharedformula-simple.xlsx",
+            "missing-r-attrs.xlsx", "large.xlsx")) {
+      for (int rowCacheSize : new int[]{1, 3, 10}) {
+        List<String> expected = TestUtils.describeWorkbook(StreamingReader.builder()
+                .setReadSharedFormulas(true).rowCacheSize(rowCacheSize), fileName);
+        List<String> actual = TestUtils.describeWorkbook(StreamingReader.builder()
+                .setReadSharedFormulas(true).rowCacheSize(rowCacheSize).setReuseRows(true), fileName);
+        assertEquals(fileName + " with row cache size " + rowCacheSize, expected, actual);
+      }
+    }
+    try (InputStream is = getInputStream("large.xlsx");
+         Workbook wb = StreamingReader.builder().rowCacheSize(3).setReuseRows(true).open(is)) {
+      Set<Row> distinctRows = Collections.newSetFromMap(new IdentityHashMap<>());
+      int rowCount = 0;
+      for (Row row : wb.getSheetAt(0)) {
+        distinctRows.add(row);
+        rowCount++;
+      }
+      assertTrue(rowCount > 10);
+      assertTrue("rows should be reused: " + distinctRows.size(), distinctRows.size() <= 6);
+    }
+  }
+
+  @Test
+  public void testReuseRowsRecyclesInstances() throws IOException {
+    try (InputStream is = getInputStream("large.xlsx");
+         Workbook wb = StreamingReader.builder().rowCacheSize(2).setReuseRows(true).open(is)) {
+      Iterator<Row> iterator = wb.getSheetAt(0).iterator();
+      Row row0 = iterator.next();
+      Cell cell0 = row0.getCell(0);
+      iterator.next();
+      Row row2 = iterator.next();
+      Row row3 = iterator.next();
+      assertEquals(3, row3.getRowNum());
+      assertTrue(row2 == row0 || row3 == row0);
+      assertEquals(2, row2.getRowNum());
+      assertEquals(2, row2.getCell(0).getRowIndex());
+      // the cells of the first rows have been recycled too
+      List<Cell> cells = new ArrayList<>();
+      row2.forEach(cells::add);
+      row3.forEach(cells::add);
+      assertTrue(cells.contains(cell0));
+    }
+    try (InputStream is = getInputStream("large.xlsx");
+         Workbook wb = StreamingReader.builder().rowCacheSize(2).setReuseRows(true).open(is)) {
+      // spliterators hold on to rows, so they never reuse them
+      List<Row> rows = new ArrayList<>();
+      wb.getSheetAt(0).spliterator().forEachRemaining(rows::add);
+      for (int i = 0; i < rows.size(); i++) {
+        assertEquals(i, rows.get(i).getRowNum());
+      }
+    }
+  }
+
+  private static UnsynchronizedByteArrayOutputStream createColumnsWorkbook() throws IOException {
+    UnsynchronizedByteArrayOutputStream bos = UnsynchronizedByteArrayOutputStream.builder().get();
+    try (XSSFWorkbook wb = new XSSFWorkbook()) {
+      XSSFSheet sheet = wb.createSheet();
+      Row header = sheet.createRow(0);
+      header.createCell(0).setCellValue("id");
+      header.createCell(1).setCellValue("name");
+      header.createCell(2).setCellValue("amount");
+      header.createCell(3).setCellValue("notes");
+      for (int i = 1; i < 4; i++) {
+        Row row = sheet.createRow(i);
+        row.createCell(0).setCellValue(i);
+        row.createCell(1).setCellValue("name" + i);
+        row.createCell(2).setCellValue(i + 0.5);
+        row.createCell(3).setCellValue("notes" + i);
+      }
+      wb.write(bos);
+    }
+    return bos;
+  }
 }
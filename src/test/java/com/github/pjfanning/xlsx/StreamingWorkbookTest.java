@@ -3,6 +3,9 @@ package com.github.pjfanning.xlsx;
 import com.github.pjfanning.xlsx.exceptions.OpenException;
 import com.github.pjfanning.xlsx.exceptions.ParseException;
 import com.github.pjfanning.xlsx.exceptions.ReadException;
+import com.github.pjfanning.xlsx.impl.ImplTestUtils;
+import com.github.pjfanning.xlsx.impl.OffHeapSharedStringsTable;
+import com.github.pjfanning.xlsx.impl.StreamingWorkbook;
 import com.github.pjfanning.xlsx.impl.XlsxPictureData;
 import fi.iki.elonen.NanoHTTPD;
 import org.apache.commons.io.IOUtils;
@@ -73,6 +76,122 @@ public class StreamingWorkbookTest {
     }
   }
 
+  @Test
+  public void testProcessSheets() throws Exception {
+    try (UnsynchronizedByteArrayOutputStream bos = UnsynchronizedByteArrayOutputStream.builder().get()) {
+      try (XSSFWorkbook xssfWorkbook = new XSSFWorkbook()) {
+        CellStyle dateStyle = xssfWorkbook.createCellStyle();
+        dateStyle.setDataFormat(xssfWorkbook.createDataFormat().getFormat("yyyy-mm-dd"));
+        for (int sheetNum = 0; sheetNum < 6; sheetNum++) {
+          XSSFSheet sheet = xssfWorkbook.createSheet("Sheet" + sheetNum);
+          for (int rowNum = 0; rowNum < 2000; rowNum++) {
+            XSSFRow row = sheet.createRow(rowNum);
+            row.createCell(0).setCellValue("text" + (rowNum % 100));
+            row.createCell(1).setCellValue(sheetNum * 10000 + rowNum);
+            XSSFCell dateCell = row.createCell(2);
+            dateCell.setCellValue(44000 + rowNum);
+            dateCell.setCellStyle(dateStyle);
+          }
+        }
+        xssfWorkbook.write(bos);
+      }
+      for (SheetParserImplementationType type : SheetParserImplementationType.values()) {
+        StreamingReader.Builder builder = StreamingReader.builder().setSheetParserImplementationType(type);
+        List<String> expected = new ArrayList<>();
+        try (Workbook workbook = builder.open(bos.toInputStream())) {
+          for (Sheet sheet : workbook) {
+            expected.add(describeSheetContents(sheet));
+          }
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (StreamingWorkbook workbook = (StreamingWorkbook) builder.open(bos.toInputStream())) {
+          assertEquals(expected, workbook.processSheets(executor, StreamingWorkbookTest::describeSheetContents));
+        } finally {
+          executor.shutdown();
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testProcessSheetsWithEachSharedStringsImplementation() throws Exception {
+    try (UnsynchronizedByteArrayOutputStream bos = UnsynchronizedByteArrayOutputStream.builder().get()) {
+      try (XSSFWorkbook xssfWorkbook = new XSSFWorkbook()) {
+        CellStyle numberStyle = xssfWorkbook.createCellStyle();
+        numberStyle.setDataFormat(xssfWorkbook.createDataFormat().getFormat("#,##0.00"));
+        for (int sheetNum = 0; sheetNum < 6; sheetNum++) {
+          XSSFSheet sheet = xssfWorkbook.createSheet("Sheet" + sheetNum);
+          for (int rowNum = 0; rowNum < 2000; rowNum++) {
+            XSSFRow row = sheet.createRow(rowNum);
+            // a mix of strings that are unique to the sheet and strings that all the sheets look up
+            row.createCell(0).setCellValue("unique" + sheetNum + "-" + rowNum);
+            row.createCell(1).setCellValue("common" + (rowNum % 50));
+            XSSFCell numberCell = row.createCell(2);
+            numberCell.setCellValue(rowNum * 1.5);
+            numberCell.setCellStyle(numberStyle);
+          }
+        }
+        xssfWorkbook.write(bos);
+      }
+      for (SharedStringsImplementationType type : SharedStringsImplementationType.values()) {
+        for (int sharedStringsCacheSize : new int[]{0, 20}) {
+          StreamingReader.Builder builder = StreamingReader.builder()
+                  .setSharedStringsImplementationType(type)
+                  .setSharedStringsCacheSize(sharedStringsCacheSize)
+                  .setFormattedValueCacheSize(16);
+          List<String> expected = new ArrayList<>();
+          try (Workbook workbook = builder.open(bos.toInputStream())) {
+            for (Sheet sheet : workbook) {
+              expected.add(describeSheetContents(sheet));
+            }
+          }
+          ExecutorService executor = Executors.newFixedThreadPool(4);
+          try (StreamingWorkbook workbook = (StreamingWorkbook) builder.open(bos.toInputStream())) {
+            assertEquals(type + " with cache size " + sharedStringsCacheSize, expected,
+                    workbook.processSheets(executor, StreamingWorkbookTest::describeSheetContents));
+          } finally {
+            executor.shutdown();
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testProcessSheetsFailure() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try (
+            InputStream is = new FileInputStream("src/test/resources/sheets.xlsx");
+            StreamingWorkbook workbook = (StreamingWorkbook) StreamingReader.builder().open(is)
+    ) {
+      AtomicInteger processed = new AtomicInteger();
+      IllegalStateException ise = assertThrows(IllegalStateException.class, () ->
+              workbook.processSheets(executor, sheet -> {
+                processed.incrementAndGet();
+                if (sheet.getSheetName().equals("SheetAlpha")) {
+                  throw new IllegalStateException("failed " + sheet.getSheetName());
+                }
+                return sheet.getSheetName();
+              }));
+      assertEquals("failed SheetAlpha", ise.getMessage());
+      assertEquals(2, processed.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static String describeSheetContents(Sheet sheet) {
+    StringBuilder sb = new StringBuilder(sheet.getSheetName());
+    DataFormatter formatter = new DataFormatter();
+    for (Row row : sheet) {
+      sb.append('|').append(row.getRowNum());
+      for (Cell cell : row) {
+        sb.append(',').append(formatter.formatCellValue(cell));
+      }
+    }
+    return sb.toString();
+  }
+
   private void testIteration(Workbook workbook) {
     assertEquals(2, workbook.getNumberOfSheets());
 
@@ -925,6 +1044,40 @@ public class StreamingWorkbookTest {
     }
   }
 
+  @Test
+  public void testJapaneseTextOffHeapSst() throws Exception {
+    try (
+        InputStream stream = getInputStream("ja-issue.xlsx");
+        Workbook workbook = StreamingReader.builder()
+                .setSharedStringsImplementationType(SharedStringsImplementationType.OFF_HEAP)
+                .open(stream)
+    ) {
+      assertTrue(ImplTestUtils.getSharedStrings(workbook) instanceof OffHeapSharedStringsTable);
+      Sheet sheet0 = workbook.getSheetAt(0);
+      Iterator<Row> rowIterator = sheet0.rowIterator();
+      Row row0 = rowIterator.next();
+      Cell cell = row0.getCell(0);
+      assertEquals("売上", cell.getStringCellValue());
+    }
+  }
+
+  @Test
+  public void testJapaneseTextIncludesPhoneticRunsOffHeapSst() throws Exception {
+    try (
+        InputStream stream = getInputStream("ja-issue.xlsx");
+        Workbook workbook = StreamingReader.builder()
+                .setSharedStringsImplementationType(SharedStringsImplementationType.OFF_HEAP)
+                .setIncludePhoneticRuns(true)
+                .open(stream)
+    ) {
+      Sheet sheet0 = workbook.getSheetAt(0);
+      Iterator<Row> rowIterator = sheet0.rowIterator();
+      Row row0 = rowIterator.next();
+      Cell cell = row0.getCell(0);
+      assertEquals("売上 ウリアゲ ", cell.getStringCellValue());
+    }
+  }
+
   @Test
   public void testStrayWhitespaceInSstRefs() throws Exception {
     try (
@@ -5,7 +5,9 @@ import org.apache.poi.ss.util.CellReference;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 
@@ -66,4 +68,71 @@ final class TestUtils {
     return rowIterator.next();
   }
 
+  /**
+   * Reads every sheet in the workbook and describes the rows, cells and sheet metadata as strings.
+   * Useful for checking that different reader configurations produce the same output.
+   */
+  static List<String> describeWorkbook(StreamingReader.Builder builder, String fileName) throws IOException {
+    try (
+            InputStream is = getInputStream(fileName);
+            Workbook workbook = builder.open(is)
+    ) {
+      return describeWorkbook(workbook, builder.readHyperlinks());
+    }
+  }
+
+  static List<String> describeWorkbook(Workbook workbook, boolean readHyperlinks) {
+    List<String> lines = new ArrayList<>();
+    for (Sheet sheet : workbook) {
+      lines.addAll(describeSheet(sheet, readHyperlinks));
+    }
+    return lines;
+  }
+
+  static List<String> describeSheet(Sheet sheet, boolean readHyperlinks) {
+    List<String> lines = new ArrayList<>();
+    lines.add("sheet " + sheet.getSheetName());
+    for (Row row : sheet) {
+      lines.add(describeRow(row));
+      for (Cell cell : row) {
+        lines.add(describeCell(cell));
+      }
+    }
+    lines.add("rows " + sheet.getFirstRowNum() + ":" + sheet.getLastRowNum());
+    lines.add("merged " + sheet.getMergedRegions());
+    for (int col = 0; col < 10; col++) {
+      lines.add("col " + col + " " + sheet.getColumnWidth(col) + " " + sheet.isColumnHidden(col));
+    }
+    if (readHyperlinks) {
+      for (Hyperlink hyperlink : sheet.getHyperlinkList()) {
+        lines.add("hyperlink " + hyperlink.getAddress() + " " + hyperlink.getLabel());
+      }
+    }
+    return lines;
+  }
+
+  private static String describeRow(Row row) {
+    return "row " + row.getRowNum() + " " + row.getHeightInPoints() + " " + row.getZeroHeight()
+            + " " + (row.getRowStyle() == null ? -1 : row.getRowStyle().getIndex());
+  }
+
+  private static String describeCell(Cell cell) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(ref(cell)).append(' ').append(cell.getCellType());
+    if (cell.getCellType() == CellType.FORMULA) {
+      sb.append(' ').append(cell.getCachedFormulaResultType());
+      try {
+        sb.append(" =").append(cell.getCellFormula());
+      } catch (IllegalStateException e) {
+        sb.append(" =?");
+      }
+    }
+    sb.append(" '").append(cell.getStringCellValue()).append('\'');
+    if (cell.getCellStyle() != null) {
+      sb.append(' ').append(cell.getCellStyle().getIndex())
+              .append(' ').append(cell.getCellStyle().getDataFormatString());
+    }
+    return sb.toString();
+  }
+
 }
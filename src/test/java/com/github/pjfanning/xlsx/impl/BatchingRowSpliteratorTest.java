@@ -0,0 +1,106 @@
+package com.github.pjfanning.xlsx.impl;
+
+import com.github.pjfanning.xlsx.CloseableIterator;
+import org.apache.poi.ss.usermodel.Row;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BatchingRowSpliteratorTest {
+  @Test
+  public void testSplit() {
+    TestRowIterator iterator = new TestRowIterator(5000);
+    BatchingRowSpliterator spliterator = new BatchingRowSpliterator(iterator, 5000);
+    assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+    assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+
+    Spliterator<Row> first = spliterator.trySplit();
+    assertNotNull(first);
+    assertEquals(BatchingRowSpliterator.BATCH_UNIT, first.estimateSize());
+    assertEquals(5000 - BatchingRowSpliterator.BATCH_UNIT, spliterator.estimateSize());
+    Spliterator<Row> second = spliterator.trySplit();
+    assertNotNull(second);
+    assertEquals(2 * BatchingRowSpliterator.BATCH_UNIT, second.estimateSize());
+
+    List<Integer> rowNums = new ArrayList<>();
+    first.forEachRemaining(row -> rowNums.add(row.getRowNum()));
+    second.forEachRemaining(row -> rowNums.add(row.getRowNum()));
+    assertFalse(iterator.closed);
+    spliterator.forEachRemaining(row -> rowNums.add(row.getRowNum()));
+    assertTrue(iterator.closed);
+    assertEquals(0, spliterator.estimateSize());
+    assertNull(spliterator.trySplit());
+
+    assertEquals(5000, rowNums.size());
+    for (int i = 0; i < rowNums.size(); i++) {
+      assertEquals(i, rowNums.get(i).intValue());
+    }
+  }
+
+  @Test
+  public void testUnknownSize() {
+    BatchingRowSpliterator spliterator = new BatchingRowSpliterator(new TestRowIterator(10), Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE, spliterator.estimateSize());
+    Spliterator<Row> batch = spliterator.trySplit();
+    assertNotNull(batch);
+    assertEquals(10, batch.estimateSize());
+    assertFalse(spliterator.tryAdvance(row -> fail("no more rows expected")));
+  }
+
+  @Test
+  public void testContentsResolvedBeforeHandoff() {
+    AtomicInteger resolved = new AtomicInteger();
+    TestRowIterator iterator = new TestRowIterator(10, () -> {
+      resolved.incrementAndGet();
+      return "value";
+    });
+    BatchingRowSpliterator spliterator = new BatchingRowSpliterator(iterator, 10);
+    Spliterator<Row> batch = spliterator.trySplit();
+    assertNotNull(batch);
+    assertEquals(10, resolved.get());
+    batch.forEachRemaining(row -> assertEquals("value", row.getCell(0).getStringCellValue()));
+    assertEquals(10, resolved.get());
+  }
+
+  private static class TestRowIterator implements CloseableIterator<Row> {
+    private final int rowCount;
+    private final Supplier contentSupplier;
+    private int nextRowNum;
+    private boolean closed;
+
+    TestRowIterator(int rowCount) {
+      this(rowCount, null);
+    }
+
+    TestRowIterator(int rowCount, Supplier contentSupplier) {
+      this.rowCount = rowCount;
+      this.contentSupplier = contentSupplier;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return nextRowNum < rowCount;
+    }
+
+    @Override
+    public Row next() {
+      StreamingRow row = new StreamingRow(null, nextRowNum++, false);
+      if (contentSupplier != null) {
+        StreamingCell cell = new StreamingCell(null, 0, row, false);
+        cell.setContentSupplier(new LazySupplier<>(contentSupplier::getContent));
+        row.addCell(cell);
+      }
+      return row;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CachedSharedStringsTest {
+
+  @Test
+  public void testLeastRecentlyUsedEviction() throws IOException {
+    CountingSharedStrings sharedStrings = new CountingSharedStrings();
+    try (CachedSharedStrings cache = new CachedSharedStrings(sharedStrings, 2)) {
+      assertEquals(0.0, cache.getHitRate(), 0.0);
+      assertEquals("s0", cache.getString(0));
+      assertEquals("s1", cache.getString(1));
+      assertEquals("s0", cache.getString(0));
+      assertEquals(2, sharedStrings.lookups.get());
+      // 1 is the least recently used string, so it is evicted
+      assertEquals("s2", cache.getString(2));
+      assertEquals("s0", cache.getString(0));
+      assertEquals(3, sharedStrings.lookups.get());
+      assertEquals("s1", cache.getString(1));
+      assertEquals(4, sharedStrings.lookups.get());
+      assertEquals(2, cache.size());
+      assertEquals(2, cache.getHitCount());
+      assertEquals(4, cache.getMissCount());
+      assertEquals(2.0 / 6, cache.getHitRate(), 1e-9);
+      assertEquals(10, cache.getCount());
+      assertEquals(5, cache.getUniqueCount());
+    }
+    assertTrue(sharedStrings.closed.get());
+  }
+
+  @Test
+  public void testRichTextIsNotCached() {
+    CountingSharedStrings sharedStrings = new CountingSharedStrings();
+    CachedSharedStrings cache = new CachedSharedStrings(sharedStrings, 2);
+    assertEquals("s3", cache.getItemAt(3).getString());
+    assertEquals("s3", cache.getItemAt(3).getString());
+    assertEquals(2, sharedStrings.lookups.get());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testInvalidSize() {
+    assertThrows(IllegalArgumentException.class, () -> new CachedSharedStrings(new CountingSharedStrings(), 0));
+  }
+
+  private static class CountingSharedStrings implements SharedStrings, AutoCloseable {
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    @Override
+    public RichTextString getItemAt(int idx) {
+      lookups.incrementAndGet();
+      return new XSSFRichTextString("s" + idx);
+    }
+
+    @Override
+    public int getCount() {
+      return 10;
+    }
+
+    @Override
+    public int getUniqueCount() {
+      return 5;
+    }
+
+    @Override
+    public void close() {
+      closed.set(true);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CellMapTest {
+
+  @Test
+  public void testDenseRow() {
+    CellMap map = new CellMap();
+    assertEquals(-1, map.getFirstColumn());
+    assertEquals(-1, map.getLastColumn());
+    assertNull(map.getCell(0));
+    for (int col = 2; col < 30; col++) {
+      assertNull(map.putCell(col, cell(col)));
+    }
+    assertEquals(28, map.size());
+    assertEquals(2, map.getFirstColumn());
+    assertEquals(29, map.getLastColumn());
+    assertNull(map.getCell(1));
+    assertNull(map.getCell(30));
+    for (int col = 2; col < 30; col++) {
+      assertEquals(col, map.getCell(col).getColumnIndex());
+    }
+    int expectedCol = 2;
+    for (Map.Entry<Integer, Cell> entry : map.entrySet()) {
+      assertEquals(expectedCol++, entry.getKey().intValue());
+      assertEquals(entry.getKey().intValue(), entry.getValue().getColumnIndex());
+    }
+  }
+
+  @Test
+  public void testMatchesTreeMap() {
+    Random random = new Random(42);
+    for (int run = 0; run < 50; run++) {
+      CellMap map = new CellMap();
+      TreeMap<Integer, Cell> treeMap = new TreeMap<>();
+      for (int i = 0; i < 40; i++) {
+        int col = random.nextInt(60);
+        if (random.nextInt(4) == 0) {
+          assertEquals(treeMap.remove(col), map.remove(col));
+        } else {
+          Cell cell = cell(col);
+          assertEquals(treeMap.put(col, cell), map.put(col, cell));
+        }
+        assertEquals(treeMap, map);
+        assertEquals(new ArrayList<>(treeMap.values()), new ArrayList<>(map.values()));
+        assertEquals(treeMap.isEmpty() ? -1 : treeMap.firstKey(), map.getFirstColumn());
+        assertEquals(treeMap.isEmpty() ? -1 : treeMap.lastKey(), map.getLastColumn());
+        for (int c = -1; c <= 61; c++) {
+          assertSame(treeMap.get(c), map.getCell(c));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRemoveWithIterators() {
+    CellMap map = new CellMap();
+    for (int col = 0; col < 10; col++) {
+      map.putCell(col, cell(col));
+    }
+    map.keySet().removeIf(col -> col % 3 == 0);
+    assertEquals(Arrays.asList(1, 2, 4, 5, 7, 8), new ArrayList<>(map.keySet()));
+    assertNull(map.getCell(3));
+    assertEquals(4, map.getCell(4).getColumnIndex());
+
+    Iterator<Cell> iterator = map.values().iterator();
+    iterator.next();
+    iterator.remove();
+    assertEquals(Arrays.asList(2, 4, 5, 7, 8), new ArrayList<>(map.keySet()));
+    assertThrows(IllegalStateException.class, iterator::remove);
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertEquals(-1, map.getFirstColumn());
+  }
+
+  @Test
+  public void testConcurrentModification() {
+    CellMap map = new CellMap();
+    map.putCell(0, cell(0));
+    map.putCell(1, cell(1));
+    Iterator<Cell> iterator = map.values().iterator();
+    iterator.next();
+    map.putCell(5, cell(5));
+    assertThrows(ConcurrentModificationException.class, iterator::next);
+  }
+
+  private static Cell cell(int col) {
+    return new StreamingCell(null, col, null, false);
+  }
+}
@@ -0,0 +1,47 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CellReferenceUtilTest {
+  @Test
+  public void testMatchesCellAddress() {
+    String[] refs = {"A1", "B2", "Z10", "AA1", "AZ99", "ba7", "XFD1048576", "AB1234"};
+    for (String ref : refs) {
+      CellAddress cellAddress = new CellAddress(ref);
+      assertEquals(ref, cellAddress.getColumn(), CellReferenceUtil.parseColumnIndex(ref));
+      assertEquals(ref, cellAddress.getRow(), CellReferenceUtil.parseRowIndex(ref));
+    }
+  }
+
+  @Test
+  public void testAbsoluteReferences() {
+    CellReference cellReference = new CellReference("$C$15");
+    assertEquals(cellReference.getCol(), CellReferenceUtil.parseColumnIndex("$C$15"));
+    assertEquals(cellReference.getRow(), CellReferenceUtil.parseRowIndex("$C$15"));
+  }
+
+  @Test
+  public void testRange() {
+    String range = "B3:F25";
+    assertEquals(1, CellReferenceUtil.parseColumnIndex(range, 0, 2));
+    assertEquals(2, CellReferenceUtil.parseRowIndex(range, 0, 2));
+    assertEquals(5, CellReferenceUtil.parseColumnIndex(range, 3, range.length()));
+    assertEquals(24, CellReferenceUtil.parseRowIndex(range, 3, range.length()));
+  }
+
+  @Test
+  public void testInvalidReferences() {
+    assertEquals(-1, CellReferenceUtil.parseColumnIndex(""));
+    assertEquals(-1, CellReferenceUtil.parseColumnIndex("12"));
+    assertEquals(-1, CellReferenceUtil.parseColumnIndex("ABCDEFGH1"));
+    assertEquals(-1, CellReferenceUtil.parseRowIndex(""));
+    assertEquals(-1, CellReferenceUtil.parseRowIndex("A"));
+    assertEquals(-1, CellReferenceUtil.parseRowIndex("A0"));
+    assertEquals(-1, CellReferenceUtil.parseRowIndex("A1B"));
+    assertEquals(-1, CellReferenceUtil.parseRowIndex("A123456789"));
+  }
+}
@@ -0,0 +1,56 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class CellStyleFormatsTest {
+
+  @Test
+  public void testFormats() throws IOException {
+    try (XSSFWorkbook wb = new XSSFWorkbook()) {
+      XSSFCellStyle dateStyle = wb.createCellStyle();
+      dateStyle.setDataFormat(wb.createDataFormat().getFormat("yyyy-mm-dd"));
+      XSSFCellStyle currencyStyle = wb.createCellStyle();
+      currencyStyle.setDataFormat(wb.createDataFormat().getFormat("\"$\"#,##0.00"));
+      XSSFCellStyle builtinStyle = wb.createCellStyle();
+      builtinStyle.setDataFormat((short) 14);
+
+      StylesTable stylesTable = wb.getStylesSource();
+      CellStyleFormats formats = CellStyleFormats.of(stylesTable);
+      assertSame(stylesTable, formats.getStylesTable());
+      assertEquals(stylesTable.getNumCellStyles(), formats.size());
+
+      assertEquals(0, formats.getStyle(0).getIndex());
+      assertEquals(Short.valueOf((short) 0), formats.getFormatIndex(0));
+      assertEquals("General", formats.getFormatString(0));
+      assertFalse(formats.isDateFormat(0));
+
+      int dateIndex = dateStyle.getIndex();
+      assertEquals(dateIndex, formats.getStyle(dateIndex).getIndex());
+      assertEquals("yyyy-mm-dd", formats.getFormatString(dateIndex));
+      assertTrue(formats.isDateFormat(dateIndex));
+
+      int currencyIndex = currencyStyle.getIndex();
+      assertEquals("\"$\"#,##0.00", formats.getFormatString(currencyIndex));
+      assertFalse(formats.isDateFormat(currencyIndex));
+
+      int builtinIndex = builtinStyle.getIndex();
+      assertEquals(BuiltinFormats.getBuiltinFormat(14), formats.getFormatString(builtinIndex));
+      assertTrue(formats.isDateFormat(builtinIndex));
+
+      assertNull(formats.getStyle(-1));
+      assertNull(formats.getStyle(formats.size()));
+      assertNull(formats.getFormatIndex(formats.size()));
+      assertNull(formats.getFormatString(formats.size()));
+      assertFalse(formats.isDateFormat(formats.size()));
+    }
+    assertNull(CellStyleFormats.of(null));
+  }
+}
@@ -0,0 +1,41 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class FormattedValueCacheTest {
+
+  @Test
+  public void testMatchesDataFormatter() {
+    DataFormatter dataFormatter = new DataFormatter(Locale.ENGLISH);
+    FormattedValueCache cache = new FormattedValueCache(new DataFormatter(Locale.ENGLISH), 16);
+    String[] formats = {"General", "0.00", "yyyy-mm-dd", "m/d/yy", "\"$\"#,##0.00", "0%"};
+    int[] formatIndexes = {0, 2, 164, 14, 165, 9};
+    Random random = new Random(7);
+    for (int i = 0; i < 5000; i++) {
+      int f = random.nextInt(formats.length);
+      // a small set of values so that most lookups are cache hits
+      double value = random.nextInt(40) * 1.25 + 40000;
+      assertEquals(dataFormatter.formatRawCellContents(value, formatIndexes[f], formats[f]),
+              cache.formatRawCellContents(value, formatIndexes[f], formats[f]));
+    }
+    // 0.0 and -0.0 have different bits, so they are cached separately
+    assertEquals(dataFormatter.formatRawCellContents(0.0, 2, "0.00"), cache.formatRawCellContents(0.0, 2, "0.00"));
+    assertEquals(dataFormatter.formatRawCellContents(-0.0, 2, "0.00"), cache.formatRawCellContents(-0.0, 2, "0.00"));
+  }
+
+  @Test
+  public void testSameFormatStringWithAnotherIndex() {
+    DataFormatter dataFormatter = new DataFormatter(Locale.ENGLISH);
+    FormattedValueCache cache = new FormattedValueCache(new DataFormatter(Locale.ENGLISH), 4);
+    assertEquals(dataFormatter.formatRawCellContents(44000.5, 14, "m/d/yy"),
+            cache.formatRawCellContents(44000.5, 14, "m/d/yy"));
+    assertEquals(dataFormatter.formatRawCellContents(44000.5, 170, "m/d/yy"),
+            cache.formatRawCellContents(44000.5, 170, "m/d/yy"));
+  }
+}
@@ -0,0 +1,40 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.model.SharedStrings;
+
+import java.util.Iterator;
+
+/**
+ * Gives the tests in other packages access to package-private state, so that they can check that an option
+ * was actually used (and not only that the results are the same as without it).
+ */
+public final class ImplTestUtils {
+  private ImplTestUtils() {}
+
+  /**
+   * @param iterator a row iterator returned by {@link StreamingSheet#iterator()} (with no prefetching)
+   * @return whether the iterator parses the sheet with an <code>XMLStreamReader</code>
+   */
+  public static boolean usesXmlStreamReader(Iterator<Row> iterator) {
+    return ((StreamingRowIterator) iterator).usesXmlStreamReader();
+  }
+
+  /**
+   * @param workbook a workbook opened by a <code>StreamingReader</code>
+   * @return the shared strings table of the workbook
+   */
+  public static SharedStrings getSharedStrings(Workbook workbook) {
+    return ((StreamingWorkbook) workbook).getSharedStrings();
+  }
+
+  /**
+   * @param workbook a workbook opened by a <code>StreamingReader</code>
+   * @return the number of files that the workbook has loaded from the index cache (0 if there is no cache)
+   */
+  public static int getIndexCacheLoadCount(Workbook workbook) {
+    final WorkbookIndexCache indexCache = ((StreamingWorkbook) workbook).getIndexCache();
+    return indexCache == null ? 0 : indexCache.getLoadCount();
+  }
+}
@@ -0,0 +1,63 @@
+package com.github.pjfanning.xlsx.impl;
+
+import com.github.pjfanning.xlsx.exceptions.ReadException;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class LazySharedStringsTableTest {
+  private static final String SST_START =
+          "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"10\" uniqueCount=\"4\">";
+  private static final String SST = SST_START
+          + "<si><t>first</t></si>"
+          + "<si><r><rPr><b/></rPr><t>rich </t></r><r><t>text</t></r></si>"
+          + "<si><t>売上</t><rPh sb=\"0\" eb=\"2\"><t>ウリアゲ</t></rPh></si>"
+          + "<si><t>last_x000D_</t></si>"
+          + "</sst>";
+
+  @Test
+  public void testParsesOnDemand() throws Exception {
+    ReadOnlySharedStringsTable expected = new ReadOnlySharedStringsTable(toStream(SST), false);
+    try (LazySharedStringsTable sst = new LazySharedStringsTable(toStream(SST), false)) {
+      assertEquals(10, sst.getCount());
+      assertEquals(4, sst.getUniqueCount());
+      assertEquals(0, sst.getParsedCount());
+      assertEquals("rich text", sst.getItemAt(1).getString());
+      assertEquals(2, sst.getParsedCount());
+      assertEquals("first", sst.getItemAt(0).getString());
+      assertEquals(2, sst.getParsedCount());
+      for (int i = 3; i >= 0; i--) {
+        assertEquals(expected.getItemAt(i).getString(), sst.getItemAt(i).getString());
+      }
+      assertEquals(4, sst.getParsedCount());
+      assertThrows(IndexOutOfBoundsException.class, () -> sst.getItemAt(4));
+      assertThrows(IndexOutOfBoundsException.class, () -> sst.getItemAt(-1));
+    }
+  }
+
+  @Test
+  public void testPhoneticRuns() throws Exception {
+    ReadOnlySharedStringsTable expected = new ReadOnlySharedStringsTable(toStream(SST), true);
+    try (LazySharedStringsTable sst = new LazySharedStringsTable(toStream(SST), true)) {
+      assertEquals(expected.getItemAt(2).getString(), sst.getItemAt(2).getString());
+    }
+  }
+
+  @Test
+  public void testMalformedXml() throws Exception {
+    try (LazySharedStringsTable sst = new LazySharedStringsTable(
+            toStream(SST_START + "<si><t>first</t></si><si><t>broken</si>"), false)) {
+      assertEquals("first", sst.getItemAt(0).getString());
+      assertThrows(ReadException.class, () -> sst.getItemAt(1));
+    }
+  }
+
+  private static InputStream toStream(String xml) {
+    return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+  }
+}
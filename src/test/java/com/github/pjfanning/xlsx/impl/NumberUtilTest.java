@@ -0,0 +1,62 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NumberUtilTest {
+
+  @Test
+  public void testPlainDecimals() {
+    String[] values = {"0", "1", "-1", "42", "0.5", "-0.5", "0.05", "0.0", "0.00", "44000.50", "123456789012345",
+            "1234567.89012345", "0.00000000000001", "-999999999999999", "3.14159265358979"};
+    for (String value : values) {
+      int scale = NumberUtil.getPlainDecimalScale(value);
+      assertTrue(value, scale >= 0);
+      double parsed = NumberUtil.parsePlainDecimal(value, scale);
+      assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)), Double.doubleToLongBits(parsed));
+      assertEquals(value, NumberUtil.toPlainDecimalString(parsed, scale));
+      assertEquals(value, Double.parseDouble(value), NumberUtil.parseDouble((CharSequence) new StringBuilder(value)), 0.0);
+    }
+  }
+
+  @Test
+  public void testOtherNumbers() {
+    String[] values = {"", "-", ".5", "5.", "00", "01.5", "+1", " 1", "1 ", "1E5", "1.5e-3", "-0", "-0.0",
+            "1234567890123456", "0.1234567890123456", "NaN", "1,5"};
+    for (String value : values) {
+      assertEquals(value, -1, NumberUtil.getPlainDecimalScale(value));
+    }
+    assertEquals(100000.0, NumberUtil.parseDouble((CharSequence) "1E5"), 0.0);
+    assertEquals(1.0, NumberUtil.parseDouble((CharSequence) " 1 "), 0.0);
+    assertEquals(1234567890123456.0, NumberUtil.parseDouble((CharSequence) "1234567890123456"), 0.0);
+  }
+
+  @Test
+  public void testParseIntCharSequence() {
+    String[] values = {"0", "7", "42", "007", "123456789", "1234567890", "2147483647", "-5", " 12 ", "+3"};
+    for (String value : values) {
+      assertEquals(value, Integer.parseInt(value.trim()), NumberUtil.parseInt((CharSequence) new StringBuilder(value)));
+    }
+    assertThrows(NumberFormatException.class, () -> NumberUtil.parseInt((CharSequence) new StringBuilder("1x")));
+    assertThrows(NumberFormatException.class, () -> NumberUtil.parseInt((CharSequence) new StringBuilder("")));
+  }
+
+  @Test
+  public void testMatchesParseDouble() {
+    Random random = new Random(11);
+    for (int i = 0; i < 100000; i++) {
+      int scale = random.nextInt(10);
+      long mantissa = (long) (random.nextDouble() * 1e14);
+      String value = NumberUtil.toPlainDecimalString(mantissa / Math.pow(10, scale), scale);
+      int actualScale = NumberUtil.getPlainDecimalScale(value);
+      if (actualScale >= 0) {
+        double parsed = NumberUtil.parsePlainDecimal(value, actualScale);
+        assertEquals(value, Double.parseDouble(value), parsed, 0.0);
+        assertEquals(value, NumberUtil.toPlainDecimalString(parsed, actualScale));
+      }
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class OffHeapSharedStringsTableTest {
+  private static final String SST_START =
+          "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"12\" uniqueCount=\"6\">";
+
+  @Test
+  public void testMatchesReadOnlySharedStringsTable() throws Exception {
+    String xml = SST_START
+            + "<si><t>plain</t></si>"
+            + "<si><t/></si>"
+            + "<si><r><rPr><b/></rPr><t>rich </t></r><r><t xml:space=\"preserve\">text </t></r></si>"
+            + "<si><t>line_x000D_break &amp; &lt;escapes&gt;</t></si>"
+            + "<si><t>売上 😀</t><rPh sb=\"0\" eb=\"2\"><t>ウリアゲ</t></rPh></si>"
+            + "<si><t><![CDATA[cdata]]></t></si>"
+            + "</sst>";
+    for (boolean includePhoneticRuns : new boolean[]{false, true}) {
+      ReadOnlySharedStringsTable expected = new ReadOnlySharedStringsTable(toStream(xml), includePhoneticRuns);
+      try (OffHeapSharedStringsTable sst = new OffHeapSharedStringsTable(toStream(xml), includePhoneticRuns)) {
+        assertEquals(expected.getCount(), sst.getCount());
+        assertEquals(expected.getUniqueCount(), sst.getUniqueCount());
+        for (int i = 0; i < 6; i++) {
+          assertEquals(expected.getItemAt(i).getString(), sst.getItemAt(i).getString());
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> sst.getItemAt(6));
+      }
+    }
+  }
+
+  @Test
+  public void testBufferGrows() throws Exception {
+    StringBuilder xml = new StringBuilder(SST_START);
+    int count = 20000;
+    for (int i = 0; i < count; i++) {
+      xml.append("<si><t>value é€ ").append(i).append("</t></si>");
+    }
+    xml.append("</sst>");
+    try (OffHeapSharedStringsTable sst = new OffHeapSharedStringsTable(toStream(xml.toString()), false)) {
+      for (int i = 0; i < count; i++) {
+        assertEquals("value é€ " + i, sst.getItemAt(i).getString());
+      }
+    }
+  }
+
+  @Test
+  public void testClosedTableIsEmpty() throws Exception {
+    OffHeapSharedStringsTable sst = new OffHeapSharedStringsTable(toStream(SST_START + "<si><t>a</t></si></sst>"), false);
+    assertEquals("a", sst.getItemAt(0).getString());
+    sst.close();
+    assertThrows(IndexOutOfBoundsException.class, () -> sst.getItemAt(0));
+  }
+
+  private static InputStream toStream(String xml) {
+    return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+  }
+}
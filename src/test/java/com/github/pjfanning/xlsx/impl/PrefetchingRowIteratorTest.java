@@ -0,0 +1,142 @@
+package com.github.pjfanning.xlsx.impl;
+
+import com.github.pjfanning.xlsx.CloseableIterator;
+import com.github.pjfanning.xlsx.exceptions.ParseException;
+import org.apache.poi.ss.usermodel.Row;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PrefetchingRowIteratorTest {
+  @Test
+  public void testRowsInOrder() throws Exception {
+    TestRowIterator delegate = new TestRowIterator(100, -1);
+    List<Integer> rowNums = new ArrayList<>();
+    try (PrefetchingRowIterator iterator = new PrefetchingRowIterator(null, delegate, 4, null)) {
+      while (iterator.hasNext()) {
+        rowNums.add(iterator.next().getRowNum());
+      }
+      assertFalse(iterator.hasNext());
+      try {
+        iterator.next();
+        fail("expected NoSuchElementException");
+      } catch (NoSuchElementException e) {
+        // expected
+      }
+    }
+    assertEquals(100, rowNums.size());
+    for (int i = 0; i < rowNums.size(); i++) {
+      assertEquals(i, rowNums.get(i).intValue());
+    }
+    assertTrue(delegate.closed.get());
+  }
+
+  @Test
+  public void testParseExceptionIsRethrown() throws Exception {
+    TestRowIterator delegate = new TestRowIterator(100, 5);
+    try (PrefetchingRowIterator iterator = new PrefetchingRowIterator(null, delegate, 2, null)) {
+      for (int i = 0; i < 5; i++) {
+        assertEquals(i, iterator.next().getRowNum());
+      }
+      try {
+        iterator.hasNext();
+        fail("expected ParseException");
+      } catch (ParseException e) {
+        assertEquals("failed at row 5", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testCloseStopsProducer() throws Exception {
+    TestRowIterator delegate = new TestRowIterator(1000, -1);
+    AtomicInteger threadCount = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    PrefetchingRowIterator iterator = new PrefetchingRowIterator(null, delegate, 2, runnable -> {
+      Thread thread = new Thread(runnable, "test-prefetch-" + threadCount.incrementAndGet());
+      threads.add(thread);
+      return thread;
+    });
+    assertEquals(0, iterator.next().getRowNum());
+    iterator.close();
+    assertEquals(1, threads.size());
+    assertFalse(threads.get(0).isAlive());
+    assertTrue(delegate.closed.get());
+    assertFalse(iterator.hasNext());
+    assertTrue(delegate.nextRowNum < 1000);
+  }
+
+  @Test
+  public void testCloseFromAnotherThreadWakesConsumer() throws Exception {
+    TestRowIterator delegate = new TestRowIterator(1000, -1, 50);
+    PrefetchingRowIterator iterator = new PrefetchingRowIterator(null, delegate, 2, null);
+    CountDownLatch firstRow = new CountDownLatch(1);
+    AtomicInteger consumedCount = new AtomicInteger();
+    Thread consumer = new Thread(() -> {
+      while (iterator.hasNext()) {
+        iterator.next();
+        consumedCount.incrementAndGet();
+        firstRow.countDown();
+      }
+    });
+    consumer.start();
+    assertTrue(firstRow.await(10, TimeUnit.SECONDS));
+    // the consumer is now waiting for the rows that are slow to parse
+    iterator.close();
+    consumer.join(10000);
+    assertFalse(consumer.isAlive());
+    assertTrue(delegate.closed.get());
+    assertTrue(consumedCount.get() < 1000);
+  }
+
+  private static class TestRowIterator implements CloseableIterator<Row> {
+    private final int rowCount;
+    private final int failAtRow;
+    private final long delayMillis;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile int nextRowNum;
+
+    TestRowIterator(int rowCount, int failAtRow) {
+      this(rowCount, failAtRow, 0);
+    }
+
+    TestRowIterator(int rowCount, int failAtRow, long delayMillis) {
+      this.rowCount = rowCount;
+      this.failAtRow = failAtRow;
+      this.delayMillis = delayMillis;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (delayMillis > 0) {
+        try {
+          Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (nextRowNum == failAtRow) {
+        throw new ParseException("failed at row " + failAtRow);
+      }
+      return nextRowNum < rowCount;
+    }
+
+    @Override
+    public Row next() {
+      return new StreamingRow(null, nextRowNum++, false);
+    }
+
+    @Override
+    public void close() {
+      closed.set(true);
+    }
+  }
+}
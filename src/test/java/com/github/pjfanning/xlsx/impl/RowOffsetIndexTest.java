@@ -0,0 +1,90 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class RowOffsetIndexTest {
+  private static final String HEAD = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+          + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+          + "<dimension ref=\"A1:A9\"/><!-- <row r=\"100\"> --><sheetData>";
+  private static final String TAIL = "</sheetData><mergeCells count=\"1\"><mergeCell ref=\"A1:B1\"/></mergeCells></worksheet>";
+
+  @Test
+  public void testCheckpoints() throws IOException {
+    StringBuilder rows = new StringBuilder();
+    for (int r : new int[]{1, 2, 3, 5, 6, 7, 9}) {
+      rows.append("<row r=\"").append(r).append("\" spans=\"1:1\"><c r=\"A").append(r)
+              .append("\" t=\"inlineStr\"><is><t><![CDATA[<row r=\"1\">]]></t></is></c></row>");
+    }
+    String xml = HEAD + rows + TAIL;
+    RowOffsetIndex index = build(xml, 2);
+    assertNotNull(index);
+    assertEquals(7, index.getRowCount());
+    // checkpoints at the 3rd, 5th and 7th rows
+    assertEquals(3, index.getCheckpointCount());
+    assertEquals(-1, index.getCheckpointRowNum(0));
+    assertEquals(-1, index.getCheckpointRowNum(1));
+    assertEquals(2, index.getCheckpointRowNum(2));
+    assertEquals(2, index.getCheckpointRowNum(4));
+    assertEquals(5, index.getCheckpointRowNum(5));
+    assertEquals(8, index.getCheckpointRowNum(1000));
+
+    assertEquals(xml, open(index, xml, 1));
+    String fromRow6 = open(index, xml, 5);
+    assertTrue(fromRow6.startsWith(HEAD + "<row r=\"6\""));
+    assertTrue(fromRow6.endsWith(TAIL));
+    assertEquals(xml.length() - xml.indexOf("<row r=\"6\"") + HEAD.length(), fromRow6.length());
+  }
+
+  @Test
+  public void testRowsWithoutRefAttribute() throws IOException {
+    String xml = HEAD + "<row r=\"1\"/><row/><row/><row r=\"4\"/><row/><row r=\"10\"/>" + TAIL;
+    RowOffsetIndex index = build(xml, 1);
+    assertNotNull(index);
+    assertEquals(6, index.getRowCount());
+    // only rows with an r attribute can be checkpoints
+    assertEquals(2, index.getCheckpointCount());
+    assertEquals(3, index.getCheckpointRowNum(4));
+    assertEquals(9, index.getCheckpointRowNum(9));
+  }
+
+  @Test
+  public void testPrefixedAndEmptySheets() throws IOException {
+    String xml = "<x:worksheet xmlns:x=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><x:sheetData>"
+            + "<x:row r=\"1\"/><x:row r=\"2\"/><x:row r=\"3\"/></x:sheetData></x:worksheet>";
+    RowOffsetIndex index = build(xml, 1);
+    assertNotNull(index);
+    assertEquals(3, index.getRowCount());
+    assertTrue(open(index, xml, 2).endsWith("<x:sheetData><x:row r=\"3\"/></x:sheetData></x:worksheet>"));
+
+    RowOffsetIndex emptyIndex = build(HEAD.replace("<sheetData>", "<sheetData/>") + "</worksheet>", 1);
+    assertNotNull(emptyIndex);
+    assertEquals(0, emptyIndex.getRowCount());
+    assertEquals(0, emptyIndex.getCheckpointCount());
+  }
+
+  @Test
+  public void testSheetsThatCannotBeIndexed() throws IOException {
+    assertNull(build(HEAD + "<row r=\"2\"/><row r=\"1\"/>" + TAIL, 1));
+    byte[] utf16 = (HEAD + "<row r=\"1\"/>" + TAIL).getBytes(StandardCharsets.UTF_16);
+    assertNull(RowOffsetIndex.build(new ByteArrayInputStream(utf16), 1));
+    assertThrows(IllegalArgumentException.class, () -> build(HEAD + TAIL, 0));
+  }
+
+  private static RowOffsetIndex build(String xml, int interval) throws IOException {
+    return RowOffsetIndex.build(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), interval);
+  }
+
+  private static String open(RowOffsetIndex index, String xml, int rowNum) throws IOException {
+    try (InputStream is = index.open(() -> new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), rowNum)) {
+      return IOUtils.toString(is, StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class SheetDataSkippingInputStreamTest {
+  private static final String HEAD = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+          + "<dimension ref=\"A1:B3\"/><cols><col min=\"1\" max=\"1\" hidden=\"1\"/></cols>";
+  private static final String TAIL = "<mergeCells count=\"1\"><mergeCell ref=\"A1:B1\"/></mergeCells></worksheet>";
+
+  @Test
+  public void testSkipsRows() throws IOException {
+    String rows = "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>&lt;/sheetData&gt;</t></is></c></row>"
+            + "<row r=\"2\"><c r=\"A2\"><v>1</v></c></row>";
+    assertEquals(HEAD + "<sheetData></sheetData>" + TAIL,
+            skip(HEAD + "<sheetData>" + rows + "</sheetData>" + TAIL));
+  }
+
+  @Test
+  public void testPrefixedAndSelfClosing() throws IOException {
+    assertEquals("<x:worksheet><x:sheetData></x:sheetData><x:mergeCells/></x:worksheet>",
+            skip("<x:worksheet><x:sheetData><x:row r=\"1\"/></x:sheetData><x:mergeCells/></x:worksheet>"));
+    assertEquals(HEAD + "<sheetData />" + TAIL, skip(HEAD + "<sheetData />" + TAIL));
+    assertEquals("<a><sheetDataX><row/></sheetDataX></a>", skip("<a><sheetDataX><row/></sheetDataX></a>"));
+  }
+
+  @Test
+  public void testLargeSheet() throws IOException {
+    StringBuilder rows = new StringBuilder();
+    for (int r = 1; r <= 20000; r++) {
+      rows.append("<row r=\"").append(r).append("\"><c r=\"A").append(r).append("\"><v>").append(r)
+              .append("</v></c></row>");
+    }
+    String xml = HEAD + "<sheetData>" + rows + "</sheetData>" + TAIL;
+    String expected = HEAD + "<sheetData></sheetData>" + TAIL;
+    assertEquals(expected, skip(xml));
+    // read one byte at a time, from a stream that returns small chunks
+    try (InputStream in = new SheetDataSkippingInputStream(new SmallChunkInputStream(toBytes(xml)))) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      int b;
+      while ((b = in.read()) != -1) {
+        out.write(b);
+      }
+      assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+  }
+
+  private static String skip(String xml) throws IOException {
+    try (InputStream in = new SheetDataSkippingInputStream(new ByteArrayInputStream(toBytes(xml)))) {
+      return new String(IOUtils.toByteArray(in), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static byte[] toBytes(String xml) {
+    return xml.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static class SmallChunkInputStream extends ByteArrayInputStream {
+    SmallChunkInputStream(byte[] bytes) {
+      super(bytes);
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) {
+      return super.read(b, off, Math.min(len, 7));
+    }
+  }
+}
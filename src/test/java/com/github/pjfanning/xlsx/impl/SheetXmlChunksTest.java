@@ -0,0 +1,95 @@
+package com.github.pjfanning.xlsx.impl;
+
+import org.apache.poi.util.XMLHelper;
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SheetXmlChunksTest {
+  private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+  @Test
+  public void testSplit() throws Exception {
+    StringBuilder sb = new StringBuilder(HEADER)
+            .append("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">")
+            .append("<dimension ref=\"A1:A20\"/><cols><col min=\"1\" max=\"1\" width=\"10\"/></cols><sheetData>");
+    for (int i = 1; i <= 20; i++) {
+      sb.append("<row r=\"").append(i).append("\" spans=\"1:1\"><c r=\"A").append(i)
+              .append("\" t=\"inlineStr\"><is><t>value ").append(i).append("</t></is></c></row>");
+    }
+    sb.append("</sheetData><mergeCells count=\"1\"><mergeCell ref=\"A1:A2\"/></mergeCells></worksheet>");
+    SheetXmlChunks chunks = SheetXmlChunks.split(sb.toString().getBytes(StandardCharsets.UTF_8), 200);
+    assertNotNull(chunks);
+    assertTrue(chunks.getChunkCount() > 5);
+    List<String> rowNums = new ArrayList<>();
+    for (int i = 0; i < chunks.getChunkCount(); i++) {
+      List<String> elements = readElements(chunks.openChunk(i));
+      assertEquals("worksheet", elements.get(0));
+      assertEquals(i == 0, elements.contains("cols"));
+      assertEquals(i == chunks.getChunkCount() - 1, elements.contains("mergeCell"));
+      for (String element : elements) {
+        if (element.startsWith("row ")) {
+          rowNums.add(element.substring(4));
+        }
+      }
+    }
+    assertEquals(20, rowNums.size());
+    for (int i = 0; i < rowNums.size(); i++) {
+      assertEquals(Integer.toString(i + 1), rowNums.get(i));
+    }
+  }
+
+  @Test
+  public void testSplitWithPrefixAndCData() throws Exception {
+    StringBuilder sb = new StringBuilder(HEADER)
+            .append("<!-- comment <x:sheetData> -->")
+            .append("<x:worksheet xmlns:x=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><x:sheetData>");
+    for (int i = 1; i <= 10; i++) {
+      sb.append("<x:row r=\"").append(i).append("\"><x:c r=\"A").append(i)
+              .append("\" t=\"inlineStr\"><x:is><x:t><![CDATA[<x:row r=\"99\">]]></x:t></x:is></x:c></x:row>");
+    }
+    sb.append("</x:sheetData></x:worksheet>");
+    SheetXmlChunks chunks = SheetXmlChunks.split(sb.toString().getBytes(StandardCharsets.UTF_8), 1);
+    assertNotNull(chunks);
+    assertEquals(10, chunks.getChunkCount());
+    for (int i = 0; i < chunks.getChunkCount(); i++) {
+      List<String> elements = readElements(chunks.openChunk(i));
+      assertTrue(elements.contains("row " + (i + 1)));
+    }
+  }
+
+  @Test
+  public void testCannotSplit() {
+    assertNull(split("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData/></worksheet>"));
+    assertNull(split("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData></sheetData></worksheet>"));
+    assertNull(split("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>" +
+            "<row r=\"1\"><c><v>1</v></c></row><row><c><v>2</v></c></row></sheetData></worksheet>"));
+  }
+
+  private static SheetXmlChunks split(String xml) {
+    return SheetXmlChunks.split((HEADER + xml).getBytes(StandardCharsets.UTF_8), 1);
+  }
+
+  private static List<String> readElements(InputStream inputStream) throws Exception {
+    List<String> elements = new ArrayList<>();
+    XMLStreamReader reader = XMLHelper.newXMLInputFactory().createXMLStreamReader(inputStream);
+    try {
+      while (reader.hasNext()) {
+        if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+          String name = reader.getLocalName();
+          elements.add("row".equals(name) ? "row " + reader.getAttributeValue(null, "r") : name);
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    return elements;
+  }
+}
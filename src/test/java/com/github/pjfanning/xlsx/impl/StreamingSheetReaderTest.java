@@ -1,15 +1,26 @@
 package com.github.pjfanning.xlsx.impl;
 
+import com.github.pjfanning.xlsx.CloseableIterator;
+import com.github.pjfanning.xlsx.StreamingReader;
 import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 public class StreamingSheetReaderTest {
   @Test
@@ -36,4 +47,102 @@ public class StreamingSheetReaderTest {
       reader.close();
     }
   }
+
+  @Test
+  public void testParallelParsingOfCellsWithoutRefs() throws Exception {
+    // the cells have no r attribute, so their columns are based on the first column of the dimension,
+    // which is only in the first chunk
+    StringBuilder sb = new StringBuilder("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">")
+            .append("<dimension ref=\"C1:D40000\"/><sheetData>");
+    for (int rowNum = 1; rowNum <= 40000; rowNum++) {
+      sb.append("<row r=\"").append(rowNum).append("\"><c><v>").append(rowNum)
+              .append("</v></c><c><v>").append(rowNum * 2).append("</v></c></row>");
+    }
+    sb.append("</sheetData><mergeCells count=\"1\"><mergeCell ref=\"C1:D1\"/></mergeCells></worksheet>");
+    byte[] xml = sb.toString().getBytes(StandardCharsets.UTF_8);
+    Assert.assertTrue(SheetXmlChunks.split(xml, ParallelRowIterator.CHUNK_SIZE).getChunkCount() > 1);
+
+    List<String> expected = new ArrayList<>();
+    StreamingSheetReader reader = new StreamingSheetReader(StreamingReader.builder(),
+            () -> new ByteArrayInputStream(xml), false, null, null, false);
+    try {
+      for (Row row : reader) {
+        expected.add(describeRow(row));
+      }
+      Assert.assertEquals(1, reader.getMergedCells().size());
+    } finally {
+      reader.close();
+    }
+    Assert.assertEquals(40000, expected.size());
+    Assert.assertEquals("0,2=1.0,3=2.0", expected.get(0));
+
+    reader = new StreamingSheetReader(StreamingReader.builder().setParallelSheetParsing(true),
+            () -> new ByteArrayInputStream(xml), false, null, null, false);
+    try {
+      List<String> actual = new ArrayList<>();
+      for (Row row : reader) {
+        actual.add(describeRow(row));
+      }
+      Assert.assertEquals(expected, actual);
+      Assert.assertEquals(1, reader.getMergedCells().size());
+      Assert.assertEquals(expected, StreamSupport.stream(reader.spliterator(), true)
+              .map(StreamingSheetReaderTest::describeRow).collect(Collectors.toList()));
+      Assert.assertEquals(1, reader.getMergedCells().size());
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testCloseStopsParallelIterator() throws Exception {
+    StringBuilder sb = new StringBuilder("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">")
+            .append("<sheetData>");
+    for (int rowNum = 1; rowNum <= 40000; rowNum++) {
+      sb.append("<row r=\"").append(rowNum).append("\"><c r=\"A").append(rowNum).append("\"><v>").append(rowNum)
+              .append("</v></c><c r=\"B").append(rowNum).append("\"><v>1</v></c></row>");
+    }
+    sb.append("</sheetData></worksheet>");
+    byte[] xml = sb.toString().getBytes(StandardCharsets.UTF_8);
+    StreamingSheetReader reader = new StreamingSheetReader(StreamingReader.builder().setParallelSheetParsing(true),
+            () -> new ByteArrayInputStream(xml), false, null, null, false);
+    CloseableIterator<Row> iterator = reader.iterator();
+    Assert.assertTrue(iterator instanceof ParallelRowIterator);
+    Assert.assertEquals(0, iterator.next().getRowNum());
+    reader.close();
+    Assert.assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void testInvalidStyleIndexUsesDefaultStyle() throws Exception {
+    try (XSSFWorkbook wb = new XSSFWorkbook()) {
+      XSSFCellStyle dateStyle = wb.createCellStyle();
+      dateStyle.setDataFormat(wb.createDataFormat().getFormat("yyyy-mm-dd"));
+      String xml = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>"
+              + "<row r=\"1\"><c r=\"A1\" s=\"" + dateStyle.getIndex() + "\"><v>1</v></c>"
+              + "<c r=\"B1\" s=\"999\"><v>2</v></c><c r=\"C1\" s=\"abc\"><v>3</v></c>"
+              + "<c r=\"D1\" s=\"-1\"><v>4</v></c></row></sheetData></worksheet>";
+      StreamingSheetReader reader = new StreamingSheetReader(StreamingReader.builder(),
+              () -> new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), false, null,
+              CellStyleFormats.of(wb.getStylesSource()), false);
+      try {
+        Row row = reader.iterator().next();
+        Assert.assertEquals(dateStyle.getIndex(), row.getCell(0).getCellStyle().getIndex());
+        Assert.assertEquals("yyyy-mm-dd", row.getCell(0).getCellStyle().getDataFormatString());
+        for (int col = 1; col <= 3; col++) {
+          Assert.assertEquals(0, row.getCell(col).getCellStyle().getIndex());
+          Assert.assertEquals("General", row.getCell(col).getCellStyle().getDataFormatString());
+        }
+      } finally {
+        reader.close();
+      }
+    }
+  }
+
+  private static String describeRow(Row row) {
+    StringBuilder sb = new StringBuilder().append(row.getRowNum());
+    for (Cell cell : row) {
+      sb.append(',').append(cell.getColumnIndex()).append('=').append(cell.getNumericCellValue());
+    }
+    return sb.toString();
+  }
 }
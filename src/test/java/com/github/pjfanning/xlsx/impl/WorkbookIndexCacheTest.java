@@ -0,0 +1,164 @@
+package com.github.pjfanning.xlsx.impl;
+
+import com.github.pjfanning.xlsx.StreamingReader;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.Assert.*;
+
+public class WorkbookIndexCacheTest {
+  private static final String SST = "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"5\" uniqueCount=\"3\">"
+          + "<si><t>plain</t></si><si><t/></si><si><t>売上 😀</t></si></sst>";
+  private static final String SHEET = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>"
+          + "<row r=\"1\"/><row r=\"2\"/><row r=\"5\"/></sheetData></worksheet>";
+
+  @Test
+  public void testSaveAndLoad() throws Exception {
+    Path cacheDir = Files.createTempDirectory("xlsx-index-cache");
+    try {
+      WorkbookIndexCache cache = WorkbookIndexCache.create(cacheDir.resolve("sub"),
+              new File("src/test/resources/large.xlsx"));
+      assertNull(cache.loadSharedStrings(false));
+      assertNull(cache.loadRowOffsetIndex("/xl/worksheets/sheet1.xml", 1));
+
+      try (OffHeapSharedStringsTable sst = new OffHeapSharedStringsTable(
+              new ByteArrayInputStream(SST.getBytes(StandardCharsets.UTF_8)), false)) {
+        cache.saveSharedStrings(sst, false);
+      }
+      assertNull(cache.loadSharedStrings(true));
+      try (OffHeapSharedStringsTable sst = cache.loadSharedStrings(false)) {
+        assertNotNull(sst);
+        assertEquals(5, sst.getCount());
+        assertEquals(3, sst.getUniqueCount());
+        assertEquals("plain", sst.getItemAt(0).getString());
+        assertEquals("", sst.getItemAt(1).getString());
+        assertEquals("売上 😀", sst.getItemAt(2).getString());
+        assertThrows(IndexOutOfBoundsException.class, () -> sst.getItemAt(3));
+      }
+
+      RowOffsetIndex index = RowOffsetIndex.build(new ByteArrayInputStream(SHEET.getBytes(StandardCharsets.UTF_8)), 1);
+      cache.saveRowOffsetIndex("/xl/worksheets/sheet1.xml", 1, index);
+      assertNull(cache.loadRowOffsetIndex("/xl/worksheets/sheet1.xml", 2));
+      assertNull(cache.loadRowOffsetIndex("/xl/worksheets/sheet2.xml", 1));
+      RowOffsetIndex loaded = cache.loadRowOffsetIndex("/xl/worksheets/sheet1.xml", 1);
+      assertNotNull(loaded);
+      assertEquals(3, loaded.getRowCount());
+      assertEquals(2, loaded.getCheckpointCount());
+      assertEquals(4, loaded.getCheckpointRowNum(10));
+    } finally {
+      FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+  }
+
+  @Test
+  public void testKeyDependsOnContent() throws Exception {
+    Path cacheDir = Files.createTempDirectory("xlsx-index-cache");
+    try {
+      WorkbookIndexCache cache = WorkbookIndexCache.create(cacheDir, new File("src/test/resources/large.xlsx"));
+      try (OffHeapSharedStringsTable sst = new OffHeapSharedStringsTable(
+              new ByteArrayInputStream(SST.getBytes(StandardCharsets.UTF_8)), false)) {
+        cache.saveSharedStrings(sst, false);
+      }
+      assertNotNull(WorkbookIndexCache.create(cacheDir, new File("src/test/resources/large.xlsx"))
+              .loadSharedStrings(false));
+      assertNull(WorkbookIndexCache.create(cacheDir, new File("src/test/resources/data_types.xlsx"))
+              .loadSharedStrings(false));
+    } finally {
+      FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+  }
+
+  @Test
+  public void testFingerprintAvoidsHashing() throws Exception {
+    Path cacheDir = Files.createTempDirectory("xlsx-index-cache");
+    try {
+      File workbookFile = cacheDir.resolve("workbook.xlsx").toFile();
+      FileUtils.copyFile(new File("src/test/resources/large.xlsx"), workbookFile);
+      String key = WorkbookIndexCache.create(cacheDir, workbookFile).getKey();
+      assertEquals(1, countFiles(cacheDir, ".key"));
+
+      // same path, size and last modified time: the stored hash is used without reading the file
+      FileTime lastModified = Files.getLastModifiedTime(workbookFile.toPath());
+      byte[] content = Files.readAllBytes(workbookFile.toPath());
+      content[content.length / 2] ^= 1;
+      Files.write(workbookFile.toPath(), content);
+      Files.setLastModifiedTime(workbookFile.toPath(), lastModified);
+      assertEquals(key, WorkbookIndexCache.create(cacheDir, workbookFile).getKey());
+
+      // a new last modified time means that the file is hashed again
+      Files.setLastModifiedTime(workbookFile.toPath(), FileTime.fromMillis(lastModified.toMillis() + 60000));
+      assertNotEquals(key, WorkbookIndexCache.create(cacheDir, workbookFile).getKey());
+      assertEquals(2, countFiles(cacheDir, ".key"));
+
+      // a copy with the same content has a different fingerprint but the same hash
+      File copy = cacheDir.resolve("copy.xlsx").toFile();
+      FileUtils.copyFile(new File("src/test/resources/large.xlsx"), copy);
+      assertEquals(key, WorkbookIndexCache.create(cacheDir, copy).getKey());
+    } finally {
+      FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+  }
+
+  @Test
+  public void testMaxSize() throws Exception {
+    Path cacheDir = Files.createTempDirectory("xlsx-index-cache");
+    try {
+      // the files of each workbook (the key file and the shared strings file) have the same size
+      Path sizeDir = cacheDir.resolve("size");
+      WorkbookIndexCache sizeCache = WorkbookIndexCache.create(sizeDir, new File("src/test/resources/large.xlsx"));
+      try (OffHeapSharedStringsTable sst = new OffHeapSharedStringsTable(
+              new ByteArrayInputStream(SST.getBytes(StandardCharsets.UTF_8)), false)) {
+        sizeCache.saveSharedStrings(sst, false);
+      }
+      long workbookSize = FileUtils.sizeOfDirectory(sizeDir.toFile());
+      FileUtils.deleteDirectory(sizeDir.toFile());
+      // room for the files of 2 workbooks
+      long maxSize = 2 * workbookSize + workbookSize / 2;
+
+      String[] workbooks = {"large.xlsx", "data_types.xlsx", "sheets.xlsx"};
+      WorkbookIndexCache[] caches = new WorkbookIndexCache[workbooks.length];
+      for (int i = 0; i < workbooks.length; i++) {
+        caches[i] = WorkbookIndexCache.create(cacheDir, new File("src/test/resources/" + workbooks[i]), maxSize);
+        try (OffHeapSharedStringsTable sst = new OffHeapSharedStringsTable(
+                new ByteArrayInputStream(SST.getBytes(StandardCharsets.UTF_8)), false)) {
+          caches[i].saveSharedStrings(sst, false);
+        }
+        // make sure that the files of each workbook have a different last modified time
+        for (File file : cacheDir.toFile().listFiles()) {
+          if (file.getName().startsWith(caches[i].getKey()) || file.getName().endsWith(".key")) {
+            Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(System.currentTimeMillis() - 60000L * (workbooks.length - i)));
+          }
+        }
+      }
+      long totalSize = FileUtils.sizeOfDirectory(cacheDir.toFile());
+      assertTrue("total size " + totalSize, totalSize <= maxSize);
+      assertNull(caches[0].loadSharedStrings(false));
+      try (OffHeapSharedStringsTable sst = caches[1].loadSharedStrings(false)) {
+        assertNotNull(sst);
+      }
+      try (OffHeapSharedStringsTable sst = caches[2].loadSharedStrings(false)) {
+        assertNotNull(sst);
+      }
+      assertThrows(IllegalArgumentException.class, () -> StreamingReader.builder().setIndexCacheMaxSize(-1));
+    } finally {
+      FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+  }
+
+  private static int countFiles(Path directory, String suffix) {
+    int count = 0;
+    for (File file : directory.toFile().listFiles()) {
+      if (file.getName().endsWith(suffix)) {
+        count++;
+      }
+    }
+    return count;
+  }
+}